@@ -19,7 +19,9 @@ package com.hazelcast.aggregation.impl;
 import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.internal.json.NonTerminalJsonValue;
 import com.hazelcast.query.impl.Extractable;
+import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.getters.MultiResult;
+import com.hazelcast.query.impl.getters.PrimitiveAccessor;
 
 import java.util.List;
 import java.util.Map;
@@ -38,6 +40,10 @@ import java.util.Objects;
  * accumulated instead of the whole input object.
  * </li>
  * </ul>
+ * If the aggregator implements {@link LongAccumulatingAggregator} or
+ * {@link DoubleAccumulatingAggregator} and the attribute is a numeric
+ * primitive attribute of a {@link QueryableEntry}'s value, the attribute is
+ * read and accumulated without boxing.
  *
  * @param <I> input type
  * @param <E> extracted value type
@@ -55,8 +61,19 @@ public abstract class AbstractAggregator<I, E, R> implements Aggregator<I, R> {
         this.attributePath = attributePath;
     }
 
+    /**
+     * @return the attribute path the aggregator aggregates or {@code null}
+     * if it aggregates the whole input objects.
+     */
+    public String getAttributePath() {
+        return attributePath;
+    }
+
     @Override
     public final void accumulate(I entry) {
+        if (attributePath != null && entry instanceof QueryableEntry && accumulatePrimitive((QueryableEntry) entry)) {
+            return;
+        }
 
         E extractedValue = extract(entry);
         if (extractedValue instanceof MultiResult) {
@@ -80,6 +97,34 @@ public abstract class AbstractAggregator<I, E, R> implements Aggregator<I, R> {
         }
     }
 
+    /**
+     * Accumulates the attribute of the given entry without boxing it, if
+     * both the aggregator and the attribute support it.
+     *
+     * @return {@code true} if the attribute was accumulated, otherwise
+     * {@code false}
+     */
+    private boolean accumulatePrimitive(QueryableEntry entry) {
+        boolean longs = this instanceof LongAccumulatingAggregator;
+        boolean doubles = this instanceof DoubleAccumulatingAggregator;
+        if (!longs && !doubles) {
+            return false;
+        }
+        PrimitiveAccessor accessor = entry.getPrimitiveAccessor(attributePath);
+        if (accessor == null) {
+            return false;
+        }
+        if (longs && accessor.isLongReadable()) {
+            ((LongAccumulatingAggregator) this).accumulateLong(entry.getLongAttributeValue(accessor));
+            return true;
+        }
+        if (doubles && accessor.isDoubleReadable()) {
+            ((DoubleAccumulatingAggregator) this).accumulateDouble(entry.getDoubleAttributeValue(accessor));
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Extract the value of the given attributePath from the given entry.
      */
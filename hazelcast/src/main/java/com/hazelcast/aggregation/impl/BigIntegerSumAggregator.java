@@ -25,7 +25,7 @@ import java.io.IOException;
 import java.math.BigInteger;
 
 public final class BigIntegerSumAggregator<I> extends AbstractAggregator<I, BigInteger, BigInteger>
-        implements IdentifiedDataSerializable {
+        implements IndexAwareAggregator, IdentifiedDataSerializable {
 
     private BigInteger sum = BigInteger.ZERO;
 
@@ -42,6 +42,16 @@ public final class BigIntegerSumAggregator<I> extends AbstractAggregator<I, BigI
         sum = sum.add(value);
     }
 
+    @Override
+    public boolean acceptsConvertedValues() {
+        return false;
+    }
+
+    @Override
+    public void accumulateIndexed(Object value, long count) {
+        sum = sum.add(((BigInteger) value).multiply(BigInteger.valueOf(count)));
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         BigIntegerSumAggregator longSumAggregator = (BigIntegerSumAggregator) aggregator;
@@ -30,7 +30,7 @@ import java.util.Set;
 @SuppressFBWarnings("SE_BAD_FIELD")
 public final class DistinctValuesAggregator<I, R>
         extends AbstractAggregator<I, R, Set<R>>
-        implements IdentifiedDataSerializable {
+        implements IndexAwareAggregator, IdentifiedDataSerializable {
 
     private CanonicalizingHashSet<R> values = new CanonicalizingHashSet<>();
 
@@ -47,6 +47,17 @@ public final class DistinctValuesAggregator<I, R>
         values.addInternal(value);
     }
 
+    @Override
+    public boolean acceptsConvertedValues() {
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void accumulateIndexed(Object value, long count) {
+        values.addInternal((R) value);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public void combine(Aggregator aggregator) {
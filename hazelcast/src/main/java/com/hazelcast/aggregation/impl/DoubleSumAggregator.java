@@ -26,7 +26,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Number, Double>
-        implements IdentifiedDataSerializable {
+        implements DoubleAccumulatingAggregator, IndexAwareAggregator, IdentifiedDataSerializable {
 
     private double sum;
 
@@ -43,6 +43,21 @@ public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Number,
         sum += Numbers.asDoubleExactly(value);
     }
 
+    @Override
+    public boolean acceptsConvertedValues() {
+        return false;
+    }
+
+    @Override
+    public void accumulateIndexed(Object value, long count) {
+        sum += Numbers.asDoubleExactly((Number) value) * count;
+    }
+
+    @Override
+    public void accumulateDouble(double value) {
+        sum += value;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         DoubleSumAggregator longSumAggregator = (DoubleSumAggregator) aggregator;
@@ -24,7 +24,8 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import java.io.IOException;
 import java.util.Objects;
 
-public final class FixedSumAggregator<I> extends AbstractAggregator<I, Number, Long> implements IdentifiedDataSerializable {
+public final class FixedSumAggregator<I> extends AbstractAggregator<I, Number, Long>
+        implements LongAccumulatingAggregator, IndexAwareAggregator, IdentifiedDataSerializable {
 
     private long sum;
 
@@ -41,6 +42,21 @@ public final class FixedSumAggregator<I> extends AbstractAggregator<I, Number, L
         sum += value.longValue();
     }
 
+    @Override
+    public boolean acceptsConvertedValues() {
+        return false;
+    }
+
+    @Override
+    public void accumulateIndexed(Object value, long count) {
+        sum += ((Number) value).longValue() * count;
+    }
+
+    @Override
+    public void accumulateLong(long value) {
+        sum += value;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         FixedSumAggregator longSumAggregator = (FixedSumAggregator) aggregator;
@@ -25,7 +25,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 public final class FloatingPointSumAggregator<I> extends AbstractAggregator<I, Number, Double>
-        implements IdentifiedDataSerializable {
+        implements DoubleAccumulatingAggregator, IndexAwareAggregator, IdentifiedDataSerializable {
 
     private double sum;
 
@@ -42,6 +42,21 @@ public final class FloatingPointSumAggregator<I> extends AbstractAggregator<I, N
         sum += value.doubleValue();
     }
 
+    @Override
+    public boolean acceptsConvertedValues() {
+        return false;
+    }
+
+    @Override
+    public void accumulateIndexed(Object value, long count) {
+        sum += ((Number) value).doubleValue() * count;
+    }
+
+    @Override
+    public void accumulateDouble(double value) {
+        sum += value;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         FloatingPointSumAggregator longSumAggregator = (FloatingPointSumAggregator) aggregator;
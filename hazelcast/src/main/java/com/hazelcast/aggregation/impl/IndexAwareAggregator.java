@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+/**
+ * Aggregator which can accumulate the values of its attribute directly from
+ * an index of the attribute. The query engine uses it to perform an
+ * aggregation of an indexed attribute without accessing the entries, and so
+ * without deserializing their values, if the predicate of the aggregation
+ * can be answered by the same index.
+ */
+public interface IndexAwareAggregator {
+
+    /**
+     * @return the attribute path the aggregator aggregates or {@code null}
+     * if it aggregates the whole entries.
+     */
+    String getAttributePath();
+
+    /**
+     * Tells whether the aggregator can accumulate the values as they are
+     * stored by unordered indexes, which store numbers in a canonical
+     * representation, and by indexes of enum attributes, which store the
+     * names of the enum constants.
+     *
+     * @return {@code true} if the converted values can be accumulated,
+     * {@code false} if the aggregator needs the original attribute values.
+     */
+    boolean acceptsConvertedValues();
+
+    /**
+     * Accumulates the given attribute value of the given number of entries,
+     * it must have the same effect as accumulating the value of each of the
+     * entries.
+     *
+     * @param value the attribute value, may be {@code null}.
+     * @param count the number of entries having the value, positive.
+     */
+    void accumulateIndexed(Object value, long count);
+}
@@ -26,7 +26,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 public final class IntegerSumAggregator<I> extends AbstractAggregator<I, Number, Long>
-        implements IdentifiedDataSerializable {
+        implements LongAccumulatingAggregator, IndexAwareAggregator, IdentifiedDataSerializable {
 
     private long sum;
 
@@ -43,6 +43,21 @@ public final class IntegerSumAggregator<I> extends AbstractAggregator<I, Number,
         sum += Numbers.asIntExactly(value);
     }
 
+    @Override
+    public boolean acceptsConvertedValues() {
+        return false;
+    }
+
+    @Override
+    public void accumulateIndexed(Object value, long count) {
+        sum += (long) Numbers.asIntExactly((Number) value) * count;
+    }
+
+    @Override
+    public void accumulateLong(long value) {
+        sum += Numbers.asIntExactly(value);
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         IntegerSumAggregator integerSumAggregator = (IntegerSumAggregator) aggregator;
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+/**
+ * Aggregator which accumulates long values without boxing them. If the
+ * attribute an {@link AbstractAggregator} aggregates is a numeric primitive
+ * attribute of the entry value which can be read exactly as long, the
+ * attribute is read by a {@link com.hazelcast.query.impl.getters.PrimitiveAccessor}
+ * and passed to {@link #accumulateLong(long)} instead of
+ * {@link AbstractAggregator#accumulateExtracted(Object, Object)}.
+ */
+interface LongAccumulatingAggregator {
+
+    /**
+     * Accumulates a single extracted long value, it must have the same
+     * effect as passing the boxed value to
+     * {@link AbstractAggregator#accumulateExtracted(Object, Object)}.
+     *
+     * @param value the extracted value
+     */
+    void accumulateLong(long value);
+}
@@ -26,7 +26,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 public final class MaxAggregator<I, R extends Comparable> extends AbstractAggregator<I, R, R>
-        implements IdentifiedDataSerializable {
+        implements IndexAwareAggregator, IdentifiedDataSerializable {
 
     private R max;
 
@@ -45,6 +45,20 @@ public final class MaxAggregator<I, R extends Comparable> extends AbstractAggreg
         }
     }
 
+    @Override
+    public boolean acceptsConvertedValues() {
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void accumulateIndexed(Object value, long count) {
+        R comparable = (R) value;
+        if (isCurrentlyLessThan(comparable)) {
+            max = comparable;
+        }
+    }
+
     private boolean isCurrentlyLessThan(R otherValue) {
         if (otherValue == null) {
             return false;
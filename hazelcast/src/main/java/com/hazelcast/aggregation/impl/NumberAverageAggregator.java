@@ -25,7 +25,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 public final class NumberAverageAggregator<I> extends AbstractAggregator<I, Number, Double>
-        implements IdentifiedDataSerializable {
+        implements DoubleAccumulatingAggregator, IdentifiedDataSerializable {
 
     private double sum;
 
@@ -45,6 +45,12 @@ public final class NumberAverageAggregator<I> extends AbstractAggregator<I, Numb
         sum += value.doubleValue();
     }
 
+    @Override
+    public void accumulateDouble(double value) {
+        count++;
+        sum += value;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         NumberAverageAggregator doubleAverageAggregator = (NumberAverageAggregator) aggregator;
@@ -77,6 +77,10 @@ public abstract class AbstractCacheSyncListenerCompleter
         }
     }
 
+    public boolean hasSyncListenerRegistrations() {
+        return !syncListenerRegistrations.isEmpty();
+    }
+
     public Integer registerCompletionLatch(int count) {
         return registerCompletionLatch(completionIdCounter.incrementAndGet(), count);
     }
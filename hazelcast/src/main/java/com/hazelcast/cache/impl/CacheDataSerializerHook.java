@@ -51,6 +51,7 @@ import com.hazelcast.cache.impl.operation.CacheMergeOperationFactory;
 import com.hazelcast.cache.impl.operation.CacheNearCacheStateHolder;
 import com.hazelcast.cache.impl.operation.CachePutAllBackupOperation;
 import com.hazelcast.cache.impl.operation.CachePutAllOperation;
+import com.hazelcast.cache.impl.operation.CachePutAllOperationFactory;
 import com.hazelcast.cache.impl.operation.CachePutBackupOperation;
 import com.hazelcast.cache.impl.operation.CachePutIfAbsentOperation;
 import com.hazelcast.cache.impl.operation.CachePutOperation;
@@ -162,8 +163,9 @@ public final class CacheDataSerializerHook
     public static final int EXPIRE_BATCH_BACKUP = 65;
     public static final int CACHE_DESTROY_EVENT_CONTEXT = 66;
     public static final int CACHE_CONFIG = 67;
+    public static final int PUT_ALL_FACTORY = 68;
 
-    private static final int LEN = CACHE_CONFIG + 1;
+    private static final int LEN = PUT_ALL_FACTORY + 1;
 
     public int getFactoryId() {
         return F_ID;
@@ -238,6 +240,7 @@ public final class CacheDataSerializerHook
         constructors[EXPIRE_BATCH_BACKUP] = arg -> new CacheExpireBatchBackupOperation();
         constructors[CACHE_DESTROY_EVENT_CONTEXT] = arg -> new CacheDestroyEventContext();
         constructors[CACHE_CONFIG] = arg -> new CacheConfig<>();
+        constructors[PUT_ALL_FACTORY] = arg -> new CachePutAllOperationFactory();
 
         return new ArrayDataSerializableFactory(constructors);
     }
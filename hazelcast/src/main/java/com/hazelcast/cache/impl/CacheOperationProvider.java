@@ -38,6 +38,15 @@ public interface CacheOperationProvider {
 
     Operation createPutAllOperation(List<Map.Entry<Data, Data>> entries, ExpiryPolicy policy, int completionId);
 
+    /**
+     * Creates a factory which puts the given entries into all partitions
+     * of a member with a single invocation per member.
+     *
+     * @see CacheProxy#putAll(Map, ExpiryPolicy)
+     */
+    OperationFactory createPutAllOperationFactory(int[] partitions, List<Map.Entry<Data, Data>>[] entries,
+                                                  ExpiryPolicy policy);
+
     Operation createGetOperation(Data key, ExpiryPolicy policy);
 
     Operation createContainsKeyOperation(Data key);
@@ -28,7 +28,6 @@ import com.hazelcast.internal.config.CacheConfigReadOnly;
 import com.hazelcast.internal.journal.EventJournalInitialSubscriberState;
 import com.hazelcast.internal.journal.EventJournalReader;
 import com.hazelcast.internal.util.Clock;
-import com.hazelcast.internal.util.collection.PartitionIdSet;
 import com.hazelcast.map.impl.MapEntries;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.ringbuffer.ReadResultSet;
@@ -57,8 +56,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -496,22 +497,14 @@ public class CacheProxy<K, V> extends CacheProxySupport<K, V>
         if (keys.isEmpty()) {
             return emptyMap();
         }
-        final int keyCount = keys.size();
-        final Set<Data> ks = createHashSet(keyCount);
-        for (K key : keys) {
-            validateNotNull(key);
-            Data dataKey = serializationService.toData(key);
-            ks.add(dataKey);
-        }
-        Map<K, V> result = createHashMap(keyCount);
-        PartitionIdSet partitions = getPartitionsForKeys(ks);
+        Set<Data> ks = toDataKeys(keys);
+        Map<K, V> result = createHashMap(ks.size());
         try {
-            OperationFactory factory = operationProvider.createGetAllOperationFactory(ks, expiryPolicy);
-            OperationService operationService = getNodeEngine().getOperationService();
-            Map<Integer, Object> responses = operationService.invokeOnPartitions(getServiceName(), factory, partitions);
-            for (Object response : responses.values()) {
-                MapEntries mapEntries = serializationService.toObject(response);
-                mapEntries.putAllToMap(serializationService, result);
+            for (CompletableFuture<Map<Integer, Object>> future : invokeGetAllOnOwners(ks, expiryPolicy)) {
+                for (Object response : future.get().values()) {
+                    MapEntries mapEntries = serializationService.toObject(response);
+                    mapEntries.putAllToMap(serializationService, result);
+                }
             }
         } catch (Throwable e) {
             throw rethrowAllowedTypeFirst(e, CacheException.class);
@@ -519,6 +512,60 @@ public class CacheProxy<K, V> extends CacheProxySupport<K, V>
         return result;
     }
 
+    /**
+     * Streaming variant of {@link #getAll(Set, ExpiryPolicy)}.
+     * <p>
+     * Sends a single request to each member owning some of the keys and
+     * passes the found entries to the {@code consumer} as soon as the
+     * response of the member arrives, instead of waiting for the slowest
+     * member before any of the entries can be processed. The consumer is
+     * called from the threads receiving the responses, but never
+     * concurrently. Keys which are not found are not passed to the consumer.
+     *
+     * @param keys         the keys whose associated values are to be returned
+     * @param expiryPolicy the expiry policy for the request, may be {@code null}
+     * @param consumer     the consumer of the found entries
+     * @return a future which is completed once all members have responded and
+     * their entries have been consumed
+     */
+    public CompletableFuture<Void> getAllAsync(Set<? extends K> keys, ExpiryPolicy expiryPolicy,
+                                               BiConsumer<? super K, ? super V> consumer) {
+        ensureOpen();
+        validateNotNull(keys);
+        checkNotNull(consumer, "consumer cannot be null");
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Set<Data> ks = toDataKeys(keys);
+        List<CompletableFuture<Map<Integer, Object>>> futures = invokeGetAllOnOwners(ks, expiryPolicy);
+        CompletableFuture[] consumed = new CompletableFuture[futures.size()];
+        Object mutex = new Object();
+        for (int i = 0; i < consumed.length; i++) {
+            consumed[i] = futures.get(i).thenAccept(responses -> {
+                synchronized (mutex) {
+                    for (Object response : responses.values()) {
+                        MapEntries mapEntries = serializationService.toObject(response);
+                        for (int j = 0; j < mapEntries.size(); j++) {
+                            K key = serializationService.toObject(mapEntries.getKey(j));
+                            V value = serializationService.toObject(mapEntries.getValue(j));
+                            consumer.accept(key, value);
+                        }
+                    }
+                }
+            });
+        }
+        return CompletableFuture.allOf(consumed);
+    }
+
+    private Set<Data> toDataKeys(Set<? extends K> keys) {
+        Set<Data> ks = createHashSet(keys.size());
+        for (K key : keys) {
+            validateNotNull(key);
+            ks.add(serializationService.toData(key));
+        }
+        return ks;
+    }
+
     @Override
     public void put(K key, V value, ExpiryPolicy expiryPolicy) {
         try {
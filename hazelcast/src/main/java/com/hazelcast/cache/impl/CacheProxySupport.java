@@ -22,6 +22,7 @@ import com.hazelcast.cache.impl.event.CachePartitionLostListener;
 import com.hazelcast.cache.impl.event.InternalCachePartitionLostListenerAdapter;
 import com.hazelcast.cache.impl.operation.CacheListenerRegistrationOperation;
 import com.hazelcast.cache.impl.operation.MutableOperation;
+import com.hazelcast.cluster.Address;
 import com.hazelcast.cluster.Member;
 import com.hazelcast.config.CacheConfig;
 import com.hazelcast.config.CachePartitionLostListenerConfig;
@@ -43,6 +44,7 @@ import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.OperationFactory;
 import com.hazelcast.spi.impl.operationservice.OperationService;
 import com.hazelcast.spi.impl.operationservice.impl.InvocationFuture;
+import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 import com.hazelcast.internal.partition.IPartitionService;
 
 import javax.annotation.Nonnull;
@@ -56,11 +58,14 @@ import javax.cache.processor.EntryProcessorException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EventListener;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -69,9 +74,11 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import static com.hazelcast.cache.impl.CacheProxyUtil.validateNotNull;
 import static com.hazelcast.cache.impl.operation.MutableOperation.IGNORE_COMPLETION;
+import static com.hazelcast.internal.util.CollectionUtil.toIntArray;
 import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
 import static com.hazelcast.internal.util.ExceptionUtil.rethrowAllowedTypeFirst;
 import static com.hazelcast.internal.util.SetUtil.createHashSet;
+import static java.util.Collections.singletonMap;
 import com.hazelcast.spi.tenantcontrol.DestroyEventContext;
 
 /**
@@ -394,12 +401,22 @@ abstract class CacheProxySupport<K, V>
                 keysData.add(serializationService.toData(key));
             }
         }
-        int partitionCount = getNodeEngine().getPartitionService().getPartitionCount();
+        // without keys all partitions are cleared, otherwise only the partitions of the keys are touched
+        Collection<Integer> partitions = keysData == null ? null : getPartitionsForKeys(keysData);
+        int partitionCount = partitions == null ? partitionService.getPartitionCount() : partitions.size();
+        if (partitionCount > 0) {
+            removeAllInternal(keysData, partitions, partitionCount);
+        }
+    }
+
+    private void removeAllInternal(Set<Data> keysData, Collection<Integer> partitions, int partitionCount) {
         Integer completionId = listenerCompleter.registerCompletionLatch(partitionCount);
         OperationService operationService = getNodeEngine().getOperationService();
         OperationFactory operationFactory = operationProvider.createRemoveAllOperationFactory(keysData, completionId);
         try {
-            Map<Integer, Object> results = operationService.invokeOnAllPartitions(getServiceName(), operationFactory);
+            Map<Integer, Object> results = partitions == null
+                    ? operationService.invokeOnAllPartitions(getServiceName(), operationFactory)
+                    : operationService.invokeOnPartitions(getServiceName(), operationFactory, partitions);
             int completionCount = 0;
             for (Object result : results.values()) {
                 if (result != null && result instanceof CacheClearResponse) {
@@ -487,6 +504,12 @@ abstract class CacheProxySupport<K, V>
 
     protected void putToAllPartitionsAndWaitForCompletion(List<Map.Entry<Data, Data>>[] entriesPerPartition,
                                                         ExpiryPolicy expiryPolicy) throws Exception {
+        if (!listenerCompleter.hasSyncListenerRegistrations()) {
+            // completion of synchronous listeners is awaited per partition operation,
+            // so entries can only be grouped per member when there are none
+            putToAllMembersAndWaitForCompletion(entriesPerPartition, expiryPolicy);
+            return;
+        }
         List<Future> futures = new ArrayList<>(entriesPerPartition.length);
         for (int partitionId = 0; partitionId < entriesPerPartition.length; partitionId++) {
             List<Map.Entry<Data, Data>> entries = entriesPerPartition[partitionId];
@@ -528,6 +551,96 @@ abstract class CacheProxySupport<K, V>
         }
     }
 
+    /**
+     * Puts the entries with a single invocation per member, which
+     * executes the {@link com.hazelcast.cache.impl.operation.CachePutAllOperation}
+     * of each of its partitions locally.
+     */
+    private void putToAllMembersAndWaitForCompletion(List<Map.Entry<Data, Data>>[] entriesPerPartition,
+                                                     ExpiryPolicy expiryPolicy) {
+        Map<Address, List<Integer>> partitionsPerMember = new HashMap<>();
+        for (int partitionId = 0; partitionId < entriesPerPartition.length; partitionId++) {
+            if (entriesPerPartition[partitionId] != null) {
+                Address owner = partitionService.getPartitionOwnerOrWait(partitionId);
+                partitionsPerMember.computeIfAbsent(owner, k -> new ArrayList<>()).add(partitionId);
+            }
+        }
+
+        OperationService operationService = getNodeEngine().getOperationService();
+        List<CompletableFuture<Map<Integer, Object>>> futures = new ArrayList<>(partitionsPerMember.size());
+        for (Map.Entry<Address, List<Integer>> memberPartitions : partitionsPerMember.entrySet()) {
+            int[] partitions = toIntArray(memberPartitions.getValue());
+            //noinspection unchecked
+            List<Map.Entry<Data, Data>>[] entries = new List[partitions.length];
+            for (int i = 0; i < partitions.length; i++) {
+                entries[i] = entriesPerPartition[partitions[i]];
+            }
+            OperationFactory factory = operationProvider.createPutAllOperationFactory(partitions, entries, expiryPolicy);
+            futures.add(operationService.invokeOnPartitionsAsync(getServiceName(), factory,
+                    singletonMap(memberPartitions.getKey(), memberPartitions.getValue())));
+        }
+
+        List<Throwable> throwables = FutureUtil.waitUntilAllResponded(futures);
+        if (throwables.isEmpty()) {
+            throwables = getPartitionFailures(futures);
+        }
+        if (!throwables.isEmpty()) {
+            // see putToAllPartitionsAndWaitForCompletion for why only the first exception is thrown
+            throw rethrow(throwables.get(0));
+        }
+    }
+
+    /**
+     * Returns the failures of the partitions which failed after putting some of
+     * their entries, see {@link com.hazelcast.cache.impl.operation.CachePutAllOperationFactory}.
+     */
+    private static List<Throwable> getPartitionFailures(List<CompletableFuture<Map<Integer, Object>>> futures) {
+        List<Throwable> failures = new ArrayList<>();
+        for (CompletableFuture<Map<Integer, Object>> future : futures) {
+            for (Object result : future.join().values()) {
+                if (result instanceof ErrorResponse) {
+                    failures.add(((ErrorResponse) result).getCause());
+                }
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Invokes {@link CacheOperationProvider#createGetAllOperationFactory(Set, ExpiryPolicy) getAll}
+     * with a single invocation per member, which only carries the keys owned by that member.
+     *
+     * @return the futures of the members, each returning a map with partition ID as a key and the
+     * serialized {@link com.hazelcast.map.impl.MapEntries} of the partition as a value
+     */
+    protected List<CompletableFuture<Map<Integer, Object>>> invokeGetAllOnOwners(Set<Data> keys,
+                                                                               ExpiryPolicy expiryPolicy) {
+        Address[] owners = new Address[partitionService.getPartitionCount()];
+        Map<Address, List<Integer>> partitionsPerMember = new HashMap<>();
+        Map<Address, Set<Data>> keysPerMember = new HashMap<>();
+        for (Data key : keys) {
+            int partitionId = partitionService.getPartitionId(key);
+            Address owner = owners[partitionId];
+            if (owner == null) {
+                owner = partitionService.getPartitionOwnerOrWait(partitionId);
+                owners[partitionId] = owner;
+                partitionsPerMember.computeIfAbsent(owner, k -> new ArrayList<>()).add(partitionId);
+            }
+            keysPerMember.computeIfAbsent(owner, k -> new HashSet<>()).add(key);
+        }
+
+        OperationService operationService = getNodeEngine().getOperationService();
+        List<CompletableFuture<Map<Integer, Object>>> futures = new ArrayList<>(partitionsPerMember.size());
+        for (Map.Entry<Address, List<Integer>> memberPartitions : partitionsPerMember.entrySet()) {
+            Address owner = memberPartitions.getKey();
+            OperationFactory factory = operationProvider.createGetAllOperationFactory(keysPerMember.get(owner),
+                    expiryPolicy);
+            futures.add(operationService.invokeOnPartitionsAsync(getServiceName(), factory,
+                    singletonMap(owner, memberPartitions.getValue())));
+        }
+        return futures;
+    }
+
     protected void setTTLAllPartitionsAndWaitForCompletion(List<Data>[] keysPerPartition, Data expiryPolicy) {
         List<Future> futures = new ArrayList<>(keysPerPartition.length);
         for (int partitionId = 0; partitionId < keysPerPartition.length; partitionId++) {
@@ -18,7 +18,11 @@ package com.hazelcast.cache.impl;
 
 import com.hazelcast.cache.impl.event.CacheWanEventPublisher;
 import com.hazelcast.cache.impl.operation.CacheReplicationOperation;
+import com.hazelcast.config.CacheConfig;
 import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.InvalidConfigurationException;
+import com.hazelcast.config.NativeMemoryConfig;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
 import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataGenerator;
 import com.hazelcast.internal.partition.MigrationAwareService;
 import com.hazelcast.internal.partition.PartitionMigrationEvent;
@@ -59,6 +63,9 @@ import static com.hazelcast.internal.partition.MigrationEndpoint.SOURCE;
  */
 public class CacheService extends AbstractCacheService {
 
+    private final Object nativeMemoryManagerMutex = new Object();
+    private volatile StandardMemoryManager nativeMemoryManager;
+
     @Override
     protected CachePartitionSegment newPartitionSegment(int partitionId) {
         return new CachePartitionSegment(this, partitionId);
@@ -66,11 +73,52 @@ public class CacheService extends AbstractCacheService {
 
     @Override
     protected ICacheRecordStore createNewRecordStore(String cacheNameWithPrefix, int partitionId) {
-        CacheRecordStore recordStore = new CacheRecordStore(cacheNameWithPrefix, partitionId, nodeEngine, this);
+        CacheConfig cacheConfig = getCacheConfig(cacheNameWithPrefix);
+        AbstractCacheRecordStore recordStore;
+        if (cacheConfig != null && cacheConfig.getInMemoryFormat() == InMemoryFormat.NATIVE) {
+            recordStore = new NativeCacheRecordStore(cacheNameWithPrefix, partitionId, nodeEngine, this);
+        } else {
+            recordStore = new CacheRecordStore(cacheNameWithPrefix, partitionId, nodeEngine, this);
+        }
         recordStore.instrument(nodeEngine);
         return recordStore;
     }
 
+    /**
+     * Returns the memory manager which backs the records of all caches
+     * with {@link InMemoryFormat#NATIVE} in-memory format on this member.
+     * It is created on first use from the member's {@link NativeMemoryConfig}.
+     *
+     * @return the native memory manager
+     * @throws InvalidConfigurationException if native memory is not enabled
+     */
+    public StandardMemoryManager getNativeMemoryManager() {
+        StandardMemoryManager memoryManager = nativeMemoryManager;
+        if (memoryManager != null) {
+            return memoryManager;
+        }
+        synchronized (nativeMemoryManagerMutex) {
+            if (nativeMemoryManager == null) {
+                NativeMemoryConfig nativeMemoryConfig = nodeEngine.getConfig().getNativeMemoryConfig();
+                if (!nativeMemoryConfig.isEnabled()) {
+                    throw new InvalidConfigurationException("Enable native memory config to use NATIVE"
+                            + " in-memory-format for ICache");
+                }
+                nativeMemoryManager = new StandardMemoryManager(nativeMemoryConfig.getSize().bytes());
+            }
+            return nativeMemoryManager;
+        }
+    }
+
+    @Override
+    public void shutdown(boolean terminate) {
+        super.shutdown(terminate);
+        StandardMemoryManager memoryManager = nativeMemoryManager;
+        if (memoryManager != null) {
+            memoryManager.dispose();
+        }
+    }
+
     @Override
     protected CacheOperationProvider createOperationProvider(String nameWithPrefix, InMemoryFormat inMemoryFormat) {
         return new DefaultOperationProvider(nameWithPrefix);
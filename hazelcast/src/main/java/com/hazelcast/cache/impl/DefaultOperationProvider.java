@@ -29,6 +29,7 @@ import com.hazelcast.cache.impl.operation.CacheLoadAllOperationFactory;
 import com.hazelcast.cache.impl.operation.CacheMergeOperation;
 import com.hazelcast.cache.impl.operation.CacheMergeOperationFactory;
 import com.hazelcast.cache.impl.operation.CachePutAllOperation;
+import com.hazelcast.cache.impl.operation.CachePutAllOperationFactory;
 import com.hazelcast.cache.impl.operation.CachePutIfAbsentOperation;
 import com.hazelcast.cache.impl.operation.CachePutOperation;
 import com.hazelcast.cache.impl.operation.CacheRemoveAllOperationFactory;
@@ -71,6 +72,12 @@ public class DefaultOperationProvider implements CacheOperationProvider {
         return new CachePutAllOperation(nameWithPrefix, entries, policy, completionId);
     }
 
+    @Override
+    public OperationFactory createPutAllOperationFactory(int[] partitions, List<Map.Entry<Data, Data>>[] entries,
+                                                         ExpiryPolicy policy) {
+        return new CachePutAllOperationFactory(nameWithPrefix, partitions, entries, policy);
+    }
+
     @Override
     public Operation createGetOperation(Data key, ExpiryPolicy policy) {
         return new CacheGetOperation(nameWithPrefix, key, policy);
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache.impl;
+
+import com.hazelcast.cache.impl.maxsize.impl.NativeMemoryCacheEvictionChecker;
+import com.hazelcast.cache.impl.record.CacheRecord;
+import com.hazelcast.cache.impl.record.NativeCacheRecord;
+import com.hazelcast.cache.impl.record.NativeCacheRecordMap;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.comparators.ValueComparator;
+import com.hazelcast.internal.util.comparators.ValueComparatorUtil;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionOperationThread;
+import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <h1>Off-Heap implementation of the {@link ICacheRecordStore}</h1>
+ * <p>
+ * Keeps the keys, values and metadata of the records of a single partition
+ * in native memory allocated from the {@link CacheService#getNativeMemoryManager()
+ * member's native memory manager}, so that large caches do not add to the
+ * heap which is scanned by the garbage collector.
+ * </p>
+ * <p>
+ * Supports the {@link MaxSizePolicy#USED_NATIVE_MEMORY_SIZE},
+ * {@link MaxSizePolicy#USED_NATIVE_MEMORY_PERCENTAGE},
+ * {@link MaxSizePolicy#FREE_NATIVE_MEMORY_SIZE} and
+ * {@link MaxSizePolicy#FREE_NATIVE_MEMORY_PERCENTAGE} max-size policies.
+ * Eviction samples records straight from the native hash slot array.
+ * </p>
+ * <p>
+ * Native memory is only ever touched from the partition thread: requests to
+ * release the records which are issued from other threads are handed over to
+ * the partition thread.
+ * </p>
+ *
+ * @see NativeCacheRecordMap
+ */
+public class NativeCacheRecordStore
+        extends AbstractCacheRecordStore<CacheRecord, NativeCacheRecordMap> {
+
+    protected SerializationService serializationService;
+
+    public NativeCacheRecordStore(String cacheNameWithPrefix, int partitionId, NodeEngine nodeEngine,
+                                  CacheService cacheService) {
+        super(cacheNameWithPrefix, partitionId, nodeEngine, cacheService);
+        this.serializationService = nodeEngine.getSerializationService();
+    }
+
+    /**
+     * Creates an instance for checking if the native memory limits of the
+     * cache have been reached.
+     *
+     * @throws IllegalArgumentException if the policy is not a native memory policy or if the {@code maxSizePolicy}
+     *                                  is null
+     */
+    @Override
+    protected EvictionChecker createCacheEvictionChecker(int size, MaxSizePolicy maxSizePolicy) {
+        if (maxSizePolicy == null) {
+            throw new IllegalArgumentException("Max-Size policy cannot be null");
+        }
+        return new NativeMemoryCacheEvictionChecker(maxSizePolicy, size,
+                ((CacheService) cacheService).getNativeMemoryManager());
+    }
+
+    @Override
+    protected NativeCacheRecordMap createRecordCacheMap() {
+        return new NativeCacheRecordMap(((CacheService) cacheService).getNativeMemoryManager(),
+                nodeEngine.getSerializationService(), cacheContext);
+    }
+
+    @Override
+    protected ValueComparator getValueComparatorOf(InMemoryFormat inMemoryFormat) {
+        // records are always compared in their serialized form
+        return ValueComparatorUtil.getValueComparatorOf(InMemoryFormat.BINARY);
+    }
+
+    @Override
+    protected CacheEntryProcessorEntry createCacheEntryProcessorEntry(Data key, CacheRecord record,
+                                                                      long now, int completionId) {
+        return new CacheEntryProcessorEntry(key, record, this, now, completionId);
+    }
+
+    @Override
+    protected CacheRecord createRecord(Object value, long creationTime, long expiryTime) {
+        evictIfRequired();
+
+        markExpirable(expiryTime);
+        return cacheRecordFactory.newRecordWithExpiry(value, creationTime, expiryTime);
+    }
+
+    @Override
+    protected Data valueToData(Object value) {
+        return cacheService.toData(value);
+    }
+
+    @Override
+    protected Object dataToValue(Data data) {
+        return serializationService.toObject(data);
+    }
+
+    @Override
+    protected Object recordToValue(CacheRecord record) {
+        return record.getValue();
+    }
+
+    @Override
+    protected Data recordToData(CacheRecord record) {
+        Object value = record.getValue();
+        if (value == null) {
+            return null;
+        } else if (value instanceof Data) {
+            return (Data) value;
+        } else {
+            return valueToData(value);
+        }
+    }
+
+    @Override
+    protected Data toHeapData(Object obj) {
+        if (obj == null) {
+            return null;
+        }
+        if (obj instanceof Data) {
+            return (Data) obj;
+        } else if (obj instanceof CacheRecord) {
+            return toHeapData(((CacheRecord) obj).getValue());
+        } else {
+            return serializationService.toData(obj);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Returns an on-heap copy of the record, since the returned record may be
+     * kept by operations, e.g. to be sent to the backups.
+     */
+    @Override
+    public CacheRecord getRecord(Data key) {
+        CacheRecord record = records.get(key);
+        return record != null ? ((NativeCacheRecord) record).toHeapRecord() : null;
+    }
+
+    @Override
+    public Map<Data, CacheRecord> getReadOnlyRecords() {
+        Map<Data, CacheRecord> copy = new HashMap<>(records.size());
+        for (Map.Entry<Data, CacheRecord> entry : records.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue());
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        records.disposeDeferredBlocks();
+    }
+
+    @Override
+    public void reset() {
+        runOnPartitionThread(records::clear);
+    }
+
+    @Override
+    public void close(boolean onShutdown) {
+        if (onShutdown) {
+            // partition threads no longer run operations, release the memory right away
+            records.dispose();
+            destroyEventJournal();
+            closeListeners();
+        } else {
+            super.close(false);
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        runOnPartitionThread(records::dispose);
+    }
+
+    private void runOnPartitionThread(Runnable task) {
+        OperationExecutor executor = ((OperationServiceImpl) nodeEngine.getOperationService()).getOperationExecutor();
+        Thread currentThread = Thread.currentThread();
+        if (currentThread instanceof PartitionOperationThread
+                && ((PartitionOperationThread) currentThread).getThreadId() == executor.getPartitionThreadId(partitionId)) {
+            task.run();
+            return;
+        }
+        executor.execute(new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return partitionId;
+            }
+
+            @Override
+            public void run() {
+                task.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache.impl.maxsize.impl;
+
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
+
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
+
+/**
+ * Cache max-size policy implementation for
+ * {@link MaxSizePolicy#USED_NATIVE_MEMORY_SIZE},
+ * {@link MaxSizePolicy#USED_NATIVE_MEMORY_PERCENTAGE},
+ * {@link MaxSizePolicy#FREE_NATIVE_MEMORY_SIZE} and
+ * {@link MaxSizePolicy#FREE_NATIVE_MEMORY_PERCENTAGE}.
+ * <p>
+ * Sizes are interpreted in megabytes, percentages are relative to the
+ * capacity of the {@link StandardMemoryManager}.
+ */
+public class NativeMemoryCacheEvictionChecker
+        implements EvictionChecker {
+
+    private static final int HUNDRED_PERCENT = 100;
+
+    private final MaxSizePolicy maxSizePolicy;
+    private final StandardMemoryManager memoryManager;
+    private final long maxSizeInBytes;
+    private final int percentage;
+
+    public NativeMemoryCacheEvictionChecker(MaxSizePolicy maxSizePolicy, int size,
+                                            StandardMemoryManager memoryManager) {
+        switch (maxSizePolicy) {
+            case USED_NATIVE_MEMORY_SIZE:
+            case FREE_NATIVE_MEMORY_SIZE:
+            case USED_NATIVE_MEMORY_PERCENTAGE:
+            case FREE_NATIVE_MEMORY_PERCENTAGE:
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid max-size policy (" + maxSizePolicy + ") for "
+                        + getClass().getName() + "!");
+        }
+        this.maxSizePolicy = maxSizePolicy;
+        this.memoryManager = memoryManager;
+        this.maxSizeInBytes = MEGABYTES.toBytes(size);
+        this.percentage = size;
+    }
+
+    @Override
+    public boolean isEvictionRequired() {
+        switch (maxSizePolicy) {
+            case USED_NATIVE_MEMORY_SIZE:
+                return memoryManager.getUsedNative() >= maxSizeInBytes;
+            case FREE_NATIVE_MEMORY_SIZE:
+                return memoryManager.getFreeNative() <= maxSizeInBytes;
+            case USED_NATIVE_MEMORY_PERCENTAGE:
+                return memoryManager.getUsedNative() * HUNDRED_PERCENT >= memoryManager.getMaxNative() * percentage;
+            case FREE_NATIVE_MEMORY_PERCENTAGE:
+                return memoryManager.getFreeNative() * HUNDRED_PERCENT <= memoryManager.getMaxNative() * percentage;
+            default:
+                throw new IllegalStateException("Unexpected max-size policy: " + maxSizePolicy);
+        }
+    }
+}
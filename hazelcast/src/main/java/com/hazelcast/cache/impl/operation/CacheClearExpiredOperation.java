@@ -64,6 +64,7 @@ public class CacheClearExpiredOperation extends AbstractLocalOperation
             ICacheRecordStore store = iterator.next();
             if (store.size() > 0) {
                 store.evictExpiredEntries(expirationPercentage);
+                store.disposeDeferredBlocks();
             }
         }
     }
@@ -85,6 +85,11 @@ public abstract class CacheOperation extends AbstractNamedOperation
             throw ExceptionUtil.rethrow(t, Exception.class);
         }
 
+        if (recordStore != null) {
+            // blocks removed by previously executed operations are not referenced anymore
+            recordStore.disposeDeferredBlocks();
+        }
+
         if (recordStore != null && recordStore.isWanReplicationEnabled()) {
             wanEventPublisher = cacheService.getCacheWanEventPublisher();
             cacheService.doPrepublicationChecks(name);
@@ -25,6 +25,7 @@ import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.spi.impl.operationservice.BackupAwareOperation;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.MutatingOperation;
+import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 
 import javax.cache.expiry.ExpiryPolicy;
 import java.io.IOException;
@@ -44,6 +45,8 @@ public class CachePutAllOperation extends CacheOperation
     private int completionId;
 
     private transient Map<Data, CacheRecord> backupRecords;
+    private transient boolean failureAsResponse;
+    private transient Object response;
 
     public CachePutAllOperation() {
     }
@@ -66,11 +69,34 @@ public class CachePutAllOperation extends CacheOperation
         this.completionId = completionId;
     }
 
+    /**
+     * Makes this operation respond with an {@link ErrorResponse} if putting
+     * an entry fails, instead of failing. Used when the operation runs as
+     * one partition of an invocation on partitions, which retries failed
+     * partitions: the entries put before the failure would be put again,
+     * and a failing {@link javax.cache.integration.CacheWriter} called again.
+     * The entries put before the failure are still backed up.
+     */
+    CachePutAllOperation setFailureAsResponse() {
+        this.failureAsResponse = true;
+        return this;
+    }
+
     @Override
     public void run() throws Exception {
-        UUID callerUuid = getCallerUuid();
         backupRecords = createHashMap(entries.size());
+        try {
+            putEntries();
+        } catch (Exception e) {
+            if (!failureAsResponse) {
+                throw e;
+            }
+            response = new ErrorResponse(e, getCallId(), isUrgent());
+        }
+    }
 
+    private void putEntries() {
+        UUID callerUuid = getCallerUuid();
         for (Map.Entry<Data, Data> entry : entries) {
             Data key = entry.getKey();
             Data value = entry.getValue();
@@ -85,6 +111,11 @@ public class CachePutAllOperation extends CacheOperation
         }
     }
 
+    @Override
+    public Object getResponse() {
+        return response;
+    }
+
     @Override
     public boolean shouldBackup() {
         return !backupRecords.isEmpty();
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache.impl.operation;
+
+import com.hazelcast.cache.impl.CacheDataSerializerHook;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.impl.operations.PartitionAwareOperationFactory;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import javax.cache.expiry.ExpiryPolicy;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.cache.impl.operation.MutableOperation.IGNORE_COMPLETION;
+
+/**
+ * Inserts the entries for all partitions of a member via locally invoked {@link CachePutAllOperation}.
+ * <p>
+ * Used to reduce the number of remote invocations of an {@link javax.cache.Cache#putAll(Map)} call.
+ * A partition which fails after putting some of its entries responds with an
+ * {@link com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse}
+ * instead of failing, so that it is not retried.
+ */
+public class CachePutAllOperationFactory extends PartitionAwareOperationFactory {
+
+    private String name;
+    private List<Map.Entry<Data, Data>>[] entries;
+    private ExpiryPolicy expiryPolicy;
+
+    public CachePutAllOperationFactory() {
+    }
+
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public CachePutAllOperationFactory(String name, int[] partitions, List<Map.Entry<Data, Data>>[] entries,
+                                       ExpiryPolicy expiryPolicy) {
+        this.name = name;
+        this.partitions = partitions;
+        this.entries = entries;
+        this.expiryPolicy = expiryPolicy;
+    }
+
+    @Override
+    public Operation createPartitionOperation(int partitionId) {
+        for (int i = 0; i < partitions.length; i++) {
+            if (partitions[i] == partitionId) {
+                return new CachePutAllOperation(name, entries[i], expiryPolicy, IGNORE_COMPLETION)
+                        .setFailureAsResponse();
+            }
+        }
+        throw new IllegalArgumentException("Unknown partitionId " + partitionId + " (" + Arrays.toString(partitions) + ")");
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeString(name);
+        out.writeIntArray(partitions);
+        for (List<Map.Entry<Data, Data>> list : entries) {
+            out.writeInt(list.size());
+            for (Map.Entry<Data, Data> entry : list) {
+                IOUtil.writeData(out, entry.getKey());
+                IOUtil.writeData(out, entry.getValue());
+            }
+        }
+        out.writeObject(expiryPolicy);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        name = in.readString();
+        partitions = in.readIntArray();
+        //noinspection unchecked
+        entries = new List[partitions.length];
+        for (int partitionIndex = 0; partitionIndex < partitions.length; partitionIndex++) {
+            int size = in.readInt();
+            List<Map.Entry<Data, Data>> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                Data key = IOUtil.readData(in);
+                Data value = IOUtil.readData(in);
+                list.add(new AbstractMap.SimpleImmutableEntry<>(key, value));
+            }
+            entries[partitionIndex] = list;
+        }
+        expiryPolicy = in.readObject();
+    }
+
+    @Override
+    public int getFactoryId() {
+        return CacheDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return CacheDataSerializerHook.PUT_ALL_FACTORY;
+    }
+}
@@ -40,6 +40,8 @@ public class CacheRecordFactory<R extends CacheRecord> {
         final R record;
         switch (inMemoryFormat) {
             case BINARY:
+            case NATIVE:
+                // native records are copied off-heap by the record map on insertion
                 Data dataValue = serializationService.toData(value);
                 record = (R) createCacheDataRecord(dataValue, creationTime, expiryTime);
                 break;
@@ -47,9 +49,6 @@ public class CacheRecordFactory<R extends CacheRecord> {
                 Object objectValue = serializationService.toObject(value);
                 record = (R) createCacheObjectRecord(objectValue, creationTime, expiryTime);
                 break;
-            case NATIVE:
-                throw new IllegalArgumentException("Native storage format is supported in Hazelcast Enterprise only. "
-                        + "Make sure you have Hazelcast Enterprise JARs on your classpath!");
             default:
                 throw new IllegalArgumentException("Invalid storage format: " + inMemoryFormat);
         }
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache.impl.record;
+
+import com.hazelcast.internal.serialization.Data;
+
+/**
+ * Flyweight {@link CacheRecord} over a record block which lives in native memory
+ * and is owned by a {@link NativeCacheRecordMap}.
+ * <p>
+ * Record block layout (all fields are 8 bytes wide):
+ * <pre>
+ * +------------------+-------------+---------------+----------------------+
+ * | next (chain)     | key address | value address | expiry policy address|
+ * +------------------+-------------+---------------+----------------------+
+ * | creation time    | expiration  | last access   | hits                 |
+ * +------------------+-------------+---------------+----------------------+
+ * </pre>
+ * Getters return on-heap copies of the stored {@link Data}, setters write
+ * through to native memory. An instance is only valid while the record block
+ * it points to is owned by the map, i.e. until the end of the operation which
+ * removed it, and must never escape the partition thread.
+ */
+public final class NativeCacheRecord implements CacheRecord<Data, Data> {
+
+    static final int NEXT_OFFSET = 0;
+    static final int KEY_OFFSET = 8;
+    static final int VALUE_OFFSET = 16;
+    static final int EXPIRY_POLICY_OFFSET = 24;
+    static final int CREATION_TIME_OFFSET = 32;
+    static final int EXPIRATION_TIME_OFFSET = 40;
+    static final int ACCESS_TIME_OFFSET = 48;
+    static final int HITS_OFFSET = 56;
+    static final int SIZE = 64;
+
+    private final NativeCacheRecordMap map;
+    private final long address;
+
+    NativeCacheRecord(NativeCacheRecordMap map, long address) {
+        this.map = map;
+        this.address = address;
+    }
+
+    long address() {
+        return address;
+    }
+
+    @Override
+    public Data getValue() {
+        return map.readData(map.mem().getLong(address + VALUE_OFFSET));
+    }
+
+    @Override
+    public void setValue(Data value) {
+        map.replaceData(address + VALUE_OFFSET, value);
+    }
+
+    @Override
+    public Data getExpiryPolicy() {
+        return map.readData(map.mem().getLong(address + EXPIRY_POLICY_OFFSET));
+    }
+
+    @Override
+    public void setExpiryPolicy(Data expiryPolicy) {
+        map.replaceData(address + EXPIRY_POLICY_OFFSET, expiryPolicy);
+    }
+
+    @Override
+    public long getCreationTime() {
+        return map.mem().getLong(address + CREATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setCreationTime(long time) {
+        map.mem().putLong(address + CREATION_TIME_OFFSET, time);
+    }
+
+    @Override
+    public long getExpirationTime() {
+        return map.mem().getLong(address + EXPIRATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+        map.mem().putLong(address + EXPIRATION_TIME_OFFSET, expirationTime);
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return map.mem().getLong(address + ACCESS_TIME_OFFSET);
+    }
+
+    @Override
+    public void setLastAccessTime(long time) {
+        map.mem().putLong(address + ACCESS_TIME_OFFSET, time);
+    }
+
+    @Override
+    public long getHits() {
+        return map.mem().getLong(address + HITS_OFFSET);
+    }
+
+    @Override
+    public void setHits(long hit) {
+        map.mem().putLong(address + HITS_OFFSET, hit);
+    }
+
+    @Override
+    public void incrementHits() {
+        setHits(getHits() + 1);
+    }
+
+    @Override
+    public boolean isExpiredAt(long now) {
+        long expirationTime = getExpirationTime();
+        return expirationTime > TIME_NOT_AVAILABLE && expirationTime <= now;
+    }
+
+    /**
+     * Creates an on-heap copy of this record which stays valid after the
+     * record block has been freed.
+     *
+     * @return the on-heap copy of this record
+     */
+    public CacheDataRecord toHeapRecord() {
+        CacheDataRecord record = new CacheDataRecord(getValue(), getCreationTime(), getExpirationTime());
+        record.setLastAccessTime(getLastAccessTime());
+        record.setHits(getHits());
+        record.setExpiryPolicy(getExpiryPolicy());
+        return record;
+    }
+
+    @Override
+    public String toString() {
+        return "NativeCacheRecord{address=" + address + '}';
+    }
+}
@@ -0,0 +1,707 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache.impl.record;
+
+import com.hazelcast.cache.CacheEntryView;
+import com.hazelcast.cache.impl.CacheContext;
+import com.hazelcast.cache.impl.CacheEntriesWithCursor;
+import com.hazelcast.cache.impl.CacheKeysWithCursor;
+import com.hazelcast.internal.eviction.EvictionCandidate;
+import com.hazelcast.internal.eviction.EvictionListener;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.internal.util.hashslot.SlotAssignmentResult;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray8byteKeyImpl;
+
+import javax.cache.expiry.ExpiryPolicy;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.util.HashUtil.fastLongMix;
+import static com.hazelcast.internal.util.hashslot.impl.CapacityUtil.DEFAULT_LOAD_FACTOR;
+
+/**
+ * {@link SampleableCacheRecordMap} which keeps keys, values and record metadata
+ * in native memory obtained from a {@link MemoryManager}, so the number of
+ * on-heap objects does not grow with the number of cached entries.
+ * <p>
+ * Records are indexed by the 64-bit hash of their key in a hash slot array;
+ * the rare records whose key hashes collide are chained through the record
+ * block. {@link #get(Object)} returns a write-through {@link NativeCacheRecord}
+ * flyweight while {@link #put(Data, CacheRecord)}, {@link #remove(Object)} and
+ * iteration hand out on-heap copies, so nothing handed out by this map outlives
+ * the native memory it points to.
+ * <p>
+ * Blocks of removed records are not freed immediately since flyweights obtained
+ * earlier in the same operation may still refer to them; they are freed by
+ * {@link #disposeDeferredBlocks()}. This map is not thread-safe and must only be
+ * accessed from its partition thread.
+ */
+public class NativeCacheRecordMap
+        extends AbstractMap<Data, CacheRecord>
+        implements SampleableCacheRecordMap<Data, CacheRecord> {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 256;
+    private static final int DEFAULT_DEFERRED_CAPACITY = 16;
+
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+    private final SlotIndex index;
+    private final SerializationService serializationService;
+    private final CacheContext cacheContext;
+    private long[] deferredRecords = new long[DEFAULT_DEFERRED_CAPACITY];
+    private int deferredCount;
+    private int size;
+    private boolean entryCountingEnable;
+    private boolean disposed;
+    private Set<Map.Entry<Data, CacheRecord>> entrySet;
+
+    public NativeCacheRecordMap(MemoryManager memoryManager, SerializationService serializationService,
+                                CacheContext cacheContext) {
+        this.malloc = memoryManager.getAllocator();
+        this.mem = memoryManager.getAccessor();
+        this.serializationService = serializationService;
+        this.cacheContext = cacheContext;
+        this.index = new SlotIndex(memoryManager);
+        this.index.gotoNew();
+    }
+
+    // Called by only same partition thread. So there is no synchronization and visibility problem.
+    @Override
+    public void setEntryCounting(boolean enable) {
+        if (enable) {
+            if (!entryCountingEnable) {
+                cacheContext.increaseEntryCount(size);
+            }
+        } else {
+            if (entryCountingEnable) {
+                cacheContext.decreaseEntryCount(size);
+            }
+        }
+        this.entryCountingEnable = enable;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Data && findRecord((Data) key) != NULL_ADDRESS;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned record is a flyweight writing through to native memory.
+     */
+    @Override
+    public CacheRecord get(Object key) {
+        if (!(key instanceof Data)) {
+            return null;
+        }
+        long address = findRecord((Data) key);
+        return address != NULL_ADDRESS ? new NativeCacheRecord(this, address) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The given record is copied to native memory, later changes to it are not
+     * reflected by this map. The returned previous record is an on-heap copy.
+     */
+    @Override
+    public CacheRecord put(Data key, CacheRecord record) {
+        long address = findRecord(key);
+        if (address != NULL_ADDRESS) {
+            CacheRecord oldRecord = new NativeCacheRecord(this, address).toHeapRecord();
+            writeRecord(address, record);
+            return oldRecord;
+        }
+        insertRecord(key, record);
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned existing record is a flyweight writing through to native memory.
+     */
+    @Override
+    public CacheRecord putIfAbsent(Data key, CacheRecord record) {
+        long address = findRecord(key);
+        if (address != NULL_ADDRESS) {
+            return new NativeCacheRecord(this, address);
+        }
+        insertRecord(key, record);
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned record is an on-heap copy of the removed record.
+     */
+    @Override
+    public CacheRecord remove(Object key) {
+        if (!(key instanceof Data)) {
+            return null;
+        }
+        long address = unlinkRecord((Data) key);
+        if (address == NULL_ADDRESS) {
+            return null;
+        }
+        CacheRecord removed = new NativeCacheRecord(this, address).toHeapRecord();
+        if (deferredCount == deferredRecords.length) {
+            deferredRecords = Arrays.copyOf(deferredRecords, deferredCount << 1);
+        }
+        deferredRecords[deferredCount++] = address;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        if (disposed) {
+            return;
+        }
+        int sizeBeforeClear = size;
+        for (long slot = 0; slot < index.capacity(); slot++) {
+            long valueAddress = index.valueAddressOfAssigned(slot);
+            if (valueAddress == NULL_ADDRESS) {
+                continue;
+            }
+            long address = mem.getLong(valueAddress);
+            while (address != NULL_ADDRESS) {
+                long next = mem.getLong(address + NativeCacheRecord.NEXT_OFFSET);
+                freeRecord(address);
+                address = next;
+            }
+        }
+        index.clear();
+        size = 0;
+        disposeDeferredBlocks();
+        if (entryCountingEnable) {
+            cacheContext.decreaseEntryCount(sizeBeforeClear);
+        }
+    }
+
+    /**
+     * Frees the blocks of the records removed since the last call.
+     */
+    public void disposeDeferredBlocks() {
+        for (int i = 0; i < deferredCount; i++) {
+            freeRecord(deferredRecords[i]);
+        }
+        deferredCount = 0;
+        if (deferredRecords.length > DEFAULT_DEFERRED_CAPACITY) {
+            deferredRecords = new long[DEFAULT_DEFERRED_CAPACITY];
+        }
+    }
+
+    /**
+     * Frees all native memory held by this map. The map must not be used afterwards.
+     */
+    public void dispose() {
+        clear();
+        index.dispose();
+        disposed = true;
+    }
+
+    @Override
+    public Set<Map.Entry<Data, CacheRecord>> entrySet() {
+        Set<Map.Entry<Data, CacheRecord>> entries = entrySet;
+        if (entries == null) {
+            entries = new EntrySet();
+            entrySet = entries;
+        }
+        return entries;
+    }
+
+    @Override
+    public CacheKeysWithCursor fetchKeys(IterationPointer[] pointers, int size) {
+        List<Data> keys = new ArrayList<>(size);
+        IterationPointer[] newPointers = fetchNext(pointers, size, keys, null);
+        return new CacheKeysWithCursor(keys, newPointers);
+    }
+
+    @Override
+    public CacheEntriesWithCursor fetchEntries(IterationPointer[] pointers, int size) {
+        List<Map.Entry<Data, Data>> entries = new ArrayList<>(size);
+        IterationPointer[] newPointers = fetchNext(pointers, size, null, entries);
+        return new CacheEntriesWithCursor(entries, newPointers);
+    }
+
+    @Override
+    public <C extends EvictionCandidate<Data, CacheRecord>> boolean tryEvict(C evictionCandidate,
+                                                                            EvictionListener<Data, CacheRecord> listener) {
+        if (evictionCandidate == null) {
+            return false;
+        }
+        CacheRecord removed = remove(evictionCandidate.getAccessor());
+        if (removed == null) {
+            return false;
+        }
+        if (listener != null) {
+            listener.onEvict(evictionCandidate.getAccessor(), removed, false);
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Samples are taken from consecutive hash slots starting at a random slot,
+     * which costs time proportional to the sample count rather than to the
+     * number of stored records.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterable<NativeEvictionCandidate> sample(int sampleCount) {
+        List<NativeEvictionCandidate> samples = new ArrayList<>(sampleCount);
+        long capacity = index.capacity();
+        if (size == 0) {
+            return samples;
+        }
+        long mask = capacity - 1;
+        long start = ThreadLocalRandom.current().nextLong(capacity);
+        for (long i = 0; i < capacity && samples.size() < sampleCount; i++) {
+            long valueAddress = index.valueAddressOfAssigned((start + i) & mask);
+            if (valueAddress == NULL_ADDRESS) {
+                continue;
+            }
+            long address = mem.getLong(valueAddress);
+            while (address != NULL_ADDRESS && samples.size() < sampleCount) {
+                samples.add(new NativeEvictionCandidate(readKey(address), new NativeCacheRecord(this, address)));
+                address = mem.getLong(address + NativeCacheRecord.NEXT_OFFSET);
+            }
+        }
+        return samples;
+    }
+
+    MemoryAccessor mem() {
+        return mem;
+    }
+
+    /**
+     * Reads the data block at the given address into an on-heap {@link Data}.
+     */
+    Data readData(long dataAddress) {
+        if (dataAddress == NULL_ADDRESS) {
+            return null;
+        }
+        int length = mem.getInt(dataAddress);
+        byte[] bytes = new byte[length];
+        mem.copyToByteArray(dataAddress + INT_SIZE_IN_BYTES, bytes, 0, length);
+        return new HeapData(bytes);
+    }
+
+    /**
+     * Replaces the data block referenced by the given address field.
+     */
+    void replaceData(long fieldAddress, Object value) {
+        long newDataAddress = writeData(value);
+        long oldDataAddress = mem.getLong(fieldAddress);
+        mem.putLong(fieldAddress, newDataAddress);
+        freeData(oldDataAddress);
+    }
+
+    private Data readKey(long address) {
+        return readData(mem.getLong(address + NativeCacheRecord.KEY_OFFSET));
+    }
+
+    private long writeData(Object value) {
+        if (value == null) {
+            return NULL_ADDRESS;
+        }
+        byte[] bytes = (value instanceof Data ? (Data) value : serializationService.toData(value)).toByteArray();
+        if (bytes == null) {
+            return NULL_ADDRESS;
+        }
+        long dataAddress = malloc.allocate(INT_SIZE_IN_BYTES + bytes.length);
+        mem.putInt(dataAddress, bytes.length);
+        mem.copyFromByteArray(bytes, 0, dataAddress + INT_SIZE_IN_BYTES, bytes.length);
+        return dataAddress;
+    }
+
+    private void freeData(long dataAddress) {
+        if (dataAddress != NULL_ADDRESS) {
+            malloc.free(dataAddress, INT_SIZE_IN_BYTES + mem.getInt(dataAddress));
+        }
+    }
+
+    private void freeRecord(long address) {
+        freeData(mem.getLong(address + NativeCacheRecord.KEY_OFFSET));
+        freeData(mem.getLong(address + NativeCacheRecord.VALUE_OFFSET));
+        freeData(mem.getLong(address + NativeCacheRecord.EXPIRY_POLICY_OFFSET));
+        malloc.free(address, NativeCacheRecord.SIZE);
+    }
+
+    private void writeRecord(long address, CacheRecord record) {
+        replaceData(address + NativeCacheRecord.VALUE_OFFSET, record.getValue());
+        replaceData(address + NativeCacheRecord.EXPIRY_POLICY_OFFSET, record.getExpiryPolicy());
+        mem.putLong(address + NativeCacheRecord.CREATION_TIME_OFFSET, record.getCreationTime());
+        mem.putLong(address + NativeCacheRecord.EXPIRATION_TIME_OFFSET, record.getExpirationTime());
+        mem.putLong(address + NativeCacheRecord.ACCESS_TIME_OFFSET, record.getLastAccessTime());
+        mem.putLong(address + NativeCacheRecord.HITS_OFFSET, record.getHits());
+    }
+
+    private void insertRecord(Data key, CacheRecord record) {
+        long address = malloc.allocate(NativeCacheRecord.SIZE);
+        try {
+            mem.putLong(address + NativeCacheRecord.KEY_OFFSET, writeData(key));
+            writeRecord(address, record);
+            SlotAssignmentResult slot = index.ensure(key.hash64());
+            long head = slot.isNew() ? NULL_ADDRESS : mem.getLong(slot.address());
+            mem.putLong(address + NativeCacheRecord.NEXT_OFFSET, head);
+            mem.putLong(slot.address(), address);
+        } catch (Throwable t) {
+            freeRecord(address);
+            throw t;
+        }
+        size++;
+        if (entryCountingEnable) {
+            cacheContext.increaseEntryCount();
+        }
+    }
+
+    private long findRecord(Data key) {
+        long valueAddress = index.get(key.hash64());
+        if (valueAddress == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+        long address = mem.getLong(valueAddress);
+        while (address != NULL_ADDRESS && !keyEquals(address, key)) {
+            address = mem.getLong(address + NativeCacheRecord.NEXT_OFFSET);
+        }
+        return address;
+    }
+
+    private long unlinkRecord(Data key) {
+        long hash = key.hash64();
+        long valueAddress = index.get(hash);
+        if (valueAddress == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+        long previous = NULL_ADDRESS;
+        long address = mem.getLong(valueAddress);
+        while (address != NULL_ADDRESS && !keyEquals(address, key)) {
+            previous = address;
+            address = mem.getLong(address + NativeCacheRecord.NEXT_OFFSET);
+        }
+        if (address == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+        long next = mem.getLong(address + NativeCacheRecord.NEXT_OFFSET);
+        if (previous != NULL_ADDRESS) {
+            mem.putLong(previous + NativeCacheRecord.NEXT_OFFSET, next);
+        } else if (next != NULL_ADDRESS) {
+            mem.putLong(valueAddress, next);
+        } else {
+            index.remove(hash);
+        }
+        size--;
+        if (entryCountingEnable) {
+            cacheContext.decreaseEntryCount();
+        }
+        return address;
+    }
+
+    private boolean keyEquals(long address, Data key) {
+        long keyAddress = mem.getLong(address + NativeCacheRecord.KEY_OFFSET);
+        byte[] bytes = key.toByteArray();
+        int length = mem.getInt(keyAddress);
+        if (bytes == null || length != bytes.length) {
+            return false;
+        }
+        long base = keyAddress + INT_SIZE_IN_BYTES;
+        for (int i = 0; i < length; i++) {
+            if (mem.getByte(base + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Walks the hash slots downwards from the last pointer, following the
+     * iteration contract of {@link CacheRecordMap#fetchKeys(IterationPointer[], int)}.
+     * If the slot array was resized since the previous call, a new pointer is
+     * added and records whose home slot was already passed on an earlier
+     * table are skipped.
+     */
+    private IterationPointer[] fetchNext(IterationPointer[] pointers, int size,
+                                         List<Data> keys, List<Map.Entry<Data, Data>> entries) {
+        long now = Clock.currentTimeMillis();
+        int capacity = (int) index.capacity();
+        pointers = checkPointers(pointers, capacity);
+        IterationPointer lastPointer = pointers[pointers.length - 1];
+
+        int nextSlot = lastPointer.getIndex() >= 0 && lastPointer.getIndex() < capacity
+                ? lastPointer.getIndex() : capacity - 1;
+        int counter = 0;
+        while (nextSlot >= 0 && counter < size) {
+            long valueAddress = index.valueAddressOfAssigned(nextSlot--);
+            if (valueAddress == NULL_ADDRESS) {
+                continue;
+            }
+            long address = mem.getLong(valueAddress);
+            while (address != NULL_ADDRESS) {
+                NativeCacheRecord record = new NativeCacheRecord(this, address);
+                if (!record.isExpiredAt(now)) {
+                    Data key = readKey(address);
+                    if (hasNotBeenObserved(key, pointers)) {
+                        if (keys != null) {
+                            keys.add(key);
+                        } else {
+                            entries.add(new AbstractMap.SimpleEntry<>(key, record.getValue()));
+                        }
+                        counter++;
+                    }
+                }
+                address = mem.getLong(address + NativeCacheRecord.NEXT_OFFSET);
+            }
+        }
+        lastPointer.setIndex(nextSlot);
+        return pointers;
+    }
+
+    private static IterationPointer[] checkPointers(IterationPointer[] pointers, int currentCapacity) {
+        IterationPointer lastPointer = pointers[pointers.length - 1];
+        boolean iterationStarted = lastPointer.getSize() == -1;
+        boolean tableResized = lastPointer.getSize() != currentCapacity;
+        int newLength = !iterationStarted && tableResized ? pointers.length + 1 : pointers.length;
+
+        IterationPointer[] updatedPointers = new IterationPointer[newLength];
+        for (int i = 0; i < pointers.length; i++) {
+            updatedPointers[i] = new IterationPointer(pointers[i]);
+        }
+        if (iterationStarted || tableResized) {
+            updatedPointers[updatedPointers.length - 1] = new IterationPointer(Integer.MAX_VALUE, currentCapacity);
+        }
+        return updatedPointers;
+    }
+
+    private static boolean hasNotBeenObserved(Data key, IterationPointer[] pointers) {
+        if (pointers.length < 2) {
+            return true;
+        }
+        long hash = fastLongMix(key.hash64());
+        for (int i = 0; i < pointers.length - 1; i++) {
+            IterationPointer pointer = pointers[i];
+            int homeSlot = (int) (hash & (pointer.getSize() - 1));
+            if (homeSlot > pointer.getIndex()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hash slot array which additionally exposes its slots to allow random
+     * sampling and slot-wise iteration.
+     */
+    private static final class SlotIndex extends HashSlotArray8byteKeyImpl {
+
+        SlotIndex(MemoryManager memoryManager) {
+            super(NULL_ADDRESS, memoryManager, LONG_SIZE_IN_BYTES, DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+        }
+
+        /**
+         * @return the value address of the given slot or
+         * {@link MemoryAllocator#NULL_ADDRESS} if the slot is not assigned
+         */
+        long valueAddressOfAssigned(long slot) {
+            long baseAddress = address();
+            return isAssigned(baseAddress, slot)
+                    ? slotBase(baseAddress, slot) + LONG_SIZE_IN_BYTES : NULL_ADDRESS;
+        }
+    }
+
+    /**
+     * Snapshot of a stored record taken while sampling. The evictable is a
+     * flyweight and is only valid within the sampling operation.
+     */
+    public final class NativeEvictionCandidate
+            implements EvictionCandidate<Data, CacheRecord>, CacheEntryView {
+
+        private final Data key;
+        private final NativeCacheRecord record;
+
+        NativeEvictionCandidate(Data key, NativeCacheRecord record) {
+            this.key = key;
+            this.record = record;
+        }
+
+        @Override
+        public Data getAccessor() {
+            return key;
+        }
+
+        @Override
+        public CacheRecord getEvictable() {
+            return record;
+        }
+
+        @Override
+        public Object getKey() {
+            return serializationService.toObject(key);
+        }
+
+        @Override
+        public Object getValue() {
+            return serializationService.toObject(record.getValue());
+        }
+
+        @Override
+        public ExpiryPolicy getExpiryPolicy() {
+            return serializationService.toObject(record.getExpiryPolicy());
+        }
+
+        @Override
+        public long getCreationTime() {
+            return record.getCreationTime();
+        }
+
+        @Override
+        public long getExpirationTime() {
+            return record.getExpirationTime();
+        }
+
+        @Override
+        public long getLastAccessTime() {
+            return record.getLastAccessTime();
+        }
+
+        @Override
+        public long getHits() {
+            return record.getHits();
+        }
+    }
+
+    /**
+     * Entry set whose iterator materializes one hash slot at a time into on-heap
+     * entries. The iterator holds no native address between calls, so it may
+     * safely be kept across operations, like the expiration iterator of the
+     * record store does.
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<Data, CacheRecord>> {
+
+        @Override
+        public Iterator<Map.Entry<Data, CacheRecord>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            NativeCacheRecordMap.this.clear();
+        }
+    }
+
+    /**
+     * Walks the slots downwards, starting just below an unassigned slot.
+     * Removing a key shifts the keys which follow it in its probe sequence
+     * to lower slots; since a probe sequence never spans an unassigned slot,
+     * the shifted keys have always been visited already, so removing entries
+     * while iterating doesn't make the iterator miss any. The iteration ends
+     * early if the index is resized.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<Data, CacheRecord>> {
+
+        private final ArrayDeque<Map.Entry<Data, CacheRecord>> pending = new ArrayDeque<>();
+        private final long capacity;
+        private long nextSlot;
+        private long remaining;
+        private Data lastKey;
+
+        EntryIterator() {
+            this.capacity = disposed ? 0 : index.capacity();
+            this.nextSlot = firstUnassignedSlot() - 1;
+            this.remaining = capacity;
+        }
+
+        private long firstUnassignedSlot() {
+            for (long slot = 0; slot < capacity; slot++) {
+                if (index.valueAddressOfAssigned(slot) == NULL_ADDRESS) {
+                    return slot;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (pending.isEmpty() && remaining > 0 && !disposed && index.capacity() == capacity) {
+                long valueAddress = index.valueAddressOfAssigned(nextSlot & (capacity - 1));
+                nextSlot--;
+                remaining--;
+                if (valueAddress == NULL_ADDRESS) {
+                    continue;
+                }
+                long address = mem.getLong(valueAddress);
+                while (address != NULL_ADDRESS) {
+                    CacheRecord record = new NativeCacheRecord(NativeCacheRecordMap.this, address).toHeapRecord();
+                    pending.add(new AbstractMap.SimpleImmutableEntry<>(readKey(address), record));
+                    address = mem.getLong(address + NativeCacheRecord.NEXT_OFFSET);
+                }
+            }
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public Map.Entry<Data, CacheRecord> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<Data, CacheRecord> entry = pending.poll();
+            lastKey = entry.getKey();
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            NativeCacheRecordMap.this.remove(lastKey);
+            lastKey = null;
+        }
+    }
+}
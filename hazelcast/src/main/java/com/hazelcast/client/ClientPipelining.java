@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client;
+
+import com.hazelcast.client.impl.clientside.HazelcastClientInstanceImpl;
+import com.hazelcast.client.impl.clientside.HazelcastClientProxy;
+import com.hazelcast.client.impl.spi.ClientPartitionService;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.Pipelining;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.annotation.Beta;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+
+/**
+ * Client-side variant of the {@link Pipelining} which bounds the number of
+ * in-flight requests per connection instead of globally.
+ * <p>
+ * Each request is added together with the key it operates on, e.g.
+ * <pre>{@code
+ * ClientPipelining<Void> pipelining = new ClientPipelining<>(client, 100);
+ * for (Map.Entry<K, V> entry : entries) {
+ *     pipelining.add(entry.getKey(), () -> map.setAsync(entry.getKey(), entry.getValue()));
+ * }
+ * pipelining.results();
+ * }</pre>
+ * The key is used to determine the connection the request is sent over,
+ * which is the connection to the owner of the key's partition when smart
+ * routing is enabled and the single cluster connection otherwise. The
+ * request is only issued once there are less than {@code depth} requests
+ * of this pipelining in flight on that connection; until then, the calling
+ * thread is blocked. This way a slow member only throttles the requests
+ * sent to it, while the client's own invocation backpressure, which blocks
+ * or throws a {@link com.hazelcast.core.HazelcastOverloadException} once
+ * the global invocation limit is reached, isn't hit as long as the total
+ * depth stays below that limit.
+ * <p>
+ * The results are returned in the order the requests were added. The
+ * Pipelining also reports the achieved {@link #getThroughput() throughput}
+ * and the time the requests spent {@link #getQueueWaitNanos() waiting}
+ * for a free slot in the window of their connection.
+ * <p>
+ * Like the {@link Pipelining}, this class isn't thread-safe: a single
+ * thread should add the requests and wait for the results. All added
+ * {@link CompletionStage}s are kept until the Pipelining is discarded.
+ *
+ * @param <E> the result type of the Pipelining
+ */
+@Beta
+public class ClientPipelining<E> {
+
+    /**
+     * Window used when the owner of the key's partition isn't known yet
+     * or smart routing is disabled.
+     */
+    private static final UUID DEFAULT_WINDOW = new UUID(0, 0);
+
+    private final ClientPartitionService partitionService;
+    private final boolean smartRouting;
+    private final int depth;
+    private final Map<UUID, Semaphore> windows = new HashMap<>();
+    private final List<CompletionStage<E>> futures = new ArrayList<>();
+    private final AtomicLong completedCount = new AtomicLong();
+    private long queueWaitNanos;
+    private long startNanos = -1;
+
+    /**
+     * Creates a Pipelining with the given depth.
+     *
+     * @param client the client the requests are issued by
+     * @param depth  the maximum number of concurrent requests of this
+     *               Pipelining per connection
+     * @throws IllegalArgumentException if the depth is smaller than 1 or the
+     *                                  instance is not a client
+     */
+    public ClientPipelining(HazelcastInstance client, int depth) {
+        checkNotNull(client, "client can't be null");
+        checkPositive(depth, "depth must be positive");
+        HazelcastClientInstanceImpl clientImpl = getClientImpl(client);
+        this.partitionService = clientImpl.getClientPartitionService();
+        this.smartRouting = clientImpl.getClientConfig().getNetworkConfig().isSmartRouting();
+        this.depth = depth;
+    }
+
+    /**
+     * Issues the request created by the given supplier as soon as there is
+     * a free slot in the window of the connection the request will be sent
+     * over. Blocks until then.
+     *
+     * @param key     the key the request operates on, e.g. the key passed
+     *                to {@link IMap#setAsync(Object, Object)}
+     * @param request the supplier issuing the asynchronous request
+     * @return the future returned by the supplier
+     * @throws InterruptedException if the thread got interrupted while
+     *                              waiting for a free slot
+     * @throws NullPointerException if key or request is null
+     */
+    public CompletionStage<E> add(Object key, Supplier<? extends CompletionStage<E>> request)
+            throws InterruptedException {
+        checkNotNull(key, "key can't be null");
+        checkNotNull(request, "request can't be null");
+
+        Semaphore window = window(key);
+        long waitStartNanos = System.nanoTime();
+        if (startNanos == -1) {
+            startNanos = waitStartNanos;
+        }
+        window.acquire();
+        queueWaitNanos += System.nanoTime() - waitStartNanos;
+
+        CompletionStage<E> future;
+        try {
+            future = checkNotNull(request.get(), "request returned null");
+        } catch (RuntimeException | Error e) {
+            window.release();
+            throw e;
+        }
+        futures.add(future);
+        future.whenCompleteAsync((response, t) -> {
+            completedCount.incrementAndGet();
+            window.release();
+        }, CALLER_RUNS);
+        return future;
+    }
+
+    /**
+     * Returns the results in the order the requests were added. Waits
+     * until all requests have completed.
+     *
+     * @return the List of results
+     * @throws Exception if any of the requests failed
+     */
+    public List<E> results() throws Exception {
+        List<E> result = new ArrayList<>(futures.size());
+        for (CompletionStage<E> f : futures) {
+            result.add(f.toCompletableFuture().get());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of completed requests.
+     */
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    /**
+     * Returns the number of requests completed per second since the first
+     * request was added.
+     */
+    public double getThroughput() {
+        if (startNanos == -1) {
+            return 0;
+        }
+        long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+        return completedCount.get() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * Returns the total time in nanoseconds the requests waited for a free
+     * slot in the window of their connection.
+     */
+    public long getQueueWaitNanos() {
+        return queueWaitNanos;
+    }
+
+    private Semaphore window(Object key) {
+        UUID windowId = DEFAULT_WINDOW;
+        if (smartRouting) {
+            UUID owner = partitionService.getPartitionOwner(partitionService.getPartitionId(key));
+            if (owner != null) {
+                windowId = owner;
+            }
+        }
+        return windows.computeIfAbsent(windowId, id -> new Semaphore(depth));
+    }
+
+    private static HazelcastClientInstanceImpl getClientImpl(HazelcastInstance instance) {
+        if (instance instanceof HazelcastClientInstanceImpl) {
+            return (HazelcastClientInstanceImpl) instance;
+        }
+        if (instance instanceof HazelcastClientProxy) {
+            HazelcastClientInstanceImpl client = ((HazelcastClientProxy) instance).client;
+            if (client == null) {
+                throw new HazelcastClientNotActiveException();
+            }
+            return client;
+        }
+        throw new IllegalArgumentException("ClientPipelining can only be used with a client instance");
+    }
+}
@@ -45,6 +45,7 @@ import com.hazelcast.client.impl.protocol.codec.MapExecuteOnAllKeysCodec;
 import com.hazelcast.client.impl.protocol.codec.MapExecuteOnKeyCodec;
 import com.hazelcast.client.impl.protocol.codec.MapExecuteOnKeysCodec;
 import com.hazelcast.client.impl.protocol.codec.MapExecuteWithPredicateCodec;
+import com.hazelcast.client.impl.protocol.codec.MapFetchEntriesCodec;
 import com.hazelcast.client.impl.protocol.codec.MapFlushCodec;
 import com.hazelcast.client.impl.protocol.codec.MapForceUnlockCodec;
 import com.hazelcast.client.impl.protocol.codec.MapGetAllCodec;
@@ -113,6 +114,7 @@ import com.hazelcast.internal.journal.EventJournalInitialSubscriberState;
 import com.hazelcast.internal.journal.EventJournalReader;
 import com.hazelcast.internal.monitor.impl.LocalMapStatsImpl;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.util.CollectionUtil;
 import com.hazelcast.internal.util.IterationType;
@@ -128,6 +130,8 @@ import com.hazelcast.map.QueryCache;
 import com.hazelcast.map.impl.DataAwareEntryEvent;
 import com.hazelcast.map.impl.ListenerAdapter;
 import com.hazelcast.map.impl.SimpleEntryView;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapSpliterator;
 import com.hazelcast.map.impl.querycache.subscriber.QueryCacheEndToEndProvider;
 import com.hazelcast.map.impl.querycache.subscriber.QueryCacheRequest;
 import com.hazelcast.map.impl.querycache.subscriber.SubscriberContext;
@@ -156,6 +160,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.UUID;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -164,6 +169,8 @@ import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import static com.hazelcast.internal.iteration.IterationPointer.decodePointers;
+import static com.hazelcast.internal.iteration.IterationPointer.encodePointers;
 import static com.hazelcast.internal.util.CollectionUtil.objectToDataCollection;
 import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
 import static com.hazelcast.internal.util.MapUtil.createHashMap;
@@ -1683,6 +1690,46 @@ public class ClientMapProxy<K, V> extends ClientProxy
         return new ClientMapIterator<>(this, fetchSize, partitionCount, false);
     }
 
+    /**
+     * Returns a spliterator over all entries of this map which fetches the
+     * entries of {@value MapSpliterator#DEFAULT_MAX_CONCURRENCY} partitions
+     * concurrently, see {@link #spliterator(int, int)}.
+     */
+    @Override
+    @Nonnull
+    public Spliterator<Entry<K, V>> spliterator() {
+        return spliterator(ClientMapIterator.DEFAULT_FETCH_SIZE, MapSpliterator.DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * Returns a spliterator over all entries of this map, to be used for (parallel) streams of the map entries.
+     * <p>
+     * The entries are fetched in batches, values together with the keys. Up to {@code maxConcurrency} batch
+     * requests are kept in flight by the spliterator: the next batch of the partition being consumed is prefetched
+     * and the batches of the following partitions are fetched concurrently. Each spliterator split off for a
+     * parallel stream keeps its own requests in flight.
+     * <p>
+     * <b>NOTE</b>
+     * The spliterator provides the same guarantees as {@link #iterator(int)} when the map is being mutated or when
+     * there are membership changes.
+     *
+     * @param fetchSize      the size of the batches which will be sent when iterating the data
+     * @param maxConcurrency the maximum number of batch requests in flight per spliterator
+     * @return a spliterator for the map entries
+     */
+    @Nonnull
+    public Spliterator<Entry<K, V>> spliterator(int fetchSize, int maxConcurrency) {
+        int partitionCount = getContext().getPartitionService().getPartitionCount();
+        return new MapSpliterator<>((partitionId, pointers, size) -> {
+            ClientMessage request = MapFetchEntriesCodec.encodeRequest(getName(), encodePointers(pointers), size);
+            ClientInvocationFuture future = new ClientInvocation(getClient(), request, getName(), partitionId).invoke();
+            return new ClientDelegatingFuture<>(future, getSerializationService(), message -> {
+                MapFetchEntriesCodec.ResponseParameters response = MapFetchEntriesCodec.decodeResponse(message);
+                return new MapEntriesWithCursor(response.entries, decodePointers(response.iterationPointers));
+            }, false);
+        }, (InternalSerializationService) getSerializationService(), fetchSize, maxConcurrency, 0, partitionCount);
+    }
+
     /**
      * Returns an iterator for iterating entries in the {@code partitionId}. If {@code prefetchValues} is
      * {@code true}, all values will be sent along with the keys and no additional data will be fetched when
@@ -1226,6 +1226,7 @@ public class ConfigXmlGenerator {
                     .node("factory-class-name", factoryClass)
                     .node("write-delay-seconds", s.getWriteDelaySeconds())
                     .node("write-batch-size", s.getWriteBatchSize())
+                    .node("load-coalescing-window-millis", s.getLoadCoalescingWindowMillis())
                     .appendProperties(s.getProperties())
                     .close();
         }
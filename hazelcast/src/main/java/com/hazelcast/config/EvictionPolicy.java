@@ -35,7 +35,16 @@ public enum EvictionPolicy {
     /**
      * Randomly
      */
-    RANDOM(3);
+    RANDOM(3),
+    /**
+     * Approximate Least Frequently Used: access frequencies are estimated
+     * by a per-partition count-min sketch with aging (TinyLFU) instead of
+     * per-entry hit counters, among entries of equal frequency the least
+     * recently used one is evicted. For Near Cache the sketch is also used
+     * to reject new entries which are accessed less frequently than the
+     * entry they would evict.
+     */
+    TINY_LFU(4);
 
     private static final EvictionPolicy[] VALUES = values();
 
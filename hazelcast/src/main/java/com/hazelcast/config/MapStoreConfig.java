@@ -16,11 +16,13 @@
 
 package com.hazelcast.config;
 
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.config.ConfigDataSerializerHook;
 import com.hazelcast.map.MapStore;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.impl.Versioned;
 import com.hazelcast.spi.properties.ClusterProperty;
 
 import javax.annotation.Nonnull;
@@ -29,13 +31,14 @@ import java.util.Objects;
 import java.util.Properties;
 
 import static com.hazelcast.internal.util.Preconditions.checkHasText;
+import static com.hazelcast.internal.util.Preconditions.checkNotNegative;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 
 /**
  * Contains the configuration for a Map Store.
  */
 @SuppressWarnings("checkstyle:methodcount")
-public class MapStoreConfig implements IdentifiedDataSerializable {
+public class MapStoreConfig implements IdentifiedDataSerializable, Versioned {
     /**
      * Default delay seconds for writing
      */
@@ -48,6 +51,11 @@ public class MapStoreConfig implements IdentifiedDataSerializable {
      * Default write coalescing behavior
      */
     public static final boolean DEFAULT_WRITE_COALESCING = true;
+    /**
+     * Default load coalescing window in milliseconds, which means
+     * load coalescing is disabled
+     */
+    public static final int DEFAULT_LOAD_COALESCING_WINDOW_MILLIS = 0;
 
     private boolean enabled = true;
     private boolean writeCoalescing = DEFAULT_WRITE_COALESCING;
@@ -59,6 +67,7 @@ public class MapStoreConfig implements IdentifiedDataSerializable {
     private Object factoryImplementation;
     private Properties properties = new Properties();
     private InitialLoadMode initialLoadMode = InitialLoadMode.LAZY;
+    private int loadCoalescingWindowMillis = DEFAULT_LOAD_COALESCING_WINDOW_MILLIS;
 
     /**
      * Initial load module
@@ -87,6 +96,7 @@ public class MapStoreConfig implements IdentifiedDataSerializable {
         writeBatchSize = config.getWriteBatchSize();
         initialLoadMode = config.getInitialLoadMode();
         writeCoalescing = config.isWriteCoalescing();
+        loadCoalescingWindowMillis = config.getLoadCoalescingWindowMillis();
         properties.putAll(config.getProperties());
     }
 
@@ -322,6 +332,45 @@ public class MapStoreConfig implements IdentifiedDataSerializable {
         return this;
     }
 
+    /**
+     * Returns the load coalescing window in milliseconds.
+     *
+     * @return the load coalescing window in milliseconds, {@code 0} if
+     * load coalescing is disabled
+     * @see #setLoadCoalescingWindowMillis(int)
+     */
+    public int getLoadCoalescingWindowMillis() {
+        return loadCoalescingWindowMillis;
+    }
+
+    /**
+     * Sets the load coalescing window in milliseconds. Setting it is
+     * meaningful if you are using a {@link com.hazelcast.map.MapLoader}.
+     * <p>
+     * When the window is positive, the loads of single keys on cache
+     * misses are coalesced: concurrent loads of the same key share a single
+     * {@link com.hazelcast.map.MapLoader#load} call, and the misses of
+     * {@code IMap.get} are loaded off the partition threads. A miss is
+     * loaded right away if no other load is in progress, the misses of
+     * different keys requested while a load is in progress are collected
+     * for the window and then done in a single
+     * {@link com.hazelcast.map.MapLoader#loadAll} call.
+     * <p>
+     * Default value is {@value #DEFAULT_LOAD_COALESCING_WINDOW_MILLIS},
+     * which disables load coalescing.
+     *
+     * @param loadCoalescingWindowMillis the load coalescing window in
+     *                                   milliseconds, {@code 0} to disable
+     *                                   load coalescing
+     * @return this config instance
+     * @throws IllegalArgumentException if the window is negative
+     */
+    public MapStoreConfig setLoadCoalescingWindowMillis(int loadCoalescingWindowMillis) {
+        this.loadCoalescingWindowMillis = checkNotNegative(loadCoalescingWindowMillis,
+                "Load coalescing window must be zero or positive");
+        return this;
+    }
+
     @Override
     public String toString() {
         return "MapStoreConfig{"
@@ -335,10 +384,12 @@ public class MapStoreConfig implements IdentifiedDataSerializable {
                 + ", properties=" + properties
                 + ", initialLoadMode=" + initialLoadMode
                 + ", writeCoalescing=" + writeCoalescing
+                + ", loadCoalescingWindowMillis=" + loadCoalescingWindowMillis
                 + '}';
     }
 
     @Override
+    @SuppressWarnings("checkstyle:cyclomaticcomplexity")
     public final boolean equals(Object o) {
         if (this == o) {
             return true;
@@ -358,13 +409,14 @@ public class MapStoreConfig implements IdentifiedDataSerializable {
             && Objects.equals(factoryImplementation, that.factoryImplementation)
             && Objects.equals(factoryClassName, that.factoryClassName)
             && properties.equals(that.properties)
-            && initialLoadMode == that.initialLoadMode;
+            && initialLoadMode == that.initialLoadMode
+            && loadCoalescingWindowMillis == that.loadCoalescingWindowMillis;
     }
 
     @Override
     public final int hashCode() {
         return Objects.hash(enabled, writeCoalescing, implementation, className, factoryImplementation, factoryClassName,
-            writeDelaySeconds, writeBatchSize, properties, initialLoadMode);
+            writeDelaySeconds, writeBatchSize, properties, initialLoadMode, loadCoalescingWindowMillis);
     }
 
 
@@ -390,6 +442,10 @@ public class MapStoreConfig implements IdentifiedDataSerializable {
         out.writeObject(factoryImplementation);
         out.writeObject(properties);
         out.writeString(initialLoadMode.name());
+
+        if (out.getVersion().isGreaterOrEqual(Versions.V4_2)) {
+            out.writeInt(loadCoalescingWindowMillis);
+        }
     }
 
     @Override
@@ -404,5 +460,9 @@ public class MapStoreConfig implements IdentifiedDataSerializable {
         factoryImplementation = in.readObject();
         properties = in.readObject();
         initialLoadMode = InitialLoadMode.valueOf(in.readString());
+
+        if (in.getVersion().isGreaterOrEqual(Versions.V4_2)) {
+            loadCoalescingWindowMillis = in.readInt();
+        }
     }
 }
@@ -14,28 +14,83 @@
  * limitations under the License.
  */
 
+
 package com.hazelcast.flakeidgen.impl;
 
 import com.hazelcast.internal.util.Clock;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.LongConsumer;
+
+import static com.hazelcast.config.FlakeIdGeneratorConfig.MAXIMUM_PREFETCH_COUNT;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * A utility to serve IDs from IdBatch one by one, watching for validity.
  * It's a separate class due to testability.
+ * <p>
+ * The IDs are handed out from the current batch with a single CAS. If a
+ * prefetch executor is given, the next batch is fetched asynchronously
+ * once half of the current batch is handed out, so that the callers don't
+ * have to wait for it. In that case the batch size also adapts to the
+ * consumption rate: it grows if a batch is used up in less than {@link
+ * #TARGET_BATCH_LIFETIME_NANOS} and shrinks back towards the configured
+ * size if it lasts much longer.
  */
 public class AutoBatcher {
+
+    /**
+     * The desired time the batches of an adaptive batcher last.
+     */
+    static final long TARGET_BATCH_LIFETIME_NANOS = SECONDS.toNanos(1);
+
     private final int batchSize;
     private final long validity;
 
     private volatile Block block = new Block(new IdBatch(0, 0, 0), 0);
 
     private final IdBatchSupplier batchIdSupplier;
+    private final Executor prefetchExecutor;
+    private final LongConsumer waitListener;
+
+    /**
+     * The size of the batches fetched next, guarded by {@code this}
+     */
+    private int currentBatchSize;
+
+    /**
+     * The prefetched block or {@code null} if none is being prefetched,
+     * guarded by {@code this}
+     */
+    private CompletableFuture<Block> prefetchedBlock;
 
     public AutoBatcher(int batchSize, long validity, IdBatchSupplier idGenerator) {
+        this(batchSize, validity, idGenerator, null, null);
+    }
+
+    /**
+     * @param batchSize        the size of the batches, the minimum size if
+     *                         the batches are prefetched
+     * @param validity         the validity of the batches in milliseconds,
+     *                         0 or less for unlimited validity
+     * @param idGenerator      the supplier of the batches
+     * @param prefetchExecutor the executor to prefetch the batches on or
+     *                         {@code null} to fetch them only when the
+     *                         current batch is spent
+     * @param waitListener     the listener notified with the number of
+     *                         nanoseconds a caller waited for a batch or
+     *                         {@code null}
+     */
+    public AutoBatcher(int batchSize, long validity, IdBatchSupplier idGenerator, Executor prefetchExecutor,
+                       LongConsumer waitListener) {
         this.batchSize = batchSize;
         this.validity = validity;
         this.batchIdSupplier = idGenerator;
+        this.prefetchExecutor = prefetchExecutor;
+        this.waitListener = waitListener;
+        this.currentBatchSize = batchSize;
     }
 
     /**
@@ -47,6 +102,9 @@ public class AutoBatcher {
             Block block = this.block;
             long res = block.next();
             if (res != Long.MIN_VALUE) {
+                if (res == block.prefetchId && prefetchExecutor != null) {
+                    prefetch();
+                }
                 return res;
             }
 
@@ -55,22 +113,101 @@ public class AutoBatcher {
                     // new block was assigned in the meantime
                     continue;
                 }
-                this.block = new Block(batchIdSupplier.newIdBatch(batchSize), validity);
+                this.block = nextBlock(block);
             }
         }
     }
 
+    // package-visible for tests
+    synchronized int getCurrentBatchSize() {
+        return currentBatchSize;
+    }
+
+    /**
+     * Returns the block to replace the given spent or expired one with,
+     * either the prefetched one or a newly fetched one.
+     */
+    private Block nextBlock(Block spentBlock) {
+        assert Thread.holdsLock(this);
+        long start = System.nanoTime();
+        boolean waited = true;
+        Block next = null;
+        CompletableFuture<Block> future = prefetchedBlock;
+        if (future != null) {
+            prefetchedBlock = null;
+            waited = !future.isDone();
+            try {
+                next = future.join();
+            } catch (RuntimeException e) {
+                // fetch it again synchronously, which throws if it fails again
+                waited = true;
+            }
+        }
+        if (next == null) {
+            next = new Block(batchIdSupplier.newIdBatch(currentBatchSize), validity);
+        }
+
+        long now = System.nanoTime();
+        if (waited && waitListener != null) {
+            waitListener.accept(now - start);
+        }
+        if (prefetchExecutor != null) {
+            adaptBatchSize(spentBlock, now);
+        }
+        next.activeSinceNanos = now;
+        return next;
+    }
+
+    private synchronized void prefetch() {
+        if (prefetchedBlock != null) {
+            return;
+        }
+        CompletableFuture<Block> future = new CompletableFuture<>();
+        prefetchedBlock = future;
+        int size = currentBatchSize;
+        try {
+            prefetchExecutor.execute(() -> {
+                try {
+                    future.complete(new Block(batchIdSupplier.newIdBatch(size), validity));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
+    private void adaptBatchSize(Block spentBlock, long now) {
+        if (spentBlock.idBatch.batchSize() == 0) {
+            // the initial empty block
+            return;
+        }
+        long lifetime = now - spentBlock.activeSinceNanos;
+        if (spentBlock.isSpent() && lifetime < TARGET_BATCH_LIFETIME_NANOS / 2) {
+            currentBatchSize = (int) Math.min(2L * currentBatchSize, MAXIMUM_PREFETCH_COUNT);
+        } else if (lifetime > 2 * TARGET_BATCH_LIFETIME_NANOS || !spentBlock.isSpent()) {
+            currentBatchSize = Math.max(currentBatchSize / 2, batchSize);
+        }
+    }
+
     private static final class Block {
         private static final AtomicIntegerFieldUpdater<Block> NUM_RETURNED = AtomicIntegerFieldUpdater
                 .newUpdater(Block.class, "numReturned");
 
         private final IdBatch idBatch;
         private final long invalidSince;
+        /** The ID after which the next batch is prefetched */
+        private final long prefetchId;
         private volatile int numReturned;
+        /** The time the block became the current one, guarded by the batcher */
+        private long activeSinceNanos;
 
         private Block(IdBatch idBatch, long validity) {
             this.idBatch = idBatch;
             this.invalidSince = validity > 0 ? Clock.currentTimeMillis() + validity : Long.MAX_VALUE;
+            this.prefetchId = idBatch.batchSize() > 0
+                    ? idBatch.base() + idBatch.batchSize() / 2 * idBatch.increment() : Long.MIN_VALUE;
         }
 
         /**
@@ -89,10 +226,13 @@ public class AutoBatcher {
             } while (!NUM_RETURNED.compareAndSet(this, index, index + 1));
             return idBatch.base() + index * idBatch.increment();
         }
+
+        boolean isSpent() {
+            return numReturned == idBatch.batchSize();
+        }
     }
 
     public interface IdBatchSupplier {
         IdBatch newIdBatch(int batchSize);
     }
 }
-
@@ -38,6 +38,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
 import static com.hazelcast.internal.util.Preconditions.checkPositive;
 import static com.hazelcast.internal.util.Preconditions.checkTrue;
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.ASYNC_EXECUTOR;
 import static java.lang.Thread.currentThread;
 import static java.util.Collections.newSetFromMap;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -109,7 +110,8 @@ public class FlakeIdGeneratorProxy
                         }
                         return result.idBatch;
                     }
-                });
+                }, nodeEngine.getExecutionService().getExecutor(ASYNC_EXECUTOR),
+                waitNanos -> service.updateStatsForWait(name, waitNanos));
 
         if (logger.isFinestEnabled()) {
             logger.finest("Created FlakeIdGeneratorProxy, name='" + name + "'");
@@ -104,6 +104,20 @@ public class FlakeIdGeneratorService implements ManagedService, RemoteService,
         }
     }
 
+    /**
+     * Updates the statistics for the {@link FlakeIdGenerator} with the given
+     * name for a caller which had to wait for a new batch.
+     *
+     * @param name      name of the generator, not null
+     * @param waitNanos the time the caller waited in nanoseconds
+     */
+    public void updateStatsForWait(String name, long waitNanos) {
+        LocalFlakeIdGeneratorStatsImpl stats = getLocalFlakeIdStats(name);
+        if (stats != null) {
+            stats.updateWait(waitNanos);
+        }
+    }
+
     private LocalFlakeIdGeneratorStatsImpl getLocalFlakeIdStats(String name) {
         if (!nodeEngine.getConfig().getFlakeIdGeneratorConfig(name).isStatisticsEnabled()) {
             return null;
@@ -151,9 +151,12 @@ public class DefaultNodeExtension implements NodeExtension {
 
     private void checkPersistenceAllowed() {
         HotRestartPersistenceConfig hotRestartPersistenceConfig = node.getConfig().getHotRestartPersistenceConfig();
-        if (hotRestartPersistenceConfig != null && hotRestartPersistenceConfig.isEnabled()) {
+        // the map entries are persisted by the MapPersistenceManager, but only
+        // the enterprise edition encrypts them
+        if (hotRestartPersistenceConfig != null && hotRestartPersistenceConfig.isEnabled()
+                && hotRestartPersistenceConfig.getEncryptionAtRestConfig().isEnabled()) {
             if (!BuildInfoProvider.getBuildInfo().isEnterprise()) {
-                throw new IllegalStateException("Hot Restart requires Hazelcast Enterprise Edition");
+                throw new IllegalStateException("Encryption at rest requires Hazelcast Enterprise Edition");
             }
         }
 
@@ -257,6 +260,8 @@ public class DefaultNodeExtension implements NodeExtension {
 
     @Override
     public void afterStart() {
+        MapService mapService = node.nodeEngine.getService(MapService.SERVICE_NAME);
+        mapService.getMapServiceContext().getPersistenceManager().restore();
     }
 
     @Override
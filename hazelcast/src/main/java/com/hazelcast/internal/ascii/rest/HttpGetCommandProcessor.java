@@ -32,6 +32,8 @@ import com.hazelcast.internal.cluster.impl.ClusterServiceImpl;
 import com.hazelcast.internal.json.Json;
 import com.hazelcast.internal.json.JsonArray;
 import com.hazelcast.internal.json.JsonObject;
+import com.hazelcast.internal.metrics.impl.MetricsService;
+import com.hazelcast.internal.metrics.prometheus.PrometheusPublisher;
 import com.hazelcast.internal.partition.InternalPartitionService;
 import com.hazelcast.internal.server.Server;
 import com.hazelcast.internal.server.ServerConnection;
@@ -44,13 +46,17 @@ import java.util.concurrent.CompletionStage;
 import java.util.logging.Level;
 
 import static com.hazelcast.instance.EndpointQualifier.CLIENT;
+import static com.hazelcast.internal.ascii.rest.HttpCommand.RES_200;
 import static com.hazelcast.internal.util.ExceptionUtil.peel;
+import static com.hazelcast.internal.util.StringUtil.stringToBytes;
 
 @SuppressWarnings({"checkstyle:methodcount"})
 public class HttpGetCommandProcessor extends HttpCommandProcessor<HttpGetCommand> {
 
     public static final String QUEUE_SIZE_COMMAND = "size";
 
+    private static final byte[] CONTENT_TYPE_PROMETHEUS = stringToBytes(PrometheusPublisher.CONTENT_TYPE);
+
     private static final String HEALTH_PATH_PARAM_NODE_STATE = "/node-state";
     private static final String HEALTH_PATH_PARAM_CLUSTER_STATE = "/cluster-state";
     private static final String HEALTH_PATH_PARAM_CLUSTER_SAFE = "/cluster-safe";
@@ -94,6 +100,8 @@ public class HttpGetCommandProcessor extends HttpCommandProcessor<HttpGetCommand
                 sendResponse = false;
             } else if (uri.startsWith(URI_LOG_LEVEL)) {
                 handleLogLevel(command);
+            } else if (uri.startsWith(URI_METRICS)) {
+                handleMetrics(command);
             } else {
                 command.send404();
             }
@@ -109,6 +117,16 @@ public class HttpGetCommandProcessor extends HttpCommandProcessor<HttpGetCommand
         }
     }
 
+    private void handleMetrics(HttpGetCommand command) {
+        MetricsService metricsService = getNode().getNodeEngine().getService(MetricsService.SERVICE_NAME);
+        PrometheusPublisher publisher = metricsService.getPrometheusPublisher();
+        if (publisher == null) {
+            command.send404();
+            return;
+        }
+        command.setResponse(RES_200, CONTENT_TYPE_PROMETHEUS, publisher.getSnapshot());
+    }
+
     private void handleHealthReady(HttpGetCommand command) {
         Node node = textCommandService.getNode();
 
@@ -72,6 +72,7 @@ public abstract class AbstractJoiner
     // map blacklisted endpoints. Boolean value represents if blacklist is temporary or permanent
     protected final ConcurrentMap<Address, Boolean> blacklistedAddresses = new ConcurrentHashMap<>();
     protected final ClusterJoinManager clusterJoinManager;
+    protected final JoinTimings joinTimings = new JoinTimings();
 
     private final AtomicLong joinStartTime = new AtomicLong(Clock.currentTimeMillis());
     private final AtomicInteger tryCount = new AtomicInteger(0);
@@ -104,6 +105,13 @@ public abstract class AbstractJoiner
         return joinStartTime.get();
     }
 
+    /**
+     * @return the durations of the phases of the last join
+     */
+    public JoinTimings getJoinTimings() {
+        return joinTimings;
+    }
+
     @Override
     public void setTargetAddress(Address targetAddress) {
         this.targetAddress = targetAddress;
@@ -134,6 +142,7 @@ public abstract class AbstractJoiner
     @Override
     public final void join() {
         blacklistedAddresses.clear();
+        joinTimings.onJoinStart();
         doJoin();
         if (!clusterService.isJoined() && isMemberExcludedFromHotRestart()) {
             logger.warning("Could not join to the cluster because hot restart data must be reset.");
@@ -156,6 +165,7 @@ public abstract class AbstractJoiner
 
     private void postJoin() {
         blacklistedAddresses.clear();
+        joinTimings.onJoinEnd(clusterService.isJoined());
 
         if (logger.isFineEnabled()) {
             logger.fine("PostJoin master: " + clusterService.getMasterAddress() + ", isMaster: " + clusterService.isMaster());
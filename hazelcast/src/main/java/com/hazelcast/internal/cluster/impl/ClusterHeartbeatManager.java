@@ -20,6 +20,7 @@ import com.hazelcast.cluster.Address;
 import com.hazelcast.cluster.Member;
 import com.hazelcast.cluster.impl.MemberImpl;
 import com.hazelcast.config.IcmpFailureDetectorConfig;
+import com.hazelcast.config.SplitBrainProtectionConfig;
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.internal.cluster.MemberInfo;
 import com.hazelcast.internal.cluster.fd.ClusterFailureDetector;
@@ -31,9 +32,11 @@ import com.hazelcast.internal.cluster.impl.operations.ExplicitSuspicionOp;
 import com.hazelcast.internal.cluster.impl.operations.HeartbeatComplaintOp;
 import com.hazelcast.internal.cluster.impl.operations.HeartbeatOp;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.nio.ClassLoaderUtil;
 import com.hazelcast.internal.nio.Connection;
 import com.hazelcast.internal.util.Clock;
 import com.hazelcast.internal.util.ICMPHelper;
+import com.hazelcast.internal.util.counters.MwCounter;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.executionservice.ExecutionService;
@@ -41,13 +44,20 @@ import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.OperationService;
 import com.hazelcast.spi.properties.ClusterProperty;
 import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.splitbrainprotection.HeartbeatAware;
 import com.hazelcast.splitbrainprotection.impl.SplitBrainProtectionServiceImpl;
 
 import java.io.IOException;
 import java.net.ConnectException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.logging.Level;
@@ -56,9 +66,17 @@ import static com.hazelcast.cluster.memberselector.MemberSelectors.NON_LOCAL_MEM
 import static com.hazelcast.config.ConfigAccessor.getActiveMemberNetworkConfig;
 import static com.hazelcast.instance.EndpointQualifier.MEMBER;
 import static com.hazelcast.internal.cluster.impl.ClusterServiceImpl.CLUSTER_EXECUTOR_NAME;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CLUSTER_METRIC_HEARTBEAT_MANAGER_IMPLICIT_HEARTBEAT_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CLUSTER_METRIC_HEARTBEAT_MANAGER_LAST_DETECTION_LATENCY;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CLUSTER_METRIC_HEARTBEAT_MANAGER_LAST_HEARTBEAT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CLUSTER_METRIC_HEARTBEAT_MANAGER_MAX_DETECTION_LATENCY;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CLUSTER_METRIC_HEARTBEAT_MANAGER_MONITORED_MEMBER_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CLUSTER_METRIC_HEARTBEAT_MANAGER_SENT_HEARTBEAT_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CLUSTER_METRIC_HEARTBEAT_MANAGER_SKIPPED_HEARTBEAT_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CLUSTER_METRIC_HEARTBEAT_MANAGER_SUSPICION_COUNT;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
 import static com.hazelcast.internal.util.EmptyStatement.ignore;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.internal.util.StringUtil.timeToString;
 import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -76,6 +94,7 @@ import static java.util.stream.Collectors.toSet;
  * <p>
  * If it detects a member is not live anymore, that member is kicked out of cluster.
  */
+@SuppressWarnings("checkstyle:methodcount")
 public class ClusterHeartbeatManager {
 
     private static final long CLOCK_JUMP_THRESHOLD = MINUTES.toMillis(2);
@@ -84,6 +103,7 @@ public class ClusterHeartbeatManager {
     private static final long MIN_ICMP_INTERVAL_MILLIS = SECONDS.toMillis(1);
     private static final int DEFAULT_ICMP_TIMEOUT_MILLIS = 1000;
     private static final int DEFAULT_ICMP_INTERVAL_MILLIS = 1000;
+    private static final int MAX_SKIPPED_HEARTBEAT_COUNT = 4;
 
     private final ILogger logger;
     private final Lock clusterServiceLock;
@@ -104,10 +124,37 @@ public class ClusterHeartbeatManager {
     private final int icmpTimeoutMillis;
     private final int icmpIntervalMillis;
     private final int icmpMaxAttempts;
+    private final boolean piggybackingEnabled;
+    private final int samplingClusterSizeThreshold;
+    private final int samplingNeighbourCount;
+
+    /**
+     * The number of the explicit heartbeats skipped in a row per member,
+     * when the heartbeats are piggybacked on the regular traffic.
+     */
+    private final ConcurrentMap<UUID, Integer> skippedHeartbeatCounts = new ConcurrentHashMap<>();
 
     @Probe(name = CLUSTER_METRIC_HEARTBEAT_MANAGER_LAST_HEARTBEAT, unit = MS)
     private volatile long lastHeartbeat;
     private volatile long lastClusterTimeDiff;
+    /**
+     * The members whose heartbeats are monitored by this member in the
+     * sampled heartbeat topology, or {@code null} if all members are monitored
+     */
+    private volatile Set<UUID> monitoredMembers;
+
+    @Probe(name = CLUSTER_METRIC_HEARTBEAT_MANAGER_SENT_HEARTBEAT_COUNT)
+    private final MwCounter sentHeartbeatCount = newMwCounter();
+    @Probe(name = CLUSTER_METRIC_HEARTBEAT_MANAGER_SKIPPED_HEARTBEAT_COUNT)
+    private final MwCounter skippedHeartbeatCount = newMwCounter();
+    @Probe(name = CLUSTER_METRIC_HEARTBEAT_MANAGER_IMPLICIT_HEARTBEAT_COUNT)
+    private final MwCounter implicitHeartbeatCount = newMwCounter();
+    @Probe(name = CLUSTER_METRIC_HEARTBEAT_MANAGER_SUSPICION_COUNT)
+    private final MwCounter suspicionCount = newMwCounter();
+    @Probe(name = CLUSTER_METRIC_HEARTBEAT_MANAGER_LAST_DETECTION_LATENCY, unit = MS)
+    private volatile long lastDetectionLatency;
+    @Probe(name = CLUSTER_METRIC_HEARTBEAT_MANAGER_MAX_DETECTION_LATENCY, unit = MS)
+    private volatile long maxDetectionLatency;
 
     @SuppressWarnings({"checkstyle:npathcomplexity", "checkstyle:cyclomaticcomplexity", "checkstyle:executablestatementcount"})
     ClusterHeartbeatManager(Node node, ClusterServiceImpl clusterService, Lock lock) {
@@ -123,6 +170,13 @@ public class ClusterHeartbeatManager {
 
         heartbeatIntervalMillis = getHeartbeatInterval(hazelcastProperties);
         legacyIcmpCheckThresholdMillis = heartbeatIntervalMillis * HEART_BEAT_INTERVAL_FACTOR;
+        piggybackingEnabled = hazelcastProperties.getBoolean(ClusterProperty.HEARTBEAT_PIGGYBACKING_ENABLED);
+        samplingClusterSizeThreshold = getSamplingClusterSizeThreshold(hazelcastProperties);
+        samplingNeighbourCount = hazelcastProperties.getInteger(ClusterProperty.HEARTBEAT_SAMPLING_NEIGHBOUR_COUNT);
+        if (samplingClusterSizeThreshold > 0 && samplingNeighbourCount < 1) {
+            throw new IllegalArgumentException(ClusterProperty.HEARTBEAT_SAMPLING_NEIGHBOUR_COUNT.getName()
+                    + " must be positive! Current value: " + samplingNeighbourCount);
+        }
 
         IcmpFailureDetectorConfig icmpConfig
                 = getActiveMemberNetworkConfig(node.config).getIcmpFailureDetectorConfig();
@@ -148,6 +202,45 @@ public class ClusterHeartbeatManager {
         heartbeatFailureDetector = createHeartbeatFailureDetector(hazelcastProperties);
     }
 
+    /**
+     * Returns the cluster size from which heartbeats are sampled, or {@code 0}
+     * if a heartbeat-aware split brain protection function is configured:
+     * it observes the heartbeats received by this member, so it would only see
+     * the members monitored by this member and consider the others inactive.
+     */
+    private int getSamplingClusterSizeThreshold(HazelcastProperties properties) {
+        int threshold = properties.getInteger(ClusterProperty.HEARTBEAT_SAMPLING_CLUSTER_SIZE_THRESHOLD);
+        if (threshold <= 0) {
+            return threshold;
+        }
+        for (SplitBrainProtectionConfig config : node.config.getSplitBrainProtectionConfigs().values()) {
+            if (config.isEnabled() && isHeartbeatAware(config)) {
+                logger.severe("Heartbeat sampling (" + ClusterProperty.HEARTBEAT_SAMPLING_CLUSTER_SIZE_THRESHOLD.getName()
+                        + "=" + threshold + ") is disabled, since the split brain protection '" + config.getName()
+                        + "' uses a heartbeat-aware function, which needs the heartbeats of all members. Remove the"
+                        + " property or use a split brain protection function which is not heartbeat-aware.");
+                return 0;
+            }
+        }
+        return threshold;
+    }
+
+    private boolean isHeartbeatAware(SplitBrainProtectionConfig config) {
+        if (config.getFunctionImplementation() != null) {
+            return config.getFunctionImplementation() instanceof HeartbeatAware;
+        }
+        if (config.getFunctionClassName() == null) {
+            return false;
+        }
+        try {
+            return HeartbeatAware.class.isAssignableFrom(
+                    ClassLoaderUtil.loadClass(node.getConfigClassLoader(), config.getFunctionClassName()));
+        } catch (ClassNotFoundException e) {
+            // fails when the split brain protection is created
+            return false;
+        }
+    }
+
     private PingFailureDetector createIcmpFailureDetectorIfNeeded() {
         IcmpFailureDetectorConfig icmpFailureDetectorConfig
                 = getActiveMemberNetworkConfig(node.config).getIcmpFailureDetectorConfig();
@@ -199,6 +292,24 @@ public class ClusterHeartbeatManager {
         return heartbeatFailureDetector.lastHeartbeat(member);
     }
 
+    /**
+     * Returns whether the heartbeats of the given member are monitored by
+     * this member. In the sampled heartbeat topology a non-master member
+     * monitors only some of the members.
+     *
+     * @see ClusterProperty#HEARTBEAT_SAMPLING_CLUSTER_SIZE_THRESHOLD
+     */
+    public boolean isMonitored(Member member) {
+        Set<UUID> monitoredMembers = this.monitoredMembers;
+        return monitoredMembers == null || monitoredMembers.contains(member.getUuid());
+    }
+
+    @Probe(name = CLUSTER_METRIC_HEARTBEAT_MANAGER_MONITORED_MEMBER_COUNT)
+    private int monitoredMemberCount() {
+        Set<UUID> monitoredMembers = this.monitoredMembers;
+        return monitoredMembers != null ? monitoredMembers.size() : clusterService.getSize() - 1;
+    }
+
     private static long getHeartbeatInterval(HazelcastProperties hazelcastProperties) {
         long heartbeatInterval = hazelcastProperties.getMillis(ClusterProperty.HEARTBEAT_INTERVAL_SECONDS);
         return heartbeatInterval > 0 ? heartbeatInterval : TimeUnit.SECONDS.toMillis(1);
@@ -487,9 +598,14 @@ public class ClusterHeartbeatManager {
      * @param now the current cluster clock time
      */
     private void heartbeatWhenMaster(long now) {
-        for (Member member : clusterService.getMembers(NON_LOCAL_MEMBER_SELECTOR)) {
+        Collection<Member> members = clusterService.getMembers(NON_LOCAL_MEMBER_SELECTOR);
+        // the master monitors all members
+        resetHeartbeatsOfNewlyMonitoredMembers(now, members, null);
+        monitoredMembers = null;
+        for (Member member : members) {
             try {
                 logIfConnectionToEndpointIsMissing(now, member);
+                applyImplicitHeartbeat(now, member);
                 if (suspectMemberIfNotHeartBeating(now, member)) {
                     continue;
                 }
@@ -524,6 +640,7 @@ public class ClusterHeartbeatManager {
                             + " Now: %s, heartbeat timeout: %d ms, suspicion level: %.2f",
                     member, timeToString(lastHeartbeat), timeToString(now), maxNoHeartbeatMillis, suspicionLevel);
             logger.warning(reason);
+            onHeartbeatTimeout(now - lastHeartbeat);
             clusterService.suspectMember(member, reason, true);
             return true;
         }
@@ -544,27 +661,148 @@ public class ClusterHeartbeatManager {
      */
     private void heartbeatWhenSlave(long now) {
         MembershipManager membershipManager = clusterService.getMembershipManager();
+        Collection<Member> members = clusterService.getMembers(NON_LOCAL_MEMBER_SELECTOR);
+        HeartbeatTopology topology = createHeartbeatTopology(now, members);
 
-        for (Member member : clusterService.getMembers(NON_LOCAL_MEMBER_SELECTOR)) {
+        for (Member member : members) {
             try {
-                logIfConnectionToEndpointIsMissing(now, member);
+                if (topology.isMonitored(member)) {
+                    logIfConnectionToEndpointIsMissing(now, member);
+                    applyImplicitHeartbeat(now, member);
 
-                if (suspectMemberIfNotHeartBeating(now, member)) {
-                    continue;
+                    if (suspectMemberIfNotHeartBeating(now, member)) {
+                        continue;
+                    }
                 }
 
-                if (membershipManager.isMemberSuspected((MemberImpl) member)) {
+                if (membershipManager.isMemberSuspected((MemberImpl) member) || !topology.isHeartbeatTarget(member)) {
                     continue;
                 }
 
-                pingMemberIfRequired(now, member);
-                sendHeartbeat(member);
+                if (topology.isMonitored(member)) {
+                    pingMemberIfRequired(now, member);
+                }
+                sendHeartbeatIfNotPiggybacked(member);
             } catch (Throwable e) {
                 logger.severe(e);
             }
         }
     }
 
+    /**
+     * Returns the members this member monitors and sends heartbeats to.
+     * In the sampled topology, the non-master members are arranged in a ring
+     * in the order of the member list: a member sends heartbeats to the next
+     * {@link #samplingNeighbourCount} members and monitors the previous ones.
+     * All members send heartbeats to and monitor the master. The heartbeat
+     * timestamps of the members which have just become monitored are reset,
+     * so that they are not suspected because of the heartbeats they were not
+     * expected to send.
+     */
+    private HeartbeatTopology createHeartbeatTopology(long now, Collection<Member> members) {
+        if (samplingClusterSizeThreshold <= 0 || members.size() + 1 < samplingClusterSizeThreshold) {
+            resetHeartbeatsOfNewlyMonitoredMembers(now, members, null);
+            monitoredMembers = null;
+            return HeartbeatTopology.ALL_TO_ALL;
+        }
+
+        List<Member> ring = new ArrayList<>(members.size() + 1);
+        Address masterAddress = clusterService.getMasterAddress();
+        Member master = null;
+        for (Member member : clusterService.getMembers()) {
+            if (member.getAddress().equals(masterAddress)) {
+                master = member;
+            } else {
+                ring.add(member);
+            }
+        }
+
+        Set<UUID> monitored = new HashSet<>();
+        Set<UUID> heartbeatTargets = new HashSet<>();
+        if (master != null) {
+            monitored.add(master.getUuid());
+            heartbeatTargets.add(master.getUuid());
+        }
+        int localIndex = ring.indexOf(clusterService.getLocalMember());
+        int neighbourCount = Math.min(samplingNeighbourCount, ring.size() - 1);
+        for (int i = 1; localIndex >= 0 && i <= neighbourCount; i++) {
+            heartbeatTargets.add(ring.get((localIndex + i) % ring.size()).getUuid());
+            monitored.add(ring.get((localIndex - i + ring.size()) % ring.size()).getUuid());
+        }
+
+        resetHeartbeatsOfNewlyMonitoredMembers(now, members, monitored);
+        monitoredMembers = monitored;
+        return new HeartbeatTopology(monitored, heartbeatTargets);
+    }
+
+    private void resetHeartbeatsOfNewlyMonitoredMembers(long now, Collection<Member> members, Set<UUID> monitored) {
+        Set<UUID> previouslyMonitored = monitoredMembers;
+        if (previouslyMonitored == null) {
+            return;
+        }
+        for (Member member : members) {
+            UUID uuid = member.getUuid();
+            if ((monitored == null || monitored.contains(uuid)) && !previouslyMonitored.contains(uuid)) {
+                heartbeatFailureDetector.heartbeat(member, now);
+            }
+        }
+    }
+
+    /**
+     * Treats the packets recently read from the connection of the given
+     * member as a heartbeat of the member, if the heartbeats are piggybacked
+     * on the regular traffic. The implicit heartbeats are spaced at least
+     * half a heartbeat interval apart, like the explicit ones, so that they
+     * don't distort the heartbeat interval statistics of the failure
+     * detector.
+     */
+    private void applyImplicitHeartbeat(long now, Member member) {
+        if (!piggybackingEnabled) {
+            return;
+        }
+        Connection connection = node.getServer().getConnectionManager(MEMBER).get(member.getAddress());
+        if (connection == null || !connection.isAlive()) {
+            return;
+        }
+        long lastReadTime = connection.lastReadTimeMillis() + clusterClock.getClusterTimeDiff();
+        long lastHeartbeatTime = heartbeatFailureDetector.lastHeartbeat(member);
+        if (now - lastReadTime < heartbeatIntervalMillis && lastReadTime - lastHeartbeatTime >= heartbeatIntervalMillis / 2) {
+            heartbeatFailureDetector.heartbeat(member, lastReadTime);
+            nodeEngine.getSplitBrainProtectionService().onHeartbeat(member, lastReadTime);
+            implicitHeartbeatCount.inc();
+        }
+    }
+
+    /**
+     * Sends a heartbeat to the given non-master member unless the heartbeat
+     * can be piggybacked on the packets recently written to the connection
+     * of the member. At most {@link #MAX_SKIPPED_HEARTBEAT_COUNT} heartbeats
+     * are skipped in a row, so that the member list validation done by the
+     * receiver of the explicit heartbeat still takes place.
+     */
+    private void sendHeartbeatIfNotPiggybacked(Member member) {
+        if (piggybackingEnabled && !member.getAddress().equals(clusterService.getMasterAddress())) {
+            Connection connection = node.getServer().getConnectionManager(MEMBER).get(member.getAddress());
+            int skippedCount = skippedHeartbeatCounts.getOrDefault(member.getUuid(), 0);
+            if (connection != null && connection.isAlive() && skippedCount < MAX_SKIPPED_HEARTBEAT_COUNT
+                    && Clock.currentTimeMillis() - connection.lastWriteTimeMillis() < heartbeatIntervalMillis / 2) {
+                skippedHeartbeatCounts.put(member.getUuid(), skippedCount + 1);
+                skippedHeartbeatCount.inc();
+                return;
+            }
+            skippedHeartbeatCounts.remove(member.getUuid());
+        }
+        sendHeartbeat(member);
+    }
+
+    private void onHeartbeatTimeout(long detectionLatency) {
+        suspicionCount.inc();
+        lastDetectionLatency = detectionLatency;
+        if (detectionLatency > maxDetectionLatency) {
+            maxDetectionLatency = detectionLatency;
+        }
+    }
+
     private boolean isMaster(MemberImpl member) {
         return member.getAddress().equals(clusterService.getMasterAddress());
     }
@@ -633,6 +871,7 @@ public class ClusterHeartbeatManager {
             Operation op = new HeartbeatOp(membersViewMetadata, target.getUuid(), clusterTime, suspectedMembers);
             op.setCallerUuid(clusterService.getThisUuid());
             node.nodeEngine.getOperationService().send(op, target.getAddress());
+            sentHeartbeatCount.inc();
         } catch (Exception e) {
             if (logger.isFineEnabled()) {
                 logger.fine(format("Error while sending heartbeat -> %s[%s]", e.getClass().getName(), e.getMessage()));
@@ -667,6 +906,7 @@ public class ClusterHeartbeatManager {
     /** Remove the {@code member}'s heartbeat timestamps */
     void removeMember(MemberImpl member) {
         heartbeatFailureDetector.remove(member);
+        skippedHeartbeatCounts.remove(member.getUuid());
         if (icmpParallelMode) {
             icmpFailureDetector.remove(member);
         }
@@ -674,11 +914,38 @@ public class ClusterHeartbeatManager {
 
     void reset() {
         heartbeatFailureDetector.reset();
+        skippedHeartbeatCounts.clear();
+        monitoredMembers = null;
         if (icmpParallelMode) {
             icmpFailureDetector.reset();
         }
     }
 
+    /**
+     * The members monitored by this member and the members this member
+     * sends heartbeats to.
+     */
+    private static final class HeartbeatTopology {
+
+        static final HeartbeatTopology ALL_TO_ALL = new HeartbeatTopology(null, null);
+
+        private final Set<UUID> monitoredMembers;
+        private final Set<UUID> heartbeatTargets;
+
+        HeartbeatTopology(Set<UUID> monitoredMembers, Set<UUID> heartbeatTargets) {
+            this.monitoredMembers = monitoredMembers;
+            this.heartbeatTargets = heartbeatTargets;
+        }
+
+        boolean isMonitored(Member member) {
+            return monitoredMembers == null || monitoredMembers.contains(member.getUuid());
+        }
+
+        boolean isHeartbeatTarget(Member member) {
+            return heartbeatTargets == null || heartbeatTargets.contains(member.getUuid());
+        }
+    }
+
     private class PingTask
             implements Runnable {
 
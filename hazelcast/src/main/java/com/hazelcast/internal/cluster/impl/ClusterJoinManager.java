@@ -55,9 +55,12 @@ import com.hazelcast.version.Version;
 import javax.security.auth.login.LoginContext;
 import javax.security.auth.login.LoginException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -106,6 +109,7 @@ public class ClusterJoinManager {
     private long firstJoinRequest;
     private long timeToStartJoin;
     private volatile boolean joinInProgress;
+    private volatile Set<Address> expectedJoiningAddresses = Collections.emptySet();
 
     ClusterJoinManager(Node node, ClusterServiceImpl clusterService, Lock clusterServiceLock) {
         this.node = node;
@@ -451,11 +455,27 @@ public class ClusterJoinManager {
                     + " with a new UUID " + memberInfo.getUuid()
                     + ". Previous UUID was " + existing.getUuid());
         }
-        if (now >= timeToStartJoin) {
+        if (now >= timeToStartJoin || isAllExpectedMembersJoining()) {
             startJoin();
         }
     }
 
+    /**
+     * Sets the addresses of the members which are expected to join this
+     * member, e.g. the members of the last known member list. If this member
+     * is the master and received the join requests of all of them, it starts
+     * the join without waiting for {@link ClusterProperty#WAIT_SECONDS_BEFORE_JOIN}.
+     */
+    void setExpectedJoiningAddresses(Collection<Address> addresses) {
+        expectedJoiningAddresses = new HashSet<>(addresses);
+    }
+
+    // called under cluster service lock
+    private boolean isAllExpectedMembersJoining() {
+        Set<Address> expectedAddresses = expectedJoiningAddresses;
+        return !expectedAddresses.isEmpty() && joiningMembers.keySet().containsAll(expectedAddresses);
+    }
+
     /**
      * Send join request to {@code toAddress}.
      *
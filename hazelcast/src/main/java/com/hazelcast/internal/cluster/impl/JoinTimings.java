@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.cluster.impl;
+
+import com.hazelcast.internal.util.Clock;
+
+/**
+ * Durations of the phases of the last join of this member, measured from
+ * the start of the join. A duration is {@code -1} if its phase didn't
+ * complete (yet) or isn't tracked by the joiner in use.
+ *
+ * @see com.hazelcast.internal.diagnostics.MemberHazelcastInstanceInfoPlugin
+ */
+public final class JoinTimings {
+
+    private volatile long startMillis;
+    private volatile long addressResolutionMillis = -1;
+    private volatile long masterDiscoveryMillis = -1;
+    private volatile long joinMillis = -1;
+    private volatile int probedAddressCount;
+    private volatile int cachedAddressCount;
+
+    void onJoinStart() {
+        startMillis = Clock.currentTimeMillis();
+        addressResolutionMillis = -1;
+        masterDiscoveryMillis = -1;
+        joinMillis = -1;
+        probedAddressCount = 0;
+        cachedAddressCount = 0;
+    }
+
+    void onAddressesResolved(int probedAddressCount, int cachedAddressCount) {
+        this.probedAddressCount = probedAddressCount;
+        this.cachedAddressCount = cachedAddressCount;
+        addressResolutionMillis = elapsedMillis();
+    }
+
+    void onMasterFound() {
+        if (masterDiscoveryMillis == -1) {
+            masterDiscoveryMillis = elapsedMillis();
+        }
+    }
+
+    void onJoinEnd(boolean joined) {
+        if (joined) {
+            joinMillis = elapsedMillis();
+        }
+    }
+
+    /**
+     * @return the time the last join started
+     */
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /**
+     * @return the duration of resolving the addresses of the possible members
+     */
+    public long getAddressResolutionMillis() {
+        return addressResolutionMillis;
+    }
+
+    /**
+     * @return the duration until the master was known
+     */
+    public long getMasterDiscoveryMillis() {
+        return masterDiscoveryMillis;
+    }
+
+    /**
+     * @return the duration until this member joined the cluster
+     */
+    public long getJoinMillis() {
+        return joinMillis;
+    }
+
+    /**
+     * @return the number of addresses probed for the master
+     */
+    public int getProbedAddressCount() {
+        return probedAddressCount;
+    }
+
+    /**
+     * @return the number of probed addresses which were only known from the
+     * cached member list
+     */
+    public int getCachedAddressCount() {
+        return cachedAddressCount;
+    }
+
+    private long elapsedMillis() {
+        return Clock.currentTimeMillis() - startMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "JoinTimings{"
+                + "addressResolutionMillis=" + addressResolutionMillis
+                + ", masterDiscoveryMillis=" + masterDiscoveryMillis
+                + ", joinMillis=" + joinMillis
+                + ", probedAddressCount=" + probedAddressCount
+                + ", cachedAddressCount=" + cachedAddressCount
+                + '}';
+    }
+}
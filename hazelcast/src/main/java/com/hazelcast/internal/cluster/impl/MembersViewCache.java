@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.cluster.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.cluster.MembershipEvent;
+import com.hazelcast.cluster.MembershipListener;
+import com.hazelcast.instance.impl.Node;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.logging.ILogger;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Stores the last known {@link MembersView} of the cluster in a local file,
+ * so that a restarting member can use the members of its last cluster as
+ * join candidates. The file is rewritten whenever the member list changes,
+ * the members view is stored in its serialized form.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#TCP_JOIN_MEMBERS_VIEW_CACHE_FILE
+ */
+final class MembersViewCache implements MembershipListener {
+
+    private final Node node;
+    private final Path file;
+    private final ILogger logger;
+
+    MembersViewCache(Node node, String fileName) {
+        this.node = node;
+        this.file = Paths.get(fileName);
+        this.logger = node.getLogger(MembersViewCache.class);
+    }
+
+    /**
+     * Returns the addresses of the members of the cached members view other
+     * than this member, or an empty collection if there is no readable
+     * cached members view.
+     */
+    Collection<Address> readAddresses() {
+        if (!Files.isRegularFile(file)) {
+            return Collections.emptySet();
+        }
+        try {
+            InternalSerializationService serializationService = node.getSerializationService();
+            MembersView membersView = serializationService.toObject(new HeapData(Files.readAllBytes(file)));
+            Set<Address> addresses = new LinkedHashSet<>(membersView.getAddresses());
+            addresses.remove(node.getThisAddress());
+            if (logger.isFineEnabled()) {
+                logger.fine("Read cached members view " + membersView + " from " + file);
+            }
+            return addresses;
+        } catch (Exception e) {
+            logger.warning("Could not read the cached members view from " + file, e);
+            return Collections.emptySet();
+        }
+    }
+
+    /**
+     * Stores the given members view, replacing the previously stored one.
+     */
+    synchronized void store(MembersView membersView) {
+        Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            byte[] bytes = node.getSerializationService().toData(membersView).toByteArray();
+            Files.write(tmpFile, bytes);
+            IOUtil.move(tmpFile, file);
+        } catch (Exception e) {
+            logger.warning("Could not store the members view in " + file, e);
+        }
+    }
+
+    @Override
+    public void memberAdded(MembershipEvent membershipEvent) {
+        store(node.getClusterService().getMembershipManager().getMembersView());
+    }
+
+    @Override
+    public void memberRemoved(MembershipEvent membershipEvent) {
+        store(node.getClusterService().getMembershipManager().getMembersView());
+    }
+}
@@ -26,6 +26,7 @@ import com.hazelcast.internal.cluster.impl.SplitBrainJoinMessage.SplitBrainMerge
 import com.hazelcast.internal.cluster.impl.operations.JoinMastershipClaimOp;
 import com.hazelcast.cluster.Address;
 import com.hazelcast.internal.nio.Connection;
+import com.hazelcast.internal.server.ServerConnectionManager;
 import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
 import com.hazelcast.spi.properties.ClusterProperty;
 import com.hazelcast.internal.util.AddressUtil;
@@ -38,10 +39,12 @@ import java.net.UnknownHostException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.internal.cluster.impl.ClusterServiceImpl.SERVICE_NAME;
 import static com.hazelcast.config.ConfigAccessor.getActiveMemberNetworkConfig;
@@ -54,11 +57,15 @@ import static com.hazelcast.internal.util.FutureUtil.returnWithDeadline;
 public class TcpIpJoiner extends AbstractJoiner {
 
     private static final long JOIN_RETRY_WAIT_TIME = 1000L;
+    private static final long PARALLEL_PROBE_INTERVAL_MILLIS = 50L;
     private static final int MASTERSHIP_CLAIM_TIMEOUT = 10;
 
     private final int maxPortTryCount;
     private volatile boolean claimingMastership;
     private final JoinConfig joinConfig;
+    private final boolean parallelProbing;
+    private final MembersViewCache membersViewCache;
+    private final AtomicBoolean membersViewCacheListening = new AtomicBoolean();
 
     public TcpIpJoiner(Node node) {
         super(node);
@@ -69,6 +76,9 @@ public class TcpIpJoiner extends AbstractJoiner {
         }
         maxPortTryCount = tryCount;
         joinConfig = getActiveMemberNetworkConfig(config).getJoin();
+        parallelProbing = node.getProperties().getBoolean(ClusterProperty.TCP_JOIN_PARALLEL_PROBING_ENABLED);
+        String membersViewCacheFile = node.getProperties().getString(ClusterProperty.TCP_JOIN_MEMBERS_VIEW_CACHE_FILE);
+        membersViewCache = membersViewCacheFile != null ? new MembersViewCache(node, membersViewCacheFile) : null;
     }
 
     public boolean isClaimingMastership() {
@@ -95,6 +105,20 @@ public class TcpIpJoiner extends AbstractJoiner {
         } else {
             joinViaPossibleMembers();
         }
+        if (membersViewCache != null && clusterService.isJoined()) {
+            cacheMembersView();
+        }
+    }
+
+    /**
+     * Stores the current members view and keeps it up to date on member list
+     * changes.
+     */
+    private void cacheMembersView() {
+        if (membersViewCacheListening.compareAndSet(false, true)) {
+            clusterService.addMembershipListener(membersViewCache);
+        }
+        membersViewCache.store(clusterService.getMembershipManager().getMembersView());
     }
 
     private void joinViaTargetMember(Address targetAddress, long maxJoinMillis) {
@@ -134,12 +158,19 @@ public class TcpIpJoiner extends AbstractJoiner {
     private void joinViaPossibleMembers() {
         try {
             Collection<Address> possibleAddresses = getPossibleAddressesForInitialJoin();
+            Collection<Address> probedAddresses = parallelProbing
+                    ? getProbedAddresses(possibleAddresses) : possibleAddresses;
+            joinTimings.onAddressesResolved(probedAddresses.size(), probedAddresses.size() - possibleAddresses.size());
 
             long maxJoinMillis = getMaxJoinMillis();
             long startTime = Clock.currentTimeMillis();
 
             while (shouldRetry() && (Clock.currentTimeMillis() - startTime < maxJoinMillis)) {
-                tryJoinAddresses(possibleAddresses);
+                if (parallelProbing) {
+                    probeAddressesInParallel(probedAddresses);
+                } else {
+                    tryJoinAddresses(possibleAddresses);
+                }
 
                 if (clusterService.isJoined()) {
                     return;
@@ -190,6 +221,24 @@ public class TcpIpJoiner extends AbstractJoiner {
         return getPossibleAddresses();
     }
 
+    /**
+     * Returns the addresses to probe for the master in the parallel probing
+     * mode: the members of the cached members view followed by the given
+     * possible addresses. The cached members are also expected to join, so
+     * that this member can start the join without waiting if it becomes the
+     * master.
+     */
+    private Collection<Address> getProbedAddresses(Collection<Address> possibleAddresses) {
+        if (membersViewCache == null) {
+            return possibleAddresses;
+        }
+        Collection<Address> cachedAddresses = membersViewCache.readAddresses();
+        clusterJoinManager.setExpectedJoiningAddresses(cachedAddresses);
+        Set<Address> probedAddresses = new LinkedHashSet<>(cachedAddresses);
+        probedAddresses.addAll(possibleAddresses);
+        return probedAddresses;
+    }
+
     private boolean claimMastership(Collection<Address> possibleAddresses) {
         if (logger.isFineEnabled()) {
             Set<Address> votingEndpoints = new HashSet<>(possibleAddresses);
@@ -251,6 +300,7 @@ public class TcpIpJoiner extends AbstractJoiner {
             }
 
             if (masterAddress != null) {
+                joinTimings.onMasterFound();
                 if (logger.isFineEnabled()) {
                     logger.fine("Sending join request to " + masterAddress);
                 }
@@ -265,6 +315,63 @@ public class TcpIpJoiner extends AbstractJoiner {
         }
     }
 
+    /**
+     * Like {@link #tryJoinAddresses(Collection)}, but connects to all given
+     * addresses at once and, instead of probing them in rounds of {@link
+     * #JOIN_RETRY_WAIT_TIME}, sends the master question to each address as
+     * soon as it is connected and the join request as soon as the master is
+     * known. The master question and the join request are repeated every
+     * {@link #JOIN_RETRY_WAIT_TIME} until this member joins.
+     */
+    private void probeAddressesInParallel(Collection<Address> addresses) throws InterruptedException {
+        ServerConnectionManager connectionManager = node.getServer().getConnectionManager(MEMBER);
+        long connectionTimeoutMillis = TimeUnit.SECONDS.toMillis(getConnTimeoutSeconds());
+        long start = Clock.currentTimeMillis();
+        Set<Address> askedAddresses = new HashSet<>();
+        long lastRoundStart = start;
+        Address joinRequestTarget = null;
+
+        while (!clusterService.isJoined() && Clock.currentTimeMillis() - start < connectionTimeoutMillis) {
+            long now = Clock.currentTimeMillis();
+            if (now - lastRoundStart >= JOIN_RETRY_WAIT_TIME) {
+                askedAddresses.clear();
+                joinRequestTarget = null;
+                lastRoundStart = now;
+            }
+
+            Address masterAddress = clusterService.getMasterAddress();
+            if (masterAddress != null) {
+                joinTimings.onMasterFound();
+                if (!masterAddress.equals(joinRequestTarget)) {
+                    if (logger.isFineEnabled()) {
+                        logger.fine("Sending join request to " + masterAddress);
+                    }
+                    clusterJoinManager.sendJoinRequest(masterAddress);
+                    joinRequestTarget = masterAddress;
+                }
+            } else if (isAllBlacklisted(addresses)) {
+                return;
+            } else {
+                sendMasterQuestionToConnected(connectionManager, addresses, askedAddresses);
+            }
+
+            if (!clusterService.isJoined()) {
+                Thread.sleep(PARALLEL_PROBE_INTERVAL_MILLIS);
+            }
+        }
+    }
+
+    private void sendMasterQuestionToConnected(ServerConnectionManager connectionManager, Collection<Address> addresses,
+                                               Set<Address> askedAddresses) {
+        for (Address address : addresses) {
+            if (!isBlacklisted(address) && !askedAddresses.contains(address)
+                    && connectionManager.getOrConnect(address) != null
+                    && clusterJoinManager.sendMasterQuestion(address)) {
+                askedAddresses.add(address);
+            }
+        }
+    }
+
     private boolean isAllBlacklisted(Collection<Address> possibleAddresses) {
         return blacklistedAddresses.keySet().containsAll(possibleAddresses);
     }
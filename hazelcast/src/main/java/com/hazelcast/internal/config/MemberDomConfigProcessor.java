@@ -2230,6 +2230,9 @@ public class MemberDomConfigProcessor extends AbstractDomConfigProcessor {
             } else if (matches("write-batch-size", nodeName)) {
                 mapStoreConfig.setWriteBatchSize(getIntegerValue("write-batch-size", getTextContent(n)
                 ));
+            } else if (matches("load-coalescing-window-millis", nodeName)) {
+                mapStoreConfig.setLoadCoalescingWindowMillis(getIntegerValue("load-coalescing-window-millis",
+                        getTextContent(n)));
             } else if (matches("write-coalescing", nodeName)) {
                 String writeCoalescing = getTextContent(n);
                 if (isNullOrEmpty(writeCoalescing)) {
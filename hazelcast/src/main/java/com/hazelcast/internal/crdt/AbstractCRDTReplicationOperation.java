@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.crdt;
 
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
 import com.hazelcast.internal.partition.MigrationCycleOperation;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
@@ -42,6 +43,8 @@ public abstract class AbstractCRDTReplicationOperation<T extends IdentifiedDataS
         extends Operation implements IdentifiedDataSerializable, MigrationCycleOperation {
     /** The map from CRDT name to CRDT state */
     private Map<String, T> replicationData;
+    /** The size of the CRDT states when this operation was last serialized */
+    private volatile int serializedSize;
 
     protected AbstractCRDTReplicationOperation() {
     }
@@ -76,13 +79,26 @@ public abstract class AbstractCRDTReplicationOperation<T extends IdentifiedDataS
         return CRDTDataSerializerHook.F_ID;
     }
 
+    /**
+     * Returns the number of bytes the replicated CRDT states took when this
+     * operation was last serialized, or {@code 0} if it has not been
+     * serialized, e.g. because it was executed locally.
+     */
+    public int getSerializedSize() {
+        return serializedSize;
+    }
+
     @Override
     protected void writeInternal(ObjectDataOutput out) throws IOException {
+        final int start = out instanceof BufferObjectDataOutput ? ((BufferObjectDataOutput) out).position() : 0;
         out.writeInt(replicationData.size());
         for (Entry<String, T> entry : replicationData.entrySet()) {
             out.writeString(entry.getKey());
             out.writeObject(entry.getValue());
         }
+        if (out instanceof BufferObjectDataOutput) {
+            serializedSize = ((BufferObjectDataOutput) out).position() - start;
+        }
     }
 
     @Override
@@ -38,13 +38,21 @@ public interface CRDTReplicationAwareService<T> {
      * be of the same type.
      * A return value of {@code null} means that there should not be any
      * replication operation.
+     * <p>
+     * If {@code deltas} is {@code true}, the target is known to have observed
+     * the CRDT states at the provided vector clocks and the operation may
+     * contain only the state changed since then. Otherwise the complete
+     * states of the changed CRDTs are replicated.
      *
      * @param lastReplicatedVectorClock last successfully replicated vector clock
      * @param targetIndex               the index of the replication target in
      *                                  the membership list containing only data members
+     * @param deltas                    whether only the state changed since the
+     *                                  last replicated vector clocks may be replicated
      * @return the replication operation and the replicated vector clocks
      */
-    CRDTReplicationContainer prepareReplicationOperation(Map<String, VectorClock> lastReplicatedVectorClock, int targetIndex);
+    CRDTReplicationContainer prepareReplicationOperation(Map<String, VectorClock> lastReplicatedVectorClock, int targetIndex,
+                                                         boolean deltas);
 
     /** Returns the name of the service */
     String getName();
@@ -19,13 +19,16 @@ package com.hazelcast.internal.crdt;
 import com.hazelcast.cluster.Member;
 import com.hazelcast.cluster.impl.VectorClock;
 import com.hazelcast.config.CRDTReplicationConfig;
+import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.services.GracefulShutdownAwareService;
 import com.hazelcast.internal.services.ManagedService;
 import com.hazelcast.internal.services.MembershipAwareService;
 import com.hazelcast.internal.services.MembershipServiceEvent;
+import com.hazelcast.internal.util.counters.MwCounter;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.InternalCompletableFuture;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.OperationService;
 
@@ -37,6 +40,12 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.cluster.memberselector.MemberSelectors.DATA_MEMBER_SELECTOR;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CRDT_REPLICATION_METRIC_FAILED_REPLICATION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CRDT_REPLICATION_METRIC_REPLICATED_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CRDT_REPLICATION_METRIC_REPLICATION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CRDT_REPLICATION_PREFIX;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 
 /**
  * Service that handles replication and migration of CRDT data for all CRDT
@@ -68,6 +77,13 @@ public class CRDTReplicationMigrationService implements ManagedService, Membersh
      */
     public static final String CRDT_REPLICATION_MIGRATION_EXECUTOR = "hz:CRDTReplicationMigration";
 
+    @Probe(name = CRDT_REPLICATION_METRIC_REPLICATION_COUNT)
+    private final MwCounter replicationCount = newMwCounter();
+    @Probe(name = CRDT_REPLICATION_METRIC_FAILED_REPLICATION_COUNT)
+    private final MwCounter failedReplicationCount = newMwCounter();
+    @Probe(name = CRDT_REPLICATION_METRIC_REPLICATED_BYTES, unit = BYTES)
+    private final MwCounter replicatedBytes = newMwCounter();
+
     private ScheduledFuture<?> replicationTask;
     private NodeEngine nodeEngine;
     private ILogger logger;
@@ -87,6 +103,7 @@ public class CRDTReplicationMigrationService implements ManagedService, Membersh
         int maxTargets = replicationConfig != null
                 ? replicationConfig.getMaxConcurrentReplicationTargets()
                 : CRDTReplicationConfig.DEFAULT_MAX_CONCURRENT_REPLICATION_TARGETS;
+        ((NodeEngineImpl) nodeEngine).getMetricsRegistry().registerStaticMetrics(this, CRDT_REPLICATION_PREFIX);
         this.replicationTask = nodeEngine.getExecutionService().scheduleWithRepetition(
                 CRDT_REPLICATION_MIGRATION_EXECUTOR, new CRDTReplicationTask(nodeEngine, maxTargets, this),
                 replicationPeriod, replicationPeriod, TimeUnit.MILLISECONDS);
@@ -134,8 +151,10 @@ public class CRDTReplicationMigrationService implements ManagedService, Membersh
         long timeoutNanos = unit.toNanos(timeout);
         for (CRDTReplicationAwareService service : getReplicationServices()) {
             service.prepareToSafeShutdown();
+            // the state is replicated to any member, which might not have
+            // observed the state at the replicated vector clocks
             final CRDTReplicationContainer replicationOperation = service.prepareReplicationOperation(
-                    replicationVectorClocks.getLatestReplicatedVectorClock(service.getName()), 0);
+                    replicationVectorClocks.getLatestReplicatedVectorClock(service.getName()), 0, false);
             if (replicationOperation == null) {
                 logger.fine("Skipping replication since all CRDTs are replicated");
                 continue;
@@ -235,13 +254,41 @@ public class CRDTReplicationMigrationService implements ManagedService, Membersh
         replicationVectorClocks.setReplicatedVectorClocks(serviceName, memberUUID, vectorClocks);
     }
 
+    /**
+     * Records the outcome of a replication operation sent to another member.
+     *
+     * @param operation  the replication operation
+     * @param successful whether the operation was processed successfully
+     */
+    void onReplication(Operation operation, boolean successful) {
+        if (!successful) {
+            failedReplicationCount.inc();
+            return;
+        }
+        replicationCount.inc();
+        if (operation instanceof AbstractCRDTReplicationOperation) {
+            replicatedBytes.inc(((AbstractCRDTReplicationOperation) operation).getSerializedSize());
+        }
+    }
+
     @Override
     public void memberAdded(MembershipServiceEvent event) {
-        scheduleMigrationTask(0);
+        onMembershipChange();
     }
 
     @Override
     public void memberRemoved(MembershipServiceEvent event) {
+        onMembershipChange();
+    }
+
+    /**
+     * Forgets the replicated vector clocks, since a member which stops being
+     * a replica of a CRDT migrates and clears its state. Without the clocks,
+     * the complete CRDT states are replicated instead of the deltas, so that
+     * the replicas assigned by the new membership list get them.
+     */
+    private void onMembershipChange() {
+        replicationVectorClocks.clear();
         scheduleMigrationTask(0);
     }
 
@@ -35,6 +35,10 @@ import static com.hazelcast.cluster.memberselector.MemberSelectors.DATA_MEMBER_S
  * {@link CRDTReplicationAwareService}. This task is a runnable that is
  * meant to be executed by an executor. The task may be interrupted in
  * which case some CRDT states may not be replicated.
+ * <p>
+ * All changed CRDT states of a service are sent to a target in a single
+ * operation. Since the vector clocks of the states last replicated to the
+ * target are known, the operation contains only the changes since then.
  */
 class CRDTReplicationTask implements Runnable {
     private final NodeEngine nodeEngine;
@@ -102,7 +106,7 @@ class CRDTReplicationTask implements Runnable {
 
         final OperationService operationService = nodeEngine.getOperationService();
         final CRDTReplicationContainer replicationOperation =
-                service.prepareReplicationOperation(lastSuccessfullyReplicatedClocks, targetIndex);
+                service.prepareReplicationOperation(lastSuccessfullyReplicatedClocks, targetIndex, true);
 
         if (replicationOperation == null) {
             logger.finest("Skipping replication of " + service.getName() + " for target " + target);
@@ -113,7 +117,9 @@ class CRDTReplicationTask implements Runnable {
             operationService.invokeOnTarget(null, replicationOperation.getOperation(), target.getAddress()).joinInternal();
             replicationMigrationService.setReplicatedVectorClocks(service.getName(), target.getUuid(),
                     replicationOperation.getVectorClocks());
+            replicationMigrationService.onReplication(replicationOperation.getOperation(), true);
         } catch (Exception e) {
+            replicationMigrationService.onReplication(replicationOperation.getOperation(), false);
             if (logger.isFineEnabled()) {
                 logger.fine("Failed replication of " + service.getName() + " for target " + target, e);
             } else {
@@ -116,6 +116,13 @@ class ReplicatedVectorClocks {
         return latestVectorClocks;
     }
 
+    /**
+     * Removes the vector clocks for all CRDTs and all replicas.
+     */
+    public void clear() {
+        replicatedVectorClocks.clear();
+    }
+
     /**
      * An identifier for a CRDT vector clock map. The clock is identified by
      * the CRDT service name and the target member UUID.
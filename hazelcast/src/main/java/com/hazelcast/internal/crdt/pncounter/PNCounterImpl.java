@@ -300,6 +300,41 @@ public class PNCounterImpl implements CRDT<PNCounterImpl>, IdentifiedDataSeriali
         }
     }
 
+    /**
+     * Returns the part of the state of this PN counter which has changed
+     * since the given vector clock, i.e. the counts of the replicas whose
+     * timestamps are greater than the ones in the given clock. The returned
+     * delta can be {@link #merge merged} into any replica which has already
+     * observed the state at the given vector clock, with the same result as
+     * merging the complete state of this PN counter. The vector clock of the
+     * delta contains only the timestamps of the replicas it contains counts
+     * for, so merging it does not mark the other counts as observed.
+     *
+     * @param sinceVectorClock the vector clock of the state which has
+     *                         already been observed
+     * @return the delta or {@code null} if nothing has changed
+     */
+    public PNCounterImpl delta(VectorClock sinceVectorClock) {
+        stateReadLock.lock();
+        try {
+            final PNCounterImpl delta = new PNCounterImpl();
+            delta.name = name;
+            for (Entry<UUID, long[]> replicaState : state.entrySet()) {
+                final UUID replicaId = replicaState.getKey();
+                final Long timestamp = stateVectorClock.getTimestampForReplica(replicaId);
+                final Long sinceTimestamp = sinceVectorClock.getTimestampForReplica(replicaId);
+                if (sinceTimestamp == null || timestamp > sinceTimestamp) {
+                    final long[] pnValues = replicaState.getValue();
+                    delta.state.put(replicaId, new long[]{pnValues[0], pnValues[1]});
+                    delta.stateVectorClock.setReplicaTimestamp(replicaId, timestamp);
+                }
+            }
+            return delta.state.isEmpty() ? null : delta;
+        } finally {
+            stateReadLock.unlock();
+        }
+    }
+
     @Override
     public VectorClock getCurrentVectorClock() {
         return new VectorClock(stateVectorClock);
@@ -169,7 +169,7 @@ public class PNCounterService implements ManagedService, RemoteService, CRDTRepl
 
     @Override
     public CRDTReplicationContainer prepareReplicationOperation(
-            Map<String, VectorClock> previouslyReplicatedVectorClocks, int targetIndex) {
+            Map<String, VectorClock> previouslyReplicatedVectorClocks, int targetIndex, boolean deltas) {
         final HashMap<String, VectorClock> currentVectorClocks = new HashMap<String, VectorClock>();
         final HashMap<String, PNCounterImpl> counters = new HashMap<String, PNCounterImpl>();
         final Config config = nodeEngine.getConfig();
@@ -183,8 +183,15 @@ public class PNCounterService implements ManagedService, RemoteService, CRDTRepl
             final VectorClock counterCurrentVectorClock = counter.getCurrentVectorClock();
             final VectorClock counterPreviousVectorClock = previouslyReplicatedVectorClocks.get(counterName);
 
-            if (counterPreviousVectorClock == null || counterCurrentVectorClock.isAfter(counterPreviousVectorClock)) {
+            if (counterPreviousVectorClock == null) {
                 counters.put(counterName, counter);
+            } else if (counterCurrentVectorClock.isAfter(counterPreviousVectorClock)) {
+                // the delta is taken after the current clock, so it may
+                // contain more changes than the ones recorded as replicated
+                final PNCounterImpl delta = deltas ? counter.delta(counterPreviousVectorClock) : counter;
+                if (delta != null) {
+                    counters.put(counterName, delta);
+                }
             }
             currentVectorClocks.put(counterName, counterCurrentVectorClock);
         }
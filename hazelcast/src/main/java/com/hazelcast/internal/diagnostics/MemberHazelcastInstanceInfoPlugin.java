@@ -18,6 +18,9 @@ package com.hazelcast.internal.diagnostics;
 
 import com.hazelcast.cluster.Member;
 import com.hazelcast.instance.impl.NodeState;
+import com.hazelcast.internal.cluster.Joiner;
+import com.hazelcast.internal.cluster.impl.AbstractJoiner;
+import com.hazelcast.internal.cluster.impl.JoinTimings;
 import com.hazelcast.cluster.Address;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.properties.HazelcastProperty;
@@ -86,6 +89,25 @@ public class MemberHazelcastInstanceInfoPlugin extends DiagnosticsPlugin {
         }
         writer.endSection();
 
+        renderJoinTimings(writer);
+
+        writer.endSection();
+    }
+
+    private void renderJoinTimings(DiagnosticsLogWriter writer) {
+        Joiner joiner = nodeEngine.getNode().getJoiner();
+        if (!(joiner instanceof AbstractJoiner)) {
+            return;
+        }
+        JoinTimings joinTimings = ((AbstractJoiner) joiner).getJoinTimings();
+        writer.startSection("JoinTimings");
+        writer.writeKeyValueEntry("joiner", joiner.getType());
+        writer.writeKeyValueEntryAsDateTime("startTime", joinTimings.getStartMillis());
+        writer.writeKeyValueEntry("addressResolutionMillis", joinTimings.getAddressResolutionMillis());
+        writer.writeKeyValueEntry("masterDiscoveryMillis", joinTimings.getMasterDiscoveryMillis());
+        writer.writeKeyValueEntry("joinMillis", joinTimings.getJoinMillis());
+        writer.writeKeyValueEntry("probedAddressCount", joinTimings.getProbedAddressCount());
+        writer.writeKeyValueEntry("cachedAddressCount", joinTimings.getCachedAddressCount());
         writer.endSection();
     }
 }
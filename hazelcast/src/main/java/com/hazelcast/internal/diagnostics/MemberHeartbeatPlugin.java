@@ -105,8 +105,8 @@ public class MemberHeartbeatPlugin extends DiagnosticsPlugin {
         long nowMillis = System.currentTimeMillis();
         for (MemberImpl member : clusterService.getMemberImpls()) {
             long lastHeartbeatMillis = clusterHeartbeatManager.getLastHeartbeatTime(member);
-            if (lastHeartbeatMillis == 0L) {
-                // member without a heartbeat; lets skip it
+            if (lastHeartbeatMillis == 0L || !clusterHeartbeatManager.isMonitored(member)) {
+                // member without a heartbeat or not expected to send heartbeats to this member; lets skip it
                 continue;
             }
 
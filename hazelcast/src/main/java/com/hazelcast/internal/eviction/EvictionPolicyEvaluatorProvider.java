@@ -55,6 +55,28 @@ public final class EvictionPolicyEvaluatorProvider {
         return new EvictionPolicyEvaluator<>(getEvictionPolicyComparator(evictionConfig, classLoader));
     }
 
+    /**
+     * Gets the {@link EvictionPolicyEvaluator} implementation specified
+     * with {@code evictionPolicy} which compares the frequencies estimated
+     * by the given sketch before applying the configured comparator.
+     *
+     * @param evictionConfig  {@link EvictionConfiguration} for
+     *                        requested {@link EvictionPolicyEvaluator} implementation
+     * @param classLoader     the {@link java.lang.ClassLoader} to be
+     *                        used while creating custom {@link EvictionPolicyComparator}
+     *                        if it is specified in the config
+     * @param frequencySketch the sketch of the {@link EvictionPolicy#TINY_LFU} policy
+     * @return the requested
+     * {@link EvictionPolicyEvaluator} implementation
+     */
+    public static <A, E extends Evictable> EvictionPolicyEvaluator<A, E>
+    getEvictionPolicyEvaluator(EvictionConfiguration evictionConfig, ClassLoader classLoader,
+                               FrequencySketch frequencySketch) {
+        checkNotNull(evictionConfig);
+
+        return new EvictionPolicyEvaluator<>(getEvictionPolicyComparator(evictionConfig, classLoader), frequencySketch);
+    }
+
     /**
      * @param evictionConfig {@link EvictionConfiguration} for
      *                       requested {@link EvictionPolicyEvaluator} implementation
@@ -90,6 +112,9 @@ public final class EvictionPolicyEvaluatorProvider {
     private static EvictionPolicyComparator pickOutOfTheBoxComparator(EvictionPolicy evictionPolicy) {
         switch (evictionPolicy) {
             case LRU:
+            case TINY_LFU:
+                // TINY_LFU compares the sketched frequencies first
+                // and falls back to LRU among equally frequent entries
                 return LRUEvictionPolicyComparator.INSTANCE;
             case LFU:
                 return LFUEvictionPolicyComparator.INSTANCE;
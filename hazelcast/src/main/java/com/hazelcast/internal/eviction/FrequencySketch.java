@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction;
+
+import com.hazelcast.internal.util.QuickMath;
+
+/**
+ * Count-min sketch estimating the access frequency of keys, used by the
+ * {@link com.hazelcast.config.EvictionPolicy#TINY_LFU TINY_LFU} eviction
+ * policy instead of per-entry hit counters.
+ * <p>
+ * Each key is mapped to four 4-bit counters, the estimated frequency of
+ * the key is the minimum of them, so it is at most 15. Sixteen counters
+ * are packed into a {@code long} and the four counters of a key are taken
+ * from the same {@code long}, so that an update touches a single cache
+ * line. To let the frequencies adapt to a changing workload, all counters
+ * are halved once the number of increments reaches ten times the capacity
+ * of the sketch (aging, see the TinyLFU paper by Einziger, Friedman and
+ * Manes).
+ * <p>
+ * The sketch takes 8 bytes per expected entry, up to 512 MB, and grows
+ * with the number of entries, see {@link #ensureCapacity(int)}.
+ * <p>
+ * The sketch is not synchronized. When it is accessed concurrently, e.g.
+ * by the Near Cache, racing updates may get lost, but a counter is never
+ * incremented beyond {@value #MAX_FREQUENCY}, so the estimation only gets
+ * less accurate.
+ */
+@SuppressWarnings("checkstyle:magicnumber")
+public final class FrequencySketch {
+
+    /**
+     * Maximum value of a counter.
+     */
+    public static final int MAX_FREQUENCY = 15;
+
+    static final int MIN_CAPACITY = 16;
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L,
+    };
+    private static final int SAMPLE_SIZE_FACTOR = 10;
+    private static final int MAX_TABLE_LENGTH = 1 << 26;
+
+    private long[] table;
+    private int sampleSize;
+    private int incrementCount;
+
+    /**
+     * @param expectedSize the expected number of distinct keys
+     */
+    public FrequencySketch(int expectedSize) {
+        allocate(expectedSize);
+    }
+
+    /**
+     * Grows the sketch if it is too small for the given number of
+     * distinct keys. Growing the sketch discards the collected
+     * frequencies.
+     *
+     * @param expectedSize the expected number of distinct keys
+     */
+    public void ensureCapacity(int expectedSize) {
+        if (expectedSize > table.length && table.length < MAX_TABLE_LENGTH) {
+            allocate(expectedSize);
+        }
+    }
+
+    /**
+     * Returns the estimated access frequency of the key with the given
+     * hash, between {@code 0} and {@value #MAX_FREQUENCY}.
+     */
+    public int frequency(int hash) {
+        long[] table = this.table;
+        int spread = spread(hash);
+        int frequency = MAX_FREQUENCY;
+        int start = (spread & 3) << 2;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int index = indexOf(table, spread, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & MAX_FREQUENCY);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Records an access of the key with the given hash.
+     */
+    public void increment(int hash) {
+        long[] table = this.table;
+        int spread = spread(hash);
+        int start = (spread & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            added |= incrementAt(table, indexOf(table, spread, i), start + i);
+        }
+        if (added && ++incrementCount >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Returns the number of counters which can be tracked without
+     * excessive collisions.
+     */
+    public int capacity() {
+        return table.length;
+    }
+
+    private void allocate(int expectedSize) {
+        int length = QuickMath.nextPowerOfTwo(Math.max(MIN_CAPACITY, Math.min(MAX_TABLE_LENGTH, expectedSize)));
+        sampleSize = SAMPLE_SIZE_FACTOR * length;
+        incrementCount = 0;
+        table = new long[length];
+    }
+
+    private static boolean incrementAt(long[] table, int index, int counter) {
+        int offset = counter << 2;
+        long mask = (long) MAX_FREQUENCY << offset;
+        // read the word once, so that a racing update can't make the counter overflow
+        long word = table[index];
+        if ((word & mask) != mask) {
+            table[index] = word + (1L << offset);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Halves all counters and the increment count. The odd counters lose
+     * half an increment each, which is subtracted from the increment
+     * count as well.
+     */
+    private void reset() {
+        long[] table = this.table;
+        int oddCount = 0;
+        for (int i = 0; i < table.length; i++) {
+            oddCount += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        incrementCount = Math.max(0, (incrementCount >>> 1) - (oddCount >>> 2));
+    }
+
+    private static int indexOf(long[] table, int spread, int i) {
+        long hash = (spread + SEEDS[i]) * SEEDS[i];
+        hash += hash >>> 32;
+        return ((int) hash) & (table.length - 1);
+    }
+
+    private static int spread(int hash) {
+        int h = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        h = ((h >>> 16) ^ h) * 0x45d9f3b;
+        return (h >>> 16) ^ h;
+    }
+}
@@ -19,6 +19,7 @@ package com.hazelcast.internal.eviction.impl.evaluator;
 import com.hazelcast.internal.eviction.Evictable;
 import com.hazelcast.internal.eviction.EvictionCandidate;
 import com.hazelcast.internal.eviction.Expirable;
+import com.hazelcast.internal.eviction.FrequencySketch;
 import com.hazelcast.internal.util.Clock;
 import com.hazelcast.spi.eviction.EvictionPolicyComparator;
 
@@ -33,9 +34,22 @@ import com.hazelcast.spi.eviction.EvictionPolicyComparator;
 public class EvictionPolicyEvaluator<A, E extends Evictable> {
 
     private final EvictionPolicyComparator comparator;
+    private final FrequencySketch frequencySketch;
 
     public EvictionPolicyEvaluator(EvictionPolicyComparator comparator) {
+        this(comparator, null);
+    }
+
+    /**
+     * @param comparator      the comparator deciding between candidates
+     *                        of equal estimated frequency
+     * @param frequencySketch the sketch estimating the access frequencies
+     *                        by the hash codes of the candidates' accessors,
+     *                        {@code null} to only use the comparator
+     */
+    public EvictionPolicyEvaluator(EvictionPolicyComparator comparator, FrequencySketch frequencySketch) {
         this.comparator = comparator;
+        this.frequencySketch = frequencySketch;
     }
 
     public EvictionPolicyComparator getEvictionPolicyComparator() {
@@ -71,13 +85,25 @@ public class EvictionPolicyEvaluator<A, E extends Evictable> {
             }
 
             // check if current candidate is more eligible than selected.
-            if (comparator.compare(current, selected) < 0) {
+            if (isMoreEligible(current, selected)) {
                 selected = current;
             }
         }
         return selected;
     }
 
+    @SuppressWarnings("checkstyle:rvcheckcomparetoforspecificreturnvalue")
+    private boolean isMoreEligible(EvictionCandidate<A, E> current, EvictionCandidate<A, E> selected) {
+        if (frequencySketch != null) {
+            int currentFrequency = frequencySketch.frequency(current.getAccessor().hashCode());
+            int selectedFrequency = frequencySketch.frequency(selected.getAccessor().hashCode());
+            if (currentFrequency != selectedFrequency) {
+                return currentFrequency < selectedFrequency;
+            }
+        }
+        return comparator.compare(current, selected) < 0;
+    }
+
     private static boolean isExpired(Evictable evictable, long now) {
         if (!(evictable instanceof Expirable)) {
             return false;
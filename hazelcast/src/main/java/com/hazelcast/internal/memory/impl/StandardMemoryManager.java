@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.memory.MemorySize;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+
+/**
+ * {@link MemoryManager} which allocates every block directly from the operating
+ * system through {@code Unsafe.allocateMemory} and bounds the total amount of
+ * allocated memory by a fixed capacity.
+ * <p>
+ * The manager keeps an exact account of the bytes handed out, so the
+ * {@link #getUsedNative()} and {@link #getFreeNative()} figures can be used to
+ * enforce native memory max-size policies. It is thread-safe; the blocks it
+ * returns are not, and must be confined by their owners.
+ */
+public class StandardMemoryManager implements MemoryManager {
+
+    private final long maxNative;
+    private final AtomicLong usedNative = new AtomicLong();
+    private final MemoryAllocator allocator = new Allocator();
+    private final MemoryAccessor accessor;
+
+    private volatile boolean disposed;
+
+    public StandardMemoryManager(long maxNative) {
+        checkPositive("maxNative", maxNative);
+        if (!UnsafeUtil.UNSAFE_AVAILABLE || !GlobalMemoryAccessorRegistry.MEM_AVAILABLE) {
+            throw new IllegalStateException("Native memory allocation requires sun.misc.Unsafe,"
+                    + " which is not available on this platform!");
+        }
+        this.maxNative = maxNative;
+        this.accessor = GlobalMemoryAccessorRegistry.MEM;
+    }
+
+    @Override
+    public MemoryAllocator getAllocator() {
+        return allocator;
+    }
+
+    @Override
+    public MemoryAccessor getAccessor() {
+        return accessor;
+    }
+
+    /**
+     * @return the maximum number of bytes this manager may allocate
+     */
+    public long getMaxNative() {
+        return maxNative;
+    }
+
+    /**
+     * @return the number of bytes currently allocated and not yet freed
+     */
+    public long getUsedNative() {
+        return usedNative.get();
+    }
+
+    /**
+     * @return the number of bytes which may still be allocated
+     */
+    public long getFreeNative() {
+        return Math.max(0, maxNative - usedNative.get());
+    }
+
+    /**
+     * Marks this manager as disposed. Any further allocation request fails,
+     * blocks which are still allocated have to be freed by their owners.
+     */
+    @Override
+    public void dispose() {
+        disposed = true;
+    }
+
+    private void reserve(long size) {
+        if (disposed) {
+            throw new IllegalStateException("Memory manager has already been disposed!");
+        }
+        for (;;) {
+            long used = usedNative.get();
+            long newUsed = used + size;
+            if (newUsed > maxNative) {
+                throw new NativeOutOfMemoryError("Not enough native memory to allocate " + size + " bytes! "
+                        + "Used: " + MemorySize.toPrettyString(used)
+                        + ", max: " + MemorySize.toPrettyString(maxNative));
+            }
+            if (usedNative.compareAndSet(used, newUsed)) {
+                return;
+            }
+        }
+    }
+
+    private final class Allocator implements MemoryAllocator {
+
+        @Override
+        public long allocate(long size) {
+            checkPositive("size", size);
+            reserve(size);
+            long address;
+            try {
+                address = UNSAFE.allocateMemory(size);
+            } catch (OutOfMemoryError e) {
+                usedNative.addAndGet(-size);
+                throw new NativeOutOfMemoryError("Unable to allocate " + size + " bytes", e);
+            }
+            UNSAFE.setMemory(address, size, (byte) 0);
+            return address;
+        }
+
+        @Override
+        public long reallocate(long address, long currentSize, long newSize) {
+            checkPositive("newSize", newSize);
+            long diff = newSize - currentSize;
+            if (diff > 0) {
+                reserve(diff);
+            }
+            long newAddress;
+            try {
+                newAddress = UNSAFE.reallocateMemory(address, newSize);
+            } catch (OutOfMemoryError e) {
+                if (diff > 0) {
+                    usedNative.addAndGet(-diff);
+                }
+                throw new NativeOutOfMemoryError("Unable to reallocate " + newSize + " bytes", e);
+            }
+            if (diff > 0) {
+                UNSAFE.setMemory(newAddress + currentSize, diff, (byte) 0);
+            } else {
+                usedNative.addAndGet(diff);
+            }
+            return newAddress;
+        }
+
+        @Override
+        public void free(long address, long size) {
+            UNSAFE.freeMemory(address);
+            usedNative.addAndGet(-size);
+        }
+
+        @Override
+        public void dispose() {
+            StandardMemoryManager.this.dispose();
+        }
+    }
+}
@@ -86,6 +86,13 @@ public final class MetricDescriptorConstants {
     public static final String CLUSTER_METRIC_CLUSTER_CLOCK_LOCAL_CLOCK_TIME = "localClockTime";
     public static final String CLUSTER_METRIC_CLUSTER_CLOCK_CLUSTER_START_TIME = "clusterStartTime";
     public static final String CLUSTER_METRIC_HEARTBEAT_MANAGER_LAST_HEARTBEAT = "lastHeartbeat";
+    public static final String CLUSTER_METRIC_HEARTBEAT_MANAGER_SENT_HEARTBEAT_COUNT = "sentHeartbeatCount";
+    public static final String CLUSTER_METRIC_HEARTBEAT_MANAGER_SKIPPED_HEARTBEAT_COUNT = "skippedHeartbeatCount";
+    public static final String CLUSTER_METRIC_HEARTBEAT_MANAGER_IMPLICIT_HEARTBEAT_COUNT = "implicitHeartbeatCount";
+    public static final String CLUSTER_METRIC_HEARTBEAT_MANAGER_MONITORED_MEMBER_COUNT = "monitoredMemberCount";
+    public static final String CLUSTER_METRIC_HEARTBEAT_MANAGER_SUSPICION_COUNT = "suspicionCount";
+    public static final String CLUSTER_METRIC_HEARTBEAT_MANAGER_LAST_DETECTION_LATENCY = "lastDetectionLatency";
+    public static final String CLUSTER_METRIC_HEARTBEAT_MANAGER_MAX_DETECTION_LATENCY = "maxDetectionLatency";
     public static final String CLUSTER_METRIC_CLUSTER_SERVICE_SIZE = "size";
     // ===[/CLUSTER]====================================================
 
@@ -111,6 +118,13 @@ public final class MetricDescriptorConstants {
     public static final String CP_METRIC_RAFT_SERVICE_MISSING_MEMBERS = "missingMembers";
     // ===[/CP SUBSYSTEM]===============================================
 
+    // ===[CRDT REPLICATION]============================================
+    public static final String CRDT_REPLICATION_PREFIX = "crdtReplication";
+    public static final String CRDT_REPLICATION_METRIC_REPLICATION_COUNT = "replicationCount";
+    public static final String CRDT_REPLICATION_METRIC_FAILED_REPLICATION_COUNT = "failedReplicationCount";
+    public static final String CRDT_REPLICATION_METRIC_REPLICATED_BYTES = "replicatedBytes";
+    // ===[/CRDT REPLICATION]===========================================
+
     // ===[EVENT]=======================================================
     public static final String EVENT_PREFIX = "event";
     public static final String EVENT_DISCRIMINATOR_SERVICE = "service";
@@ -167,6 +181,8 @@ public final class MetricDescriptorConstants {
     public static final String FLAKE_ID_METRIC_CREATION_TIME = "creationTime";
     public static final String FLAKE_ID_METRIC_BATCH_COUNT = "batchCount";
     public static final String FLAKE_ID_METRIC_ID_COUNT = "idCount";
+    public static final String FLAKE_ID_METRIC_WAIT_COUNT = "waitCount";
+    public static final String FLAKE_ID_METRIC_TOTAL_WAIT_TIME = "totalWaitTime";
     // ===[/FLAKE ID GENERATOR]=========================================
 
     // ===[GC]==========================================================
@@ -208,8 +224,15 @@ public final class MetricDescriptorConstants {
     public static final String MAP_PREFIX_INDEX = "map.index";
     public static final String MAP_PREFIX_NEARCACHE = "map.nearcache";
     public static final String MAP_PREFIX_ENTRY_PROCESSOR_OFFLOADABLE_EXECUTOR = "map.entry.processor.offloadable.executor";
+    public static final String MAP_PREFIX_EXPIRATION = "map.expiration";
+    public static final String MAP_PREFIX_LOAD = "map.load";
+    public static final String MAP_PREFIX_LOAD_COALESCING = "map.loadCoalescing";
+    public static final String MAP_PREFIX_QUERY_CACHE = "map.querycache";
+    public static final String MAP_PREFIX_TIERED_STORAGE = "map.tieredStorage";
+    public static final String MAP_PREFIX_PERSISTENCE = "map.persistence";
     public static final String MAP_DISCRIMINATOR_NAME = "name";
     public static final String MAP_TAG_INDEX = "index";
+    public static final String MAP_TAG_QUERY_CACHE = "querycache";
     public static final String MAP_METRIC_LAST_ACCESS_TIME = "lastAccessTime";
     public static final String MAP_METRIC_LAST_UPDATE_TIME = "lastUpdateTime";
     public static final String MAP_METRIC_HITS = "hits";
@@ -251,6 +274,42 @@ public final class MetricDescriptorConstants {
     public static final String MAP_METRIC_INDEX_REMOVE_COUNT = "removeCount";
     public static final String MAP_METRIC_INDEX_TOTAL_REMOVE_LATENCY = "totalRemoveLatency";
     public static final String MAP_METRIC_INDEX_MEMORY_COST = "memoryCost";
+    public static final String MAP_METRIC_EXPIRATION_EXPIRED_COUNT = "expiredCount";
+    public static final String MAP_METRIC_EXPIRATION_TOTAL_EXPIRY_LAG = "totalExpiryLag";
+    public static final String MAP_METRIC_EXPIRATION_MAX_EXPIRY_LAG = "maxExpiryLag";
+    public static final String MAP_METRIC_LOAD_PENDING_KEY_COUNT = "pendingKeyCount";
+    public static final String MAP_METRIC_LOAD_IN_FLIGHT_BATCH_COUNT = "inFlightBatchCount";
+    public static final String MAP_METRIC_LOAD_LOADED_BATCH_COUNT = "loadedBatchCount";
+    public static final String MAP_METRIC_LOAD_FAILED_BATCH_COUNT = "failedBatchCount";
+    public static final String MAP_METRIC_LOAD_LOADED_ENTRY_COUNT = "loadedEntryCount";
+    public static final String MAP_METRIC_LOAD_THROUGHPUT = "throughput";
+    public static final String MAP_METRIC_LOAD_COALESCING_LOAD_COUNT = "loadCount";
+    public static final String MAP_METRIC_LOAD_COALESCING_COALESCED_LOAD_COUNT = "coalescedLoadCount";
+    public static final String MAP_METRIC_LOAD_COALESCING_BATCH_COUNT = "batchCount";
+    public static final String MAP_METRIC_LOAD_COALESCING_BATCHED_KEY_COUNT = "batchedKeyCount";
+    public static final String MAP_METRIC_QUERY_CACHE_APPLIED_EVENT_COUNT = "appliedEventCount";
+    public static final String MAP_METRIC_QUERY_CACHE_APPLIED_BATCH_COUNT = "appliedBatchCount";
+    public static final String MAP_METRIC_QUERY_CACHE_COALESCED_EVENT_COUNT = "coalescedEventCount";
+    public static final String MAP_METRIC_QUERY_CACHE_TOTAL_APPLY_LATENCY = "totalApplyLatency";
+    public static final String MAP_METRIC_QUERY_CACHE_MAX_APPLY_LATENCY = "maxApplyLatency";
+    public static final String MAP_METRIC_TIERED_STORAGE_HOT_HIT_COUNT = "hotHitCount";
+    public static final String MAP_METRIC_TIERED_STORAGE_COLD_HIT_COUNT = "coldHitCount";
+    public static final String MAP_METRIC_TIERED_STORAGE_HOT_HIT_PERCENTAGE = "hotHitPercentage";
+    public static final String MAP_METRIC_TIERED_STORAGE_DEMOTION_COUNT = "demotionCount";
+    public static final String MAP_METRIC_TIERED_STORAGE_COLD_ENTRY_COUNT = "coldEntryCount";
+    public static final String MAP_METRIC_TIERED_STORAGE_COLD_FILE_BYTES = "coldFileBytes";
+    public static final String MAP_METRIC_TIERED_STORAGE_COLD_FILE_PENDING_UNMAP_BYTES = "coldFilePendingUnmapBytes";
+    public static final String MAP_METRIC_TIERED_STORAGE_COMPACTION_COUNT = "compactionCount";
+    public static final String MAP_METRIC_TIERED_STORAGE_COMPACTED_BYTES = "compactedBytes";
+    public static final String MAP_METRIC_PERSISTENCE_WRITTEN_ENTRY_COUNT = "writtenEntryCount";
+    public static final String MAP_METRIC_PERSISTENCE_WRITTEN_BYTES = "writtenBytes";
+    public static final String MAP_METRIC_PERSISTENCE_FSYNC_COUNT = "fsyncCount";
+    public static final String MAP_METRIC_PERSISTENCE_COMPACTION_COUNT = "compactionCount";
+    public static final String MAP_METRIC_PERSISTENCE_RESTORED_PARTITION_COUNT = "restoredPartitionCount";
+    public static final String MAP_METRIC_PERSISTENCE_RESTORED_ENTRY_COUNT = "restoredEntryCount";
+    public static final String MAP_METRIC_PERSISTENCE_RESTORED_BYTES = "restoredBytes";
+    public static final String MAP_METRIC_PERSISTENCE_RESTORE_TIME = "restoreTime";
+    public static final String MAP_METRIC_PERSISTENCE_RESTORE_THROUGHPUT = "restoreThroughput";
     // ===[/MAP]========================================================
 
     // ===[MEMORY]======================================================
@@ -274,6 +333,13 @@ public final class MetricDescriptorConstants {
     public static final String MEMORY_MANAGER_PREFIX_STATS = "memorymanager.stats";
     // ===[/MEMORY MANAGER]=============================================
 
+    // ===[METRICS]=====================================================
+    public static final String METRICS_PREFIX = "metrics";
+    public static final String METRICS_METRIC_COLLECTION_COUNT = "collectionCount";
+    public static final String METRICS_METRIC_LAST_COLLECTION_DURATION = "lastCollectionDuration";
+    public static final String METRICS_METRIC_LAST_COLLECTION_ALLOCATED_BYTES = "lastCollectionAllocatedBytes";
+    // ===[/METRICS]====================================================
+
     // ===[MIGRATION]===================================================
     public static final String MIGRATION_METRIC_MIGRATION_MANAGER_MIGRATION_ACTIVE = "migrationActive";
     public static final String MIGRATION_METRIC_LAST_REPARTITION_TIME = "lastRepartitionTime";
@@ -300,6 +366,7 @@ public final class MetricDescriptorConstants {
     public static final String NEARCACHE_METRIC_OWNED_ENTRY_MEMORY_COST = "ownedEntryMemoryCost";
     public static final String NEARCACHE_METRIC_HITS = "hits";
     public static final String NEARCACHE_METRIC_MISSES = "misses";
+    public static final String NEARCACHE_METRIC_HIT_RATIO = "hitRatio";
     public static final String NEARCACHE_METRIC_EVICTIONS = "evictions";
     public static final String NEARCACHE_METRIC_EXPIRATIONS = "expirations";
     public static final String NEARCACHE_METRIC_INVALIDATIONS = "invalidations";
@@ -431,6 +498,14 @@ public final class MetricDescriptorConstants {
     public static final String PARTITIONS_METRIC_PARTITION_SERVICE_MIGRATION_QUEUE_SIZE = "migrationQueueSize";
     public static final String PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_REPLICA_SYNC_SEMAPHORE = "replicaSyncSemaphore";
     public static final String PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_SYNC_REQUEST_COUNTER = "replicaSyncRequestsCounter";
+    public static final String PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_ANTI_ENTROPY_OPERATION_COUNT
+            = "antiEntropyOperationCount";
+    public static final String PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_ANTI_ENTROPY_DIGEST_COUNT = "antiEntropyDigestCount";
+    public static final String PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_ANTI_ENTROPY_VERSION_COUNT = "antiEntropyVersionCount";
+    public static final String PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_ANTI_ENTROPY_SKIPPED_DIGEST_COUNT
+            = "antiEntropySkippedDigestCount";
+    public static final String PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_ANTI_ENTROPY_MISMATCH_COUNT
+            = "antiEntropyMismatchCount";
     public static final String PARTITIONS_METRIC_PARTITION_REPLICA_STATE_MANAGER_PARTITION_COUNT = "partitionCount";
     public static final String PARTITIONS_METRIC_PARTITION_REPLICA_STATE_MANAGER_LOCAL_PARTITION_COUNT = "localPartitionCount";
     public static final String PARTITIONS_METRIC_PARTITION_REPLICA_STATE_MANAGER_ACTIVE_PARTITION_COUNT = "activePartitionCount";
@@ -581,6 +656,9 @@ public final class MetricDescriptorConstants {
     public static final String WAN_METRIC_UPDATE_COUNT = "updateCount";
     public static final String WAN_METRIC_REMOVE_COUNT = "removeCount";
     public static final String WAN_METRIC_DROPPED_COUNT = "droppedCount";
+    public static final String WAN_METRIC_SENT_BATCH_COUNT = "sentBatchCount";
+    public static final String WAN_METRIC_FAILED_BATCH_COUNT = "failedBatchCount";
+    public static final String WAN_METRIC_MAX_PUBLISH_LATENCY = "maxPublishLatency";
     public static final String WAN_METRIC_CONSISTENCY_CHECK_LAST_CHECKED_PARTITION_COUNT = "lastCheckedPartitionCount";
     public static final String WAN_METRIC_CONSISTENCY_CHECK_LAST_DIFF_PARTITION_COUNT = "lastDiffPartitionCount";
     public static final String WAN_METRIC_CONSISTENCY_CHECK_LAST_CHECKED_LEAF_COUNT = "lastCheckedLeafCount";
@@ -601,6 +679,8 @@ public final class MetricDescriptorConstants {
     public static final String WAN_METRIC_MERKLE_SYNC_MAX_LEAF_ENTRY_COUNT = "maxLeafEntryCount";
     public static final String WAN_METRIC_MERKLE_SYNC_AVG_ENTRIES_PER_LEAF = "avgEntriesPerLeaf";
     public static final String WAN_METRIC_MERKLE_SYNC_STD_DEV_ENTRIES_PER_LEAF = "stdDevEntriesPerLeaf";
+    public static final String WAN_METRIC_MERKLE_SYNC_BYTES_TRANSFERRED = "bytesTransferred";
+    public static final String WAN_METRIC_MERKLE_SYNC_FULL_SYNC_BYTES = "fullSyncBytes";
     public static final String WAN_METRIC_ACK_DELAY_TOTAL_COUNT = "ackDelayTotalCount";
     public static final String WAN_METRIC_ACK_DELAY_TOTAL_MILLIS = "ackDelayTotalMillis";
     public static final String WAN_METRIC_ACK_DELAY_CURRENT_MILLIS = "ackDelayCurrentMillis";
@@ -23,6 +23,7 @@ import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.metrics.ProbeFunction;
 import com.hazelcast.internal.util.counters.Counter;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
 import java.util.Collection;
 import java.util.Map;
@@ -38,15 +39,20 @@ import static com.hazelcast.internal.metrics.impl.ProbeUtils.TYPE_PRIMITIVE_LONG
 import static com.hazelcast.internal.metrics.impl.ProbeUtils.TYPE_SEMAPHORE;
 import static com.hazelcast.internal.metrics.impl.ProbeUtils.getType;
 import static com.hazelcast.internal.metrics.impl.ProbeUtils.isDouble;
+import static com.hazelcast.internal.metrics.impl.ProbeUtils.probeFailure;
+import static com.hazelcast.internal.metrics.impl.ProbeUtils.probeGetter;
 import static java.lang.String.format;
 
 /**
  * A FieldProbe is a {@link ProbeFunction} that reads out a field that is annotated with {@link Probe}.
+ * <p>
+ * The field is read through a {@link MethodHandle} created once for the probe.
  */
 abstract class FieldProbe implements ProbeFunction {
 
     final CachedProbe probe;
     final Field field;
+    final MethodHandle getter;
     final int type;
     final SourceMetadata sourceMetadata;
     final String probeName;
@@ -60,6 +66,31 @@ abstract class FieldProbe implements ProbeFunction {
         assert probeName != null;
         assert probeName.length() > 0;
         field.setAccessible(true);
+        this.getter = probeGetter(field, type);
+    }
+
+    long readLong(Object source) throws Exception {
+        try {
+            return (long) getter.invokeExact(source);
+        } catch (Throwable t) {
+            throw probeFailure(t);
+        }
+    }
+
+    double readDouble(Object source) throws Exception {
+        try {
+            return (double) getter.invokeExact(source);
+        } catch (Throwable t) {
+            throw probeFailure(t);
+        }
+    }
+
+    Object read(Object source) throws Exception {
+        try {
+            return (Object) getter.invokeExact(source);
+        } catch (Throwable t) {
+            throw probeFailure(t);
+        }
     }
 
     void register(MetricsRegistryImpl metricsRegistry, Object source, String namePrefix) {
@@ -101,21 +132,21 @@ abstract class FieldProbe implements ProbeFunction {
         public long get(S source) throws Exception {
             switch (type) {
                 case TYPE_PRIMITIVE_LONG:
-                    return field.getLong(source);
+                    return readLong(source);
                 case TYPE_LONG_NUMBER:
-                    Number longNumber = (Number) field.get(source);
+                    Number longNumber = (Number) read(source);
                     return longNumber == null ? 0 : longNumber.longValue();
                 case TYPE_MAP:
-                    Map<?, ?> map = (Map<?, ?>) field.get(source);
+                    Map<?, ?> map = (Map<?, ?>) read(source);
                     return map == null ? 0 : map.size();
                 case TYPE_COLLECTION:
-                    Collection<?> collection = (Collection<?>) field.get(source);
+                    Collection<?> collection = (Collection<?>) read(source);
                     return collection == null ? 0 : collection.size();
                 case TYPE_COUNTER:
-                    Counter counter = (Counter) field.get(source);
+                    Counter counter = (Counter) read(source);
                     return counter == null ? 0 : counter.get();
                 case TYPE_SEMAPHORE:
-                    Semaphore semaphore = (Semaphore) field.get(source);
+                    Semaphore semaphore = (Semaphore) read(source);
                     return semaphore == null ? 0 : semaphore.availablePermits();
                 default:
                     throw new IllegalStateException("Unhandled type:" + type);
@@ -133,9 +164,9 @@ abstract class FieldProbe implements ProbeFunction {
         public double get(S source) throws Exception {
             switch (type) {
                 case TYPE_DOUBLE_PRIMITIVE:
-                    return field.getDouble(source);
+                    return readDouble(source);
                 case TYPE_DOUBLE_NUMBER:
-                    Number doubleNumber = (Number) field.get(source);
+                    Number doubleNumber = (Number) read(source);
                     return doubleNumber == null ? 0 : doubleNumber.doubleValue();
                 default:
                     throw new IllegalStateException("Unhandled type:" + type);
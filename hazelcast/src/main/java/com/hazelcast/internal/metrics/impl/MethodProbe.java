@@ -23,6 +23,7 @@ import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.metrics.ProbeFunction;
 import com.hazelcast.internal.util.counters.Counter;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Map;
@@ -38,16 +39,21 @@ import static com.hazelcast.internal.metrics.impl.ProbeUtils.TYPE_PRIMITIVE_LONG
 import static com.hazelcast.internal.metrics.impl.ProbeUtils.TYPE_SEMAPHORE;
 import static com.hazelcast.internal.metrics.impl.ProbeUtils.getType;
 import static com.hazelcast.internal.metrics.impl.ProbeUtils.isDouble;
+import static com.hazelcast.internal.metrics.impl.ProbeUtils.probeFailure;
+import static com.hazelcast.internal.metrics.impl.ProbeUtils.probeGetter;
 import static java.lang.String.format;
 
 /**
  * A MethodProbe is a {@link ProbeFunction} that invokes a method that is annotated with {@link Probe}.
+ * <p>
+ * The method is invoked through a {@link MethodHandle} created once for the
+ * probe, so that primitive values are read without boxing and without the
+ * overhead of reflective invocation.
  */
 abstract class MethodProbe implements ProbeFunction {
 
-    private static final Object[] EMPTY_ARGS = new Object[0];
-
     final Method method;
+    final MethodHandle getter;
     final CachedProbe probe;
     final int type;
     final SourceMetadata sourceMetadata;
@@ -62,7 +68,31 @@ abstract class MethodProbe implements ProbeFunction {
         assert probeName != null;
         assert probeName.length() > 0;
         method.setAccessible(true);
+        this.getter = probeGetter(method, type);
+    }
+
+    long invokeLong(Object source) throws Exception {
+        try {
+            return (long) getter.invokeExact(source);
+        } catch (Throwable t) {
+            throw probeFailure(t);
+        }
+    }
 
+    double invokeDouble(Object source) throws Exception {
+        try {
+            return (double) getter.invokeExact(source);
+        } catch (Throwable t) {
+            throw probeFailure(t);
+        }
+    }
+
+    Object invoke(Object source) throws Exception {
+        try {
+            return (Object) getter.invokeExact(source);
+        } catch (Throwable t) {
+            throw probeFailure(t);
+        }
     }
 
     void register(MetricsRegistryImpl metricsRegistry, Object source, String namePrefix) {
@@ -110,21 +140,21 @@ abstract class MethodProbe implements ProbeFunction {
         public long get(S source) throws Exception {
             switch (type) {
                 case TYPE_PRIMITIVE_LONG:
-                    return ((Number) method.invoke(source, EMPTY_ARGS)).longValue();
+                    return invokeLong(source);
                 case TYPE_LONG_NUMBER:
-                    Number longNumber = (Number) method.invoke(source, EMPTY_ARGS);
+                    Number longNumber = (Number) invoke(source);
                     return longNumber == null ? 0 : longNumber.longValue();
                 case TYPE_MAP:
-                    Map<?, ?> map = (Map<?, ?>) method.invoke(source, EMPTY_ARGS);
+                    Map<?, ?> map = (Map<?, ?>) invoke(source);
                     return map == null ? 0 : map.size();
                 case TYPE_COLLECTION:
-                    Collection<?> collection = (Collection<?>) method.invoke(source, EMPTY_ARGS);
+                    Collection<?> collection = (Collection<?>) invoke(source);
                     return collection == null ? 0 : collection.size();
                 case TYPE_COUNTER:
-                    Counter counter = (Counter) method.invoke(source, EMPTY_ARGS);
+                    Counter counter = (Counter) invoke(source);
                     return counter == null ? 0 : counter.get();
                 case TYPE_SEMAPHORE:
-                    Semaphore semaphore = (Semaphore) method.invoke(source, EMPTY_ARGS);
+                    Semaphore semaphore = (Semaphore) invoke(source);
                     return semaphore == null ? 0 : semaphore.availablePermits();
                 default:
                     throw new IllegalStateException("Unrecognized type:" + type);
@@ -142,8 +172,9 @@ abstract class MethodProbe implements ProbeFunction {
         public double get(S source) throws Exception {
             switch (type) {
                 case TYPE_DOUBLE_PRIMITIVE:
+                    return invokeDouble(source);
                 case TYPE_DOUBLE_NUMBER:
-                    Number result = (Number) method.invoke(source, EMPTY_ARGS);
+                    Number result = (Number) invoke(source);
                     return result == null ? 0 : result.doubleValue();
                 default:
                     throw new IllegalStateException("Unrecognized type:" + type);
@@ -123,8 +123,9 @@ public final class MetricDescriptorImpl implements MetricDescriptor {
         copy.discriminatorValue = discriminatorValue;
         copy.unit = unit;
         copy.excludedTargets = excludedTargets;
-        copy.ensureCapacity(tagCount() << 1);
-        readTags(copy::withTag);
+        copy.ensureCapacity(tagPtr);
+        System.arraycopy(tags, 0, copy.tags, 0, tagPtr);
+        copy.tagPtr = tagPtr;
 
         return copy;
     }
@@ -401,6 +402,7 @@ public final class MetricDescriptorImpl implements MetricDescriptor {
         tagPtr = 0;
         discriminator = null;
         discriminatorValue = null;
+        excludedTargets = MetricTarget.NONE_OF;
         Arrays.fill(tags, null);
 
         return this;
@@ -39,13 +39,18 @@ import static com.hazelcast.internal.metrics.impl.MetricsUtil.extractExcludedTar
 /**
  * Class representing a metrics collection cycle. It collects both static
  * and dynamic metrics in each cycle.
+ * <p>
+ * The descriptors of the dynamic metrics are taken from a
+ * {@link PoolingMetricDescriptorSupplier} which outlives the cycle, therefore
+ * the descriptors passed to the {@link MetricsCollector} are only valid for
+ * the duration of the call and need to be copied if they are retained.
  *
  * @see MetricsRegistry#collect(MetricsCollector)
  */
 class MetricsCollectionCycle {
     private static final MetricValueCatcher NOOP_CATCHER = new NoOpMetricValueCatcher();
 
-    private final PoolingMetricDescriptorSupplier descriptorSupplier = new PoolingMetricDescriptorSupplier();
+    private final PoolingMetricDescriptorSupplier descriptorSupplier;
     private final Function<Class, SourceMetadata> lookupMetadataFn;
     private final Function<MetricDescriptor, MetricValueCatcher> lookupMetricValueCatcherFn;
     private final MetricsCollector metricsCollector;
@@ -57,11 +62,13 @@ class MetricsCollectionCycle {
     MetricsCollectionCycle(Function<Class, SourceMetadata> lookupMetadataFn,
                            Function<MetricDescriptor, MetricValueCatcher> lookupMetricValueCatcherFn,
                            MetricsCollector metricsCollector,
-                           ProbeLevel minimumLevel) {
+                           ProbeLevel minimumLevel,
+                           PoolingMetricDescriptorSupplier descriptorSupplier) {
         this.lookupMetadataFn = lookupMetadataFn;
         this.lookupMetricValueCatcherFn = lookupMetricValueCatcherFn;
         this.metricsCollector = metricsCollector;
         this.minimumLevel = minimumLevel;
+        this.descriptorSupplier = descriptorSupplier;
     }
 
     void collectStaticMetrics(Map<MetricDescriptorImpl.LookupView, ProbeInstance> probeInstanceEntries) {
@@ -148,6 +155,10 @@ class MetricsCollectionCycle {
             collectDouble(source, descriptor, doubleFunction);
         }
 
+        recycle(descriptor);
+    }
+
+    private void recycle(MetricDescriptor descriptor) {
         if (descriptor instanceof MetricDescriptorImpl) {
             descriptorSupplier.recycle((MetricDescriptorImpl) descriptor);
         }
@@ -171,8 +182,12 @@ class MetricsCollectionCycle {
         }
     }
 
+    /**
+     * Makes all descriptors supplied during this cycle available for the
+     * next cycle.
+     */
     public void cleanUp() {
-        descriptorSupplier.close();
+        descriptorSupplier.reclaim();
     }
 
     private class MetricsContext implements MetricsCollectionContext {
@@ -192,6 +207,7 @@ class MetricsCollectionCycle {
 
                 lookupMetricValueCatcher(descriptorCopy).catchMetricValue(collectionId, value);
                 metricsCollector.collectLong(descriptorCopy, value);
+                recycle(descriptorCopy);
             }
         }
 
@@ -206,6 +222,7 @@ class MetricsCollectionCycle {
 
                 lookupMetricValueCatcher(descriptorCopy).catchMetricValue(collectionId, value);
                 metricsCollector.collectDouble(descriptorCopy, value);
+                recycle(descriptorCopy);
             }
         }
 
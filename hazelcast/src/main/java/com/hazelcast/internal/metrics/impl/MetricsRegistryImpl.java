@@ -22,6 +22,7 @@ import com.hazelcast.internal.metrics.DynamicMetricsProvider;
 import com.hazelcast.internal.metrics.LongProbeFunction;
 import com.hazelcast.internal.metrics.MetricDescriptor;
 import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.metrics.ProbeFunction;
 import com.hazelcast.internal.metrics.ProbeLevel;
 import com.hazelcast.internal.metrics.ProbeUnit;
@@ -29,6 +30,7 @@ import com.hazelcast.internal.metrics.StaticMetricsProvider;
 import com.hazelcast.internal.metrics.collectors.MetricsCollector;
 import com.hazelcast.internal.util.ConcurrentReferenceHashMap;
 import com.hazelcast.internal.util.concurrent.ThreadFactoryImpl;
+import com.hazelcast.internal.util.counters.Counter;
 import com.hazelcast.logging.ILogger;
 
 import java.util.Set;
@@ -38,14 +40,21 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.METRICS_METRIC_COLLECTION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.METRICS_METRIC_LAST_COLLECTION_ALLOCATED_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.METRICS_METRIC_LAST_COLLECTION_DURATION;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
 import static com.hazelcast.internal.metrics.impl.MetricsUtil.extractExcludedTargets;
 import static com.hazelcast.internal.util.ConcurrentReferenceHashMap.Option.IDENTITY_COMPARISONS;
 import static com.hazelcast.internal.util.ConcurrentReferenceHashMap.ReferenceType.STRONG;
 import static com.hazelcast.internal.util.ConcurrentReferenceHashMap.ReferenceType.WEAK;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.ThreadUtil.createThreadPoolName;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static java.lang.Boolean.TRUE;
 import static java.lang.String.format;
 import static java.util.Collections.unmodifiableSet;
@@ -74,6 +83,20 @@ public class MetricsRegistryImpl implements MetricsRegistry {
 
     private final DefaultMetricDescriptorSupplier staticDescriptorSupplier = new DefaultMetricDescriptorSupplier();
 
+    /**
+     * The descriptor pool of the dynamic metrics, kept between the collection
+     * cycles. Taken by the collecting thread for the duration of a cycle, so
+     * concurrent collections fall back to a new pool.
+     */
+    private final AtomicReference<PoolingMetricDescriptorSupplier> idleDescriptorSupplier = new AtomicReference<>();
+
+    @Probe(name = METRICS_METRIC_COLLECTION_COUNT)
+    private final Counter collectionCount = newMwCounter();
+    @Probe(name = METRICS_METRIC_LAST_COLLECTION_DURATION, unit = NS)
+    private volatile long lastCollectionDurationNanos;
+    @Probe(name = METRICS_METRIC_LAST_COLLECTION_ALLOCATED_BYTES, unit = BYTES)
+    private volatile long lastCollectionAllocatedBytes = -1;
+
     /**
      * Creates a MetricsRegistryImpl instance.
      *
@@ -309,13 +332,26 @@ public class MetricsRegistryImpl implements MetricsRegistry {
     public void collect(MetricsCollector collector) {
         checkNotNull(collector, "collector can't be null");
 
+        long startNanos = System.nanoTime();
+        long startAllocatedBytes = ThreadAllocationTracker.allocatedBytes();
+
+        PoolingMetricDescriptorSupplier descriptorSupplier = idleDescriptorSupplier.getAndSet(null);
+        if (descriptorSupplier == null) {
+            descriptorSupplier = new PoolingMetricDescriptorSupplier();
+        }
         MetricsCollectionCycle collectionCycle = new MetricsCollectionCycle(this::loadSourceMetadata,
-                this::lookupMetricValueCatcher, collector, minimumLevel);
+                this::lookupMetricValueCatcher, collector, minimumLevel, descriptorSupplier);
 
         collectionCycle.collectStaticMetrics(probeInstances);
         collectionCycle.collectDynamicMetrics(metricSourceMap.keySet());
         collectionCycle.notifyAllGauges(gauges.values());
         collectionCycle.cleanUp();
+        idleDescriptorSupplier.set(descriptorSupplier);
+
+        long endAllocatedBytes = ThreadAllocationTracker.allocatedBytes();
+        lastCollectionAllocatedBytes = startAllocatedBytes < 0 ? -1 : endAllocatedBytes - startAllocatedBytes;
+        lastCollectionDurationNanos = System.nanoTime() - startNanos;
+        collectionCount.inc();
     }
 
     private MetricValueCatcher lookupMetricValueCatcher(MetricDescriptor descriptor) {
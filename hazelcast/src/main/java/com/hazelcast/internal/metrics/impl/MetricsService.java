@@ -24,6 +24,7 @@ import com.hazelcast.internal.metrics.jmx.JmxPublisher;
 import com.hazelcast.internal.metrics.managementcenter.ConcurrentArrayRingbuffer;
 import com.hazelcast.internal.metrics.managementcenter.ConcurrentArrayRingbuffer.RingbufferSlice;
 import com.hazelcast.internal.metrics.managementcenter.ManagementCenterPublisher;
+import com.hazelcast.internal.metrics.prometheus.PrometheusPublisher;
 import com.hazelcast.internal.services.ManagedService;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.NodeEngine;
@@ -31,6 +32,8 @@ import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.executionservice.ExecutionService;
 import com.hazelcast.spi.impl.operationservice.LiveOperations;
 import com.hazelcast.spi.impl.operationservice.LiveOperationsTracker;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
 import java.util.Map;
 import java.util.Properties;
@@ -66,6 +69,7 @@ public class MetricsService implements ManagedService, LiveOperationsTracker {
             pendingReads = new ConcurrentHashMap<>();
     private final CopyOnWriteArrayList<MetricsPublisher> publishers = new CopyOnWriteArrayList<>();
     private volatile boolean collectorScheduled;
+    private volatile PrometheusPublisher prometheusPublisher;
 
     /**
      * Ringbuffer which stores a bounded history of metrics. For each round of collection,
@@ -101,6 +105,12 @@ public class MetricsService implements ManagedService, LiveOperationsTracker {
                 publishers.add(createJmxPublisher());
             }
 
+            HazelcastProperties hazelcastProperties = new HazelcastProperties(nodeEngine.getConfig());
+            if (hazelcastProperties.getBoolean(ClusterProperty.METRICS_PROMETHEUS_ENABLED)) {
+                prometheusPublisher = new PrometheusPublisher();
+                publishers.add(prometheusPublisher);
+            }
+
             if (!publishers.isEmpty()) {
                 scheduleMetricsCollectorIfNeeded();
             }
@@ -160,6 +170,16 @@ public class MetricsService implements ManagedService, LiveOperationsTracker {
         metricsRegistrySupplier.get().collect(metricsCollector);
     }
 
+    /**
+     * Returns the publisher rendering the metrics in the Prometheus text
+     * format or {@code null} if it is not enabled.
+     *
+     * @see ClusterProperty#METRICS_PROMETHEUS_ENABLED
+     */
+    public PrometheusPublisher getPrometheusPublisher() {
+        return prometheusPublisher;
+    }
+
     public LiveOperationRegistry getLiveOperationRegistry() {
         return liveOperationRegistry;
     }
@@ -28,6 +28,10 @@ import static com.hazelcast.internal.metrics.impl.DefaultMetricDescriptorSupplie
 /**
  * Pooling {@link MetricDescriptor} {@link Supplier}. Meant to be used
  * exclusively by the dynamic metrics collection. Not thread-safe.
+ * <p>
+ * The supplier is kept between the collection cycles: at the end of each
+ * cycle all descriptors it created are {@link #reclaim() reclaimed}, so that
+ * a steady state collection doesn't allocate new descriptors.
  */
 class PoolingMetricDescriptorSupplier implements Supplier<MetricDescriptorImpl> {
     static final int INITIAL_CAPACITY = 32;
@@ -75,6 +79,23 @@ class PoolingMetricDescriptorSupplier implements Supplier<MetricDescriptorImpl>
         pool[++poolPtr] = descriptor;
     }
 
+    /**
+     * Returns all descriptors created by this supplier into the pool,
+     * including the ones which were taken but not recycled. Must only be
+     * called after a collection cycle has finished, when the descriptors
+     * supplied during the cycle are no longer used.
+     */
+    void reclaim() {
+        int size = allCreated.size();
+        if (pool.length < size) {
+            pool = new MetricDescriptorImpl[size];
+        }
+        for (int i = 0; i < size; i++) {
+            pool[i] = allCreated.get(i);
+        }
+        poolPtr = size - 1;
+    }
+
     /**
      * Releases all taken but not recycled {@link MetricDescriptorImpl}
      * instances. Used to make sure that there is no leaking is possible
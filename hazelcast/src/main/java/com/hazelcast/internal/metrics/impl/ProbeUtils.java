@@ -18,6 +18,13 @@ package com.hazelcast.internal.metrics.impl;
 
 import com.hazelcast.internal.util.counters.Counter;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -46,6 +53,7 @@ final class ProbeUtils {
     static final int TYPE_SEMAPHORE = 8;
 
     private static final Map<Class<?>, Integer> TYPES;
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
 
     static {
         final Map<Class<?>, Integer> types = createHashMap(18);
@@ -118,6 +126,69 @@ final class ProbeUtils {
         return -1;
     }
 
+    /**
+     * Creates a {@link MethodHandle} invoking the given accessible method.
+     * The returned handle takes the source object as its only argument and
+     * returns the value as {@code long} for {@link #TYPE_PRIMITIVE_LONG}, as
+     * {@code double} for {@link #TYPE_DOUBLE_PRIMITIVE} and as an
+     * {@code Object} otherwise, so that primitive values are read without
+     * boxing.
+     *
+     * @param method the method to invoke
+     * @param type   the probe type of the method's return type
+     * @return the method handle
+     */
+    static MethodHandle probeGetter(Method method, int type) {
+        try {
+            return asProbeGetter(LOOKUP.unreflect(method), Modifier.isStatic(method.getModifiers()), type);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access @Probe method " + method, e);
+        }
+    }
+
+    /**
+     * Creates a {@link MethodHandle} reading the given accessible field.
+     *
+     * @param field the field to read
+     * @param type  the probe type of the field's type
+     * @return the method handle
+     * @see #probeGetter(Method, int)
+     */
+    static MethodHandle probeGetter(Field field, int type) {
+        try {
+            return asProbeGetter(LOOKUP.unreflectGetter(field), Modifier.isStatic(field.getModifiers()), type);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access @Probe field " + field, e);
+        }
+    }
+
+    private static MethodHandle asProbeGetter(MethodHandle handle, boolean isStatic, int type) {
+        if (isStatic) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        Class<?> returnType;
+        if (type == TYPE_PRIMITIVE_LONG) {
+            returnType = long.class;
+        } else if (type == TYPE_DOUBLE_PRIMITIVE) {
+            returnType = double.class;
+        } else {
+            returnType = Object.class;
+        }
+        return handle.asType(MethodType.methodType(returnType, Object.class));
+    }
+
+    /**
+     * Converts the throwable thrown by a probe getter into an exception
+     * which can be rethrown from a {@link com.hazelcast.internal.metrics.ProbeFunction}.
+     * Errors are rethrown as they are.
+     */
+    static Exception probeFailure(Throwable t) {
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return t instanceof Exception ? (Exception) t : new UndeclaredThrowableException(t);
+    }
+
     static void flatten(Class clazz, List<Class<?>> result) {
         if (!result.contains(clazz)) {
             result.add(clazz);
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.metrics.impl;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+/**
+ * Reads the number of bytes allocated on the heap by the current thread,
+ * using the {@code com.sun.management.ThreadMXBean} extension if the JVM
+ * provides it. The extension is accessed through a method handle so that
+ * the class loads on JVMs without it.
+ */
+final class ThreadAllocationTracker {
+
+    private static final ILogger LOGGER = Logger.getLogger(ThreadAllocationTracker.class);
+    private static final MethodHandle GET_THREAD_ALLOCATED_BYTES = findGetThreadAllocatedBytes();
+
+    private ThreadAllocationTracker() {
+    }
+
+    /**
+     * Returns the total number of bytes allocated by the current thread
+     * or {@code -1} if the JVM doesn't support measuring it.
+     */
+    static long allocatedBytes() {
+        if (GET_THREAD_ALLOCATED_BYTES == null) {
+            return -1;
+        }
+        try {
+            return (long) GET_THREAD_ALLOCATED_BYTES.invokeExact(Thread.currentThread().getId());
+        } catch (Throwable t) {
+            return -1;
+        }
+    }
+
+    private static MethodHandle findGetThreadAllocatedBytes() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            Class<?> extension = Class.forName("com.sun.management.ThreadMXBean");
+            if (!extension.isInstance(bean)) {
+                return null;
+            }
+            Method isSupported = extension.getMethod("isThreadAllocatedMemorySupported");
+            Method isEnabled = extension.getMethod("isThreadAllocatedMemoryEnabled");
+            if (!(Boolean) isSupported.invoke(bean) || !(Boolean) isEnabled.invoke(bean)) {
+                return null;
+            }
+            Method getAllocatedBytes = extension.getMethod("getThreadAllocatedBytes", long.class);
+            return MethodHandles.publicLookup().unreflect(getAllocatedBytes)
+                                .bindTo(bean)
+                                .asType(MethodType.methodType(long.class, long.class));
+        } catch (Throwable t) {
+            LOGGER.finest("Measuring thread allocation is not supported", t);
+            return null;
+        }
+    }
+}
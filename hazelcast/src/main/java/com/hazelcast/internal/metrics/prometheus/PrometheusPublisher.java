@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.metrics.prometheus;
+
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsPublisher;
+import com.hazelcast.internal.metrics.ProbeUnit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.internal.metrics.MetricTarget.JMX;
+import static com.hazelcast.internal.util.StringUtil.LOCALE_INTERNAL;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Publisher rendering the metrics of a collection round into the
+ * <a href="https://prometheus.io/docs/instrumenting/exposition_formats/">
+ * Prometheus text exposition format</a>.
+ * <p>
+ * The metrics are rendered incrementally while they are published: every
+ * metric family ({@code prefix} and {@code metric} pair of the descriptor)
+ * owns a {@link StringBuilder} which is reused between the collection rounds,
+ * and the family names are computed only once. The descriptor's tags,
+ * including the discriminator, are mapped to the labels of the sample. When
+ * the round completes, the families are written into a single reusable
+ * buffer which is encoded into the {@link #getSnapshot() snapshot} served to
+ * the scrapers, so a scrape request only returns a ready byte array.
+ * <p>
+ * The publisher follows the inclusion rules of the {@link
+ * com.hazelcast.internal.metrics.MetricTarget#JMX JMX} target, since both
+ * of them expose the metrics to external monitoring systems.
+ * <p>
+ * The {@code publish*} and {@link #whenComplete()} methods are invoked from
+ * the single metrics collector thread, while {@link #getSnapshot()} can be
+ * invoked from any thread.
+ */
+public class PrometheusPublisher implements MetricsPublisher {
+
+    /**
+     * Content type of the rendered snapshot.
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    static final String NAME_PREFIX = "hazelcast";
+
+    private static final String[] UNIT_NAMES;
+    private static final int INITIAL_BUFFER_CAPACITY = 64 * 1024;
+
+    static {
+        ProbeUnit[] units = ProbeUnit.values();
+        UNIT_NAMES = new String[units.length];
+        for (ProbeUnit unit : units) {
+            UNIT_NAMES[unit.ordinal()] = unit.name().toLowerCase(LOCALE_INTERNAL);
+        }
+    }
+
+    /**
+     * key: descriptor prefix, value: map of the descriptor metric to the family
+     */
+    private final Map<String, Map<String, MetricFamily>> families = new HashMap<>();
+    /**
+     * The families in the order of their first appearance
+     */
+    private final List<MetricFamily> familyList = new ArrayList<>();
+    private final StringBuilder buffer = new StringBuilder(INITIAL_BUFFER_CAPACITY);
+
+    private volatile byte[] snapshot = new byte[0];
+
+    @Override
+    public String name() {
+        return "Prometheus Publisher";
+    }
+
+    @Override
+    public void publishLong(MetricDescriptor descriptor, long value) {
+        StringBuilder sb = appendSample(descriptor);
+        if (sb != null) {
+            sb.append(value).append('\n');
+        }
+    }
+
+    @Override
+    public void publishDouble(MetricDescriptor descriptor, double value) {
+        StringBuilder sb = appendSample(descriptor);
+        if (sb != null) {
+            appendDouble(sb, value);
+            sb.append('\n');
+        }
+    }
+
+    @Override
+    public void whenComplete() {
+        buffer.setLength(0);
+        for (Iterator<MetricFamily> it = familyList.iterator(); it.hasNext(); ) {
+            MetricFamily family = it.next();
+            if (family.samples.length() == 0) {
+                // the family wasn't present in this round
+                it.remove();
+                Map<String, MetricFamily> prefixFamilies = families.get(family.prefix);
+                prefixFamilies.remove(family.metric);
+                if (prefixFamilies.isEmpty()) {
+                    families.remove(family.prefix);
+                }
+                continue;
+            }
+            buffer.append("# TYPE ").append(family.name).append(" untyped\n")
+                  .append(family.samples);
+            family.samples.setLength(0);
+        }
+        snapshot = buffer.toString().getBytes(UTF_8);
+    }
+
+    /**
+     * Returns the metrics of the last completed collection round rendered
+     * in the Prometheus text format, encoded in UTF-8. The returned array
+     * must not be modified.
+     */
+    public byte[] getSnapshot() {
+        return snapshot;
+    }
+
+    private StringBuilder appendSample(MetricDescriptor descriptor) {
+        if (descriptor.isTargetExcluded(JMX) || descriptor.metric() == null) {
+            return null;
+        }
+        MetricFamily family = getOrCreateFamily(descriptor.prefix(), descriptor.metric());
+        StringBuilder sb = family.samples;
+        sb.append(family.name);
+
+        char separator = '{';
+        if (descriptor.discriminator() != null) {
+            appendLabel(sb, separator, descriptor.discriminator(), descriptor.discriminatorValue());
+            separator = ',';
+        }
+        for (int i = 0; i < descriptor.tagCount(); i++) {
+            appendLabel(sb, separator, descriptor.tag(i), descriptor.tagValue(i));
+            separator = ',';
+        }
+        if (descriptor.unit() != null) {
+            appendLabel(sb, separator, "unit", UNIT_NAMES[descriptor.unit().ordinal()]);
+            separator = ',';
+        }
+        if (separator == ',') {
+            sb.append('}');
+        }
+        return sb.append(' ');
+    }
+
+    private MetricFamily getOrCreateFamily(String prefix, String metric) {
+        Map<String, MetricFamily> prefixFamilies = families.get(prefix);
+        if (prefixFamilies == null) {
+            prefixFamilies = new HashMap<>();
+            families.put(prefix, prefixFamilies);
+        }
+        MetricFamily family = prefixFamilies.get(metric);
+        if (family == null) {
+            family = new MetricFamily(prefix, metric);
+            prefixFamilies.put(metric, family);
+            familyList.add(family);
+        }
+        return family;
+    }
+
+    private static void appendLabel(StringBuilder sb, char separator, String name, String value) {
+        sb.append(separator);
+        appendSanitizedName(sb, name);
+        sb.append("=\"");
+        appendEscapedLabelValue(sb, value);
+        sb.append('"');
+    }
+
+    private static void appendDouble(StringBuilder sb, double value) {
+        if (Double.isNaN(value)) {
+            sb.append("NaN");
+        } else if (value == Double.POSITIVE_INFINITY) {
+            sb.append("+Inf");
+        } else if (value == Double.NEGATIVE_INFINITY) {
+            sb.append("-Inf");
+        } else {
+            sb.append(value);
+        }
+    }
+
+    /**
+     * Appends the given name replacing all characters which are not
+     * allowed in Prometheus metric and label names with {@code '_'}.
+     */
+    static void appendSanitizedName(StringBuilder sb, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean valid = isLetter(c) || (i > 0 && isDigit(c));
+            sb.append(valid ? c : '_');
+        }
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    static void appendEscapedLabelValue(StringBuilder sb, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+    }
+
+    static String familyName(String prefix, String metric) {
+        StringBuilder sb = new StringBuilder(NAME_PREFIX).append('_');
+        if (prefix != null) {
+            appendSanitizedName(sb, prefix);
+            sb.append('_');
+        }
+        appendSanitizedName(sb, metric);
+        return sb.toString();
+    }
+
+    private static final class MetricFamily {
+        private final String prefix;
+        private final String metric;
+        private final String name;
+        private final StringBuilder samples = new StringBuilder();
+
+        private MetricFamily(String prefix, String metric) {
+            this.prefix = prefix;
+            this.metric = metric;
+            this.name = familyName(prefix, metric);
+        }
+    }
+}
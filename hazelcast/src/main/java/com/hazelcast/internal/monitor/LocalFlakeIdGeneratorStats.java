@@ -40,4 +40,16 @@ public interface LocalFlakeIdGeneratorStats extends LocalInstanceStats {
      * since its {@link #getCreationTime()}.
      */
     long getIdCount();
+
+    /**
+     * @return the total number of times a caller on this member had to wait
+     * for a new ID batch since its {@link #getCreationTime()}.
+     */
+    long getWaitCount();
+
+    /**
+     * @return the total time in milliseconds the callers on this member
+     * waited for new ID batches since its {@link #getCreationTime()}.
+     */
+    long getTotalWaitTime();
 }
@@ -25,7 +25,10 @@ import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.FLAKE_ID_METRIC_BATCH_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.FLAKE_ID_METRIC_CREATION_TIME;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.FLAKE_ID_METRIC_ID_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.FLAKE_ID_METRIC_TOTAL_WAIT_TIME;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.FLAKE_ID_METRIC_WAIT_COUNT;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater;
 
 public class LocalFlakeIdGeneratorStatsImpl implements LocalFlakeIdGeneratorStats {
@@ -34,6 +37,10 @@ public class LocalFlakeIdGeneratorStatsImpl implements LocalFlakeIdGeneratorStat
             newUpdater(LocalFlakeIdGeneratorStatsImpl.class, "batchCount");
     private static final AtomicLongFieldUpdater<LocalFlakeIdGeneratorStatsImpl> ID_COUNT =
             newUpdater(LocalFlakeIdGeneratorStatsImpl.class, "idCount");
+    private static final AtomicLongFieldUpdater<LocalFlakeIdGeneratorStatsImpl> WAIT_COUNT =
+            newUpdater(LocalFlakeIdGeneratorStatsImpl.class, "waitCount");
+    private static final AtomicLongFieldUpdater<LocalFlakeIdGeneratorStatsImpl> TOTAL_WAIT_NANOS =
+            newUpdater(LocalFlakeIdGeneratorStatsImpl.class, "totalWaitNanos");
 
     @Probe(name = FLAKE_ID_METRIC_CREATION_TIME, unit = MS)
     private final long creationTime;
@@ -41,6 +48,9 @@ public class LocalFlakeIdGeneratorStatsImpl implements LocalFlakeIdGeneratorStat
     private volatile long batchCount;
     @Probe(name = FLAKE_ID_METRIC_ID_COUNT)
     private volatile long idCount;
+    @Probe(name = FLAKE_ID_METRIC_WAIT_COUNT)
+    private volatile long waitCount;
+    private volatile long totalWaitNanos;
 
     public LocalFlakeIdGeneratorStatsImpl() {
         creationTime = Clock.currentTimeMillis();
@@ -60,17 +70,35 @@ public class LocalFlakeIdGeneratorStatsImpl implements LocalFlakeIdGeneratorStat
         return idCount;
     }
 
+    @Override
+    public long getWaitCount() {
+        return waitCount;
+    }
+
+    @Probe(name = FLAKE_ID_METRIC_TOTAL_WAIT_TIME, unit = MS)
+    @Override
+    public long getTotalWaitTime() {
+        return NANOSECONDS.toMillis(totalWaitNanos);
+    }
+
     public void update(int batchSize) {
         BATCH_COUNT.incrementAndGet(this);
         ID_COUNT.addAndGet(this, batchSize);
     }
 
+    public void updateWait(long waitNanos) {
+        WAIT_COUNT.incrementAndGet(this);
+        TOTAL_WAIT_NANOS.addAndGet(this, waitNanos);
+    }
+
     @Override
     public String toString() {
         return "LocalFlakeIdStatsImpl{"
                 + "creationTime=" + creationTime
                 + ", batchCount=" + batchCount
                 + ", idCount=" + idCount
+                + ", waitCount=" + waitCount
+                + ", totalWaitTime=" + getTotalWaitTime()
                 + '}';
     }
 }
@@ -25,6 +25,7 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_EVICTIONS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_EXPIRATIONS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_HITS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_HIT_RATIO;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_INVALIDATIONS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_INVALIDATION_REQUESTS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_LAST_PERSISTENCE_DURATION;
@@ -37,6 +38,7 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NEARCACHE_METRIC_PERSISTENCE_COUNT;
 import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static com.hazelcast.internal.metrics.ProbeUnit.PERCENT;
 import static java.lang.String.format;
 import static java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater;
 
@@ -187,6 +189,17 @@ public class NearCacheStatsImpl implements NearCacheStats {
         MISSES.incrementAndGet(this);
     }
 
+    /**
+     * Returns the percentage of the lookups which were hits, e.g. to
+     * compare the eviction policies, or {@code 0} if there were no lookups.
+     */
+    @Probe(name = NEARCACHE_METRIC_HIT_RATIO, unit = PERCENT)
+    public double getHitRatio() {
+        long hits = this.hits;
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups * PERCENTAGE;
+    }
+
     @Override
     public double getRatio() {
         if (misses == 0) {
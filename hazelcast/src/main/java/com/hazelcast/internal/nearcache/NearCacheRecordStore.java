@@ -51,6 +51,20 @@ public interface NearCacheRecordStore<K, V> extends InitializingObject {
      */
     long tryReserveForUpdate(K key, Data keyData, NearCache.UpdateSemantic updateSemantic);
 
+    /**
+     * Decides if a new entry with the given key should be added to this
+     * record store. The default implementation admits all keys, with the
+     * {@link com.hazelcast.config.EvictionPolicy#TINY_LFU} eviction policy
+     * a key is rejected when the record store is full and the key is not
+     * accessed more frequently than the entry which would be evicted for it.
+     *
+     * @param key the key of the entry to be added
+     * @return {@code true} if the entry should be added, otherwise {@code false}
+     */
+    default boolean admit(K key) {
+        return true;
+    }
+
     /**
      * @see NearCache#tryPublishReserved
      */
@@ -20,8 +20,10 @@ import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.eviction.EvictionCandidate;
 import com.hazelcast.internal.eviction.EvictionChecker;
 import com.hazelcast.internal.eviction.EvictionListener;
+import com.hazelcast.internal.eviction.FrequencySketch;
 import com.hazelcast.internal.eviction.impl.evaluator.EvictionPolicyEvaluator;
 import com.hazelcast.internal.eviction.impl.strategy.sampling.SamplingEvictionStrategy;
 import com.hazelcast.internal.monitor.impl.NearCacheStatsImpl;
@@ -63,6 +65,8 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         implements NearCacheRecordStore<K, V>, EvictionListener<KS, R> {
 
     private static final long MILLI_SECONDS_IN_A_SECOND = 1000;
+    private static final int ADMISSION_SAMPLE_COUNT = 15;
+    private static final int MAX_INITIAL_SKETCH_SIZE = 65536;
     private static final AtomicLongFieldUpdater<AbstractNearCacheRecordStore> RESERVATION_ID
             = newUpdater(AbstractNearCacheRecordStore.class, "reservationId");
 
@@ -79,6 +83,11 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
     protected EvictionChecker evictionChecker;
     protected SamplingEvictionStrategy<KS, R, NCRM> evictionStrategy;
     protected EvictionPolicyEvaluator<KS, R> evictionPolicyEvaluator;
+    /**
+     * Estimates the access frequencies of the keys, only used with
+     * {@link EvictionPolicy#TINY_LFU} eviction, otherwise {@code null}.
+     */
+    protected FrequencySketch frequencySketch;
 
     protected volatile long reservationId;
     protected volatile StaleReadDetector staleReadDetector = ALWAYS_FRESH;
@@ -109,7 +118,11 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         this.evictionChecker = createNearCacheEvictionChecker(evictionConfig, nearCacheConfig);
         if (!evictionDisabled) {
             this.evictionStrategy = SamplingEvictionStrategy.INSTANCE;
-            this.evictionPolicyEvaluator = getEvictionPolicyEvaluator(evictionConfig, classLoader);
+            if (evictionConfig.getEvictionPolicy() == EvictionPolicy.TINY_LFU) {
+                // the sketch grows with the records, see publishReservedRecord
+                this.frequencySketch = new FrequencySketch(Math.min(evictionConfig.getSize(), MAX_INITIAL_SKETCH_SIZE));
+            }
+            this.evictionPolicyEvaluator = getEvictionPolicyEvaluator(evictionConfig, classLoader, frequencySketch);
         }
     }
 
@@ -221,6 +234,9 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
     @Override
     public V get(K key) {
         checkAvailable();
+        if (frequencySketch != null) {
+            frequencySketch.increment(key.hashCode());
+        }
 
         R record = null;
         V value = null;
@@ -333,6 +349,22 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         return true;
     }
 
+    @Override
+    public boolean admit(K key) {
+        checkAvailable();
+
+        if (frequencySketch == null || !evictionChecker.isEvictionRequired() || containsRecordKey(key)) {
+            return true;
+        }
+        EvictionCandidate<KS, R> victim = evictionPolicyEvaluator.evaluate(records.sample(ADMISSION_SAMPLE_COUNT));
+        if (victim == null) {
+            return true;
+        }
+        // like TinyLFU, prefer the entry already cached when the frequencies are equal,
+        // this keeps one-hit wonders from replacing the frequently accessed entries
+        return frequencySketch.frequency(key.hashCode()) > frequencySketch.frequency(victim.getAccessor().hashCode());
+    }
+
     @Override
     public long tryReserveForUpdate(K key, Data keyData, NearCache.UpdateSemantic updateSemantic) {
         checkAvailable();
@@ -375,6 +407,9 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         nearCacheStats.incrementOwnedEntryMemoryCost(getTotalStorageMemoryCost(key, reservedRecord));
         if (!update) {
             nearCacheStats.incrementOwnedEntryCount();
+            if (frequencySketch != null) {
+                frequencySketch.ensureCapacity(records.size());
+            }
         }
 
         return reservedRecord;
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.nio;
+
+import com.hazelcast.internal.memory.impl.UnsafeUtil;
+
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+
+/**
+ * Releases the memory of direct and memory-mapped buffers without waiting
+ * for them to be garbage collected. A released buffer must not be accessed
+ * anymore: doing so may crash the JVM.
+ */
+public final class DirectBufferCleaner {
+
+    private static final Cleaner CLEANER = findCleaner();
+
+    private DirectBufferCleaner() {
+    }
+
+    /**
+     * @return {@code true} if the buffers can be released explicitly on
+     * this JVM
+     */
+    public static boolean isAvailable() {
+        return CLEANER != null;
+    }
+
+    /**
+     * Releases the memory of the given direct buffer. Does nothing if the
+     * buffers can't be released explicitly on this JVM, in which case the
+     * memory is released once the buffer is garbage collected.
+     *
+     * @param buffer the direct buffer, not a duplicate or a slice of it
+     * @return {@code true} if the memory was released
+     */
+    public static boolean clean(ByteBuffer buffer) {
+        if (CLEANER == null || !buffer.isDirect()) {
+            return false;
+        }
+        try {
+            CLEANER.clean(buffer);
+            return true;
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+
+    @SuppressWarnings("checkstyle:illegalcatch")
+    private static Cleaner findCleaner() {
+        if (!UnsafeUtil.UNSAFE_AVAILABLE) {
+            return null;
+        }
+        try {
+            // Java 9+
+            Method invokeCleaner = UnsafeUtil.UNSAFE.getClass().getMethod("invokeCleaner", ByteBuffer.class);
+            return buffer -> invokeCleaner.invoke(UnsafeUtil.UNSAFE, buffer);
+        } catch (NoSuchMethodException e) {
+            // Java 8
+            try {
+                Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                Method clean = cleaner.getReturnType().getMethod("clean");
+                return buffer -> {
+                    Object bufferCleaner = cleaner.invoke(buffer);
+                    if (bufferCleaner != null) {
+                        clean.invoke(bufferCleaner);
+                    }
+                };
+            } catch (Exception ignored) {
+                return null;
+            }
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Cleaner {
+        void clean(ByteBuffer buffer) throws Exception;
+    }
+}
@@ -97,6 +97,7 @@ public class RestApiFilter implements TextProtocolFilter {
                 || ("GET".equals(operation) && requestUri.startsWith(HttpCommandProcessor.URI_LICENSE_INFO))
                 || ("GET".equals(operation) && requestUri.startsWith(HttpCommandProcessor.URI_CLUSTER_VERSION_URL))
                 || requestUri.startsWith(HttpCommandProcessor.URI_INSTANCE)
+                || ("GET".equals(operation) && requestUri.startsWith(HttpCommandProcessor.URI_METRICS))
                 || ("GET".equals(operation) && requestUri.startsWith(HttpCommandProcessor.URI_LOG_LEVEL))) {
             return RestEndpointGroup.CLUSTER_READ;
         }
@@ -95,14 +95,13 @@ public abstract class AbstractPartitionPrimaryReplicaAntiEntropyTask
             return;
         }
 
-        PartitionReplicaManager replicaManager = partitionService.getReplicaManager();
-        Map<ServiceNamespace, Long> versionMap = new HashMap<>();
-        for (ServiceNamespace ns : namespaces) {
-            long[] versions = replicaManager.getPartitionReplicaVersions(partitionId, ns);
-            long currentReplicaVersion = versions[replicaIndex - 1];
-            versionMap.put(ns, currentReplicaVersion);
-        }
+        Map<ServiceNamespace, Long> versionMap = getReplicaVersions(replicaIndex, namespaces);
+        invokePartitionBackupReplicaAntiEntropyOp(replicaIndex, target, versionMap, callback);
+    }
 
+    final void invokePartitionBackupReplicaAntiEntropyOp(int replicaIndex, PartitionReplica target,
+                                                         Map<ServiceNamespace, Long> versionMap,
+                                                         BiConsumer<Object, Throwable> callback) {
         boolean hasCallback = (callback != null);
 
         PartitionBackupReplicaAntiEntropyOperation op = new PartitionBackupReplicaAntiEntropyOperation(versionMap, hasCallback);
@@ -126,7 +125,18 @@ public abstract class AbstractPartitionPrimaryReplicaAntiEntropyTask
         }
     }
 
-    private boolean skipSendingToTarget(PartitionReplica target) {
+    final Map<ServiceNamespace, Long> getReplicaVersions(int replicaIndex, Collection<ServiceNamespace> namespaces) {
+        PartitionReplicaManager replicaManager = partitionService.getReplicaManager();
+        Map<ServiceNamespace, Long> versionMap = new HashMap<>();
+        for (ServiceNamespace ns : namespaces) {
+            long[] versions = replicaManager.getPartitionReplicaVersions(partitionId, ns);
+            long currentReplicaVersion = versions[replicaIndex - 1];
+            versionMap.put(ns, currentReplicaVersion);
+        }
+        return versionMap;
+    }
+
+    final boolean skipSendingToTarget(PartitionReplica target) {
         ClusterServiceImpl clusterService = nodeEngine.getNode().getClusterService();
 
         assert !target.isIdentical(nodeEngine.getLocalMember()) : "Could not send anti-entropy operation, because "
@@ -174,6 +174,7 @@ public class InternalPartitionServiceImpl implements InternalPartitionService,
         metricsRegistry.registerStaticMetrics(partitionStateManager, PARTITIONS_PREFIX);
         metricsRegistry.registerStaticMetrics(migrationManager, PARTITIONS_PREFIX);
         metricsRegistry.registerStaticMetrics(replicaManager, PARTITIONS_PREFIX);
+        metricsRegistry.registerStaticMetrics(replicaManager.getAntiEntropyDigests(), PARTITIONS_PREFIX);
     }
 
     @Override
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.impl;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.partition.PartitionReplica;
+import com.hazelcast.internal.partition.operation.PartitionBackupReplicaAntiEntropyBatchOperation;
+import com.hazelcast.internal.partition.operation.PartitionBackupReplicaAntiEntropyOperation;
+import com.hazelcast.internal.partition.operation.PartitionReplicaVersionsDigest;
+import com.hazelcast.internal.services.ServiceNamespace;
+import com.hazelcast.internal.util.counters.MwCounter;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_ANTI_ENTROPY_DIGEST_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_ANTI_ENTROPY_MISMATCH_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_ANTI_ENTROPY_OPERATION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_ANTI_ENTROPY_SKIPPED_DIGEST_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_ANTI_ENTROPY_VERSION_COUNT;
+import static com.hazelcast.internal.partition.IPartitionService.SERVICE_NAME;
+import static com.hazelcast.internal.partition.InternalPartition.MAX_REPLICA_COUNT;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * Keeps track of the replica versions which the backup replica owners
+ * confirmed in the anti-entropy checks run by this member as the primary
+ * replica owner, so that the periodic anti-entropy sends only the versions
+ * of the namespaces which changed since the last successful check.
+ * <p>
+ * The changed versions of the partitions checked in a round of the
+ * periodic anti-entropy are collected in a {@link Batch} and sent to each
+ * backup replica owner in a single {@link PartitionBackupReplicaAntiEntropyBatchOperation}.
+ * A replica whose namespaces and versions did not change is not sent at
+ * all. A complete check, comparing the exact versions of all namespaces,
+ * is done when the namespaces or the backup replica owner changed, when
+ * the previous check failed and after {@value #MAX_INCREMENTAL_CHECK_COUNT}
+ * incremental or skipped checks. The complete check is sent by the
+ * partition thread with a {@link PartitionBackupReplicaAntiEntropyOperation},
+ * so that it is ordered after the backups of the partition, as without
+ * batching.
+ */
+final class PartitionAntiEntropyDigests {
+
+    static final int MAX_INCREMENTAL_CHECK_COUNT = 10;
+
+    private static final int OPERATION_TRY_COUNT = 3;
+    private static final int OPERATION_TRY_PAUSE_MILLIS = 250;
+
+    private final NodeEngineImpl nodeEngine;
+    private final ILogger logger;
+    /**
+     * The confirmed replica versions indexed by
+     * {@code partitionId * MAX_REPLICA_COUNT + replicaIndex}
+     */
+    private final AtomicReferenceArray<ConfirmedVersions> confirmedVersions;
+
+    @Probe(name = PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_ANTI_ENTROPY_OPERATION_COUNT)
+    private final MwCounter operationCount = newMwCounter();
+    @Probe(name = PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_ANTI_ENTROPY_DIGEST_COUNT)
+    private final MwCounter digestCount = newMwCounter();
+    @Probe(name = PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_ANTI_ENTROPY_VERSION_COUNT)
+    private final MwCounter versionCount = newMwCounter();
+    @Probe(name = PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_ANTI_ENTROPY_SKIPPED_DIGEST_COUNT)
+    private final MwCounter skippedDigestCount = newMwCounter();
+    @Probe(name = PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_ANTI_ENTROPY_MISMATCH_COUNT)
+    private final MwCounter mismatchCount = newMwCounter();
+
+    PartitionAntiEntropyDigests(NodeEngineImpl nodeEngine, int partitionCount) {
+        this.nodeEngine = nodeEngine;
+        this.logger = nodeEngine.getLogger(getClass());
+        this.confirmedVersions = new AtomicReferenceArray<>(partitionCount * MAX_REPLICA_COUNT);
+    }
+
+    Batch newBatch() {
+        return new Batch();
+    }
+
+    void reset() {
+        for (int i = 0; i < confirmedVersions.length(); i++) {
+            confirmedVersions.set(i, null);
+        }
+    }
+
+    long getOperationCount() {
+        return operationCount.get();
+    }
+
+    long getDigestCount() {
+        return digestCount.get();
+    }
+
+    long getVersionCount() {
+        return versionCount.get();
+    }
+
+    long getSkippedDigestCount() {
+        return skippedDigestCount.get();
+    }
+
+    long getMismatchCount() {
+        return mismatchCount.get();
+    }
+
+    private void onResponse(List<PendingDigest> pendingDigests, Object response, Throwable failure) {
+        if (failure != null) {
+            // the versions are checked again in the next round
+            if (logger.isFinestEnabled()) {
+                logger.finest("Anti-entropy operation failed", failure);
+            }
+            return;
+        }
+
+        boolean[] matches = (boolean[]) response;
+        for (int i = 0; i < pendingDigests.size(); i++) {
+            onResponse(pendingDigests.get(i), matches[i], null);
+        }
+    }
+
+    private void onResponse(PendingDigest pendingDigest, boolean match, Throwable failure) {
+        if (failure != null) {
+            if (logger.isFinestEnabled()) {
+                logger.finest("Anti-entropy operation failed", failure);
+            }
+        } else if (match) {
+            confirmedVersions.set(pendingDigest.index, pendingDigest.newConfirmedVersions());
+        } else {
+            // the backup replica owner triggers the replica sync
+            confirmedVersions.set(pendingDigest.index, null);
+            mismatchCount.inc();
+        }
+    }
+
+    /**
+     * Collects the digests of the partition replicas checked in a round of
+     * the periodic anti-entropy. The digests are added by the partition
+     * threads and sent once the partitions of the round are checked.
+     */
+    final class Batch {
+
+        private final ConcurrentMap<PartitionReplica, Queue<PendingDigest>> digests = new ConcurrentHashMap<>();
+
+        private Batch() {
+        }
+
+        /**
+         * Adds the digest of the versions which changed since the last
+         * successful check of the given replica, or skips the check if no
+         * version changed. Called on the partition thread.
+         *
+         * @return {@code false} if a complete check of the replica is
+         * required instead, see {@link #newCompleteCheckCallback}
+         */
+        boolean add(int partitionId, int replicaIndex, PartitionReplica target, Map<ServiceNamespace, Long> versions) {
+            int index = partitionId * MAX_REPLICA_COUNT + replicaIndex;
+            ConfirmedVersions confirmed = confirmedVersions.get(index);
+            if (confirmed == null || !confirmed.isIncrementalCheckAllowed(target, versions)) {
+                return false;
+            }
+
+            Map<ServiceNamespace, Long> changedVersions = new HashMap<>();
+            for (Map.Entry<ServiceNamespace, Long> entry : versions.entrySet()) {
+                if (!entry.getValue().equals(confirmed.versions.get(entry.getKey()))) {
+                    changedVersions.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (changedVersions.isEmpty()) {
+                // a skipped check counts as an incremental check, so that
+                // the replica is checked completely at regular intervals
+                confirmedVersions.compareAndSet(index, confirmed, confirmed.next());
+                skippedDigestCount.inc();
+                return true;
+            }
+
+            PartitionReplicaVersionsDigest digest = new PartitionReplicaVersionsDigest(partitionId, replicaIndex,
+                    changedVersions);
+            digests.computeIfAbsent(target, t -> new ConcurrentLinkedQueue<>())
+                   .add(new PendingDigest(index, target, versions, confirmed, digest));
+            return true;
+        }
+
+        /**
+         * Returns the callback of the complete check of the given replica
+         * versions, which is sent with a {@link PartitionBackupReplicaAntiEntropyOperation}.
+         */
+        BiConsumer<Object, Throwable> newCompleteCheckCallback(int partitionId, int replicaIndex,
+                                                               PartitionReplica target,
+                                                               Map<ServiceNamespace, Long> versions) {
+            operationCount.inc();
+            digestCount.inc();
+            versionCount.inc(versions.size());
+            PendingDigest pendingDigest = new PendingDigest(partitionId * MAX_REPLICA_COUNT + replicaIndex,
+                    target, versions, null, null);
+            return (response, failure) -> onResponse(pendingDigest, Boolean.TRUE.equals(response), failure);
+        }
+
+        /**
+         * Sends the collected digests, a single operation per backup
+         * replica owner.
+         */
+        void send() {
+            for (Map.Entry<PartitionReplica, Queue<PendingDigest>> entry : digests.entrySet()) {
+                PartitionReplica target = entry.getKey();
+                List<PendingDigest> pendingDigests = new ArrayList<>(entry.getValue());
+                List<PartitionReplicaVersionsDigest> targetDigests = new ArrayList<>(pendingDigests.size());
+                for (PendingDigest pendingDigest : pendingDigests) {
+                    targetDigests.add(pendingDigest.digest);
+                    versionCount.inc(pendingDigest.digest.getVersions().size());
+                }
+                digestCount.inc(targetDigests.size());
+                operationCount.inc();
+
+                if (logger.isFinestEnabled()) {
+                    logger.finest("Sending anti-entropy operation to " + target + " with digests " + targetDigests);
+                }
+
+                PartitionBackupReplicaAntiEntropyBatchOperation op
+                        = new PartitionBackupReplicaAntiEntropyBatchOperation(targetDigests);
+                nodeEngine.getOperationService().createInvocationBuilder(SERVICE_NAME, op, target.address())
+                        .setTryCount(OPERATION_TRY_COUNT)
+                        .setTryPauseMillis(OPERATION_TRY_PAUSE_MILLIS)
+                        .invoke()
+                        .whenCompleteAsync((response, failure) -> onResponse(pendingDigests, response, failure));
+            }
+        }
+    }
+
+    /**
+     * The versions of the namespaces of a partition replica confirmed by
+     * the backup replica owner.
+     */
+    private static final class ConfirmedVersions {
+
+        private final PartitionReplica target;
+        private final Map<ServiceNamespace, Long> versions;
+        private final int incrementalCheckCount;
+
+        ConfirmedVersions(PartitionReplica target, Map<ServiceNamespace, Long> versions, int incrementalCheckCount) {
+            this.target = target;
+            this.versions = versions;
+            this.incrementalCheckCount = incrementalCheckCount;
+        }
+
+        ConfirmedVersions next() {
+            return new ConfirmedVersions(target, versions, incrementalCheckCount + 1);
+        }
+
+        boolean isIncrementalCheckAllowed(PartitionReplica target, Map<ServiceNamespace, Long> versions) {
+            return incrementalCheckCount < MAX_INCREMENTAL_CHECK_COUNT
+                    && this.target.equals(target)
+                    && this.versions.keySet().equals(versions.keySet());
+        }
+    }
+
+    private static final class PendingDigest {
+
+        private final int index;
+        private final PartitionReplica target;
+        private final Map<ServiceNamespace, Long> versions;
+        private final ConfirmedVersions previousConfirmedVersions;
+        private final PartitionReplicaVersionsDigest digest;
+
+        PendingDigest(int index, PartitionReplica target, Map<ServiceNamespace, Long> versions,
+                      ConfirmedVersions previousConfirmedVersions, PartitionReplicaVersionsDigest digest) {
+            this.index = index;
+            this.target = target;
+            this.versions = versions;
+            this.previousConfirmedVersions = previousConfirmedVersions;
+            this.digest = digest;
+        }
+
+        ConfirmedVersions newConfirmedVersions() {
+            int incrementalCheckCount = previousConfirmedVersions == null
+                    ? 0 : previousConfirmedVersions.incrementalCheckCount + 1;
+            return new ConfirmedVersions(target, versions, incrementalCheckCount);
+        }
+    }
+}
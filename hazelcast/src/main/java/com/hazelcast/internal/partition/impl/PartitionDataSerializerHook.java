@@ -29,6 +29,7 @@ import com.hazelcast.internal.partition.operation.HasOngoingMigration;
 import com.hazelcast.internal.partition.operation.MigrationCommitOperation;
 import com.hazelcast.internal.partition.operation.MigrationOperation;
 import com.hazelcast.internal.partition.operation.MigrationRequestOperation;
+import com.hazelcast.internal.partition.operation.PartitionBackupReplicaAntiEntropyBatchOperation;
 import com.hazelcast.internal.partition.operation.PartitionBackupReplicaAntiEntropyOperation;
 import com.hazelcast.internal.partition.operation.PartitionReplicaSyncRequest;
 import com.hazelcast.internal.partition.operation.PartitionReplicaSyncResponse;
@@ -78,8 +79,9 @@ public final class PartitionDataSerializerHook implements DataSerializerHook {
     public static final int REPLICA_MIGRATION_EVENT = 22;
     public static final int MIGRATION_EVENT = 23;
     public static final int PARTITION_LOST_EVENT = 24;
+    public static final int PARTITION_BACKUP_REPLICA_ANTI_ENTROPY_BATCH = 25;
 
-    private static final int LEN = PARTITION_LOST_EVENT + 1;
+    private static final int LEN = PARTITION_BACKUP_REPLICA_ANTI_ENTROPY_BATCH + 1;
 
     @Override
     public int getFactoryId() {
@@ -114,6 +116,7 @@ public final class PartitionDataSerializerHook implements DataSerializerHook {
         constructors[REPLICA_MIGRATION_EVENT] = arg -> new ReplicaMigrationEventImpl();
         constructors[MIGRATION_EVENT] = arg -> new MigrationStateImpl();
         constructors[PARTITION_LOST_EVENT] = arg -> new PartitionLostEventImpl();
+        constructors[PARTITION_BACKUP_REPLICA_ANTI_ENTROPY_BATCH] = arg -> new PartitionBackupReplicaAntiEntropyBatchOperation();
         return new ArrayDataSerializableFactory(constructors);
     }
 }
@@ -22,15 +22,19 @@ import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 
 import java.util.Collection;
+import java.util.Map;
 
 import static com.hazelcast.internal.partition.InternalPartition.MAX_REPLICA_COUNT;
 
 final class PartitionPrimaryReplicaAntiEntropyTask extends AbstractPartitionPrimaryReplicaAntiEntropyTask {
 
+    private final PartitionAntiEntropyDigests.Batch batch;
     private final Runnable afterRun;
 
-    PartitionPrimaryReplicaAntiEntropyTask(NodeEngineImpl nodeEngine, int partitionId, Runnable afterRun) {
+    PartitionPrimaryReplicaAntiEntropyTask(NodeEngineImpl nodeEngine, int partitionId,
+                                           PartitionAntiEntropyDigests.Batch batch, Runnable afterRun) {
         super(nodeEngine, partitionId);
+        this.batch = batch;
         this.afterRun = afterRun;
     }
 
@@ -46,8 +50,17 @@ final class PartitionPrimaryReplicaAntiEntropyTask extends AbstractPartitionPrim
 
             for (int index = 1; index < MAX_REPLICA_COUNT; index++) {
                 PartitionReplica replica = partition.getReplica(index);
-                if (replica != null) {
+                if (replica == null) {
+                    continue;
+                }
+                if (batch == null) {
                     invokePartitionBackupReplicaAntiEntropyOp(index, replica, namespaces, null);
+                } else if (!skipSendingToTarget(replica)) {
+                    Map<ServiceNamespace, Long> versions = getReplicaVersions(index, namespaces);
+                    if (!batch.add(partitionId, index, replica, versions)) {
+                        invokePartitionBackupReplicaAntiEntropyOp(index, replica, versions,
+                                batch.newCompleteCheckCallback(partitionId, index, replica, versions));
+                    }
                 }
             }
         } finally {
@@ -18,6 +18,7 @@ package com.hazelcast.internal.partition.impl;
 
 import com.hazelcast.cluster.Member;
 import com.hazelcast.instance.impl.Node;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.NonFragmentedServiceNamespace;
@@ -84,8 +85,11 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
     @Probe(name = PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_SYNC_REQUEST_COUNTER)
     private final MwCounter replicaSyncRequestsCounter = newMwCounter();
 
+    private final PartitionAntiEntropyDigests antiEntropyDigests;
+
     private final long partitionMigrationTimeout;
     private final int maxParallelReplications;
+    private final boolean antiEntropyBatchingEnabled;
 
     PartitionReplicaManager(Node node, InternalPartitionServiceImpl partitionService) {
         this.node = node;
@@ -100,6 +104,8 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
         partitionMigrationTimeout = properties.getMillis(ClusterProperty.PARTITION_MIGRATION_TIMEOUT);
         maxParallelReplications = properties.getInteger(ClusterProperty.PARTITION_MAX_PARALLEL_REPLICATIONS);
         replicaSyncSemaphore = new Semaphore(maxParallelReplications);
+        antiEntropyBatchingEnabled = properties.getBoolean(ClusterProperty.PARTITION_BACKUP_SYNC_BATCHING_ENABLED);
+        antiEntropyDigests = new PartitionAntiEntropyDigests(nodeEngine, partitionCount);
 
         replicaVersions = new PartitionReplicaVersions[partitionCount];
         for (int i = 0; i < replicaVersions.length; i++) {
@@ -471,6 +477,7 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
     }
 
     void reset() {
+        antiEntropyDigests.reset();
         replicaSyncRequests.clear();
         replicaSyncTimeoutScheduler.cancelAll();
         // this is not sync with possibly running sync process
@@ -490,6 +497,22 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
         executionService.schedule(new AntiEntropyTask(backupSyncCheckInterval), backupSyncCheckInterval, TimeUnit.SECONDS);
     }
 
+    PartitionAntiEntropyDigests getAntiEntropyDigests() {
+        return antiEntropyDigests;
+    }
+
+    /**
+     * Returns a new batch for the digests of the partitions checked in a
+     * round of the periodic anti-entropy, or {@code null} if the anti-entropy
+     * operations should be sent per partition replica.
+     */
+    private PartitionAntiEntropyDigests.Batch newAntiEntropyBatch() {
+        if (antiEntropyBatchingEnabled && node.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V4_2)) {
+            return antiEntropyDigests.newBatch();
+        }
+        return null;
+    }
+
     @Override
     public Collection<ServiceNamespace> getNamespaces(int partitionId) {
         return replicaVersions[partitionId].getNamespaces();
@@ -553,9 +576,16 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
             BitSet partitionsBitSet = convertLocalPartitionsToBitSet();
 
             if (partitionsBitSet.cardinality() != 0) {
-                runAntiEntropyTask(partitionsBitSet, () -> {
+                PartitionAntiEntropyDigests.Batch batch = newAntiEntropyBatch();
+                runAntiEntropyTask(partitionsBitSet, batch, () -> {
                     if (taskCounter.incrementAndGet() == partitionsBitSet.cardinality()) {
-                        scheduleNextRun(initialStartTimeInNanos, localPartitionIds, taskCountPerSecond);
+                        try {
+                            if (batch != null) {
+                                batch.send();
+                            }
+                        } finally {
+                            scheduleNextRun(initialStartTimeInNanos, localPartitionIds, taskCountPerSecond);
+                        }
                     }
                 });
             } else {
@@ -564,9 +594,10 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
 
         }
 
-        private void runAntiEntropyTask(BitSet partitionsBitSet, Runnable afterRun) {
+        private void runAntiEntropyTask(BitSet partitionsBitSet, PartitionAntiEntropyDigests.Batch batch,
+                                        Runnable afterRun) {
             nodeEngine.getOperationService().executeOnPartitions(partitionId
-                            -> new PartitionPrimaryReplicaAntiEntropyTask(nodeEngine, partitionId, afterRun),
+                            -> new PartitionPrimaryReplicaAntiEntropyTask(nodeEngine, partitionId, batch, afterRun),
                     partitionsBitSet);
         }
 
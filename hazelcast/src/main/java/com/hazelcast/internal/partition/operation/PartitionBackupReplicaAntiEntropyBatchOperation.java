@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.operation;
+
+import com.hazelcast.internal.partition.InternalPartitionService;
+import com.hazelcast.internal.partition.ReplicaErrorLogger;
+import com.hazelcast.internal.services.ServiceNamespace;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.AllowedDuringPassiveState;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.operationservice.CallStatus;
+import com.hazelcast.spi.impl.operationservice.Offload;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.OperationAccessor;
+import com.hazelcast.spi.impl.operationservice.OperationResponseHandler;
+import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.internal.partition.impl.PartitionDataSerializerHook.PARTITION_BACKUP_REPLICA_ANTI_ENTROPY_BATCH;
+
+/**
+ * Checks the versions of the backup replicas of multiple partitions owned
+ * by the target member, so that a single anti-entropy operation per backup
+ * replica owner is sent instead of one operation per partition replica.
+ * <p>
+ * The check of each partition replica is executed on its partition thread
+ * by a {@link PartitionBackupReplicaAntiEntropyOperation}, which is
+ * submitted after the backups already received from the primary replica
+ * owner. The response contains, in the order of the digests, whether the
+ * versions of the backup replica matched the versions of the digest. On
+ * a mismatch the backup replica owner triggers the replica sync itself.
+ */
+public final class PartitionBackupReplicaAntiEntropyBatchOperation
+        extends AbstractPartitionOperation implements AllowedDuringPassiveState {
+
+    private List<PartitionReplicaVersionsDigest> digests;
+
+    public PartitionBackupReplicaAntiEntropyBatchOperation() {
+    }
+
+    public PartitionBackupReplicaAntiEntropyBatchOperation(List<PartitionReplicaVersionsDigest> digests) {
+        this.digests = digests;
+    }
+
+    @Override
+    public CallStatus call() {
+        return new OffloadImpl();
+    }
+
+    @Override
+    public void onExecutionFailure(Throwable cause) {
+        // we also send a response so that the caller doesn't wait indefinitely
+        sendResponse(new ErrorResponse(cause, getCallId(), isUrgent()));
+    }
+
+    @Override
+    public boolean validatesTarget() {
+        return false;
+    }
+
+    @Override
+    public String getServiceName() {
+        return InternalPartitionService.SERVICE_NAME;
+    }
+
+    @Override
+    public void logError(Throwable e) {
+        ReplicaErrorLogger.log(e, getLogger());
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeInt(digests.size());
+        for (PartitionReplicaVersionsDigest digest : digests) {
+            out.writeInt(digest.getPartitionId());
+            out.writeInt(digest.getReplicaIndex());
+            Map<ServiceNamespace, Long> versions = digest.getVersions();
+            out.writeInt(versions.size());
+            for (Map.Entry<ServiceNamespace, Long> entry : versions.entrySet()) {
+                out.writeObject(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        int size = in.readInt();
+        digests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int partitionId = in.readInt();
+            int replicaIndex = in.readInt();
+            int len = in.readInt();
+            Map<ServiceNamespace, Long> versions = new HashMap<>(len);
+            for (int j = 0; j < len; j++) {
+                ServiceNamespace ns = in.readObject();
+                versions.put(ns, in.readLong());
+            }
+            digests.add(new PartitionReplicaVersionsDigest(partitionId, replicaIndex, versions));
+        }
+    }
+
+    @Override
+    protected void toString(StringBuilder sb) {
+        super.toString(sb);
+        sb.append(", digestCount=").append(digests.size());
+    }
+
+    @Override
+    public int getClassId() {
+        return PARTITION_BACKUP_REPLICA_ANTI_ENTROPY_BATCH;
+    }
+
+    private final class OffloadImpl extends Offload {
+
+        private OffloadImpl() {
+            super(PartitionBackupReplicaAntiEntropyBatchOperation.this);
+        }
+
+        @Override
+        public void start() {
+            NodeEngine nodeEngine = getNodeEngine();
+            BatchResponse batchResponse = new BatchResponse();
+            for (int i = 0; i < digests.size(); i++) {
+                Operation op = new PartitionBackupReplicaAntiEntropyOperation(digests.get(i))
+                        .setNodeEngine(nodeEngine)
+                        .setOperationResponseHandler(new OperationResponseHandlerImpl(batchResponse, i))
+                        .setCallerUuid(getCallerUuid());
+                OperationAccessor.setCallerAddress(op, getCallerAddress());
+                operationService.execute(op);
+            }
+        }
+    }
+
+    /**
+     * Collects the results of the checks of the partition replicas and
+     * sends the response once all checks completed.
+     */
+    private final class BatchResponse {
+
+        private final boolean[] matches = new boolean[digests.size()];
+        private final AtomicInteger pendingOperations = new AtomicInteger(digests.size());
+
+        void onResponse(int index, Object response) {
+            // the decrement below publishes the write to the thread sending the response
+            matches[index] = Boolean.TRUE.equals(response);
+
+            if (pendingOperations.decrementAndGet() == 0) {
+                sendResponse(matches);
+            }
+        }
+    }
+
+    private static final class OperationResponseHandlerImpl implements OperationResponseHandler {
+
+        private final BatchResponse batchResponse;
+        private final int index;
+
+        OperationResponseHandlerImpl(BatchResponse batchResponse, int index) {
+            this.batchResponse = batchResponse;
+            this.index = index;
+        }
+
+        @Override
+        public void sendResponse(Operation op, Object response) {
+            batchResponse.onResponse(index, response);
+        }
+    }
+}
@@ -46,6 +46,10 @@ public final class PartitionBackupReplicaAntiEntropyOperation
     private Map<ServiceNamespace, Long> versions;
     private boolean returnResponse;
     private boolean response = true;
+    // the fields below are set only for the operations executed locally by
+    // PartitionBackupReplicaAntiEntropyBatchOperation, they are not serialized
+    private boolean retainNamespaces = true;
+    private boolean acceptNewerVersions;
 
     public PartitionBackupReplicaAntiEntropyOperation() {
     }
@@ -55,6 +59,24 @@ public final class PartitionBackupReplicaAntiEntropyOperation
         this.returnResponse = returnResponse;
     }
 
+    /**
+     * Creates an operation checking the changed versions of the given digest,
+     * the namespaces are not retained. The versions of the digest are
+     * collected before the batch of digests is sent, so the backup replica
+     * may have already received newer backups, a backup version newer than
+     * the version of the digest is not a mismatch. The complete checks,
+     * which are sent at regular intervals, require the exact versions.
+     */
+    PartitionBackupReplicaAntiEntropyOperation(PartitionReplicaVersionsDigest digest) {
+        this.versions = new HashMap<>(digest.getVersions());
+        this.returnResponse = true;
+        this.retainNamespaces = false;
+        this.acceptNewerVersions = true;
+        setPartitionId(digest.getPartitionId());
+        setReplicaIndex(digest.getReplicaIndex());
+        setServiceName(InternalPartitionService.SERVICE_NAME);
+    }
+
     @Override
     public void run() {
         if (!isNodeStartCompleted()) {
@@ -88,13 +110,25 @@ public final class PartitionBackupReplicaAntiEntropyOperation
         }
 
         PartitionReplicaManager replicaManager = partitionService.getReplicaManager();
-        replicaManager.retainNamespaces(partitionId, versions.keySet());
+        if (retainNamespaces) {
+            replicaManager.retainNamespaces(partitionId, versions.keySet());
+            if (logger.isFinestEnabled()) {
+                logger.finest("Retained namespaces for partitionId=" + partitionId + ", replicaIndex=" + replicaIndex
+                        + ". Namespaces=" + replicaManager.getNamespaces(partitionId));
+            }
+        }
 
-        if (logger.isFinestEnabled()) {
-            logger.finest("Retained namespaces for partitionId=" + partitionId + ", replicaIndex=" + replicaIndex
-                    + ". Namespaces=" + replicaManager.getNamespaces(partitionId));
+        removeMatchingVersions(replicaManager);
+
+        if (!versions.isEmpty()) {
+            replicaManager.triggerPartitionReplicaSync(partitionId, versions.keySet(), replicaIndex);
+            response = false;
         }
+    }
 
+    private void removeMatchingVersions(PartitionReplicaManager replicaManager) {
+        int partitionId = getPartitionId();
+        int replicaIndex = getReplicaIndex();
         Iterator<Map.Entry<ServiceNamespace, Long>> iter = versions.entrySet().iterator();
         while (iter.hasNext()) {
             Map.Entry<ServiceNamespace, Long> entry = iter.next();
@@ -104,17 +138,13 @@ public final class PartitionBackupReplicaAntiEntropyOperation
             long[] currentVersions = replicaManager.getPartitionReplicaVersions(partitionId, ns);
             long currentVersion = currentVersions[replicaIndex - 1];
 
-            if (replicaManager.isPartitionReplicaVersionDirty(partitionId, ns) || currentVersion != primaryVersion) {
+            boolean versionMatches = acceptNewerVersions ? currentVersion >= primaryVersion : currentVersion == primaryVersion;
+            if (replicaManager.isPartitionReplicaVersionDirty(partitionId, ns) || !versionMatches) {
                 logBackupVersionMismatch(ns, currentVersion, primaryVersion);
                 continue;
             }
             iter.remove();
         }
-
-        if (!versions.isEmpty()) {
-            replicaManager.triggerPartitionReplicaSync(partitionId, versions.keySet(), replicaIndex);
-            response = false;
-        }
     }
 
     private boolean isNodeStartCompleted() {
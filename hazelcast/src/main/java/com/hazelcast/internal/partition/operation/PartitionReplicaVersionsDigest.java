@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.operation;
+
+import com.hazelcast.internal.services.ServiceNamespace;
+
+import java.util.Map;
+
+/**
+ * Replica versions of the namespaces of a partition replica which changed
+ * since the last successful anti-entropy check of the replica, sent by the
+ * primary replica owner to a backup replica owner in a {@link
+ * PartitionBackupReplicaAntiEntropyBatchOperation}.
+ */
+public final class PartitionReplicaVersionsDigest {
+
+    private final int partitionId;
+    private final int replicaIndex;
+    private final Map<ServiceNamespace, Long> versions;
+
+    public PartitionReplicaVersionsDigest(int partitionId, int replicaIndex, Map<ServiceNamespace, Long> versions) {
+        this.partitionId = partitionId;
+        this.replicaIndex = replicaIndex;
+        this.versions = versions;
+    }
+
+    public int getPartitionId() {
+        return partitionId;
+    }
+
+    public int getReplicaIndex() {
+        return replicaIndex;
+    }
+
+    public Map<ServiceNamespace, Long> getVersions() {
+        return versions;
+    }
+
+    @Override
+    public String toString() {
+        return "PartitionReplicaVersionsDigest{partitionId=" + partitionId + ", replicaIndex=" + replicaIndex
+                + ", versions=" + versions + '}';
+    }
+}
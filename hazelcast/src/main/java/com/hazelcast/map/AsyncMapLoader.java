@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+
+/**
+ * This is an extension to {@link MapLoader} which loads the values of the
+ * keys without blocking the calling thread, e.g. by using an asynchronous
+ * database driver.
+ * <p>
+ * The values of the keys loaded by {@link IMap#loadAll} and by the initial
+ * load of the map are loaded in batches of
+ * {@link com.hazelcast.spi.properties.ClusterProperty#MAP_LOAD_CHUNK_SIZE}
+ * keys. Instead of blocking a thread of the map loader executor, each batch
+ * is requested with {@link #loadAllAsync(Collection)}. Up to
+ * {@link com.hazelcast.spi.properties.ClusterProperty#MAP_LOAD_PARALLELISM}
+ * batches of a partition are requested at the same time. The loaded
+ * entries are serialized on the map loader executor, so the returned
+ * stages may be completed by the threads of the driver. The single entries
+ * are still loaded by {@link #load(Object)} on the partition thread.
+ * <p>
+ * See {@link MapLoader}.
+ *
+ * @param <K> type of the AsyncMapLoader key
+ * @param <V> type of the AsyncMapLoader value
+ * @since 4.2
+ */
+public interface AsyncMapLoader<K, V> extends MapLoader<K, V> {
+
+    /**
+     * Loads the values of the given keys. The returned stage is completed
+     * with the map of the loaded entries, which does not contain the keys
+     * without a value, or completed exceptionally if the values could not
+     * be loaded.
+     * <p>
+     * This method should not block, nor should it throw an exception
+     * instead of completing the returned stage exceptionally.
+     *
+     * @param keys keys of the values to load
+     * @return the stage completed with the map of the loaded entries
+     */
+    CompletionStage<Map<K, V>> loadAllAsync(Collection<K> keys);
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Blocks until the stage returned by {@link #loadAllAsync(Collection)}
+     * is completed and throws the exception it was completed with.
+     */
+    @Override
+    default Map<K, V> loadAll(Collection<K> keys) {
+        try {
+            return loadAllAsync(keys).toCompletableFuture().join();
+        } catch (CompletionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+}
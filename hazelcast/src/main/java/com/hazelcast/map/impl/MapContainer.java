@@ -97,6 +97,7 @@ public class MapContainer {
     protected final Function<Object, Data> toDataFunction = new ObjectToData();
     protected final InterceptorRegistry interceptorRegistry = new InterceptorRegistry();
     protected final ConstructorFunction<Void, RecordFactory> recordFactoryConstructor;
+    protected final boolean tieredStorageEnabled;
     /**
      * Holds number of registered {@link InvalidationListener} from clients.
      */
@@ -127,6 +128,7 @@ public class MapContainer {
         this.partitioningStrategy = createPartitioningStrategy();
         this.splitBrainProtectionName = mapConfig.getSplitBrainProtectionName();
         this.serializationService = ((InternalSerializationService) nodeEngine.getSerializationService());
+        this.tieredStorageEnabled = mapServiceContext.getTieredStorageManager().isEnabledFor(mapConfig);
         this.recordFactoryConstructor = createRecordFactoryConstructor(serializationService);
         this.objectNamespace = MapService.getObjectNamespace(name);
         this.extractors = Extractors.newBuilder(serializationService)
@@ -457,6 +459,14 @@ public class MapContainer {
         return persistWanReplicatedData;
     }
 
+    /**
+     * @return {@code true} if the idle entries of this map are moved
+     * into the cold tier of a {@link com.hazelcast.map.impl.recordstore.TieredStorage}
+     */
+    public boolean isTieredStorageEnabled() {
+        return tieredStorageEnabled;
+    }
+
     private class ObjectToData implements Function<Object, Data> {
         @Override
         public Data apply(Object input) {
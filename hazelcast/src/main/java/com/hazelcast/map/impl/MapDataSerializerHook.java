@@ -80,6 +80,8 @@ import com.hazelcast.map.impl.operation.MapReplicationOperation;
 import com.hazelcast.map.impl.operation.MapReplicationStateHolder;
 import com.hazelcast.map.impl.operation.MapSizeOperation;
 import com.hazelcast.map.impl.operation.MergeOperation;
+import com.hazelcast.map.impl.operation.MerkleTreeHashesOperation;
+import com.hazelcast.map.impl.operation.MerkleTreeNodeEntriesOperation;
 import com.hazelcast.map.impl.operation.MergeOperationFactory;
 import com.hazelcast.map.impl.operation.MultipleEntryBackupOperation;
 import com.hazelcast.map.impl.operation.MultipleEntryOperation;
@@ -123,6 +125,9 @@ import com.hazelcast.map.impl.operation.TriggerLoadIfNeededOperation;
 import com.hazelcast.map.impl.operation.TryPutOperation;
 import com.hazelcast.map.impl.operation.TryRemoveOperation;
 import com.hazelcast.map.impl.operation.WriteBehindStateHolder;
+import com.hazelcast.map.impl.persistence.RestorePartitionBackupOperation;
+import com.hazelcast.map.impl.persistence.RestorePartitionOperation;
+import com.hazelcast.map.impl.persistence.RestoredCopy;
 import com.hazelcast.map.impl.query.AggregationResult;
 import com.hazelcast.map.impl.query.Query;
 import com.hazelcast.map.impl.query.QueryEventFilter;
@@ -316,8 +321,14 @@ public final class MapDataSerializerHook implements DataSerializerHook {
     public static final int MERGE_MAP_OPERATION_PROCESSOR = 152;
     public static final int MAP_ENTRY_REPLACING_PROCESSOR = 153;
     public static final int LOCAL_RECORD_STORE_STATS = 154;
+    public static final int MERKLE_TREE_HASHES = 155;
+    public static final int MERKLE_TREE_HASHES_OPERATION = 156;
+    public static final int MERKLE_TREE_NODE_ENTRIES_OPERATION = 157;
+    public static final int RESTORE_PARTITION = 158;
+    public static final int RESTORE_PARTITION_BACKUP = 159;
+    public static final int RESTORED_COPY = 160;
 
-    private static final int LEN = LOCAL_RECORD_STORE_STATS + 1;
+    private static final int LEN = RESTORED_COPY + 1;
 
     @Override
     public int getFactoryId() {
@@ -479,6 +490,12 @@ public final class MapDataSerializerHook implements DataSerializerHook {
         constructors[MERGE_MAP_OPERATION_PROCESSOR] = arg -> new MergeEntryProcessor<>();
         constructors[MAP_ENTRY_REPLACING_PROCESSOR] = arg -> new MapEntryReplacingEntryProcessor<>();
         constructors[LOCAL_RECORD_STORE_STATS] = arg -> new LocalRecordStoreStatsImpl();
+        constructors[MERKLE_TREE_HASHES] = arg -> new MerkleTreeHashes();
+        constructors[MERKLE_TREE_HASHES_OPERATION] = arg -> new MerkleTreeHashesOperation();
+        constructors[MERKLE_TREE_NODE_ENTRIES_OPERATION] = arg -> new MerkleTreeNodeEntriesOperation();
+        constructors[RESTORE_PARTITION] = arg -> new RestorePartitionOperation();
+        constructors[RESTORE_PARTITION_BACKUP] = arg -> new RestorePartitionBackupOperation();
+        constructors[RESTORED_COPY] = arg -> new RestoredCopy();
 
         return new ArrayDataSerializableFactory(constructors);
     }
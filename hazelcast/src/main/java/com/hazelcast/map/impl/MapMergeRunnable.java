@@ -19,18 +19,27 @@ package com.hazelcast.map.impl;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.MergePolicyConfig;
+import com.hazelcast.config.MerkleTreeConfig;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.UuidUtil;
+import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.operation.MapOperationProvider;
+import com.hazelcast.map.impl.operation.MerkleTreeHashesOperation;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.spi.impl.merge.AbstractMergeRunnable;
 import com.hazelcast.spi.impl.operationservice.OperationFactory;
+import com.hazelcast.spi.impl.operationservice.OperationService;
 import com.hazelcast.spi.merge.SplitBrainMergePolicy;
 import com.hazelcast.spi.merge.SplitBrainMergeTypes.MapMergeTypes;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeUtil;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 import java.util.function.BiConsumer;
 
 import static com.hazelcast.spi.impl.merge.MergingValueFactory.createMergingEntry;
@@ -38,6 +47,7 @@ import static com.hazelcast.spi.impl.merge.MergingValueFactory.createMergingEntr
 class MapMergeRunnable extends AbstractMergeRunnable<Object, Object, RecordStore, MapMergeTypes<Object, Object>> {
 
     private final MapServiceContext mapServiceContext;
+    private final ILogger logger;
 
     MapMergeRunnable(Collection<RecordStore> mergingStores,
                      MapSplitBrainHandlerService splitBrainHandlerService,
@@ -45,14 +55,20 @@ class MapMergeRunnable extends AbstractMergeRunnable<Object, Object, RecordStore
         super(MapService.SERVICE_NAME, mergingStores, splitBrainHandlerService, mapServiceContext.getNodeEngine());
 
         this.mapServiceContext = mapServiceContext;
+        this.logger = mapServiceContext.getNodeEngine().getLogger(MapMergeRunnable.class);
     }
 
     @Override
     protected void mergeStore(RecordStore store, BiConsumer<Integer, MapMergeTypes<Object, Object>> consumer) {
         int partitionId = store.getPartitionId();
+        int depth = getMerkleTreeDepth(store.getName());
+        int[] leafOrders = depth > 0 ? getDifferentLeaves(store, depth) : null;
 
         store.forEach((BiConsumer<Data, Record>) (key, record) -> {
             Data dataKey = toHeapData(key);
+            if (leafOrders != null && Arrays.binarySearch(leafOrders, MapMerkleTrees.getLeafOrder(dataKey, depth)) < 0) {
+                return;
+            }
             Data dataValue = toHeapData(record.getValue());
             ExpiryMetadata expiredMetadata = store.getExpirySystem().getExpiredMetadata(dataKey);
             consumer.accept(partitionId,
@@ -61,6 +77,63 @@ class MapMergeRunnable extends AbstractMergeRunnable<Object, Object, RecordStore
         }, false);
     }
 
+    /**
+     * Returns the depth of the Merkle trees of the map if they are enabled,
+     * otherwise {@code 0}.
+     */
+    private int getMerkleTreeDepth(String mapName) {
+        MerkleTreeConfig merkleTreeConfig = getMapConfig(mapName).getMerkleTreeConfig();
+        return merkleTreeConfig.isEnabled() ? merkleTreeConfig.getDepth() : 0;
+    }
+
+    /**
+     * Compares the Merkle tree of the merging store with the tree of the
+     * partition in the merged cluster and returns the leaves which differ,
+     * so that only the entries of these leaves are merged. The entries of
+     * the other leaves have the same keys and values in both clusters and
+     * merging them would only update their metadata, e.g. their hits.
+     *
+     * @return the orders of the different leaves, or {@code null} if the
+     * trees couldn't be compared and all entries need to be merged
+     */
+    private int[] getDifferentLeaves(RecordStore store, int depth) {
+        String mapName = store.getName();
+        int partitionId = store.getPartitionId();
+        OperationService operationService = mapServiceContext.getNodeEngine().getOperationService();
+        UUID comparisonId = UuidUtil.newUnsecureUUID();
+        try {
+            MerkleTree localTree = MapMerkleTrees.buildMerkleTree(store, depth, getSerializationService(), null);
+            int[] leafOrders = MerkleTreeUtil.compareTreesLevelByLevel(depth,
+                    nodeOrders -> MerkleTreeUtil.getNodeHashes(localTree, nodeOrders),
+                    nodeOrders -> operationService.<MerkleTreeHashes>invokeOnPartition(MapService.SERVICE_NAME,
+                            new MerkleTreeHashesOperation(mapName, depth, nodeOrders, comparisonId), partitionId)
+                            .joinInternal().getNodeHashes());
+            if (logger.isFineEnabled()) {
+                logger.fine("Merging " + leafOrders.length + " of " + MerkleTreeUtil.getNodesOnLevel(depth - 1)
+                        + " Merkle tree leaves of map " + mapName + " in partition " + partitionId);
+            }
+            if (leafOrders.length == 0) {
+                // the comparison may have stopped above the leaves
+                endComparison(mapName, depth, partitionId, comparisonId);
+            }
+            return leafOrders;
+        } catch (Exception e) {
+            logger.warning("Failed to compare the Merkle trees of map " + mapName + " in partition " + partitionId
+                    + ", merging all entries", e);
+            endComparison(mapName, depth, partitionId, comparisonId);
+            return null;
+        }
+    }
+
+    /**
+     * Lets the merged cluster drop the Merkle tree it keeps for the
+     * comparison. Does not wait for the response.
+     */
+    private void endComparison(String mapName, int depth, int partitionId, UUID comparisonId) {
+        mapServiceContext.getNodeEngine().getOperationService().invokeOnPartition(MapService.SERVICE_NAME,
+                new MerkleTreeHashesOperation(mapName, depth, new int[0], comparisonId), partitionId);
+    }
+
     @Override
     protected int getBatchSize(String dataStructureName) {
         MapConfig mapConfig = getMapConfig(dataStructureName);
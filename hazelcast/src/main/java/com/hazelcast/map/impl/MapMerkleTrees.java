@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.MutableLong;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.map.impl.wan.WanMapEntryView;
+import com.hazelcast.wan.impl.merkletree.ArrayMerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static com.hazelcast.map.impl.EntryViews.createWanEntryView;
+
+/**
+ * Builds the Merkle trees of map partitions on demand, for comparing the
+ * content of a partition with another copy of it, e.g. held by another
+ * cluster, and transferring only the entries which differ.
+ * <p>
+ * The trees are built from the serialized keys and values, so that the
+ * same entries result in the same tree on every member regardless of the
+ * in-memory format.
+ */
+public final class MapMerkleTrees {
+
+    private MapMerkleTrees() {
+    }
+
+    /**
+     * Builds the Merkle tree of the entries of the given record store.
+     *
+     * @param recordStore          the record store, may be {@code null}
+     *                             if the partition holds no entries
+     * @param depth                the depth of the tree
+     * @param serializationService the serialization service
+     * @param entryDataSize        if not {@code null}, incremented with the
+     *                             serialized size of the keys and values
+     * @return the built tree
+     */
+    public static MerkleTree buildMerkleTree(RecordStore<Record> recordStore, int depth,
+                                             SerializationService serializationService, MutableLong entryDataSize) {
+        MerkleTree merkleTree = new ArrayMerkleTree(depth);
+        if (recordStore == null) {
+            return merkleTree;
+        }
+        recordStore.forEach((BiConsumer<Data, Record>) (key, record) -> {
+            Data value = serializationService.toData(record.getValue());
+            merkleTree.updateAdd(key, value);
+            if (entryDataSize != null) {
+                entryDataSize.value += key.totalSize() + value.totalSize();
+            }
+        }, false);
+        return merkleTree;
+    }
+
+    /**
+     * The Merkle tree of a map partition built for a comparison with another
+     * copy of the partition, which requests the hashes of the tree level by
+     * level. The tree is kept by the {@link PartitionContainer} for the
+     * duration of the comparison, so that it isn't rebuilt for each level.
+     */
+    public static final class Snapshot {
+
+        private final UUID comparisonId;
+        private final String mapName;
+        private final int depth;
+        private final MerkleTree merkleTree;
+        private final long entryDataSize;
+        private final long expirationTime;
+
+        public Snapshot(UUID comparisonId, String mapName, int depth, MerkleTree merkleTree, long entryDataSize,
+                        long expirationTime) {
+            this.comparisonId = comparisonId;
+            this.mapName = mapName;
+            this.depth = depth;
+            this.merkleTree = merkleTree;
+            this.entryDataSize = entryDataSize;
+            this.expirationTime = expirationTime;
+        }
+
+        public UUID getComparisonId() {
+            return comparisonId;
+        }
+
+        public String getMapName() {
+            return mapName;
+        }
+
+        public MerkleTree getMerkleTree() {
+            return merkleTree;
+        }
+
+        public long getEntryDataSize() {
+            return entryDataSize;
+        }
+
+        /**
+         * Returns {@code true} if this is the unexpired tree of the given
+         * comparison.
+         */
+        public boolean isSnapshotOf(UUID comparisonId, String mapName, int depth, long now) {
+            return now < expirationTime
+                    && this.comparisonId.equals(comparisonId)
+                    && this.mapName.equals(mapName)
+                    && this.depth == depth;
+        }
+    }
+
+    /**
+     * Collects the entries of the given record store belonging to the
+     * given leaves of its Merkle tree.
+     *
+     * @param recordStore          the record store, may be {@code null}
+     * @param depth                the depth of the tree
+     * @param leafOrders           the breadth-first orders of the leaves,
+     *                             in ascending order
+     * @param serializationService the serialization service
+     * @return the entries grouped by leaf
+     */
+    public static List<MerkleTreeNodeEntries> getLeafEntries(RecordStore<Record> recordStore, int depth, int[] leafOrders,
+                                                             SerializationService serializationService) {
+        if (recordStore == null || leafOrders.length == 0) {
+            return new ArrayList<>();
+        }
+        Map<Integer, MerkleTreeNodeEntries> entriesByLeaf = new HashMap<>();
+        recordStore.forEach((BiConsumer<Data, Record>) (key, record) -> {
+            int leafOrder = getLeafOrder(key, depth);
+            if (Arrays.binarySearch(leafOrders, leafOrder) < 0) {
+                return;
+            }
+            WanMapEntryView<Object, Object> entryView = createWanEntryView(key,
+                    serializationService.toData(record.getValue()), record,
+                    recordStore.getExpirySystem().getExpiredMetadata(key), serializationService);
+            entriesByLeaf.computeIfAbsent(leafOrder, MerkleTreeNodeEntries::new).getNodeEntries().add(entryView);
+        }, false);
+        return new ArrayList<>(entriesByLeaf.values());
+    }
+
+    /**
+     * Returns the breadth-first order of the leaf of a Merkle tree with the
+     * given depth the given key belongs to.
+     */
+    public static int getLeafOrder(Data key, int depth) {
+        return MerkleTreeUtil.getLeafOrderForHash(key.hashCode(), depth - 1);
+    }
+}
@@ -162,6 +162,8 @@ class MapMigrationAwareService implements FragmentedMigrationAwareService {
 
         PartitionContainer partitionContainer
                 = mapServiceContext.getPartitionContainer(event.getPartitionId());
+        // a comparison in progress continues with the tree of the new owner
+        partitionContainer.clearMerkleTreeSnapshot();
         for (RecordStore recordStore : partitionContainer.getAllRecordStores()) {
             // in case the record store has been created without loading during migration trigger again
             // if loading has been already started this call will do nothing
@@ -195,6 +197,7 @@ class MapMigrationAwareService implements FragmentedMigrationAwareService {
             getMetaDataGenerator().removeUuidAndSequence(event.getPartitionId());
         }
 
+        mapServiceContext.getPartitionContainer(event.getPartitionId()).clearMerkleTreeSnapshot();
         mapServiceContext.nullifyOwnedPartitions();
     }
 
@@ -46,6 +46,13 @@ import com.hazelcast.internal.services.TransactionalService;
 import com.hazelcast.internal.services.WanSupportingService;
 import com.hazelcast.map.LocalMapStats;
 import com.hazelcast.map.impl.event.MapEventPublishingService;
+import com.hazelcast.map.impl.mapstore.MapLoadCoalescer;
+import com.hazelcast.map.impl.mapstore.MapStoreContext;
+import com.hazelcast.map.impl.querycache.accumulator.Accumulator;
+import com.hazelcast.map.impl.querycache.subscriber.InternalQueryCache;
+import com.hazelcast.map.impl.querycache.subscriber.QueryCacheFactory;
+import com.hazelcast.map.impl.querycache.subscriber.SubscriberContext;
+import com.hazelcast.map.impl.querycache.subscriber.SubscriberRegistry;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.nearcache.NearCacheStats;
 import com.hazelcast.query.LocalIndexStats;
@@ -70,9 +77,15 @@ import static com.hazelcast.core.EntryEventType.INVALIDATION;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_DISCRIMINATOR_NAME;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_ENTRY_PROCESSOR_OFFLOADABLE_EXECUTOR;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_EXPIRATION;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_INDEX;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_NEARCACHE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_QUERY_CACHE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_LOAD;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_LOAD_COALESCING;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_TIERED_STORAGE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_TAG_INDEX;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_TAG_QUERY_CACHE;
 
 /**
  * Defines map service behavior.
@@ -334,5 +347,64 @@ public class MapService implements ManagedService, FragmentedMigrationAwareServi
                     .withDiscriminator(MAP_DISCRIMINATOR_NAME, name);
             context.collect(nearCacheDescriptor, offloadedExecutorStats);
         });
+
+        // stats of the expiration task
+        context.collect(descriptor.copy().withPrefix(MAP_PREFIX_EXPIRATION),
+                mapServiceContext.getClearExpiredRecordsTask());
+
+        provideMapStoreMetrics(descriptor, context);
+
+        // stats of the tiered storages
+        mapServiceContext.getTieredStorageManager().getStatsByMapName().forEach((name, tieredStorageStats) -> {
+            MetricDescriptor tieredStorageDescriptor = descriptor
+                    .copy()
+                    .withPrefix(MAP_PREFIX_TIERED_STORAGE)
+                    .withDiscriminator(MAP_DISCRIMINATOR_NAME, name);
+            context.collect(tieredStorageDescriptor, tieredStorageStats);
+        });
+
+        provideQueryCacheMetrics(descriptor, context);
+    }
+
+    private void provideMapStoreMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+        for (MapContainer mapContainer : mapServiceContext.getMapContainers().values()) {
+            MapStoreContext mapStoreContext = mapContainer.getMapStoreContext();
+            if (!mapStoreContext.isMapLoader()) {
+                continue;
+            }
+            MetricDescriptor loadDescriptor = descriptor
+                    .copy()
+                    .withPrefix(MAP_PREFIX_LOAD)
+                    .withDiscriminator(MAP_DISCRIMINATOR_NAME, mapContainer.getName());
+            context.collect(loadDescriptor, mapStoreContext.getLoadStats());
+
+            MapLoadCoalescer loadCoalescer = mapStoreContext.getLoadCoalescer();
+            if (loadCoalescer != null) {
+                MetricDescriptor loadCoalescingDescriptor = descriptor
+                        .copy()
+                        .withPrefix(MAP_PREFIX_LOAD_COALESCING)
+                        .withDiscriminator(MAP_DISCRIMINATOR_NAME, mapContainer.getName());
+                context.collect(loadCoalescingDescriptor, loadCoalescer);
+            }
+        }
+    }
+
+    private void provideQueryCacheMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+        SubscriberContext subscriberContext = mapServiceContext.getQueryCacheContext().getSubscriberContext();
+        QueryCacheFactory queryCacheFactory = subscriberContext.getQueryCacheFactory();
+        for (SubscriberRegistry subscriberRegistry : subscriberContext.getMapSubscriberRegistry().getAll().values()) {
+            for (Map.Entry<String, Accumulator> entry : subscriberRegistry.getAll().entrySet()) {
+                InternalQueryCache queryCache = queryCacheFactory.getOrNull(entry.getKey());
+                if (queryCache == null) {
+                    continue;
+                }
+                MetricDescriptor queryCacheDescriptor = descriptor
+                        .copy()
+                        .withPrefix(MAP_PREFIX_QUERY_CACHE)
+                        .withDiscriminator(MAP_DISCRIMINATOR_NAME, entry.getValue().getInfo().getMapName())
+                        .withTag(MAP_TAG_QUERY_CACHE, queryCache.getName());
+                context.collect(queryCacheDescriptor, entry.getValue());
+            }
+        }
     }
 }
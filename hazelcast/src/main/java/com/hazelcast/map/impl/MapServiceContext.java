@@ -31,11 +31,13 @@ import com.hazelcast.map.impl.journal.MapEventJournal;
 import com.hazelcast.map.impl.mapstore.writebehind.NodeWideUsedCapacityCounter;
 import com.hazelcast.map.impl.nearcache.MapNearCacheManager;
 import com.hazelcast.map.impl.operation.MapOperationProvider;
+import com.hazelcast.map.impl.persistence.MapPersistenceManager;
 import com.hazelcast.map.impl.query.QueryEngine;
 import com.hazelcast.map.impl.query.QueryRunner;
 import com.hazelcast.map.impl.query.ResultProcessorRegistry;
 import com.hazelcast.map.impl.querycache.QueryCacheContext;
 import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.map.impl.recordstore.TieredStorageManager;
 import com.hazelcast.partition.PartitioningStrategy;
 import com.hazelcast.query.impl.IndexCopyBehavior;
 import com.hazelcast.query.impl.IndexProvider;
@@ -67,6 +69,7 @@ import java.util.function.Predicate;
  *
  * @see MapManagedService
  */
+@SuppressWarnings("checkstyle:classfanoutcomplexity")
 public interface MapServiceContext extends MapServiceContextInterceptorSupport,
         MapServiceContextEventListenerSupport {
 
@@ -162,6 +165,10 @@ public interface MapServiceContext extends MapServiceContextInterceptorSupport,
 
     MapClearExpiredRecordsTask getClearExpiredRecordsTask();
 
+    TieredStorageManager getTieredStorageManager();
+
+    MapPersistenceManager getPersistenceManager();
+
     MapOperationProvider getMapOperationProvider(String mapName);
 
     IndexProvider getIndexProvider(MapConfig mapConfig);
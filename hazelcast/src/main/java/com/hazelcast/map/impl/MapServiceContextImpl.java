@@ -54,6 +54,7 @@ import com.hazelcast.map.impl.operation.MapOperationProvider;
 import com.hazelcast.map.impl.operation.MapOperationProviders;
 import com.hazelcast.map.impl.operation.MapPartitionDestroyOperation;
 import com.hazelcast.map.impl.operation.SetOperation;
+import com.hazelcast.map.impl.persistence.MapPersistenceManager;
 import com.hazelcast.map.impl.query.AccumulationExecutor;
 import com.hazelcast.map.impl.query.AggregationResult;
 import com.hazelcast.map.impl.query.AggregationResultProcessor;
@@ -73,6 +74,7 @@ import com.hazelcast.map.impl.querycache.NodeQueryCacheContext;
 import com.hazelcast.map.impl.querycache.QueryCacheContext;
 import com.hazelcast.map.impl.recordstore.DefaultRecordStore;
 import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.map.impl.recordstore.TieredStorageManager;
 import com.hazelcast.map.listener.MapPartitionLostListener;
 import com.hazelcast.partition.PartitioningStrategy;
 import com.hazelcast.query.impl.DefaultIndexProvider;
@@ -142,6 +144,8 @@ class MapServiceContextImpl implements MapServiceContext {
     private final ResultProcessorRegistry resultProcessorRegistry;
     private final InternalSerializationService serializationService;
     private final MapClearExpiredRecordsTask clearExpiredRecordsTask;
+    private final TieredStorageManager tieredStorageManager;
+    private final MapPersistenceManager persistenceManager;
     private final PartitioningStrategyFactory partitioningStrategyFactory;
     private final NodeWideUsedCapacityCounter nodeWideUsedCapacityCounter;
     private final ConstructorFunction<String, MapContainer> mapConstructor;
@@ -167,6 +171,8 @@ class MapServiceContextImpl implements MapServiceContext {
         this.partitionContainers = createPartitionContainers();
         this.clearExpiredRecordsTask = new MapClearExpiredRecordsTask(partitionContainers, nodeEngine);
         this.expirationManager = new ExpirationManager(clearExpiredRecordsTask, nodeEngine);
+        this.tieredStorageManager = new TieredStorageManager(nodeEngine, partitionContainers);
+        this.persistenceManager = new MapPersistenceManager(nodeEngine);
         this.mapNearCacheManager = createMapNearCacheManager();
         this.localMapStatsProvider = createLocalMapStatsProvider();
         this.mapEventPublisher = createMapEventPublisherSupport();
@@ -422,6 +428,7 @@ class MapServiceContextImpl implements MapServiceContext {
         // Statistics are destroyed after container to prevent their leak.
         destroyPartitionsAndMapContainer(mapContainer);
         localMapStatsProvider.destroyLocalMapStatsImpl(mapContainer.getName());
+        tieredStorageManager.destroyStats(mapContainer.getName());
     }
 
     /**
@@ -460,10 +467,12 @@ class MapServiceContextImpl implements MapServiceContext {
 
     @Override
     public void shutdown() {
+        persistenceManager.onShutdown();
         removeAllRecordStoresOfAllMaps(true, false);
         mapNearCacheManager.shutdown();
         mapContainers.clear();
         expirationManager.onShutdown();
+        tieredStorageManager.shutdown();
         offloadedExecutorStats.clear();
     }
 
@@ -567,6 +576,16 @@ class MapServiceContextImpl implements MapServiceContext {
         return clearExpiredRecordsTask;
     }
 
+    @Override
+    public TieredStorageManager getTieredStorageManager() {
+        return tieredStorageManager;
+    }
+
+    @Override
+    public MapPersistenceManager getPersistenceManager() {
+        return persistenceManager;
+    }
+
     // TODO: interceptors should get a wrapped object which includes the serialized version
     @Override
     public Object interceptGet(InterceptorRegistry interceptorRegistry, Object currentValue) {
@@ -19,6 +19,7 @@ package com.hazelcast.map.impl;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.internal.diagnostics.Diagnostics;
 import com.hazelcast.internal.diagnostics.StoreLatencyPlugin;
+import com.hazelcast.map.AsyncMapLoader;
 import com.hazelcast.map.EntryLoader;
 import com.hazelcast.map.MapLoader;
 import com.hazelcast.map.MapLoaderLifecycleSupport;
@@ -31,6 +32,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 @SuppressWarnings("unchecked")
 public class MapStoreWrapper implements MapStore, MapLoaderLifecycleSupport {
@@ -44,6 +47,11 @@ public class MapStoreWrapper implements MapStore, MapLoaderLifecycleSupport {
      * or {@code null} if none was provided.
      */
     private MapStore mapStore;
+    /**
+     * The {@link MapLoader} configured for this map if it is an
+     * {@link AsyncMapLoader}, otherwise {@code null}.
+     */
+    private final AsyncMapLoader asyncMapLoader;
 
     private boolean withExpirationTime;
 
@@ -68,6 +76,7 @@ public class MapStoreWrapper implements MapStore, MapLoaderLifecycleSupport {
         }
         this.mapLoader = loader;
         this.mapStore = store;
+        this.asyncMapLoader = impl instanceof AsyncMapLoader ? (AsyncMapLoader) impl : null;
     }
 
     public MapStore getMapStore() {
@@ -177,6 +186,27 @@ public class MapStoreWrapper implements MapStore, MapLoaderLifecycleSupport {
         return null;
     }
 
+    /**
+     * @return {@code true} if the {@link MapLoader} configured for this map
+     * is an {@link AsyncMapLoader}
+     */
+    public boolean isAsyncMapLoader() {
+        return asyncMapLoader != null;
+    }
+
+    /**
+     * Loads the values of the given keys with the {@link AsyncMapLoader}
+     * configured for this map.
+     *
+     * @see AsyncMapLoader#loadAllAsync(Collection)
+     */
+    public CompletionStage<Map> loadAllAsync(Collection keys) {
+        if (keys == null || keys.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.EMPTY_MAP);
+        }
+        return asyncMapLoader.loadAllAsync(keys);
+    }
+
     public Object getImpl() {
         return impl;
     }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
+
+import java.io.IOException;
+
+/**
+ * The hashes of some nodes of the Merkle tree of a map partition, along
+ * with the serialized size of all entries of the partition, i.e. the
+ * amount of data a full synchronization of the partition would transfer.
+ *
+ * @see MerkleTree
+ * @see MapMerkleTrees
+ */
+public class MerkleTreeHashes implements IdentifiedDataSerializable {
+    private int[] nodeHashes;
+    private long entryDataSize;
+
+    public MerkleTreeHashes() {
+    }
+
+    public MerkleTreeHashes(int[] nodeHashes, long entryDataSize) {
+        this.nodeHashes = nodeHashes;
+        this.entryDataSize = entryDataSize;
+    }
+
+    public int[] getNodeHashes() {
+        return nodeHashes;
+    }
+
+    public long getEntryDataSize() {
+        return entryDataSize;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return MapDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.MERKLE_TREE_HASHES;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeIntArray(nodeHashes);
+        out.writeLong(entryDataSize);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        nodeHashes = in.readIntArray();
+        entryDataSize = in.readLong();
+    }
+}
@@ -26,6 +26,7 @@ import com.hazelcast.wan.impl.merkletree.MerkleTree;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -46,6 +47,14 @@ public class MerkleTreeNodeEntries implements IdentifiedDataSerializable {
         this.nodeEntries = nodeEntries;
     }
 
+    MerkleTreeNodeEntries(int nodeOrder) {
+        this(nodeOrder, new HashSet<>());
+    }
+
+    public int getNodeOrder() {
+        return nodeOrder;
+    }
+
     public Set<WanMapEntryView<Object, Object>> getNodeEntries() {
         return nodeEntries;
     }
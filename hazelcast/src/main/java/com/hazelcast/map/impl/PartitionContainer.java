@@ -39,6 +39,7 @@ import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -78,6 +79,13 @@ public class PartitionContainer {
      */
     private long lastCleanupTimeCopy;
 
+    /**
+     * The Merkle tree built for the last comparison of a map partition with
+     * another copy of it, until the comparison ends. Accessed only by the
+     * partition thread.
+     */
+    private MapMerkleTrees.Snapshot merkleTreeSnapshot;
+
     public PartitionContainer(final MapService mapService, final int partitionId) {
         this.mapService = mapService;
         this.partitionId = partitionId;
@@ -192,6 +200,9 @@ public class PartitionContainer {
         }
         // getting rid of Indexes object in case it has been initialized
         indexes.remove(name);
+        if (merkleTreeSnapshot != null && merkleTreeSnapshot.getMapName().equals(name)) {
+            merkleTreeSnapshot = null;
+        }
 
         MapServiceContext mapServiceContext = mapService.getMapServiceContext();
         if (mapServiceContext.removeMapContainer(mapContainer)) {
@@ -233,6 +244,28 @@ public class PartitionContainer {
         this.lastCleanupTimeCopy = lastCleanupTimeCopy;
     }
 
+    public MapMerkleTrees.Snapshot getMerkleTreeSnapshot() {
+        return merkleTreeSnapshot;
+    }
+
+    public void setMerkleTreeSnapshot(MapMerkleTrees.Snapshot merkleTreeSnapshot) {
+        this.merkleTreeSnapshot = merkleTreeSnapshot;
+    }
+
+    /**
+     * Drops the Merkle tree built for the given comparison, if it is the
+     * one kept by this partition.
+     */
+    public void clearMerkleTreeSnapshot(UUID comparisonId) {
+        if (merkleTreeSnapshot != null && merkleTreeSnapshot.getComparisonId().equals(comparisonId)) {
+            merkleTreeSnapshot = null;
+        }
+    }
+
+    public void clearMerkleTreeSnapshot() {
+        merkleTreeSnapshot = null;
+    }
+
     // -------------------------------------------------------------------------------------------------------------
     // IMPORTANT: never use directly! use MapContainer.getIndex() instead.
     // There are cases where a global index is used. In this case, the global-index is stored in the MapContainer.
@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.eviction;
 
 import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.eviction.FrequencySketch;
 import com.hazelcast.internal.partition.IPartition;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.serialization.Data;
@@ -77,7 +78,8 @@ public class EvictorImpl implements Evictor {
                                            long now, boolean backup) {
         EntryView excluded = null;
         EntryView selected = null;
-
+        int selectedFrequency = 0;
+        FrequencySketch frequencySketch = recordStore.getFrequencySketch();
 
         for (EntryView current : getRandomSamples(recordStore)) {
             Data dataKey = getDataKeyFromEntryView(current);
@@ -93,9 +95,12 @@ public class EvictorImpl implements Evictor {
                 continue;
             }
 
+            int frequency = frequencySketch == null ? 0 : frequencySketch.frequency(dataKey.hashCode());
             if (selected == null
-                    || policy.compare(current, selected) < 0) {
+                    || frequency < selectedFrequency
+                    || frequency == selectedFrequency && policy.compare(current, selected) < 0) {
                 selected = current;
+                selectedFrequency = frequency;
             }
         }
 
@@ -18,7 +18,9 @@ package com.hazelcast.map.impl.eviction;
 
 import com.hazelcast.internal.eviction.ClearExpiredRecordsTask;
 import com.hazelcast.internal.eviction.ExpiredKey;
+import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.nearcache.impl.invalidation.InvalidationQueue;
+import com.hazelcast.internal.util.counters.Counter;
 import com.hazelcast.map.impl.PartitionContainer;
 import com.hazelcast.map.impl.operation.EvictBatchBackupOperation;
 import com.hazelcast.map.impl.operation.MapClearExpiredOperation;
@@ -33,7 +35,13 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
 
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_EXPIRATION_EXPIRED_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_EXPIRATION_MAX_EXPIRY_LAG;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_EXPIRATION_TOTAL_EXPIRY_LAG;
+import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
 import static java.util.Collections.sort;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -107,6 +115,12 @@ public class MapClearExpiredRecordsTask
 
     private final boolean primaryDrivesEviction;
 
+    @Probe(name = MAP_METRIC_EXPIRATION_EXPIRED_COUNT)
+    private final Counter expiredCount = newMwCounter();
+    @Probe(name = MAP_METRIC_EXPIRATION_TOTAL_EXPIRY_LAG, unit = MS)
+    private final Counter totalExpiryLagMillis = newMwCounter();
+    private final LongAccumulator maxExpiryLagMillis = new LongAccumulator(Math::max, 0);
+
     private final Comparator<PartitionContainer> partitionContainerComparator = (o1, o2) -> {
         final long s1 = o1.getLastCleanupTimeCopy();
         final long s2 = o2.getLastCleanupTimeCopy();
@@ -123,6 +137,33 @@ public class MapClearExpiredRecordsTask
         return primaryDrivesEviction;
     }
 
+    /**
+     * Called when an expired entry is removed from a primary partition
+     * by the expiration task.
+     *
+     * @param expiryLagMillis the time passed between the expiration of
+     *                        the entry and its removal
+     */
+    public void onExpired(long expiryLagMillis) {
+        long lag = Math.max(0, expiryLagMillis);
+        expiredCount.inc();
+        totalExpiryLagMillis.inc(lag);
+        maxExpiryLagMillis.accumulate(lag);
+    }
+
+    @Probe(name = MAP_METRIC_EXPIRATION_MAX_EXPIRY_LAG, unit = MS)
+    public long getMaxExpiryLagMillis() {
+        return maxExpiryLagMillis.get();
+    }
+
+    public long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    public long getTotalExpiryLagMillis() {
+        return totalExpiryLagMillis.get();
+    }
+
     @Override
     public void tryToSendBackupExpiryOp(RecordStore store, boolean sendIfAtBatchSize) {
         if (!canPrimaryDriveExpiration()) {
@@ -30,7 +30,7 @@ import java.util.NoSuchElementException;
  */
 public abstract class AbstractMapIterator<K, V> implements Iterator<Map.Entry<K, V>> {
 
-    protected static final int DEFAULT_FETCH_SIZE = 100;
+    public static final int DEFAULT_FETCH_SIZE = 100;
     private final int partitionCount;
     private Iterator<Map.Entry<K, V>> lastReadIterator;
     private final ConstructorFunction<Integer, Iterator<Map.Entry<K, V>>> createPartitionIterator;
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.iterator;
+
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.map.impl.LazyMapEntry;
+import com.hazelcast.spi.impl.InternalCompletableFuture;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+
+/**
+ * Spliterator for iterating map entries of a range of partitions, fetching
+ * the pages of several partitions concurrently.
+ * <p>
+ * The entries of a partition are fetched in pages (of {@code fetchSize}
+ * entries) as {@link MapPartitionIterator} does, but instead of fetching
+ * the next page only once the current one is consumed, up to {@code
+ * maxConcurrency} page requests are kept in flight: the first pages of the
+ * partitions following the one being consumed and the next page of the
+ * consumed partition, which is requested as soon as its current page
+ * arrives. The values are always fetched together with the keys.
+ * <p>
+ * The spliterator splits by partitions, so that parallel streams consume
+ * different partition ranges from different threads, each of them with
+ * its own bounded number of outstanding page requests.
+ * <p>
+ * <b>NOTE</b>
+ * The iteration may be done when the map is being mutated or when there are
+ * membership changes. The spliterator does not reflect the state when it has
+ * been constructed - it may return some entries that were added after the
+ * iteration has started and may not return some entries that were removed
+ * after iteration has started.
+ * The spliterator will not, however, skip an entry if it has not been
+ * changed and will not return an entry twice.
+ *
+ * @param <K> the key type of map.
+ * @param <V> the value type of map.
+ */
+public class MapSpliterator<K, V> implements Spliterator<Map.Entry<K, V>> {
+
+    /**
+     * The default number of page requests a spliterator keeps in flight.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+    private final PageFetcher fetcher;
+    private final InternalSerializationService serializationService;
+    private final int fetchSize;
+    private final int maxConcurrency;
+
+    /**
+     * The partitions being fetched, in the order of their consumption.
+     */
+    private final Deque<PartitionCursor> cursors = new ArrayDeque<>();
+    private int nextPartitionId;
+    private int endPartitionId;
+
+    private List<Map.Entry<Data, Data>> page;
+    private int index;
+
+    /**
+     * @param fetcher              the fetcher of the partition pages
+     * @param serializationService the serialization service for the fetched entries
+     * @param fetchSize            the size of the pages to fetch
+     * @param maxConcurrency       the maximum number of page requests in flight
+     * @param fromPartitionId      the first partition to iterate (inclusive)
+     * @param toPartitionId        the last partition to iterate (exclusive)
+     */
+    public MapSpliterator(PageFetcher fetcher, InternalSerializationService serializationService, int fetchSize,
+                          int maxConcurrency, int fromPartitionId, int toPartitionId) {
+        checkPositive("fetchSize", fetchSize);
+        checkPositive("maxConcurrency", maxConcurrency);
+        this.fetcher = fetcher;
+        this.serializationService = serializationService;
+        this.fetchSize = fetchSize;
+        this.maxConcurrency = maxConcurrency;
+        this.nextPartitionId = fromPartitionId;
+        this.endPartitionId = toPartitionId;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Map.Entry<K, V>> action) {
+        while (page == null || index == page.size()) {
+            if (!advance()) {
+                return false;
+            }
+        }
+
+        Map.Entry<Data, Data> entry = page.get(index++);
+        action.accept(new LazyMapEntry<>(entry.getKey(), entry.getValue(), serializationService));
+        return true;
+    }
+
+    @Override
+    public Spliterator<Map.Entry<K, V>> trySplit() {
+        // the partitions already being fetched stay with this spliterator
+        int remaining = endPartitionId - nextPartitionId;
+        if (remaining < 2) {
+            return null;
+        }
+        int splitPartitionId = nextPartitionId + remaining / 2;
+        MapSpliterator<K, V> split = new MapSpliterator<>(fetcher, serializationService, fetchSize, maxConcurrency,
+                splitPartitionId, endPartitionId);
+        endPartitionId = splitPartitionId;
+        return split;
+    }
+
+    @Override
+    public long estimateSize() {
+        // the number of entries in a partition is not known before it's fetched
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return DISTINCT | NONNULL | CONCURRENT;
+    }
+
+    /**
+     * Moves to the next page, requesting the pages of the following
+     * partitions and the next page of the current partition.
+     *
+     * @return {@code true} if there is a next page, {@code false} if all
+     * partitions are consumed.
+     */
+    private boolean advance() {
+        requestPartitions();
+        PartitionCursor cursor = cursors.peekFirst();
+        if (cursor == null) {
+            return false;
+        }
+
+        MapEntriesWithCursor fetched = cursor.pending.joinInternal();
+        List<Map.Entry<Data, Data>> batch = fetched.getBatch();
+        IterationPointer[] pointers = fetched.getIterationPointers();
+        if (batch.isEmpty() || pointers[pointers.length - 1].getIndex() < 0) {
+            cursors.pollFirst();
+            requestPartitions();
+        } else {
+            cursor.pending = fetcher.fetch(cursor.partitionId, pointers, fetchSize);
+        }
+
+        page = batch;
+        index = 0;
+        return true;
+    }
+
+    private void requestPartitions() {
+        while (cursors.size() < maxConcurrency && nextPartitionId < endPartitionId) {
+            int partitionId = nextPartitionId++;
+            IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+            cursors.addLast(new PartitionCursor(partitionId, fetcher.fetch(partitionId, pointers, fetchSize)));
+        }
+    }
+
+    /**
+     * Fetches a page of entries of a partition.
+     */
+    @FunctionalInterface
+    public interface PageFetcher {
+
+        /**
+         * Requests a page of entries of the given partition.
+         *
+         * @param partitionId the partition to fetch the entries of
+         * @param pointers    the pointers defining the iteration state
+         * @param fetchSize   the number of entries to fetch
+         * @return the future of the fetched entries along with the pointers
+         * to continue the iteration from
+         */
+        InternalCompletableFuture<MapEntriesWithCursor> fetch(int partitionId, IterationPointer[] pointers, int fetchSize);
+
+    }
+
+    private static final class PartitionCursor {
+
+        private final int partitionId;
+        private InternalCompletableFuture<MapEntriesWithCursor> pending;
+
+        PartitionCursor(int partitionId, InternalCompletableFuture<MapEntriesWithCursor> pending) {
+            this.partitionId = partitionId;
+            this.pending = pending;
+        }
+
+    }
+
+}
@@ -29,6 +29,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 /**
  * Abstract map data store contains common functionality of map data stores.
@@ -41,10 +44,12 @@ public abstract class AbstractMapDataStore<K, V> implements MapDataStore<K, V> {
     protected final NodeEngine nodeEngine;
 
     private final MapStoreWrapper store;
+    private final MapLoadCoalescer loadCoalescer;
     private final InternalSerializationService serializationService;
 
     protected AbstractMapDataStore(MapStoreContext mapStoreContext) {
         this.store = mapStoreContext.getMapStoreWrapper();
+        this.loadCoalescer = mapStoreContext.getLoadCoalescer();
         this.nodeEngine = mapStoreContext.getMapServiceContext().getNodeEngine();
         this.serializationService = (InternalSerializationService) nodeEngine.getSerializationService();
     }
@@ -64,6 +69,50 @@ public abstract class AbstractMapDataStore<K, V> implements MapDataStore<K, V> {
         return entries;
     }
 
+    @Override
+    public CompletionStage<Map> loadAllAsync(Collection keys, Executor executor) {
+        if (keys == null || keys.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+        if (!getStore().isAsyncMapLoader()) {
+            return CompletableFuture.supplyAsync(() -> loadAll(keys), executor);
+        }
+        List<Object> objectKeys = convertToObjectKeys(keys);
+        return getStore().loadAllAsync(objectKeys)
+                .thenApply(entries -> entries == null || entries.isEmpty() ? Collections.emptyMap() : entries);
+    }
+
+    /**
+     * Loads the value of the given key from the map store, coalesced with
+     * concurrent loads if load coalescing is enabled.
+     *
+     * @param key the key in object format
+     * @return the loaded value or {@code null} if there is none
+     * @see MapLoadCoalescer
+     */
+    protected Object loadFromStore(Object key) {
+        if (loadCoalescer == null) {
+            return store.load(key);
+        }
+        return loadCoalescer.load(key);
+    }
+
+    /**
+     * Asynchronous variant of {@link #loadFromStore(Object)}. The value is
+     * loaded on the map loader executor if load coalescing is enabled,
+     * otherwise it is loaded on the calling thread.
+     *
+     * @param key the key in object format
+     * @return the stage completed with the loaded value
+     * @see MapLoadCoalescer#loadAsync(Object)
+     */
+    protected CompletionStage<Object> loadFromStoreAsync(Object key) {
+        if (loadCoalescer == null) {
+            return CompletableFuture.completedFuture(store.load(key));
+        }
+        return loadCoalescer.loadAsync(key);
+    }
+
     /**
      * {@inheritDoc}
      *
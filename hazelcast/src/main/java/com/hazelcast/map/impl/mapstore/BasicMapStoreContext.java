@@ -25,14 +25,17 @@ import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.MapStoreWrapper;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.properties.ClusterProperty;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.util.IterableUtil;
 
 import java.util.Properties;
+import java.util.concurrent.Executor;
 
 import static com.hazelcast.map.impl.mapstore.MapStoreManagers.createWriteBehindManager;
 import static com.hazelcast.map.impl.mapstore.MapStoreManagers.createWriteThroughManager;
 import static com.hazelcast.map.impl.mapstore.StoreConstructor.createStore;
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.MAP_LOADER_EXECUTOR;
 
 /**
  * Default impl. of {@link com.hazelcast.map.impl.mapstore.MapStoreContext}
@@ -50,6 +53,10 @@ final class BasicMapStoreContext implements MapStoreContext {
 
     private MapStoreConfig mapStoreConfig;
 
+    private final MapLoadStats loadStats = new MapLoadStats();
+
+    private MapLoadCoalescer loadCoalescer;
+
     private BasicMapStoreContext() {
     }
 
@@ -100,6 +107,16 @@ final class BasicMapStoreContext implements MapStoreContext {
         return mapStoreConfig;
     }
 
+    @Override
+    public MapLoadStats getLoadStats() {
+        return loadStats;
+    }
+
+    @Override
+    public MapLoadCoalescer getLoadCoalescer() {
+        return loadCoalescer;
+    }
+
     @Override
     public MapStoreManager getMapStoreManager() {
         return mapStoreManager;
@@ -129,6 +146,7 @@ final class BasicMapStoreContext implements MapStoreContext {
         context.setPartitioningStrategy(partitioningStrategy);
         context.setMapServiceContext(mapServiceContext);
         context.setStoreWrapper(storeWrapper);
+        context.setLoadCoalescer(createLoadCoalescer(storeWrapper, mapStoreConfig, nodeEngine));
 
         final MapStoreManager mapStoreManager = createMapStoreManager(context);
         context.setMapStoreManager(mapStoreManager);
@@ -147,6 +165,17 @@ final class BasicMapStoreContext implements MapStoreContext {
         return createWriteThroughManager(mapStoreContext);
     }
 
+    private static MapLoadCoalescer createLoadCoalescer(MapStoreWrapper storeWrapper, MapStoreConfig mapStoreConfig,
+                                                        NodeEngine nodeEngine) {
+        int windowMillis = mapStoreConfig.getLoadCoalescingWindowMillis();
+        if (windowMillis <= 0 || !storeWrapper.isMapLoader()) {
+            return null;
+        }
+        Executor executor = nodeEngine.getExecutionService().getExecutor(MAP_LOADER_EXECUTOR);
+        int maxBatchSize = nodeEngine.getProperties().getInteger(ClusterProperty.MAP_LOAD_CHUNK_SIZE);
+        return new MapLoadCoalescer(storeWrapper, executor, windowMillis, maxBatchSize);
+    }
+
     private static boolean isWriteBehindMapStoreEnabled(MapStoreConfig mapStoreConfig) {
         return mapStoreConfig != null && mapStoreConfig.isEnabled()
                 && mapStoreConfig.getWriteDelaySeconds() > 0;
@@ -177,6 +206,10 @@ final class BasicMapStoreContext implements MapStoreContext {
         this.storeWrapper = storeWrapper;
     }
 
+    void setLoadCoalescer(MapLoadCoalescer loadCoalescer) {
+        this.loadCoalescer = loadCoalescer;
+    }
+
     void setMapServiceContext(MapServiceContext mapServiceContext) {
         this.mapServiceContext = mapServiceContext;
     }
@@ -23,6 +23,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 /**
  * Empty map data store for providing neutral null behaviour.
@@ -65,11 +68,21 @@ class EmptyMapDataStore implements MapDataStore {
         return null;
     }
 
+    @Override
+    public CompletionStage loadAsync(Object key) {
+        return CompletableFuture.completedFuture(null);
+    }
+
     @Override
     public Map loadAll(Collection keys) {
         return Collections.emptyMap();
     }
 
+    @Override
+    public CompletionStage<Map> loadAllAsync(Collection keys, Executor executor) {
+        return CompletableFuture.completedFuture(Collections.emptyMap());
+    }
+
     @Override
     public void removeAll(Collection keys) {
     }
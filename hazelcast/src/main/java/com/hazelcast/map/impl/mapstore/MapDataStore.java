@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.mapstore;
 
+import com.hazelcast.map.AsyncMapLoader;
 import com.hazelcast.map.IMap;
 import com.hazelcast.map.MapLoader;
 import com.hazelcast.map.impl.mapstore.writebehind.TxnReservedCapacityCounter;
@@ -25,6 +26,8 @@ import com.hazelcast.internal.serialization.Data;
 import java.util.Collection;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 /**
  * Map data stores general contract.
@@ -60,6 +63,19 @@ public interface MapDataStore<K, V> {
 
     V load(K key);
 
+    /**
+     * Loads the value of the given key like {@link #load(Object)}. If load
+     * coalescing is enabled for this map, the value is loaded without
+     * blocking the calling thread, coalesced with concurrent loads.
+     * Otherwise it is loaded on the calling thread.
+     *
+     * @param key the key for which the value is loaded
+     * @return the stage completed with the loaded value or with {@code null}
+     * if there is none
+     * @see MapLoadCoalescer
+     */
+    CompletionStage<V> loadAsync(K key);
+
     /**
      * Loads values for the provided keys if a {@link MapLoader} is
      * configured for this map. This method never returns {@code null}.
@@ -72,6 +88,21 @@ public interface MapDataStore<K, V> {
      */
     Map loadAll(Collection keys);
 
+    /**
+     * Loads values for the provided keys like {@link #loadAll(Collection)}
+     * without blocking the calling thread. If the configured {@link
+     * MapLoader} is an {@link AsyncMapLoader}, the values are requested
+     * from it directly, otherwise the blocking {@link MapLoader#loadAll}
+     * is called on the given executor.
+     *
+     * @param keys     the keys for which values are loaded
+     * @param executor the executor running a blocking {@link MapLoader}
+     * @return the stage completed with the map from de-serialised key to
+     * de-serialised value, never with {@code null}
+     * @see AsyncMapLoader#loadAllAsync(Collection)
+     */
+    CompletionStage<Map> loadAllAsync(Collection keys, Executor executor);
+
     /**
      * Removes keys from map store.
      * It also handles {@link Data}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.map.impl.MapStoreWrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_LOAD_COALESCING_BATCHED_KEY_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_LOAD_COALESCING_BATCH_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_LOAD_COALESCING_COALESCED_LOAD_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_LOAD_COALESCING_LOAD_COUNT;
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * Coalesces the loads of single keys of a map from its
+ * {@link com.hazelcast.map.MapLoader} on cache misses.
+ * <p>
+ * Concurrent loads of the same key share a single loader call. The
+ * asynchronous loads of {@link #loadAsync} are run on the given executor,
+ * one batch at a time: a load requested while no other load is pending
+ * is started right away, the loads requested while a batch is being
+ * loaded are collected for the load coalescing window and then done with
+ * a single {@link com.hazelcast.map.MapLoader#loadAll} call.
+ * <p>
+ * One instance is created per map, so loads are coalesced across all
+ * partitions of the map on this member.
+ *
+ * @see com.hazelcast.config.MapStoreConfig#setLoadCoalescingWindowMillis(int)
+ */
+public class MapLoadCoalescer {
+
+    private final MapStoreWrapper store;
+    private final Executor executor;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    /**
+     * Futures of the loads which have not completed yet, by key.
+     */
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+    /**
+     * Keys of the asynchronous loads not yet taken into a batch.
+     */
+    private final Queue<Object> pendingKeys = new ConcurrentLinkedQueue<>();
+    /**
+     * {@code true} while a task loading the pending keys is scheduled or
+     * running on the executor.
+     */
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    @Probe(name = MAP_METRIC_LOAD_COALESCING_LOAD_COUNT)
+    private final Counter loadCount = newMwCounter();
+    @Probe(name = MAP_METRIC_LOAD_COALESCING_COALESCED_LOAD_COUNT)
+    private final Counter coalescedLoadCount = newMwCounter();
+    @Probe(name = MAP_METRIC_LOAD_COALESCING_BATCH_COUNT)
+    private final Counter batchCount = newMwCounter();
+    @Probe(name = MAP_METRIC_LOAD_COALESCING_BATCHED_KEY_COUNT)
+    private final Counter batchedKeyCount = newMwCounter();
+
+    public MapLoadCoalescer(MapStoreWrapper store, Executor executor, long windowMillis, int maxBatchSize) {
+        this.store = store;
+        this.executor = executor;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Loads the value of the given key on the calling thread, or waits for
+     * the concurrent load of the same key to complete.
+     *
+     * @param key the key in object format
+     * @return the loaded value or {@code null} if the loader has no value
+     * for the key
+     * @see com.hazelcast.map.MapLoader#load(Object)
+     */
+    public Object load(Object key) {
+        loadCount.inc();
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> inFlightLoad = inFlightLoads.putIfAbsent(key, future);
+        if (inFlightLoad != null) {
+            coalescedLoadCount.inc();
+            return join(inFlightLoad);
+        }
+        List<Object> keys = new ArrayList<>(1);
+        keys.add(key);
+        loadBatch(keys);
+        return join(future);
+    }
+
+    /**
+     * Loads the value of the given key without blocking the calling thread.
+     *
+     * @param key the key in object format
+     * @return the future completed with the loaded value or with
+     * {@code null} if the loader has no value for the key
+     * @see com.hazelcast.map.MapLoader#load(Object)
+     */
+    public CompletableFuture<Object> loadAsync(Object key) {
+        loadCount.inc();
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> inFlightLoad = inFlightLoads.putIfAbsent(key, future);
+        if (inFlightLoad != null) {
+            coalescedLoadCount.inc();
+            return inFlightLoad;
+        }
+        pendingKeys.offer(key);
+        tryStartDraining();
+        return future;
+    }
+
+    public long getLoadCount() {
+        return loadCount.get();
+    }
+
+    public long getCoalescedLoadCount() {
+        return coalescedLoadCount.get();
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public long getBatchedKeyCount() {
+        return batchedKeyCount.get();
+    }
+
+    private void tryStartDraining() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (Throwable t) {
+            draining.set(false);
+            fail(pollPendingKeys(Integer.MAX_VALUE), t);
+        }
+    }
+
+    /**
+     * Loads the pending keys batch by batch until none is left. Only the
+     * keys requested while the previous batch was loaded wait for the
+     * window, the first batch is loaded right away.
+     */
+    private void drain() {
+        boolean waitForWindow = false;
+        while (true) {
+            if (waitForWindow) {
+                awaitWindow();
+            }
+            List<Object> keys = pollPendingKeys(maxBatchSize);
+            if (keys.isEmpty()) {
+                draining.set(false);
+                // a key may have been offered after the poll, before the flag was reset
+                if (pendingKeys.isEmpty() || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+                waitForWindow = false;
+                continue;
+            }
+            loadBatch(keys);
+            waitForWindow = !pendingKeys.isEmpty();
+        }
+    }
+
+    private List<Object> pollPendingKeys(int maxKeyCount) {
+        List<Object> keys = new ArrayList<>();
+        Object key;
+        while (keys.size() < maxKeyCount && (key = pendingKeys.poll()) != null) {
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    private void awaitWindow() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(windowMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Loads the values of the given keys and completes the futures of
+     * their loads. A single key is loaded with
+     * {@link com.hazelcast.map.MapLoader#load} so that the semantics of a
+     * load without coalescing are kept.
+     */
+    private void loadBatch(List<Object> keys) {
+        batchCount.inc();
+        batchedKeyCount.inc(keys.size());
+        try {
+            if (keys.size() == 1) {
+                Object key = keys.get(0);
+                complete(key, store.load(key));
+                return;
+            }
+            Map loaded = store.loadAll(keys);
+            for (Object key : keys) {
+                complete(key, loaded == null ? null : loaded.get(key));
+            }
+        } catch (Throwable t) {
+            fail(keys, t);
+        }
+    }
+
+    /**
+     * Completes the load of the given key. The future is removed before it
+     * is completed, so that later loads of the key are not served a value
+     * which may be stale by then.
+     */
+    private void complete(Object key, Object value) {
+        CompletableFuture<Object> future = inFlightLoads.remove(key);
+        if (future != null) {
+            future.complete(value);
+        }
+    }
+
+    private void fail(List<Object> keys, Throwable t) {
+        for (Object key : keys) {
+            CompletableFuture<Object> future = inFlightLoads.remove(key);
+            if (future != null) {
+                future.completeExceptionally(t);
+            }
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.internal.util.counters.Counter;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_LOAD_FAILED_BATCH_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_LOAD_IN_FLIGHT_BATCH_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_LOAD_LOADED_BATCH_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_LOAD_LOADED_ENTRY_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_LOAD_PENDING_KEY_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_LOAD_THROUGHPUT;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * The statistics of loading the values of the keys of a map from its
+ * {@link com.hazelcast.map.MapLoader} in batches on this member, as done by
+ * {@link com.hazelcast.map.IMap#loadAll} and the initial load of the map.
+ * <p>
+ * The counters are updated by the threads loading the values and by the
+ * threads of the {@link com.hazelcast.map.AsyncMapLoader}, and may be read
+ * by any thread.
+ */
+public class MapLoadStats {
+
+    private static final long MILLIS_PER_SECOND = 1000;
+
+    @Probe(name = MAP_METRIC_LOAD_PENDING_KEY_COUNT)
+    private final Counter pendingKeyCount = newMwCounter();
+    @Probe(name = MAP_METRIC_LOAD_IN_FLIGHT_BATCH_COUNT)
+    private final Counter inFlightBatchCount = newMwCounter();
+    @Probe(name = MAP_METRIC_LOAD_LOADED_BATCH_COUNT)
+    private final Counter loadedBatchCount = newMwCounter();
+    @Probe(name = MAP_METRIC_LOAD_FAILED_BATCH_COUNT)
+    private final Counter failedBatchCount = newMwCounter();
+    @Probe(name = MAP_METRIC_LOAD_LOADED_ENTRY_COUNT)
+    private final Counter loadedEntryCount = newMwCounter();
+
+    private volatile long firstLoadStartTime;
+    private volatile long lastLoadEndTime;
+
+    /**
+     * Returns the number of entries loaded per second between the start of
+     * the first load and the end of the last batch on this member, or
+     * {@code 0} if no batch has completed yet.
+     */
+    @Probe(name = MAP_METRIC_LOAD_THROUGHPUT)
+    public long getThroughput() {
+        long millis = lastLoadEndTime - firstLoadStartTime;
+        return millis <= 0 ? 0 : loadedEntryCount.get() * MILLIS_PER_SECOND / millis;
+    }
+
+    public long getPendingKeyCount() {
+        return pendingKeyCount.get();
+    }
+
+    public long getInFlightBatchCount() {
+        return inFlightBatchCount.get();
+    }
+
+    public long getLoadedBatchCount() {
+        return loadedBatchCount.get();
+    }
+
+    public long getFailedBatchCount() {
+        return failedBatchCount.get();
+    }
+
+    public long getLoadedEntryCount() {
+        return loadedEntryCount.get();
+    }
+
+    /**
+     * Called when the values of the given number of keys are to be loaded.
+     */
+    public void onLoadStarted(int keyCount) {
+        if (firstLoadStartTime == 0) {
+            firstLoadStartTime = Clock.currentTimeMillis();
+        }
+        pendingKeyCount.inc(keyCount);
+    }
+
+    public void onBatchStarted() {
+        inFlightBatchCount.inc();
+    }
+
+    /**
+     * Called when the given number of entries of a batch of the given
+     * number of keys have been put into the record store.
+     */
+    public void onBatchLoaded(int keyCount, int entryCount) {
+        inFlightBatchCount.inc(-1);
+        pendingKeyCount.inc(-keyCount);
+        loadedBatchCount.inc();
+        loadedEntryCount.inc(entryCount);
+        lastLoadEndTime = Clock.currentTimeMillis();
+    }
+
+    public void onBatchFailed(int keyCount) {
+        inFlightBatchCount.inc(-1);
+        pendingKeyCount.inc(-keyCount);
+        failedBatchCount.inc();
+    }
+
+    /**
+     * Called when the values of the given number of keys are not loaded
+     * after all, e.g. because they are already in the record store.
+     */
+    public void onKeysSkipped(int keyCount) {
+        pendingKeyCount.inc(-keyCount);
+    }
+}
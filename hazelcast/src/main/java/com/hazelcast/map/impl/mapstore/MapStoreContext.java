@@ -55,6 +55,15 @@ public interface MapStoreContext {
 
     MapStoreConfig getMapStoreConfig();
 
+    MapLoadStats getLoadStats();
+
+    /**
+     * @return the coalescer of the loads of single keys of this map or
+     * {@code null} if load coalescing is disabled
+     * @see MapStoreConfig#getLoadCoalescingWindowMillis()
+     */
+    MapLoadCoalescer getLoadCoalescer();
+
     /**
      * Returns an {@link Iterable} over all keys or an empty iterable
      * if there is no map loader configured for this map.
@@ -99,6 +99,16 @@ public final class MapStoreContextFactory {
             throw new UnsupportedOperationException("This method must not be called. No defined map store exists.");
         }
 
+        @Override
+        public MapLoadStats getLoadStats() {
+            throw new UnsupportedOperationException("This method must not be called. No defined map store exists.");
+        }
+
+        @Override
+        public MapLoadCoalescer getLoadCoalescer() {
+            throw new UnsupportedOperationException("This method must not be called. No defined map store exists.");
+        }
+
         @Override
         public Iterable<Object> loadAllKeys() {
             return Collections.emptyList();
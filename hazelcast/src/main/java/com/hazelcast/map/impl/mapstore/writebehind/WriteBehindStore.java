@@ -39,9 +39,12 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
@@ -239,8 +242,21 @@ public class WriteBehindStore extends AbstractMapDataStore<Data, Object> {
     public Object load(Data key) {
         DelayedEntry delayedEntry = getFromStagingArea(key);
         if (delayedEntry == null) {
-            return getStore().load(toObject(key));
+            return loadFromStore(toObject(key));
         }
+        return toStagedValue(delayedEntry);
+    }
+
+    @Override
+    public CompletionStage<Object> loadAsync(Data key) {
+        DelayedEntry delayedEntry = getFromStagingArea(key);
+        if (delayedEntry == null) {
+            return loadFromStoreAsync(toObject(key));
+        }
+        return CompletableFuture.completedFuture(toStagedValue(delayedEntry));
+    }
+
+    private Object toStagedValue(DelayedEntry delayedEntry) {
         // At this point, the value comes from staging area.
         // This may be a value with expirationTime. So we need
         // to return an ExtendedValue
@@ -266,6 +282,36 @@ public class WriteBehindStore extends AbstractMapDataStore<Data, Object> {
         if (keys == null || keys.isEmpty()) {
             return Collections.emptyMap();
         }
+        Map<Object, Object> map = removeStagedEntries(keys);
+        map.putAll(super.loadAll(keys));
+        return map;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Like {@link #loadAll(Collection)}, returns the staged values of the
+     * keys which have any and only loads the rest of the keys.
+     */
+    @Override
+    public CompletionStage<Map> loadAllAsync(Collection keys, Executor executor) {
+        if (keys == null || keys.isEmpty() || !getStore().isAsyncMapLoader()) {
+            return super.loadAllAsync(keys, executor);
+        }
+        Map<Object, Object> map = removeStagedEntries(keys);
+        return super.loadAllAsync(keys, executor).thenApply(loaded -> {
+            map.putAll(loaded);
+            return map;
+        });
+    }
+
+    /**
+     * Removes the keys which have entries staged to be persisted to the
+     * underlying store from the given keys.
+     *
+     * @return the map of the removed keys to their staged values
+     */
+    private Map<Object, Object> removeStagedEntries(Collection keys) {
         Map<Object, Object> map = createHashMap(keys.size());
         Iterator iterator = keys.iterator();
         while (iterator.hasNext()) {
@@ -285,7 +331,6 @@ public class WriteBehindStore extends AbstractMapDataStore<Data, Object> {
                 iterator.remove();
             }
         }
-        map.putAll(super.loadAll(keys));
         return map;
     }
 
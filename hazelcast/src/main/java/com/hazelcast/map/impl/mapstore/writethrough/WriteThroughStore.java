@@ -23,6 +23,7 @@ import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
 import com.hazelcast.internal.serialization.Data;
 
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Write through map data store implementation.
@@ -85,7 +86,12 @@ public class WriteThroughStore extends AbstractMapDataStore<Data, Object> {
 
     @Override
     public Object load(Data key) {
-        return getStore().load(toObject(key));
+        return loadFromStore(toObject(key));
+    }
+
+    @Override
+    public CompletionStage<Object> loadAsync(Data key) {
+        return loadFromStoreAsync(toObject(key));
     }
 
     @Override
@@ -20,13 +20,37 @@ import com.hazelcast.core.OperationTimeoutException;
 import com.hazelcast.internal.locksupport.LockWaitNotifyKey;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.mapstore.MapStoreContext;
+import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.spi.impl.operationservice.BlockingOperation;
+import com.hazelcast.spi.impl.operationservice.CallStatus;
+import com.hazelcast.spi.impl.operationservice.Offload;
+import com.hazelcast.spi.impl.operationservice.OperationAccessor;
 import com.hazelcast.spi.impl.operationservice.WaitNotifyKey;
 
+import java.util.concurrent.CompletionException;
+
+import static com.hazelcast.spi.impl.operationservice.CallStatus.RESPONSE;
+import static com.hazelcast.spi.impl.operationservice.CallStatus.WAIT;
+
 public final class GetOperation extends ReadonlyKeyBasedMapOperation implements BlockingOperation {
 
     private Data result;
 
+    /**
+     * {@code true} if this operation puts the {@link #loadedValue} on a miss
+     * instead of loading the value.
+     */
+    private transient boolean valueLoaded;
+    private transient Object loadedValue;
+    /**
+     * The record store and its mutation stamp when the
+     * {@link #loadedValue} started loading.
+     */
+    private transient RecordStore loadingRecordStore;
+    private transient long loadMutationStamp;
+    private transient boolean offloaded;
+
     public GetOperation() {
     }
 
@@ -36,9 +60,53 @@ public final class GetOperation extends ReadonlyKeyBasedMapOperation implements
         this.dataKey = dataKey;
     }
 
+    private GetOperation(String name, Data dataKey, Object loadedValue,
+                         RecordStore loadingRecordStore, long loadMutationStamp) {
+        this(name, dataKey);
+        this.valueLoaded = true;
+        this.loadedValue = loadedValue;
+        this.loadingRecordStore = loadingRecordStore;
+        this.loadMutationStamp = loadMutationStamp;
+    }
+
+    @Override
+    public CallStatus call() throws Exception {
+        if (shouldWait()) {
+            return WAIT;
+        }
+        if (shouldOffloadLoad()) {
+            offloaded = true;
+            return new GetOperationOffload();
+        }
+        run();
+        return RESPONSE;
+    }
+
+    /**
+     * A miss is loaded off the partition thread if load coalescing is
+     * enabled, so that the partition thread doesn't wait for the loader.
+     */
+    private boolean shouldOffloadLoad() {
+        if (valueLoaded) {
+            return false;
+        }
+        MapStoreContext mapStoreContext = mapContainer.getMapStoreContext();
+        return mapStoreContext.isMapLoader()
+                && mapStoreContext.getLoadCoalescer() != null
+                && recordStore.isLoaded()
+                && !recordStore.existInMemory(dataKey);
+    }
+
     @Override
     protected void runInternal() {
-        Object currentValue = recordStore.get(dataKey, false, getCallerAddress());
+        Object currentValue;
+        if (valueLoaded) {
+            // a record store created meanwhile, e.g. by a destroy, doesn't put the loaded value
+            long mutationStamp = recordStore == loadingRecordStore ? loadMutationStamp : -1;
+            currentValue = recordStore.getOrPutLoaded(dataKey, loadedValue, mutationStamp, getCallerAddress());
+        } else {
+            currentValue = recordStore.get(dataKey, false, getCallerAddress());
+        }
         if (!executedLocally() && currentValue instanceof Data) {
             // in case of a 'remote' call (e..g a client call) we prevent making an onheap copy of the offheap data
             result = (Data) currentValue;
@@ -50,7 +118,9 @@ public final class GetOperation extends ReadonlyKeyBasedMapOperation implements
 
     @Override
     protected void afterRunInternal() {
-        mapServiceContext.interceptAfterGet(mapContainer.getInterceptorRegistry(), result);
+        if (!offloaded) {
+            mapServiceContext.interceptAfterGet(mapContainer.getInterceptorRegistry(), result);
+        }
     }
 
     @Override
@@ -80,4 +150,41 @@ public final class GetOperation extends ReadonlyKeyBasedMapOperation implements
     public int getClassId() {
         return MapDataSerializerHook.GET;
     }
+
+    /**
+     * Loads the value of the missing key off the partition thread and then
+     * runs a {@link GetOperation} putting the loaded value on the partition
+     * thread, which sends the response of this operation.
+     */
+    private final class GetOperationOffload extends Offload {
+
+        private final long mutationStamp;
+
+        private GetOperationOffload() {
+            super(GetOperation.this);
+            this.mutationStamp = recordStore.getMutationStamp();
+        }
+
+        @Override
+        public void start() {
+            recordStore.getMapDataStore().loadAsync(dataKey).whenComplete((value, throwable) -> {
+                if (throwable != null) {
+                    sendResponse(throwable instanceof CompletionException ? throwable.getCause() : throwable);
+                } else {
+                    executeGetOrPutLoaded(value);
+                }
+            });
+        }
+
+        private void executeGetOrPutLoaded(Object value) {
+            GetOperation getOperation = new GetOperation(name, dataKey, value, recordStore, mutationStamp);
+            getOperation.setPartitionId(getPartitionId());
+            getOperation.setReplicaIndex(getReplicaIndex());
+            getOperation.setNodeEngine(getNodeEngine());
+            getOperation.setCallerUuid(getCallerUuid());
+            OperationAccessor.setCallerAddress(getOperation, getCallerAddress());
+            getOperation.setOperationResponseHandler((op, response) -> sendResponse(response));
+            nodeEngine.getOperationService().execute(getOperation);
+        }
+    }
 }
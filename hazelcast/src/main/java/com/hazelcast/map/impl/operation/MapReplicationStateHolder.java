@@ -32,6 +32,8 @@ import com.hazelcast.internal.util.ThreadUtil;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.map.impl.persistence.MapPersistenceManager;
+import com.hazelcast.map.impl.persistence.RestoredCopy;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.Records;
 import com.hazelcast.map.impl.recordstore.RecordStore;
@@ -49,6 +51,7 @@ import com.hazelcast.query.impl.MapIndexInfo;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -80,6 +83,9 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
     // operations, which meant that the index did not include some data.
     protected transient List<MapIndexInfo> mapIndexInfos;
 
+    // the persisted copies restored into the maps, see RestorePartitionOperation
+    protected transient Map<String, RestoredCopy> restoredCopies;
+
     private MapReplicationOperation operation;
     private Map<String, LocalRecordStoreStats> recordStoreStatsPerMapName;
 
@@ -97,7 +103,10 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
     void prepare(PartitionContainer container, Collection<ServiceNamespace> namespaces, int replicaIndex) {
         storesByMapName = createHashMap(namespaces.size());
         loaded = createHashMap(namespaces.size());
+        restoredCopies = createHashMap(namespaces.size());
         mapIndexInfos = new ArrayList<>(namespaces.size());
+        MapPersistenceManager persistenceManager = container.getMapService().getMapServiceContext()
+                .getPersistenceManager();
         for (ServiceNamespace namespace : namespaces) {
             ObjectNamespace mapNamespace = (ObjectNamespace) namespace;
             String mapName = mapNamespace.getObjectName();
@@ -114,6 +123,10 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
 
             loaded.put(mapName, recordStore.isLoaded());
             storesByMapName.put(mapName, recordStore);
+            RestoredCopy restoredCopy = persistenceManager.getRestoredCopy(mapName, container.getPartitionId());
+            if (restoredCopy != null) {
+                restoredCopies.put(mapName, restoredCopy);
+            }
 
             Set<IndexConfig> indexConfigs = new HashSet<>();
             if (mapContainer.isGlobalIndexEnabled()) {
@@ -195,6 +208,8 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
                 if (populateIndexes) {
                     Indexes.markPartitionAsIndexed(partitionContainer.getPartitionId(), indexesSnapshot);
                 }
+                mapContainer.getMapServiceContext().getPersistenceManager()
+                        .setRestoredCopy(mapName, operation.getPartitionId(), restoredCopies.get(mapName));
             }
         }
 
@@ -278,6 +293,19 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
         for (MapIndexInfo mapIndexInfo : mapIndexInfos) {
             out.writeObject(mapIndexInfo);
         }
+
+        if (out.getVersion().isGreaterOrEqual(Versions.V4_2)) {
+            // only present while the persisted entries are restored
+            boolean hasRestoredCopies = !restoredCopies.isEmpty();
+            out.writeBoolean(hasRestoredCopies);
+            if (hasRestoredCopies) {
+                out.writeInt(restoredCopies.size());
+                for (Map.Entry<String, RestoredCopy> restoredCopyEntry : restoredCopies.entrySet()) {
+                    out.writeString(restoredCopyEntry.getKey());
+                    out.writeObject(restoredCopyEntry.getValue());
+                }
+            }
+        }
     }
 
     private static SerializationService getSerializationService(MapContainer mapContainer) {
@@ -324,6 +352,15 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
             MapIndexInfo mapIndexInfo = in.readObject();
             mapIndexInfos.add(mapIndexInfo);
         }
+
+        restoredCopies = Collections.emptyMap();
+        if (in.getVersion().isGreaterOrEqual(Versions.V4_2) && in.readBoolean()) {
+            int restoredCopyCount = in.readInt();
+            restoredCopies = createHashMap(restoredCopyCount);
+            for (int i = 0; i < restoredCopyCount; i++) {
+                restoredCopies.put(in.readString(), in.readObject());
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.internal.util.MutableLong;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.MapMerkleTrees;
+import com.hazelcast.map.impl.MerkleTreeHashes;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
+import com.hazelcast.spi.impl.operationservice.ReadonlyOperation;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeUtil;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.internal.util.UUIDSerializationUtil.readUUID;
+import static com.hazelcast.internal.util.UUIDSerializationUtil.writeUUID;
+
+/**
+ * Builds the Merkle tree of a map partition and returns the hashes of the
+ * requested nodes, or of all nodes in breadth-first order if no nodes are
+ * requested.
+ * <p>
+ * The operations of a comparison requesting the tree level by level share
+ * the same comparison ID. The tree built for a comparison is kept by the
+ * partition until the leaves are requested, the comparison is ended by
+ * requesting no nodes, another comparison requests a tree or
+ * {@link #SNAPSHOT_TTL_MILLIS} elapsed since it was built. The tree is also
+ * dropped when the map is destroyed or the partition migrates.
+ */
+public class MerkleTreeHashesOperation extends MapOperation implements PartitionAwareOperation, ReadonlyOperation {
+
+    static final long SNAPSHOT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private int depth;
+    private int[] nodeOrders;
+    private UUID comparisonId;
+
+    private transient MerkleTreeHashes response;
+
+    public MerkleTreeHashesOperation() {
+        createRecordStoreOnDemand = false;
+    }
+
+    /**
+     * @param name       the map name
+     * @param depth      the depth of the tree
+     * @param nodeOrders the orders of the requested nodes or {@code null}
+     *                   to request all nodes
+     */
+    public MerkleTreeHashesOperation(String name, int depth, int[] nodeOrders) {
+        this(name, depth, nodeOrders, null);
+    }
+
+    /**
+     * @param name         the map name
+     * @param depth        the depth of the tree
+     * @param nodeOrders   the orders of the requested nodes, {@code null}
+     *                     to request all nodes or an empty array to end
+     *                     the comparison
+     * @param comparisonId the ID of the comparison the tree is built for,
+     *                     or {@code null} if the tree is requested once
+     */
+    public MerkleTreeHashesOperation(String name, int depth, int[] nodeOrders, UUID comparisonId) {
+        super(name);
+        this.depth = depth;
+        this.nodeOrders = nodeOrders;
+        this.comparisonId = comparisonId;
+        createRecordStoreOnDemand = false;
+    }
+
+    @Override
+    protected void runInternal() {
+        PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(getPartitionId());
+        if (nodeOrders != null && nodeOrders.length == 0) {
+            partitionContainer.clearMerkleTreeSnapshot(comparisonId);
+            response = new MerkleTreeHashes(nodeOrders, 0);
+            return;
+        }
+
+        MapMerkleTrees.Snapshot snapshot = getOrBuildSnapshot(partitionContainer);
+        MerkleTree merkleTree = snapshot.getMerkleTree();
+        int[] orders = nodeOrders;
+        if (orders == null) {
+            orders = new int[(1 << depth) - 1];
+            for (int i = 0; i < orders.length; i++) {
+                orders[i] = i;
+            }
+        }
+        response = new MerkleTreeHashes(MerkleTreeUtil.getNodeHashes(merkleTree, orders), snapshot.getEntryDataSize());
+        if (comparisonId != null && containsLeaf(orders)) {
+            // the leaves are the last level requested by a comparison
+            partitionContainer.clearMerkleTreeSnapshot(comparisonId);
+        }
+    }
+
+    private boolean containsLeaf(int[] orders) {
+        int firstLeafOrder = MerkleTreeUtil.getNodesOnLevel(depth - 1) - 1;
+        for (int order : orders) {
+            if (order >= firstLeafOrder) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private MapMerkleTrees.Snapshot getOrBuildSnapshot(PartitionContainer partitionContainer) {
+        long now = Clock.currentTimeMillis();
+        MapMerkleTrees.Snapshot snapshot = partitionContainer.getMerkleTreeSnapshot();
+        if (comparisonId != null && snapshot != null && snapshot.isSnapshotOf(comparisonId, name, depth, now)) {
+            return snapshot;
+        }
+
+        MutableLong entryDataSize = new MutableLong();
+        MerkleTree merkleTree = MapMerkleTrees.buildMerkleTree(recordStore, depth,
+                getNodeEngine().getSerializationService(), entryDataSize);
+        snapshot = new MapMerkleTrees.Snapshot(comparisonId, name, depth, merkleTree, entryDataSize.value,
+                now + SNAPSHOT_TTL_MILLIS);
+        if (comparisonId != null) {
+            partitionContainer.setMerkleTreeSnapshot(snapshot);
+        }
+        return snapshot;
+    }
+
+    @Override
+    public Object getResponse() {
+        return response;
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.MERKLE_TREE_HASHES_OPERATION;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeInt(depth);
+        out.writeIntArray(nodeOrders);
+        writeUUID(out, comparisonId);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        depth = in.readInt();
+        nodeOrders = in.readIntArray();
+        comparisonId = readUUID(in);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.MapMerkleTrees;
+import com.hazelcast.map.impl.MerkleTreeNodeEntries;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
+import com.hazelcast.spi.impl.operationservice.ReadonlyOperation;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Returns the entries of a map partition belonging to the given leaves of
+ * the Merkle tree of the partition, grouped by leaf.
+ *
+ * @see MerkleTreeHashesOperation
+ */
+public class MerkleTreeNodeEntriesOperation extends MapOperation implements PartitionAwareOperation, ReadonlyOperation {
+
+    private int depth;
+    private int[] leafOrders;
+
+    private transient List<MerkleTreeNodeEntries> response;
+
+    public MerkleTreeNodeEntriesOperation() {
+        createRecordStoreOnDemand = false;
+    }
+
+    /**
+     * @param name       the map name
+     * @param depth      the depth of the tree
+     * @param leafOrders the orders of the leaves, in ascending order
+     */
+    public MerkleTreeNodeEntriesOperation(String name, int depth, int[] leafOrders) {
+        super(name);
+        this.depth = depth;
+        this.leafOrders = leafOrders;
+        createRecordStoreOnDemand = false;
+    }
+
+    @Override
+    protected void runInternal() {
+        response = MapMerkleTrees.getLeafEntries(recordStore, depth, leafOrders, getNodeEngine().getSerializationService());
+    }
+
+    @Override
+    public Object getResponse() {
+        return response;
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.MERKLE_TREE_NODE_ENTRIES_OPERATION;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeInt(depth);
+        out.writeIntArray(leafOrders);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        depth = in.readInt();
+        leafOrders = in.readIntArray();
+    }
+}
@@ -0,0 +1,393 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.config.HotRestartPersistenceConfig;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.internal.util.executor.ExecutorType;
+import com.hazelcast.internal.util.executor.ManagedExecutorService;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.Records;
+import com.hazelcast.map.impl.recordstore.MutationObserver;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadataImpl;
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.spi.impl.InternalCompletableFuture;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.executionservice.ExecutionService;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.merge.SplitBrainMergeTypes.MapMergeTypes;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.config.InMemoryFormat.NATIVE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_PERSISTENCE;
+import static com.hazelcast.spi.impl.merge.MergingValueFactory.createMergingEntry;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_PERSISTENCE_COMPACTION_MIN_ENTRY_COUNT;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Persists the entries of the maps with an enabled {@link
+ * com.hazelcast.config.HotRestartConfig hot restart config} into the
+ * {@link HotRestartPersistenceConfig#getBaseDir() base directory} of this
+ * member and restores them when the member starts again.
+ * <p>
+ * Each partition of a map has its own {@link PersistenceLog} in the directory
+ * {@code <base-dir>/maps/<map-name>}, written by the record store of the
+ * partition on this member, be it the primary or a backup replica. When the
+ * member starts, the logs of its previous run are moved to {@code
+ * <base-dir>/restore} before it joins the cluster, so that the record stores
+ * created meanwhile start new logs. Once the member has joined, the logs are
+ * replayed by {@link HotRestartPersistenceConfig#getParallelism()} threads,
+ * one partition at a time, and each of them is sent to the current owner of
+ * its partition by a {@link RestorePartitionOperation}.
+ * <p>
+ * Since the primary and the backup replicas of a partition each persist a
+ * copy of it, the owner receives several copies, in no particular order,
+ * which differ if a member stopped writing before the others did. Every
+ * entry of a log carries the time it was written, and the owner keeps the
+ * copy with the latest write, which replaces the entries restored from an
+ * older copy. The copies restored into a map are tracked for the {@link
+ * HotRestartPersistenceConfig#getDataLoadTimeoutSeconds() data load timeout},
+ * the time the members have to restore their copies.
+ * <p>
+ * The logs are only restored if the cluster was restarted as a whole, i.e.
+ * if its ID differs from the ID which was persisted by the previous run of
+ * this member. A member which restarts into a running cluster discards its
+ * logs, since the cluster still holds their entries and may have changed
+ * them since.
+ */
+public class MapPersistenceManager {
+
+    private static final String MAPS_DIR_NAME = "maps";
+    private static final String RESTORE_DIR_NAME = "restore";
+    private static final String CLUSTER_ID_FILE_NAME = "cluster-id";
+    private static final String RESTORE_EXECUTOR = "hz:map-persistence-restore";
+
+    private final boolean enabled;
+    private final File mapsDir;
+    private final File restoreDir;
+    private final File clusterIdFile;
+    private final int parallelism;
+    private final long dataLoadTimeoutMillis;
+    private final long compactionMinEntryCount;
+    private final NodeEngine nodeEngine;
+    private final ILogger logger;
+    private final PersistenceStats stats = new PersistenceStats();
+    private final UUID clusterIdOfRestoredData;
+    private final ConcurrentMap<String, AtomicReferenceArray<RestoredCopy>> restoredCopies
+            = new ConcurrentHashMap<>();
+
+    private volatile UUID persistedClusterId;
+    private volatile boolean restored;
+    private volatile boolean shuttingDown;
+
+    public MapPersistenceManager(NodeEngine nodeEngine) {
+        HotRestartPersistenceConfig config = nodeEngine.getConfig().getHotRestartPersistenceConfig();
+        File baseDir = config.getBaseDir().getAbsoluteFile();
+        this.enabled = config.isEnabled();
+        this.mapsDir = new File(baseDir, MAPS_DIR_NAME);
+        this.restoreDir = new File(baseDir, RESTORE_DIR_NAME);
+        this.clusterIdFile = new File(baseDir, CLUSTER_ID_FILE_NAME);
+        this.parallelism = config.getParallelism();
+        this.dataLoadTimeoutMillis = SECONDS.toMillis(config.getDataLoadTimeoutSeconds());
+        this.compactionMinEntryCount = nodeEngine.getProperties().getLong(MAP_PERSISTENCE_COMPACTION_MIN_ENTRY_COUNT);
+        this.nodeEngine = nodeEngine;
+        this.logger = nodeEngine.getLogger(getClass());
+        this.clusterIdOfRestoredData = enabled ? prepareRestore() : null;
+        this.persistedClusterId = clusterIdOfRestoredData;
+        if (enabled) {
+            ((NodeEngineImpl) nodeEngine).getMetricsRegistry().registerStaticMetrics(stats, MAP_PREFIX_PERSISTENCE);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the entries of the given map are persisted.
+     */
+    public boolean isEnabledFor(MapConfig mapConfig) {
+        return enabled
+                && mapConfig.getHotRestartConfig().isEnabled()
+                && mapConfig.getInMemoryFormat() != NATIVE;
+    }
+
+    /**
+     * Creates the observer which writes the mutations of the given record
+     * store into the persistence log of its partition.
+     */
+    public MutationObserver<Record> newMutationObserver(RecordStore recordStore) {
+        persistClusterIdIfChanged();
+
+        MapConfig mapConfig = recordStore.getMapContainer().getMapConfig();
+        String mapName = recordStore.getName();
+        File file = new File(new File(mapsDir, toDirName(mapName)),
+                recordStore.getPartitionId() + PersistenceLog.FILE_SUFFIX);
+        PersistenceLog log = new PersistenceLog(file, mapName, mapConfig.getHotRestartConfig().isFsync(),
+                (InternalSerializationService) nodeEngine.getSerializationService(), stats);
+        return new PersistenceMutationObserver(recordStore, log, this, compactionMinEntryCount);
+    }
+
+    /**
+     * Restores the entries persisted by the previous run of this member.
+     * Called once this member has joined the cluster, blocks until the
+     * entries are restored or the {@link
+     * HotRestartPersistenceConfig#getDataLoadTimeoutSeconds() data load
+     * timeout} elapses.
+     */
+    public void restore() {
+        if (!enabled) {
+            return;
+        }
+        UUID clusterId = nodeEngine.getClusterService().getClusterId();
+        try {
+            if (!restoreDir.exists()) {
+                return;
+            }
+            if (clusterId.equals(clusterIdOfRestoredData)) {
+                logger.info("Discarding the persisted map entries, this member has rejoined the cluster "
+                        + clusterId + " which still holds them");
+            } else {
+                restoreLogs();
+            }
+        } finally {
+            IOUtil.deleteQuietly(restoreDir);
+            restored = true;
+            persistClusterIdIfChanged();
+        }
+    }
+
+    public boolean isShuttingDown() {
+        return shuttingDown;
+    }
+
+    /**
+     * Called before the record stores are cleared on shutdown, so that the
+     * logs are closed instead of deleted.
+     */
+    public void onShutdown() {
+        shuttingDown = true;
+    }
+
+    public PersistenceStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Returns the copy last restored into the given partition of the given
+     * map on this member, or {@code null} if none was restored recently.
+     */
+    public RestoredCopy getRestoredCopy(String mapName, int partitionId) {
+        AtomicReferenceArray<RestoredCopy> copies = restoredCopies.get(mapName);
+        return copies != null ? copies.get(partitionId) : null;
+    }
+
+    /**
+     * Records the copy restored into the given partition of the given map,
+     * kept for the data load timeout of the restoring members. A {@code
+     * null} copy clears the one recorded before.
+     */
+    public void setRestoredCopy(String mapName, int partitionId, RestoredCopy copy) {
+        if (copy == null) {
+            AtomicReferenceArray<RestoredCopy> copies = restoredCopies.get(mapName);
+            if (copies != null) {
+                copies.set(partitionId, null);
+            }
+            return;
+        }
+        AtomicReferenceArray<RestoredCopy> copies = restoredCopies.computeIfAbsent(mapName, name -> {
+            nodeEngine.getExecutionService().schedule(() -> restoredCopies.remove(name),
+                    dataLoadTimeoutMillis, MILLISECONDS);
+            return new AtomicReferenceArray<>(nodeEngine.getPartitionService().getPartitionCount());
+        });
+        copies.set(partitionId, copy);
+    }
+
+    private UUID prepareRestore() {
+        if (restoreDir.exists()) {
+            // the previous run did not complete the restore, its logs only
+            // hold a part of the entries still waiting in the restore dir
+            IOUtil.deleteQuietly(mapsDir);
+        } else if (mapsDir.exists()) {
+            IOUtil.rename(mapsDir, restoreDir);
+        }
+        if (!clusterIdFile.exists()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(new String(Files.readAllBytes(clusterIdFile.toPath()), StandardCharsets.UTF_8).trim());
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warning("Could not read the cluster ID of the persisted map entries from " + clusterIdFile, e);
+            return null;
+        }
+    }
+
+    private synchronized void persistClusterIdIfChanged() {
+        UUID clusterId = nodeEngine.getClusterService().getClusterId();
+        // the ID of the previous run is kept until its entries are restored
+        if (!restored || clusterId == null || clusterId.equals(persistedClusterId)) {
+            return;
+        }
+        try {
+            Files.createDirectories(clusterIdFile.getParentFile().toPath());
+            Files.write(clusterIdFile.toPath(), clusterId.toString().getBytes(StandardCharsets.UTF_8));
+            persistedClusterId = clusterId;
+        } catch (IOException e) {
+            logger.warning("Could not persist the cluster ID into " + clusterIdFile, e);
+        }
+    }
+
+    private void restoreLogs() {
+        List<File> logFiles = findLogFiles();
+        long start = Clock.currentTimeMillis();
+        ExecutionService executionService = nodeEngine.getExecutionService();
+        ManagedExecutorService executor = executionService.register(RESTORE_EXECUTOR, parallelism,
+                Math.max(logFiles.size(), 1), ExecutorType.CACHED);
+        try {
+            List<Future<?>> futures = new ArrayList<>(logFiles.size());
+            for (File logFile : logFiles) {
+                futures.add(executor.submit(() -> restorePartition(logFile)));
+            }
+            long deadline = start + dataLoadTimeoutMillis;
+            for (Future<?> future : futures) {
+                future.get(Math.max(deadline - Clock.currentTimeMillis(), 0), MILLISECONDS);
+            }
+        } catch (TimeoutException e) {
+            logger.warning("The persisted map entries could not be restored within "
+                    + MILLISECONDS.toSeconds(dataLoadTimeoutMillis) + " seconds, the rest of them are discarded");
+        } catch (ExecutionException e) {
+            logger.severe("Could not restore the persisted map entries", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warning("Interrupted while restoring the persisted map entries");
+        } finally {
+            executionService.shutdownExecutor(RESTORE_EXECUTOR);
+        }
+        stats.onRestoreCompleted(Clock.currentTimeMillis() - start);
+        logger.info(format("Restored %d map entries of %d partitions from %d bytes of persistence logs in %d ms (%d bytes/s)",
+                stats.getRestoredEntryCount(), stats.getRestoredPartitionCount(), stats.getRestoredBytes(),
+                stats.getRestoreTimeMillis(), stats.getRestoreThroughput()));
+    }
+
+    private List<File> findLogFiles() {
+        List<File> logFiles = new ArrayList<>();
+        File[] mapDirs = restoreDir.listFiles(File::isDirectory);
+        if (mapDirs == null) {
+            return logFiles;
+        }
+        for (File mapDir : mapDirs) {
+            File[] files = mapDir.listFiles((dir, name) -> name.endsWith(PersistenceLog.FILE_SUFFIX));
+            if (files != null) {
+                for (File file : files) {
+                    logFiles.add(file);
+                }
+            }
+        }
+        return logFiles;
+    }
+
+    /**
+     * Replays the given log into the latest entries of its partition and
+     * sends them to the owner of the partition, which keeps them if no
+     * newer copy of the partition has been restored.
+     */
+    private void restorePartition(File logFile) {
+        Map<Data, byte[]> records = new HashMap<>();
+        PersistenceLog.Replay replay;
+        try {
+            replay = PersistenceLog.replay(logFile, (key, record) -> {
+                if (record == null) {
+                    records.remove(key);
+                } else {
+                    records.put(key, record);
+                }
+            });
+        } catch (IOException e) {
+            logger.warning("Skipping the unreadable persistence log " + logFile, e);
+            return;
+        }
+
+        // the copy is sent even if it is empty, since it may have removed
+        // the entries still held by an older copy
+        Map<Integer, List<MapMergeTypes<Object, Object>>> copies = new HashMap<>();
+        copies.put(toPartitionId(logFile), new ArrayList<>(records.size()));
+        for (Map.Entry<Data, byte[]> entry : records.entrySet()) {
+            Data key = entry.getKey();
+            int partitionId = nodeEngine.getPartitionService().getPartitionId(key);
+            copies.computeIfAbsent(partitionId, id -> new ArrayList<>()).add(toMergingEntry(key, entry.getValue()));
+        }
+        UUID localUuid = nodeEngine.getLocalMember().getUuid();
+        List<InternalCompletableFuture<Object>> futures = new ArrayList<>(copies.size());
+        copies.forEach((partitionId, entries) -> {
+            Operation operation = new RestorePartitionOperation(replay.getMapName(), entries,
+                    replay.getLastWriteTime(), localUuid);
+            futures.add(nodeEngine.getOperationService().invokeOnPartition(MapService.SERVICE_NAME, operation,
+                    partitionId));
+        });
+        for (InternalCompletableFuture<Object> future : futures) {
+            future.joinInternal();
+        }
+        stats.onPartitionRestored(logFile.length(), records.size());
+    }
+
+    private static int toPartitionId(File logFile) {
+        String name = logFile.getName();
+        return Integer.parseInt(name.substring(0, name.length() - PersistenceLog.FILE_SUFFIX.length()));
+    }
+
+    private MapMergeTypes<Object, Object> toMergingEntry(Data key, byte[] recordBytes) {
+        InternalSerializationService serializationService
+                = (InternalSerializationService) nodeEngine.getSerializationService();
+        BufferObjectDataInput in = serializationService.createObjectDataInput(recordBytes);
+        try {
+            ExpiryMetadata expiryMetadata = new ExpiryMetadataImpl();
+            Record record = Records.readRecord(in, expiryMetadata);
+            return createMergingEntry(serializationService, key, record, expiryMetadata);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read a persisted entry of " + key, e);
+        } finally {
+            IOUtil.closeResource(in);
+        }
+    }
+
+    private static String toDirName(String mapName) {
+        // the hash keeps the names which only differ in unsafe characters apart
+        return IOUtil.toFileName(mapName) + '-' + Integer.toHexString(mapName.hashCode());
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.Records;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+import static com.hazelcast.internal.cluster.Versions.CURRENT_CLUSTER_VERSION;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * The append-only log of the mutations of the record store of a partition
+ * of a map. Each entry of the log either holds the serialized record of a
+ * key which was put or marks a key as removed, so replaying the log from
+ * its start yields the entries of the record store at the time of the last
+ * write.
+ * <p>
+ * The file starts with the magic number, the name of the map and the time
+ * the file was written, i.e. created or compacted, followed by the entries. An entry is laid out as {@code [type][write-time]
+ * [key-length][record-length][crc32][key][record]}. An entry torn by a crash
+ * in the middle of a write fails its checksum and ends the replay. The time
+ * of the last write of the log tells which of the logs of the replicas of a
+ * partition is the newest.
+ * <p>
+ * The file is created by the first write. The log is written only by the
+ * partition thread of its record store, but it is closed by the thread
+ * shutting the member down, hence the methods are synchronized.
+ */
+final class PersistenceLog {
+
+    static final String FILE_SUFFIX = ".log";
+
+    private static final int MAGIC = 0x484d4c32;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final int ENTRY_HEADER_LENGTH = Byte.BYTES + Long.BYTES + 3 * Integer.BYTES;
+    private static final String COMPACTION_SUFFIX = ".compacting";
+
+    private final File file;
+    private final String mapName;
+    private final boolean fsync;
+    private final InternalSerializationService serializationService;
+    private final PersistenceStats stats;
+
+    private FileChannel channel;
+    private long entryCount;
+
+    PersistenceLog(File file, String mapName, boolean fsync,
+                   InternalSerializationService serializationService, PersistenceStats stats) {
+        this.file = file;
+        this.mapName = mapName;
+        this.fsync = fsync;
+        this.serializationService = serializationService;
+        this.stats = stats;
+    }
+
+    /**
+     * Appends the given record of the given key, with the given value in
+     * place of the value of the record.
+     */
+    synchronized void appendPut(Data key, Record record, Object value, ExpiryMetadata expiryMetadata) {
+        write(ensureOpen(), entry(PUT, key, serialize(record, value, expiryMetadata)));
+        entryCount++;
+    }
+
+    synchronized void appendRemove(Data key) {
+        if (channel == null && !file.exists()) {
+            // nothing to remove the key from
+            return;
+        }
+        write(ensureOpen(), entry(REMOVE, key, new byte[0]));
+        entryCount++;
+    }
+
+    /**
+     * Returns the number of entries written into the log since it was
+     * created or last compacted.
+     */
+    synchronized long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Replaces the log with the put entries of the given records, so that
+     * the log no longer holds the overwritten and removed entries. The new
+     * log is written beside the old one and moved in its place atomically,
+     * which keeps either of them intact on a crash.
+     */
+    synchronized void compact(Iterator<Map.Entry<Data, Record>> records,
+                              Function<Data, ExpiryMetadata> expiryMetadataByKey) {
+        File compactionFile = new File(file.getParentFile(), file.getName() + COMPACTION_SUFFIX);
+        long count = 0;
+        try (FileChannel compactionChannel = open(compactionFile, TRUNCATE_EXISTING)) {
+            writeHeader(compactionChannel);
+            while (records.hasNext()) {
+                Map.Entry<Data, Record> entry = records.next();
+                Data key = entry.getKey();
+                Record record = entry.getValue();
+                write(compactionChannel, entry(PUT, key,
+                        serialize(record, record.getValue(), expiryMetadataByKey.apply(key))), false);
+                count++;
+            }
+            compactionChannel.force(false);
+            close();
+            Files.move(compactionFile.toPath(), file.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (IOException e) {
+            IOUtil.deleteQuietly(compactionFile);
+            throw new HazelcastException("Could not compact the persistence log " + file, e);
+        }
+        entryCount = count;
+        stats.onCompacted();
+    }
+
+    /**
+     * Deletes the log, e.g. because its record store was cleared. The next
+     * write creates a new one.
+     */
+    synchronized void delete() {
+        close();
+        entryCount = 0;
+        IOUtil.deleteQuietly(file);
+    }
+
+    /**
+     * Forces the written entries to the disk and closes the file. The log
+     * can be replayed on the next start of the member.
+     */
+    synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new HazelcastException("Could not force the persistence log " + file, e);
+        } finally {
+            IOUtil.closeResource(channel);
+            channel = null;
+        }
+    }
+
+    /**
+     * Replays the log in the given file, passing the keys and the serialized
+     * records of its entries to the given consumer. The record is {@code
+     * null} for a removed key.
+     *
+     * @return the name of the map and the time of the last write of the log
+     * @throws IOException if the file could not be read or does not start
+     *                     with the header of a persistence log. A torn or
+     *                     corrupt entry only ends the replay.
+     */
+    static Replay replay(File file, BiConsumer<Data, byte[]> consumer) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a persistence log");
+            }
+            byte[] name = new byte[in.readUnsignedShort()];
+            in.readFully(name);
+            long lastWriteTime = in.readLong();
+            CRC32 crc = new CRC32();
+            byte[] header = new byte[ENTRY_HEADER_LENGTH];
+            long writeTime;
+            do {
+                writeTime = replayEntry(in, header, crc, consumer);
+                lastWriteTime = Math.max(lastWriteTime, writeTime);
+            } while (writeTime >= 0);
+            return new Replay(new String(name, StandardCharsets.UTF_8), lastWriteTime);
+        }
+    }
+
+    /**
+     * @return the write time of the replayed entry or {@code -1} if the
+     * replay has ended
+     */
+    private static long replayEntry(DataInputStream in, byte[] header, CRC32 crc,
+                                    BiConsumer<Data, byte[]> consumer) throws IOException {
+        try {
+            if (in.read(header, 0, 1) != 1) {
+                return -1;
+            }
+            in.readFully(header, 1, ENTRY_HEADER_LENGTH - 1);
+            ByteBuffer buffer = ByteBuffer.wrap(header);
+            byte type = buffer.get();
+            long writeTime = buffer.getLong();
+            byte[] key = new byte[buffer.getInt()];
+            byte[] record = new byte[buffer.getInt()];
+            int checksum = buffer.getInt();
+            in.readFully(key);
+            in.readFully(record);
+            if (checksum(crc, type, writeTime, key, record) != checksum) {
+                return -1;
+            }
+            consumer.accept(new HeapData(key), type == PUT ? record : null);
+            return writeTime;
+        } catch (EOFException | NegativeArraySizeException e) {
+            return -1;
+        }
+    }
+
+    private FileChannel ensureOpen() {
+        if (channel == null) {
+            try {
+                if (file.exists()) {
+                    channel = open(file, APPEND);
+                } else {
+                    channel = open(file, TRUNCATE_EXISTING);
+                    writeHeader(channel);
+                }
+            } catch (IOException e) {
+                throw new HazelcastException("Could not open the persistence log " + file, e);
+            }
+        }
+        return channel;
+    }
+
+    private FileChannel open(File target, OpenOption mode) throws IOException {
+        Files.createDirectories(target.getParentFile().toPath());
+        return FileChannel.open(target.toPath(), CREATE, WRITE, mode);
+    }
+
+    private void writeHeader(FileChannel target) throws IOException {
+        byte[] name = mapName.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + Short.BYTES + name.length + Long.BYTES);
+        header.putInt(MAGIC).putShort((short) name.length).put(name).putLong(Clock.currentTimeMillis());
+        header.flip();
+        while (header.hasRemaining()) {
+            target.write(header);
+        }
+    }
+
+    private void write(FileChannel target, ByteBuffer entry) {
+        write(target, entry, fsync);
+    }
+
+    private void write(FileChannel target, ByteBuffer entry, boolean force) {
+        int length = entry.remaining();
+        try {
+            while (entry.hasRemaining()) {
+                target.write(entry);
+            }
+            if (force) {
+                target.force(false);
+                stats.onFsync();
+            }
+        } catch (IOException e) {
+            throw new HazelcastException("Could not write into the persistence log " + file, e);
+        }
+        stats.onWritten(length);
+    }
+
+    private static ByteBuffer entry(byte type, Data key, byte[] record) {
+        byte[] keyBytes = key.toByteArray();
+        long writeTime = Clock.currentTimeMillis();
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER_LENGTH + keyBytes.length + record.length);
+        entry.put(type)
+                .putLong(writeTime)
+                .putInt(keyBytes.length)
+                .putInt(record.length)
+                .putInt(checksum(new CRC32(), type, writeTime, keyBytes, record))
+                .put(keyBytes)
+                .put(record);
+        entry.flip();
+        return entry;
+    }
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    private static int checksum(CRC32 crc, byte type, long writeTime, byte[] key, byte[] record) {
+        crc.reset();
+        crc.update(type);
+        for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            crc.update((int) (writeTime >>> shift));
+        }
+        crc.update(key);
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+
+    private byte[] serialize(Record record, Object value, ExpiryMetadata expiryMetadata) {
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        try {
+            out.setVersion(CURRENT_CLUSTER_VERSION);
+            Records.writeRecord(out, record, serializationService.toData(value), expiryMetadata);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new HazelcastException("Could not serialize an entry of the persistence log " + file, e);
+        } finally {
+            IOUtil.closeResource(out);
+        }
+    }
+
+    /**
+     * The result of the replay of a log.
+     */
+    static final class Replay {
+
+        private final String mapName;
+        private final long lastWriteTime;
+
+        Replay(String mapName, long lastWriteTime) {
+            this.mapName = mapName;
+            this.lastWriteTime = lastWriteTime;
+        }
+
+        String getMapName() {
+            return mapName;
+        }
+
+        /**
+         * @return the time of the last write of the log in milliseconds
+         */
+        long getLastWriteTime() {
+            return lastWriteTime;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.MutationObserver;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.map.impl.recordstore.Storage;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Writes the mutations of a record store into its {@link PersistenceLog}.
+ * <p>
+ * Before each write the log is compacted if it holds more than twice as
+ * many entries as the record store, which bounds the size of the log and
+ * the time it takes to replay it to a constant factor of the size of the
+ * record store. Compacting before the write keeps the mutation being
+ * observed in the log, regardless of whether the record store already
+ * reflects it.
+ */
+class PersistenceMutationObserver implements MutationObserver<Record> {
+
+    private final RecordStore recordStore;
+    private final PersistenceLog log;
+    private final MapPersistenceManager persistenceManager;
+    private final long compactionMinEntryCount;
+
+    PersistenceMutationObserver(RecordStore recordStore, PersistenceLog log,
+                                MapPersistenceManager persistenceManager, long compactionMinEntryCount) {
+        this.recordStore = recordStore;
+        this.log = log;
+        this.persistenceManager = persistenceManager;
+        this.compactionMinEntryCount = compactionMinEntryCount;
+    }
+
+    @Override
+    public void onPutRecord(@Nonnull Data key, Record record, Object oldValue, boolean backup) {
+        put(key, record, record.getValue());
+    }
+
+    @Override
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull Record record, boolean populateIndex) {
+        put(key, record, record.getValue());
+    }
+
+    @Override
+    public void onUpdateRecord(@Nonnull Data key, @Nonnull Record record,
+                               Object oldValue, Object newValue, boolean backup) {
+        put(key, record, newValue);
+    }
+
+    @Override
+    public void onRemoveRecord(@Nonnull Data key, Record record) {
+        compactIfNeeded();
+        log.appendRemove(key);
+    }
+
+    @Override
+    public void onEvictRecord(@Nonnull Data key, @Nonnull Record record) {
+        onRemoveRecord(key, record);
+    }
+
+    @Override
+    public void onLoadRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        put(key, record, record.getValue());
+    }
+
+    @Override
+    public void onReset() {
+        log.delete();
+    }
+
+    @Override
+    public void onClear() {
+        // the record stores are also cleared when the member shuts down,
+        // which must not lose the data to be restored on the next start
+        if (!persistenceManager.isShuttingDown()) {
+            log.delete();
+        }
+    }
+
+    @Override
+    public void onDestroy(boolean isDuringShutdown, boolean internal) {
+        if (isDuringShutdown) {
+            log.close();
+        } else {
+            log.delete();
+        }
+    }
+
+    private void put(Data key, Record record, Object value) {
+        compactIfNeeded();
+        log.appendPut(key, record, value, recordStore.getExpirySystem().getExpiredMetadata(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void compactIfNeeded() {
+        long entryCount = log.getEntryCount();
+        if (entryCount < compactionMinEntryCount || entryCount <= 2L * recordStore.size()) {
+            return;
+        }
+        Storage<Data, Record> storage = recordStore.getStorage();
+        ExpirySystem expirySystem = recordStore.getExpirySystem();
+        log.compact(storage.mutationTolerantIterator(), expirySystem::getExpiredMetadata);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.Counter;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_PERSISTENCE_COMPACTION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_PERSISTENCE_FSYNC_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_PERSISTENCE_RESTORED_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_PERSISTENCE_RESTORED_ENTRY_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_PERSISTENCE_RESTORED_PARTITION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_PERSISTENCE_RESTORE_THROUGHPUT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_PERSISTENCE_RESTORE_TIME;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_PERSISTENCE_WRITTEN_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_PERSISTENCE_WRITTEN_ENTRY_COUNT;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * The statistics of the persistence of the maps on this member.
+ * <p>
+ * The write counters are updated by the partition threads and the restore
+ * counters by the restoring threads, but all of them may be read by any
+ * thread.
+ */
+public class PersistenceStats {
+
+    private static final long MILLIS_PER_SECOND = 1000;
+
+    @Probe(name = MAP_METRIC_PERSISTENCE_WRITTEN_ENTRY_COUNT)
+    private final Counter writtenEntryCount = newMwCounter();
+    @Probe(name = MAP_METRIC_PERSISTENCE_WRITTEN_BYTES, unit = BYTES)
+    private final Counter writtenBytes = newMwCounter();
+    @Probe(name = MAP_METRIC_PERSISTENCE_FSYNC_COUNT)
+    private final Counter fsyncCount = newMwCounter();
+    @Probe(name = MAP_METRIC_PERSISTENCE_COMPACTION_COUNT)
+    private final Counter compactionCount = newMwCounter();
+    @Probe(name = MAP_METRIC_PERSISTENCE_RESTORED_PARTITION_COUNT)
+    private final Counter restoredPartitionCount = newMwCounter();
+    @Probe(name = MAP_METRIC_PERSISTENCE_RESTORED_ENTRY_COUNT)
+    private final Counter restoredEntryCount = newMwCounter();
+    @Probe(name = MAP_METRIC_PERSISTENCE_RESTORED_BYTES, unit = BYTES)
+    private final Counter restoredBytes = newMwCounter();
+    @Probe(name = MAP_METRIC_PERSISTENCE_RESTORE_TIME, unit = MS)
+    private volatile long restoreTimeMillis;
+
+    /**
+     * Returns the number of bytes of the persistence logs read per second
+     * while the data was restored on the start of this member, or {@code 0}
+     * if nothing was restored.
+     */
+    @Probe(name = MAP_METRIC_PERSISTENCE_RESTORE_THROUGHPUT, unit = BYTES)
+    public long getRestoreThroughput() {
+        long millis = restoreTimeMillis;
+        return millis == 0 ? 0 : restoredBytes.get() * MILLIS_PER_SECOND / millis;
+    }
+
+    public long getWrittenEntryCount() {
+        return writtenEntryCount.get();
+    }
+
+    public long getWrittenBytes() {
+        return writtenBytes.get();
+    }
+
+    public long getFsyncCount() {
+        return fsyncCount.get();
+    }
+
+    public long getCompactionCount() {
+        return compactionCount.get();
+    }
+
+    public long getRestoredPartitionCount() {
+        return restoredPartitionCount.get();
+    }
+
+    public long getRestoredEntryCount() {
+        return restoredEntryCount.get();
+    }
+
+    public long getRestoredBytes() {
+        return restoredBytes.get();
+    }
+
+    public long getRestoreTimeMillis() {
+        return restoreTimeMillis;
+    }
+
+    void onWritten(long bytes) {
+        writtenEntryCount.inc();
+        writtenBytes.inc(bytes);
+    }
+
+    void onFsync() {
+        fsyncCount.inc();
+    }
+
+    void onCompacted() {
+        compactionCount.inc();
+    }
+
+    void onPartitionRestored(long bytes, long entryCount) {
+        restoredPartitionCount.inc();
+        restoredBytes.inc(bytes);
+        restoredEntryCount.inc(entryCount);
+    }
+
+    void onRestoreCompleted(long millis) {
+        // keeps the throughput defined for the restores faster than a millisecond
+        restoreTimeMillis = Math.max(millis, 1);
+    }
+}
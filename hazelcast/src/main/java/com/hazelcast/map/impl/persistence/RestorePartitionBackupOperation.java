@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.operation.PutAllBackupOperation;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies the entries put and removed by a {@link RestorePartitionOperation}
+ * to a backup replica.
+ */
+public class RestorePartitionBackupOperation extends PutAllBackupOperation {
+
+    private List<Data> removedKeys;
+
+    public RestorePartitionBackupOperation() {
+    }
+
+    public RestorePartitionBackupOperation(String name, List<Object> keyValueRecordExpiry, List<Data> removedKeys) {
+        super(name, keyValueRecordExpiry, true);
+        this.removedKeys = removedKeys;
+    }
+
+    @Override
+    protected void runInternal() {
+        super.runInternal();
+        for (Data key : removedKeys) {
+            recordStore.removeBackup(key, getCallerProvenance());
+        }
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.RESTORE_PARTITION_BACKUP;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeInt(removedKeys.size());
+        for (Data key : removedKeys) {
+            IOUtil.writeData(out, key);
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        int size = in.readInt();
+        removedKeys = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            removedKeys.add(IOUtil.readData(in));
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.operation.MapOperation;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.BackupAwareOperation;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
+import com.hazelcast.spi.merge.PassThroughMergePolicy;
+import com.hazelcast.spi.merge.PutIfAbsentMergePolicy;
+import com.hazelcast.spi.merge.SplitBrainMergePolicy;
+import com.hazelcast.spi.merge.SplitBrainMergePolicyProvider;
+import com.hazelcast.spi.merge.SplitBrainMergeTypes.MapMergeTypes;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.hazelcast.core.EntryEventType.MERGED;
+import static com.hazelcast.core.EntryEventType.REMOVED;
+import static com.hazelcast.internal.util.UUIDSerializationUtil.readUUID;
+import static com.hazelcast.internal.util.UUIDSerializationUtil.writeUUID;
+
+/**
+ * Restores the entries of a persisted copy of a partition of a map, i.e.
+ * of the persistence log of the partition on one member.
+ * <p>
+ * Each replica of a partition persists its own copy, and the copies differ
+ * if a member stopped writing its copy before the others did. Since every
+ * member restores its own copies, the copies of a partition arrive at the
+ * owner of the partition in any order, so the owner keeps the {@link
+ * RestoredCopy newest copy} by the time of its last write: an older copy
+ * arriving later is discarded, and a newer copy replaces the entries
+ * restored from an older one, removing the entries the newer copy does not
+ * hold. The entries written by the cluster in the meantime are kept.
+ */
+public class RestorePartitionOperation extends MapOperation
+        implements PartitionAwareOperation, BackupAwareOperation {
+
+    private List<MapMergeTypes<Object, Object>> mergingEntries;
+    private long lastWriteTime;
+    private UUID sourceUuid;
+
+    private transient boolean restored;
+    private transient List<Object> backupPairs;
+    private transient List<Data> removedKeys;
+    private transient List<Data> changedKeys;
+
+    public RestorePartitionOperation() {
+    }
+
+    /**
+     * @param name           the map name
+     * @param mergingEntries the entries of the copy
+     * @param lastWriteTime  the time of the last write of the copy
+     * @param sourceUuid     the UUID of the member restoring the copy
+     */
+    public RestorePartitionOperation(String name, List<MapMergeTypes<Object, Object>> mergingEntries,
+                                     long lastWriteTime, UUID sourceUuid) {
+        super(name);
+        this.mergingEntries = mergingEntries;
+        this.lastWriteTime = lastWriteTime;
+        this.sourceUuid = sourceUuid;
+    }
+
+    @Override
+    protected void runInternal() {
+        MapPersistenceManager persistenceManager = mapServiceContext.getPersistenceManager();
+        RestoredCopy previous = persistenceManager.getRestoredCopy(name, getPartitionId());
+        if (previous != null && !previous.isOlderThan(lastWriteTime, sourceUuid)) {
+            return;
+        }
+
+        backupPairs = new ArrayList<>(2 * mergingEntries.size());
+        removedKeys = new ArrayList<>();
+        changedKeys = new ArrayList<>(mergingEntries.size());
+        RestoredCopy copy = new RestoredCopy(lastWriteTime, sourceUuid);
+        SplitBrainMergePolicyProvider mergePolicyProvider = getNodeEngine().getSplitBrainMergePolicyProvider();
+        SplitBrainMergePolicy<Object, MapMergeTypes<Object, Object>, Object> putIfAbsent
+                = mergePolicyProvider.getMergePolicy(PutIfAbsentMergePolicy.class.getName());
+        SplitBrainMergePolicy<Object, MapMergeTypes<Object, Object>, Object> passThrough
+                = mergePolicyProvider.getMergePolicy(PassThroughMergePolicy.class.getName());
+        for (MapMergeTypes<Object, Object> mergingEntry : mergingEntries) {
+            Data key = (Data) mergingEntry.getRawKey();
+            Record existing = recordStore.getRecord(key);
+            boolean replace = previous != null && previous.isRestoredRecord(key, existing);
+            if (existing != null && !replace) {
+                // written by the cluster since it has been started
+                continue;
+            }
+            Data oldValue = existing != null ? mapServiceContext.toData(existing.getValue()) : null;
+            if (recordStore.merge(mergingEntry, replace ? passThrough : putIfAbsent, getCallerProvenance())) {
+                Record record = recordStore.getRecord(key);
+                copy.add(key, record);
+                onMerged(key, oldValue, mapServiceContext.toData(record.getValue()));
+            }
+        }
+        if (previous != null) {
+            removeRestoredRecords(previous, copy);
+        }
+        persistenceManager.setRestoredCopy(name, getPartitionId(), copy);
+        restored = true;
+    }
+
+    private void onMerged(Data key, Data oldValue, Data value) {
+        mapEventPublisher.publishEvent(getCallerAddress(), name, MERGED, key, oldValue, value);
+        backupPairs.add(key);
+        backupPairs.add(value);
+        changedKeys.add(key);
+        evict(key);
+    }
+
+    /**
+     * Removes the entries restored from the given older copy which are
+     * not held by the given newer copy, unless they were updated since.
+     */
+    private void removeRestoredRecords(RestoredCopy previous, RestoredCopy copy) {
+        for (Data key : previous.keys()) {
+            Record record = recordStore.getRecord(key);
+            if (!copy.contains(key) && previous.isRestoredRecord(key, record)) {
+                Data oldValue = mapServiceContext.toData(record.getValue());
+                recordStore.delete(key, getCallerProvenance());
+                mapEventPublisher.publishEvent(getCallerAddress(), name, REMOVED, key, oldValue, null);
+                removedKeys.add(key);
+                changedKeys.add(key);
+            }
+        }
+    }
+
+    @Override
+    protected void afterRunInternal() {
+        if (restored) {
+            invalidateNearCache(changedKeys);
+        }
+        super.afterRunInternal();
+    }
+
+    @Override
+    protected boolean disableWanReplicationEvent() {
+        return true;
+    }
+
+    @Override
+    public Object getResponse() {
+        return restored;
+    }
+
+    @Override
+    public boolean shouldBackup() {
+        return restored && mapContainer.getTotalBackupCount() > 0
+                && (!backupPairs.isEmpty() || !removedKeys.isEmpty());
+    }
+
+    @Override
+    public int getSyncBackupCount() {
+        return mapContainer.getBackupCount();
+    }
+
+    @Override
+    public int getAsyncBackupCount() {
+        return mapContainer.getAsyncBackupCount();
+    }
+
+    @Override
+    public Operation getBackupOperation() {
+        List<Object> keyValueRecordExpiry = new ArrayList<>(2 * backupPairs.size());
+        for (int i = 0; i < backupPairs.size(); i += 2) {
+            Data key = (Data) backupPairs.get(i);
+            Record record = recordStore.getRecord(key);
+            if (record != null) {
+                keyValueRecordExpiry.add(key);
+                keyValueRecordExpiry.add(backupPairs.get(i + 1));
+                keyValueRecordExpiry.add(record);
+                keyValueRecordExpiry.add(recordStore.getExpirySystem().getExpiredMetadata(key));
+            }
+        }
+        return new RestorePartitionBackupOperation(name, keyValueRecordExpiry, removedKeys);
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.RESTORE_PARTITION;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeInt(mergingEntries.size());
+        for (MapMergeTypes<Object, Object> mergingEntry : mergingEntries) {
+            out.writeObject(mergingEntry);
+        }
+        out.writeLong(lastWriteTime);
+        writeUUID(out, sourceUuid);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        int size = in.readInt();
+        mergingEntries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            mergingEntries.add(in.readObject());
+        }
+        lastWriteTime = in.readLong();
+        sourceUuid = readUUID(in);
+    }
+}
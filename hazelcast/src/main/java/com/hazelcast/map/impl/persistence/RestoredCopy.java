@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.hazelcast.internal.util.UUIDSerializationUtil.readUUID;
+import static com.hazelcast.internal.util.UUIDSerializationUtil.writeUUID;
+
+/**
+ * The persisted copy of a partition of a map which has been restored into
+ * the partition by a {@link RestorePartitionOperation}, i.e. the time of
+ * the last write of the copy, the member which restored it, and the
+ * versions of the records restored from it. Kept by the owner of the
+ * partition while the members restore their copies, and migrated along
+ * with the partition.
+ */
+public final class RestoredCopy implements IdentifiedDataSerializable {
+
+    private long lastWriteTime;
+    private UUID sourceUuid;
+    private Map<Data, Integer> recordVersions = new HashMap<>();
+
+    public RestoredCopy() {
+    }
+
+    RestoredCopy(long lastWriteTime, UUID sourceUuid) {
+        this.lastWriteTime = lastWriteTime;
+        this.sourceUuid = sourceUuid;
+    }
+
+    /**
+     * Returns {@code true} if this copy is older than the copy with the
+     * given last write time restored by the given member. Copies written
+     * at the same time are ordered by the members restoring them, so that
+     * all owners agree on the newest copy.
+     */
+    boolean isOlderThan(long otherLastWriteTime, UUID otherSourceUuid) {
+        if (lastWriteTime != otherLastWriteTime) {
+            return lastWriteTime < otherLastWriteTime;
+        }
+        return sourceUuid.compareTo(otherSourceUuid) < 0;
+    }
+
+    void add(Data key, Record record) {
+        recordVersions.put(key, record.getVersion());
+    }
+
+    boolean contains(Data key) {
+        return recordVersions.containsKey(key);
+    }
+
+    /**
+     * Returns {@code true} if the given record of the given key was
+     * restored from this copy and not updated since.
+     */
+    boolean isRestoredRecord(Data key, Record record) {
+        Integer version = recordVersions.get(key);
+        return version != null && record != null && version == record.getVersion();
+    }
+
+    Set<Data> keys() {
+        return recordVersions.keySet();
+    }
+
+    @Override
+    public int getFactoryId() {
+        return MapDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.RESTORED_COPY;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeLong(lastWriteTime);
+        writeUUID(out, sourceUuid);
+        out.writeInt(recordVersions.size());
+        for (Map.Entry<Data, Integer> entry : recordVersions.entrySet()) {
+            IOUtil.writeData(out, entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        lastWriteTime = in.readLong();
+        sourceUuid = readUUID(in);
+        int size = in.readInt();
+        recordVersions = new HashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            recordVersions.put(IOUtil.readData(in), in.readInt());
+        }
+    }
+}
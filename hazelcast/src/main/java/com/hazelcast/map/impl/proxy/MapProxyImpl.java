@@ -24,6 +24,7 @@ import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.journal.EventJournalInitialSubscriberState;
 import com.hazelcast.internal.journal.EventJournalReader;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.SerializationUtil;
 import com.hazelcast.internal.util.CollectionUtil;
 import com.hazelcast.internal.util.IterationType;
@@ -48,8 +49,10 @@ import com.hazelcast.map.impl.iterator.MapQueryIterable;
 import com.hazelcast.map.impl.iterator.MapPartitionIterator;
 import com.hazelcast.map.impl.iterator.MapQueryPartitionIterable;
 import com.hazelcast.map.impl.iterator.MapQueryPartitionIterator;
+import com.hazelcast.map.impl.iterator.MapSpliterator;
 import com.hazelcast.map.impl.journal.MapEventJournalReadOperation;
 import com.hazelcast.map.impl.journal.MapEventJournalSubscribeOperation;
+import com.hazelcast.map.impl.operation.MapOperation;
 import com.hazelcast.map.impl.query.AggregationResult;
 import com.hazelcast.map.impl.query.QueryResult;
 import com.hazelcast.map.impl.query.Target;
@@ -78,6 +81,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.UUID;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Future;
@@ -1036,6 +1040,45 @@ public class MapProxyImpl<K, V> extends MapProxySupport<K, V> implements EventJo
         return new MapIterator<>(this, fetchSize, partitionCount, false);
     }
 
+    /**
+     * Returns a spliterator over all entries of this map which fetches the
+     * entries of {@value MapSpliterator#DEFAULT_MAX_CONCURRENCY} partitions
+     * concurrently, see {@link #spliterator(int, int)}.
+     */
+    @Override
+    @Nonnull
+    public Spliterator<Entry<K, V>> spliterator() {
+        return spliterator(MapIterator.DEFAULT_FETCH_SIZE, MapSpliterator.DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * Returns a spliterator over all entries of this map, to be used for
+     * (parallel) streams of the map entries.
+     * <p>
+     * The entries are fetched in batches, values together with the keys.
+     * Up to {@code maxConcurrency} batch requests are kept in flight by the
+     * spliterator: the next batch of the partition being consumed is
+     * prefetched and the batches of the following partitions are fetched
+     * concurrently. Each spliterator split off for a parallel stream keeps
+     * its own requests in flight.
+     * <p>
+     * <b>NOTE</b>
+     * The spliterator provides the same guarantees as {@link #iterator(int)}
+     * when the map is being mutated or when there are membership changes.
+     *
+     * @param fetchSize      the size of the batches which will be sent when iterating the data
+     * @param maxConcurrency the maximum number of batch requests in flight per spliterator
+     * @return a spliterator for the map entries
+     */
+    @Nonnull
+    public Spliterator<Entry<K, V>> spliterator(int fetchSize, int maxConcurrency) {
+        int partitionCount = partitionService.getPartitionCount();
+        return new MapSpliterator<>((partitionId, pointers, size) -> {
+            MapOperation operation = operationProvider.createFetchEntriesOperation(name, pointers, size);
+            return operationService.invokeOnPartition(SERVICE_NAME, operation, partitionId);
+        }, (InternalSerializationService) serializationService, fetchSize, maxConcurrency, 0, partitionCount);
+    }
+
     /**
      * Returns an iterable providing an iterator for iterating the result
      * of the projection on entries in the {@code partitionId} which
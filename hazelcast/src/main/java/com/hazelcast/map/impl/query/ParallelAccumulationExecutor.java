@@ -74,19 +74,18 @@ public class ParallelAccumulationExecutor implements AccumulationExecutor {
     }
 
     protected Collection<Aggregator> accumulateParallel(Aggregator aggregator, Iterable<QueryableEntry> entries) {
-        Collection<Future<Aggregator>> futures = new ArrayList<>();
-
-        List<QueryableEntry> buffer = new ArrayList<>();
+        List<QueryableEntry> entryList = new ArrayList<>();
         for (QueryableEntry entry : entries) {
-            buffer.add(entry);
-            if (buffer.size() == THREAD_SPLIT_COUNT) {
-                futures.add(executor.submit(new AccumulatePartitionCallable(clone(aggregator), buffer)));
-                buffer = new ArrayList<>();
-            }
+            entryList.add(entry);
         }
 
-        if (!buffer.isEmpty()) {
-            futures.add(executor.submit(new AccumulatePartitionCallable(clone(aggregator), buffer)));
+        // split the entries into THREAD_SPLIT_COUNT chunks, so that the
+        // aggregator is cloned once per chunk and not per few entries
+        int chunkSize = (entryList.size() + THREAD_SPLIT_COUNT - 1) / THREAD_SPLIT_COUNT;
+        Collection<Future<Aggregator>> futures = new ArrayList<>(THREAD_SPLIT_COUNT);
+        for (int from = 0; from < entryList.size(); from += chunkSize) {
+            List<QueryableEntry> chunk = entryList.subList(from, Math.min(from + chunkSize, entryList.size()));
+            futures.add(executor.submit(new AccumulatePartitionCallable(clone(aggregator), chunk)));
         }
 
         return returnWithDeadline(futures, callTimeoutInMillis, MILLISECONDS, RETHROW_EVERYTHING);
@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.aggregation.impl.IndexAwareAggregator;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.iteration.IterationPointer;
 import com.hazelcast.internal.serialization.InternalSerializationService;
@@ -28,15 +29,22 @@ import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.InternalIndex;
 import com.hazelcast.query.impl.QueryableEntriesSegment;
 import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.TypeConverters;
 import com.hazelcast.query.impl.predicates.QueryOptimizer;
+import com.hazelcast.query.impl.predicates.RangePredicate;
+import com.hazelcast.query.impl.predicates.TruePredicate;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.OperationService;
 
 import java.util.Collection;
 
 import static com.hazelcast.internal.util.SetUtil.singletonPartitionIdSet;
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+import static com.hazelcast.query.impl.IndexUtils.canonicalizeAttribute;
+import static com.hazelcast.query.impl.QueryContext.IndexMatchHint.PREFER_ORDERED;
 
 /**
  * Runs query operations in the calling thread (thus blocking it)
@@ -137,6 +145,13 @@ public class QueryRunner {
         // first we optimize the query
         Predicate predicate = queryOptimizer.optimize(query.getPredicate(), indexes);
 
+        // an aggregation of an indexed attribute may be answered by the index alone
+        Result indexOnlyResult = runIndexOnlyAggregationSafely(query, predicate, mapContainer, migrationStamp,
+                initialPartitions, actualPartitions);
+        if (indexOnlyResult != null) {
+            return indexOnlyResult;
+        }
+
         // then we try to run using an index, but if that doesn't work, we'll try a full table scan
         Iterable<QueryableEntry> entries = runUsingGlobalIndexSafely(predicate, mapContainer,
                 migrationStamp, initialPartitions.size());
@@ -294,6 +309,91 @@ public class QueryRunner {
         return null;
     }
 
+    /**
+     * Performs the aggregation of the given query directly from an index of
+     * the aggregated attribute, so that neither the entries are accessed nor
+     * their values deserialized.
+     * <p>
+     * This is possible if the aggregator is an {@link IndexAwareAggregator},
+     * the aggregated attribute is a single-value attribute covered by a global
+     * index and the predicate either matches all entries or is a {@link
+     * RangePredicate} on the same attribute.
+     *
+     * @return the result of the aggregation or {@code null} if the query is
+     * not an aggregation, the aggregation can't be performed using an index
+     * or a migration was detected.
+     */
+    @SuppressWarnings("checkstyle:npathcomplexity")
+    protected Result runIndexOnlyAggregationSafely(Query query, Predicate predicate, MapContainer mapContainer,
+                                                   int migrationStamp, PartitionIdSet initialPartitions,
+                                                   PartitionIdSet actualPartitions) {
+        if (!query.isAggregationQuery() || !(query.getAggregator() instanceof IndexAwareAggregator)
+                || !validateMigrationStamp(migrationStamp)) {
+            return null;
+        }
+        Indexes indexes = mapContainer.getIndexes();
+        if (indexes == null || !indexes.isGlobal()) {
+            return null;
+        }
+        RangePredicate range = predicate instanceof RangePredicate ? (RangePredicate) predicate : null;
+        InternalIndex index = matchAggregatedIndex(indexes, (IndexAwareAggregator) query.getAggregator(), predicate,
+                initialPartitions.size());
+        if (index == null) {
+            return null;
+        }
+
+        AggregationResult result = (AggregationResult) populateEmptyResult(query, actualPartitions);
+        IndexAwareAggregator resultAggregator = (IndexAwareAggregator) result.getAggregator();
+        PartitionIdSet partitions = initialPartitions.equals(actualPartitions) ? null : actualPartitions;
+        boolean aggregated = range == null
+                ? indexes.countValues(index, null, false, null, false, partitions, resultAggregator::accumulateIndexed)
+                : indexes.countValues(index, range.getFrom(), range.isFromInclusive(), range.getTo(), range.isToInclusive(),
+                partitions, resultAggregator::accumulateIndexed);
+
+        // the index may miss entries of the partitions migrated in the meantime
+        if (!aggregated || !validateMigrationStamp(migrationStamp)) {
+            return null;
+        }
+        result.getAggregator().onCombinationFinished();
+        result.completeConstruction(actualPartitions);
+        return result;
+    }
+
+    /**
+     * @return the index able to answer the given aggregation restricted by
+     * the given predicate or {@code null} if there is no such index.
+     */
+    private static InternalIndex matchAggregatedIndex(Indexes indexes, IndexAwareAggregator aggregator,
+                                                      Predicate predicate, int ownedPartitionCount) {
+        RangePredicate range = null;
+        if (predicate instanceof RangePredicate) {
+            range = (RangePredicate) predicate;
+            if (range.getFrom() == null && range.getTo() == null) {
+                // equality to null, not a range
+                return null;
+            }
+        } else if (!(predicate instanceof TruePredicate)) {
+            return null;
+        }
+
+        String attribute = aggregator.getAttributePath() == null
+                ? THIS_ATTRIBUTE_NAME.value() : canonicalizeAttribute(aggregator.getAttributePath());
+        if (attribute.contains("[") || range != null && !attribute.equals(canonicalizeAttribute(range.getAttribute()))) {
+            return null;
+        }
+        InternalIndex index = indexes.matchIndex(attribute, PREFER_ORDERED, ownedPartitionCount);
+        if (index == null || index.getComponents().length != 1 || !canAccumulateValuesOf(index, aggregator)) {
+            return null;
+        }
+        return index;
+    }
+
+    private static boolean canAccumulateValuesOf(InternalIndex index, IndexAwareAggregator aggregator) {
+        // unordered indexes store numbers canonicalized, all indexes store enums by name
+        return aggregator.acceptsConvertedValues()
+                || index.isOrdered() && index.getConverter() != TypeConverters.ENUM_CONVERTER;
+    }
+
     protected Result runUsingPartitionScanSafely(Query query, Predicate predicate,
                                                  PartitionIdSet partitions, int migrationStamp) {
 
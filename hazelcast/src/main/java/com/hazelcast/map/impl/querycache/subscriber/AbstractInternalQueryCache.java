@@ -35,6 +35,8 @@ import com.hazelcast.query.impl.CachedQueryEntry;
 import com.hazelcast.query.impl.IndexUtils;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.QueryOptimizer;
+import com.hazelcast.query.impl.predicates.RuleBasedQueryOptimizer;
 
 import java.util.List;
 import java.util.Map;
@@ -65,6 +67,13 @@ abstract class AbstractInternalQueryCache<K, V> implements InternalQueryCache<K,
     protected final PartitioningStrategy partitioningStrategy;
     protected final InternalSerializationService serializationService;
     protected final Extractors extractors;
+    /**
+     * Rewrites the predicates to make use of the indexes, e.g. to let the
+     * bitmap indexes evaluate them. Client-side query caches have no access
+     * to the member properties selecting the optimizer, so the rule based
+     * optimizer is always used.
+     */
+    protected final QueryOptimizer queryOptimizer = new RuleBasedQueryOptimizer();
     /**
      * ID of registered listener on publisher side.
      */
@@ -335,7 +335,7 @@ class DefaultQueryCache<K, V> extends AbstractInternalQueryCache<K, V> {
 
         Set<K> resultingSet = new HashSet<>();
 
-        Iterable<QueryableEntry> query = indexes.query(predicate, SKIP_PARTITIONS_COUNT_CHECK);
+        Iterable<QueryableEntry> query = queryIndexes(predicate);
         if (query != null) {
             for (QueryableEntry entry : query) {
                 K key = toObject(entry.getKeyData());
@@ -354,7 +354,7 @@ class DefaultQueryCache<K, V> extends AbstractInternalQueryCache<K, V> {
 
         Set<Map.Entry<K, V>> resultingSet = new HashSet<>();
 
-        Iterable<QueryableEntry> query = indexes.query(predicate, SKIP_PARTITIONS_COUNT_CHECK);
+        Iterable<QueryableEntry> query = queryIndexes(predicate);
         if (query != null) {
             for (QueryableEntry entry : query) {
                 Map.Entry<K, V> copyEntry = new CachedQueryEntry<>(serializationService, entry.getKeyData(),
@@ -377,7 +377,7 @@ class DefaultQueryCache<K, V> extends AbstractInternalQueryCache<K, V> {
 
         List<Data> resultingList = new ArrayList<>();
 
-        Iterable<QueryableEntry> query = indexes.query(predicate, SKIP_PARTITIONS_COUNT_CHECK);
+        Iterable<QueryableEntry> query = queryIndexes(predicate);
         if (query != null) {
             for (QueryableEntry entry : query) {
                 resultingList.add(entry.getValueData());
@@ -388,6 +388,23 @@ class DefaultQueryCache<K, V> extends AbstractInternalQueryCache<K, V> {
         return new UnmodifiableLazyList(resultingList, serializationService);
     }
 
+    /**
+     * Runs the given predicate against the indexes of this query cache. The
+     * predicate is optimized first, like the predicates of IMap queries, so
+     * that its parts on bitmap-indexed attributes are evaluated by the bitmap
+     * indexes as intersections and unions of bitmaps.
+     *
+     * @return the matching entries or {@code null} if the indexes can't answer
+     * the predicate and a full scan is needed.
+     */
+    private Iterable<QueryableEntry> queryIndexes(Predicate predicate) {
+        if (!indexes.haveAtLeastOneIndex()) {
+            return null;
+        }
+        Predicate optimizedPredicate = queryOptimizer.optimize(predicate, indexes);
+        return indexes.query(optimizedPredicate, SKIP_PARTITIONS_COUNT_CHECK);
+    }
+
     @Override
     public boolean isEmpty() {
         return recordStore.isEmpty();
@@ -16,7 +16,10 @@
 
 package com.hazelcast.map.impl.querycache.subscriber;
 
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.counters.Counter;
 import com.hazelcast.map.impl.querycache.QueryCacheContext;
 import com.hazelcast.map.impl.querycache.accumulator.AccumulatorHandler;
 import com.hazelcast.map.impl.querycache.accumulator.AccumulatorInfo;
@@ -26,27 +29,60 @@ import com.hazelcast.map.impl.querycache.event.sequence.DefaultSubscriberSequenc
 import com.hazelcast.map.impl.querycache.event.sequence.Sequenced;
 import com.hazelcast.map.impl.querycache.event.sequence.SubscriberSequencerProvider;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_QUERY_CACHE_APPLIED_BATCH_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_QUERY_CACHE_APPLIED_EVENT_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_QUERY_CACHE_COALESCED_EVENT_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_QUERY_CACHE_MAX_APPLY_LATENCY;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_QUERY_CACHE_TOTAL_APPLY_LATENCY;
+import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static com.hazelcast.internal.util.ConcurrencyUtil.setMax;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.END_SEQUENCE;
+import static com.hazelcast.map.impl.querycache.subscriber.EventPublisherHelper.hasListener;
 import static com.hazelcast.map.impl.querycache.subscriber.EventPublisherHelper.publishEventLost;
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * If all incoming events are in the correct sequence order, this
  * accumulator applies those events to {@link com.hazelcast.map.QueryCache
  * QueryCache}. Otherwise, it informs registered callback if there is
  * any.
+ * <p>
+ * Events received in a batch are applied together, see {@link
+ * #accumulateAll(Collection)}. Batches of different partitions are
+ * dispatched by partition on the striped event threads, so they are
+ * applied in parallel.
  *
  * This class can be accessed by multiple-threads at a time.
  */
 public class SubscriberAccumulator extends BasicAccumulator<QueryCacheEventData> {
 
+    private static final AtomicLongFieldUpdater<SubscriberAccumulator> MAX_APPLY_LATENCY_NANOS =
+            AtomicLongFieldUpdater.newUpdater(SubscriberAccumulator.class, "maxApplyLatencyNanos");
+
     private final SubscriberSequencerProvider sequenceProvider;
     /** When a partition's sequence order is broken, it will be registered here.*/
     private final ConcurrentMap<Integer, Long> brokenSequences = new ConcurrentHashMap<>();
 
+    @Probe(name = MAP_METRIC_QUERY_CACHE_APPLIED_EVENT_COUNT)
+    private final Counter appliedEventCount = newMwCounter();
+    @Probe(name = MAP_METRIC_QUERY_CACHE_APPLIED_BATCH_COUNT)
+    private final Counter appliedBatchCount = newMwCounter();
+    @Probe(name = MAP_METRIC_QUERY_CACHE_COALESCED_EVENT_COUNT)
+    private final Counter coalescedEventCount = newMwCounter();
+    private final Counter totalApplyLatencyNanos = newMwCounter();
+    private volatile long maxApplyLatencyNanos;
+
     protected SubscriberAccumulator(QueryCacheContext context, AccumulatorInfo info) {
         super(context, info);
         this.sequenceProvider = new DefaultSubscriberSequencerProvider();
@@ -67,8 +103,89 @@ public class SubscriberAccumulator extends BasicAccumulator<QueryCacheEventData>
     @Override
     public void accumulate(QueryCacheEventData event) {
         if (isApplicable(event)) {
+            long start = System.nanoTime();
             addQueryCache(event);
+            appliedEventCount.inc();
+            updateApplyLatency(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Applies a batch of events sent by a publisher for a single
+     * partition. The sequence of every event is checked as if the events
+     * were accumulated one by one, but when nobody listens to the query
+     * cache, only the last event of each key is applied, since the
+     * intermediate states of an entry are not observable then.
+     *
+     * @param events the events in publishing order.
+     */
+    public void accumulateAll(Collection<QueryCacheEventData> events) {
+        List<QueryCacheEventData> applicableEvents = new ArrayList<>(events.size());
+        for (QueryCacheEventData event : events) {
+            if (isApplicable(event)) {
+                applicableEvents.add(event);
+            }
+        }
+        if (applicableEvents.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean[] superseded = canCoalesce(applicableEvents) ? findSupersededEvents(applicableEvents) : null;
+        int coalesced = 0;
+        for (int i = 0; i < applicableEvents.size(); i++) {
+            if (superseded != null && superseded[i]) {
+                coalesced++;
+            } else {
+                addQueryCache(applicableEvents.get(i));
+            }
         }
+        appliedEventCount.inc(applicableEvents.size() - coalesced);
+        coalescedEventCount.inc(coalesced);
+        appliedBatchCount.inc();
+        updateApplyLatency(System.nanoTime() - start);
+    }
+
+    private boolean canCoalesce(List<QueryCacheEventData> events) {
+        if (events.size() < 2) {
+            return false;
+        }
+        InternalQueryCache queryCache = getQueryCache();
+        return queryCache != null && !hasListener(queryCache);
+    }
+
+    /**
+     * Marks the events followed by a later event of the same key. Map-wide
+     * events, which have no key, act as barriers: no event is coalesced
+     * across them.
+     */
+    private static boolean[] findSupersededEvents(List<QueryCacheEventData> events) {
+        boolean[] superseded = new boolean[events.size()];
+        Set<Data> laterKeys = new HashSet<>();
+        for (int i = events.size() - 1; i >= 0; i--) {
+            Data dataKey = events.get(i).getDataKey();
+            if (dataKey == null) {
+                laterKeys.clear();
+            } else if (!laterKeys.add(dataKey)) {
+                superseded[i] = true;
+            }
+        }
+        return superseded;
+    }
+
+    private void updateApplyLatency(long latencyNanos) {
+        totalApplyLatencyNanos.inc(latencyNanos);
+        setMax(this, MAX_APPLY_LATENCY_NANOS, latencyNanos);
+    }
+
+    @Probe(name = MAP_METRIC_QUERY_CACHE_TOTAL_APPLY_LATENCY, unit = MS)
+    private long totalApplyLatency() {
+        return NANOSECONDS.toMillis(totalApplyLatencyNanos.get());
+    }
+
+    @Probe(name = MAP_METRIC_QUERY_CACHE_MAX_APPLY_LATENCY, unit = MS)
+    private long maxApplyLatency() {
+        return NANOSECONDS.toMillis(maxApplyLatencyNanos);
     }
 
     /**
@@ -19,7 +19,6 @@ package com.hazelcast.map.impl.querycache.subscriber;
 import com.hazelcast.map.IMapEvent;
 import com.hazelcast.map.impl.ListenerAdapter;
 import com.hazelcast.map.impl.querycache.QueryCacheContext;
-import com.hazelcast.map.impl.querycache.accumulator.Accumulator;
 import com.hazelcast.map.impl.querycache.accumulator.AccumulatorInfo;
 import com.hazelcast.map.impl.querycache.event.BatchEventData;
 import com.hazelcast.map.impl.querycache.event.BatchIMapEvent;
@@ -35,7 +34,7 @@ import java.util.Collection;
 public class SubscriberListener implements ListenerAdapter<IMapEvent> {
 
     private final AccumulatorInfo info;
-    private final Accumulator accumulator;
+    private final SubscriberAccumulator accumulator;
     private final SubscriberContext subscriberContext;
     private final SerializationService serializationService;
 
@@ -61,15 +60,15 @@ public class SubscriberListener implements ListenerAdapter<IMapEvent> {
             Collection<QueryCacheEventData> events = batchEventData.getEvents();
             for (QueryCacheEventData eventData : events) {
                 eventData.setSerializationService(serializationService);
-                accumulator.accumulate(eventData);
             }
+            accumulator.accumulateAll(events);
             return;
         }
     }
 
-    private Accumulator createAccumulator() {
+    private SubscriberAccumulator createAccumulator() {
         MapSubscriberRegistry mapSubscriberRegistry = subscriberContext.getMapSubscriberRegistry();
         SubscriberRegistry subscriberRegistry = mapSubscriberRegistry.getOrCreate(info.getMapName());
-        return subscriberRegistry.getOrCreate(info.getCacheId());
+        return (SubscriberAccumulator) subscriberRegistry.getOrCreate(info.getCacheId());
     }
 }
@@ -59,20 +59,22 @@ public class DataRecordFactory implements RecordFactory<Data> {
 
     private Record<Data> newCachedSimpleRecord(Data valueData, MapConfig mapConfig,
                                                boolean perEntryStatsEnabled, boolean hasEviction) {
-        if (perEntryStatsEnabled || isClusterV41()) {
+        // the tiered storage moves the entries into the cold tier by their access times
+        if (perEntryStatsEnabled || isClusterV41() || mapContainer.isTieredStorageEnabled()) {
             return new CachedDataRecordWithStats(valueData);
         }
 
         if (hasEviction) {
-            if (mapConfig.getEvictionConfig().getEvictionPolicy() == EvictionPolicy.LRU) {
+            EvictionPolicy evictionPolicy = mapConfig.getEvictionConfig().getEvictionPolicy();
+            if (Records.tracksAccessTime(evictionPolicy)) {
                 return new CachedSimpleRecordWithLRUEviction(valueData);
             }
 
-            if (mapConfig.getEvictionConfig().getEvictionPolicy() == EvictionPolicy.LFU) {
+            if (evictionPolicy == EvictionPolicy.LFU) {
                 return new CachedSimpleRecordWithLFUEviction(valueData);
             }
 
-            if (mapConfig.getEvictionConfig().getEvictionPolicy() == EvictionPolicy.RANDOM) {
+            if (evictionPolicy == EvictionPolicy.RANDOM) {
                 return new CachedSimpleRecord(valueData);
             }
 
@@ -84,20 +86,22 @@ public class DataRecordFactory implements RecordFactory<Data> {
 
     private Record<Data> newSimpleRecord(Data valueData, MapConfig mapConfig,
                                          boolean perEntryStatsEnabled, boolean hasEviction) {
-        if (perEntryStatsEnabled || isClusterV41()) {
+        // the tiered storage moves the entries into the cold tier by their access times
+        if (perEntryStatsEnabled || isClusterV41() || mapContainer.isTieredStorageEnabled()) {
             return new DataRecordWithStats(valueData);
         }
 
         if (hasEviction) {
-            if (mapConfig.getEvictionConfig().getEvictionPolicy() == EvictionPolicy.LRU) {
+            EvictionPolicy evictionPolicy = mapConfig.getEvictionConfig().getEvictionPolicy();
+            if (Records.tracksAccessTime(evictionPolicy)) {
                 return new SimpleRecordWithLRUEviction<>(valueData);
             }
 
-            if (mapConfig.getEvictionConfig().getEvictionPolicy() == EvictionPolicy.LFU) {
+            if (evictionPolicy == EvictionPolicy.LFU) {
                 return new SimpleRecordWithLFUEviction<>(valueData);
             }
 
-            if (mapConfig.getEvictionConfig().getEvictionPolicy() == EvictionPolicy.RANDOM) {
+            if (evictionPolicy == EvictionPolicy.RANDOM) {
                 return new SimpleRecord<>(valueData);
             }
 
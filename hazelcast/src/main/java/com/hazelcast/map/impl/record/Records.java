@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.record;
 
+import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
@@ -223,6 +224,16 @@ public final class Records {
         return object;
     }
 
+    /**
+     * Returns {@code true} if the records of a map with the given eviction
+     * policy track their last access time. TINY_LFU keeps the access
+     * frequencies in a sketch per record store, so its records only need
+     * the access time as a tie-breaker, like the records of LRU.
+     */
+    static boolean tracksAccessTime(EvictionPolicy evictionPolicy) {
+        return evictionPolicy == EvictionPolicy.LRU || evictionPolicy == EvictionPolicy.TINY_LFU;
+    }
+
     static boolean shouldCache(Object value) {
         // For portables, we cannot extract information from the deserialized form.
         // For HazelcastJsonValue objects, if we pass the instanceof Data check, that
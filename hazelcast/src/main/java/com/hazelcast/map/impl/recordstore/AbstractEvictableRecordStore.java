@@ -17,9 +17,11 @@
 package com.hazelcast.map.impl.recordstore;
 
 import com.hazelcast.cluster.Address;
+import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.core.EntryEventType;
 import com.hazelcast.core.EntryView;
 import com.hazelcast.internal.eviction.ExpiredKey;
+import com.hazelcast.internal.eviction.FrequencySketch;
 import com.hazelcast.internal.nearcache.impl.invalidation.InvalidationQueue;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.util.Clock;
@@ -53,6 +55,7 @@ public abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
     protected final EventService eventService;
     protected final MapEventPublisher mapEventPublisher;
     protected final ExpirySystem expirySystem;
+    protected final FrequencySketch frequencySketch;
 
     protected AbstractEvictableRecordStore(MapContainer mapContainer, int partitionId) {
         super(mapContainer, partitionId);
@@ -61,6 +64,7 @@ public abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
         mapEventPublisher = mapServiceContext.getMapEventPublisher();
         thisAddress = nodeEngine.getThisAddress();
         expirySystem = createExpirySystem(mapContainer);
+        frequencySketch = createFrequencySketch(mapContainer);
     }
 
     @Override
@@ -73,6 +77,34 @@ public abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
         return new ExpirySystem(this, mapContainer, mapServiceContext);
     }
 
+    private static FrequencySketch createFrequencySketch(MapContainer mapContainer) {
+        EvictionPolicy evictionPolicy = mapContainer.getMapConfig().getEvictionConfig().getEvictionPolicy();
+        return evictionPolicy == EvictionPolicy.TINY_LFU ? new FrequencySketch(0) : null;
+    }
+
+    @Override
+    public FrequencySketch getFrequencySketch() {
+        return frequencySketch;
+    }
+
+    /**
+     * Records an access of the key in the frequency sketch of
+     * the {@link EvictionPolicy#TINY_LFU} eviction policy.
+     *
+     * @param dataKey   the accessed key
+     * @param newRecord {@code true} if the key was just added, so that
+     *                  the sketch may need to grow
+     */
+    protected void recordFrequency(Data dataKey, boolean newRecord) {
+        if (frequencySketch == null) {
+            return;
+        }
+        if (newRecord) {
+            frequencySketch.ensureCapacity(storage.size());
+        }
+        frequencySketch.increment(dataKey.hashCode());
+    }
+
     @Override
     public void evictExpiredEntries(int percentage, long now, boolean backup) {
         expirySystem.evictExpiredEntries(percentage, now, backup);
@@ -180,6 +212,7 @@ public abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
     @Override
     public void accessRecord(Data dataKey, Record record, long now) {
         record.onAccess(now);
+        recordFrequency(dataKey, false);
         updateStatsOnGet(now);
         expirySystem.extendExpiryTime(dataKey, now);
     }
@@ -36,6 +36,7 @@ import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.MapStoreWrapper;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
+import com.hazelcast.map.impl.persistence.MapPersistenceManager;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.map.impl.record.Records;
@@ -102,6 +103,12 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
                     JsonMetadataInitializer.INSTANCE, getOrCreateMetadataStore()));
         }
 
+        // Add observer for persistence
+        MapPersistenceManager persistenceManager = mapServiceContext.getPersistenceManager();
+        if (persistenceManager.isEnabledFor(mapContainer.getMapConfig())) {
+            mutationObserver.add(persistenceManager.newMutationObserver(this));
+        }
+
         // Add observer for indexing
         indexingObserver = new IndexingMutationObserver<>(this, serializationService);
         mutationObserver.add(indexingObserver);
@@ -158,6 +165,9 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     }
 
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
+        if (mapContainer.isTieredStorageEnabled()) {
+            return mapServiceContext.getTieredStorageManager().newStorage(name, partitionId, getExpirySystem());
+        }
         return new StorageImpl(memoryFormat, getExpirySystem(), serializationService);
     }
 
@@ -17,11 +17,12 @@
 package com.hazelcast.map.impl.recordstore;
 
 import com.hazelcast.logging.ILogger;
-import com.hazelcast.map.MapLoader;
+import com.hazelcast.map.AsyncMapLoader;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapService;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
+import com.hazelcast.map.impl.mapstore.MapLoadStats;
 import com.hazelcast.map.impl.operation.MapOperationProvider;
 import com.hazelcast.map.impl.operation.RemoveFromLoadAllOperation;
 import com.hazelcast.internal.serialization.Data;
@@ -31,17 +32,19 @@ import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.OperationAccessor;
 import com.hazelcast.spi.impl.operationservice.OperationService;
 import com.hazelcast.spi.properties.ClusterProperty;
-import com.hazelcast.internal.util.ExceptionUtil;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.spi.impl.executionservice.ExecutionService.MAP_LOADER_EXECUTOR;
 
@@ -54,6 +57,7 @@ class BasicRecordStoreLoader implements RecordStoreLoader {
     private final ILogger logger;
     private final MapDataStore mapDataStore;
     private final int partitionId;
+    private final MapLoadStats loadStats;
 
     BasicRecordStoreLoader(RecordStore recordStore) {
         final MapContainer mapContainer = recordStore.getMapContainer();
@@ -61,23 +65,33 @@ class BasicRecordStoreLoader implements RecordStoreLoader {
         this.mapServiceContext = mapContainer.getMapServiceContext();
         this.partitionId = recordStore.getPartitionId();
         this.mapDataStore = recordStore.getMapDataStore();
+        this.loadStats = mapContainer.getMapStoreContext().getLoadStats();
         this.logger = mapServiceContext.getNodeEngine().getLogger(getClass());
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * Offloads the value loading task to the
-     * {@link ExecutionService#MAP_LOADER_EXECUTOR} executor.
+     * Loads the values in a {@link LoadingPipeline} running on the
+     * {@link ExecutionService#MAP_LOADER_EXECUTOR} executor and on the
+     * threads of the {@link AsyncMapLoader}, if any.
+     * The returned future is completed once the loaded entries are put
+     * into the partition record store.
+     * <p>
+     * Unloadable keys are removed before loading the values. Also, if
+     * {@code replaceExistingValues} is {@code false}, the keys are
+     * filtered for existing keys in the partition record store.
      */
     @Override
     public Future<?> loadValues(List<Data> keys, boolean replaceExistingValues) {
-        Callable task = new GivenKeysLoaderTask(keys, replaceExistingValues);
-        return executeTask(MAP_LOADER_EXECUTOR, task);
-    }
-
-    private Future<?> executeTask(String executorName, Callable task) {
-        return getExecutionService().submit(executorName, task);
+        CompletableFuture<Object> existingKeysRemoved = replaceExistingValues
+                ? CompletableFuture.completedFuture(null)
+                : removeExistingKeys(keys);
+        Executor executor = getExecutionService().getExecutor(MAP_LOADER_EXECUTOR);
+        return existingKeysRemoved.thenComposeAsync(ignored -> {
+            removeUnloadableKeys(keys);
+            return new LoadingPipeline(keys, executor).start();
+        }, executor);
     }
 
     private ExecutionService getExecutionService() {
@@ -85,62 +99,6 @@ class BasicRecordStoreLoader implements RecordStoreLoader {
         return nodeEngine.getExecutionService();
     }
 
-    /**
-     * Task for loading values of given keys and dispatching the loaded key-value
-     * pairs to the partition threads to update the record stores.
-     * <p>
-     * This task is used to load the values on a thread different than the partition thread.
-     *
-     * @see MapLoader#loadAll(Collection)
-     */
-    private final class GivenKeysLoaderTask implements Callable<Object> {
-
-        private final List<Data> keys;
-        private final boolean replaceExistingValues;
-
-        private GivenKeysLoaderTask(List<Data> keys, boolean replaceExistingValues) {
-            this.keys = keys;
-            this.replaceExistingValues = replaceExistingValues;
-        }
-
-        @Override
-        public Object call() throws Exception {
-            loadValuesInternal(keys, replaceExistingValues);
-            return null;
-        }
-    }
-
-    /**
-     * Loads the values for the provided keys and invokes partition operations
-     * to put the loaded entries into the partition record store. The method
-     * will block until all entries have been put into the partition record store.
-     * <p>
-     * Unloadable keys will be removed before loading the values. Also, if
-     * {@code replaceExistingValues} is {@code false}, the list of keys will
-     * be filtered for existing keys in the partition record store.
-     *
-     * @param keys                  the keys for which values will be loaded
-     * @param replaceExistingValues if the existing entries for the keys should
-     *                              be replaced with the loaded values
-     * @throws Exception if there is an exception when invoking partition operations
-     *                   to remove the existing keys or to put the loaded values into
-     *                   the record store
-     */
-    private void loadValuesInternal(List<Data> keys, boolean replaceExistingValues) throws Exception {
-        if (!replaceExistingValues) {
-            Future removeKeysFuture = removeExistingKeys(keys);
-            removeKeysFuture.get();
-        }
-        removeUnloadableKeys(keys);
-        if (keys.isEmpty()) {
-            return;
-        }
-        List<Future> futures = doBatchLoad(keys);
-        for (Future future : futures) {
-            future.get();
-        }
-    }
-
     /**
      * Removes keys already present in the partition record store from
      * the provided keys list.
@@ -153,38 +111,96 @@ class BasicRecordStoreLoader implements RecordStoreLoader {
      * @return the future representing the pending completion of the key
      * filtering task
      */
-    private Future removeExistingKeys(List<Data> keys) {
+    private CompletableFuture<Object> removeExistingKeys(List<Data> keys) {
         OperationService operationService = mapServiceContext.getNodeEngine().getOperationService();
         Operation operation = new RemoveFromLoadAllOperation(name, keys);
         return operationService.invokeOnPartition(MapService.SERVICE_NAME, operation, partitionId);
     }
 
     /**
-     * Loads the values for the provided keys in batches and invokes
-     * partition operations to put the loaded entry batches into the
-     * record store.
-     *
-     * @param keys the keys for which entries are loaded and put into the
-     *             record store
-     * @return the list of futures representing the pending completion of
-     * the operations storing the loaded entries into the partition record
-     * store
+     * Loads the values of the keys in batches and invokes partition
+     * operations to put the loaded entry batches into the record store.
+     * <p>
+     * The values of up to {@link ClusterProperty#MAP_LOAD_PARALLELISM}
+     * batches are loaded at the same time. A batch makes room for the next
+     * one as soon as its values are loaded, so that the next batch is being
+     * loaded while the entries of the previous ones are serialized on the
+     * executor and put into the record store by the partition thread.
      */
-    private List<Future> doBatchLoad(List<Data> keys) {
-        Queue<List<Data>> batchChunks = createBatchChunks(keys);
-        int size = batchChunks.size();
-        List<Future> futures = new ArrayList<>(size);
+    private final class LoadingPipeline {
 
-        while (!batchChunks.isEmpty()) {
-            List<Data> chunk = batchChunks.poll();
-            List<Data> loadingSequence = loadAndGet(chunk);
-            if (loadingSequence.isEmpty()) {
-                continue;
+        private final Queue<List<Data>> batches;
+        private final Executor executor;
+        private final AtomicInteger remainingBatchCount;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        LoadingPipeline(List<Data> keys, Executor executor) {
+            this.batches = createBatchChunks(keys);
+            this.executor = executor;
+            this.remainingBatchCount = new AtomicInteger(batches.size());
+            loadStats.onLoadStarted(keys.size());
+        }
+
+        CompletableFuture<Object> start() {
+            int batchCount = batches.size();
+            if (batchCount == 0) {
+                result.complete(null);
+            }
+            for (int i = 0; i < Math.min(getLoadParallelism(), batchCount); i++) {
+                loadNextBatch();
+            }
+            return result;
+        }
+
+        private void loadNextBatch() {
+            List<Data> batch = batches.poll();
+            if (batch == null) {
+                return;
             }
-            futures.add(sendOperation(loadingSequence));
+            loadStats.onBatchStarted();
+            CompletionStage<Map> loaded;
+            try {
+                loaded = mapDataStore.loadAllAsync(batch, executor);
+            } catch (Throwable t) {
+                onBatchCompleted(batch, 0, t);
+                return;
+            }
+            // the next batch is started on the executor, since a stage which
+            // is already completed would start it recursively on this thread
+            loaded.whenCompleteAsync((entries, t) -> loadNextBatch(), executor);
+            loaded.thenComposeAsync(this::putIntoRecordStore, executor)
+                    .whenComplete((entryCount, t) -> onBatchCompleted(batch, entryCount, t));
+        }
+
+        private CompletionStage<Integer> putIntoRecordStore(Map<?, ?> entries) {
+            if (entries.isEmpty()) {
+                return CompletableFuture.completedFuture(0);
+            }
+            List<Data> loadingSequence = getLoadingSequence(entries);
+            return sendOperation(loadingSequence).thenApply(ignored -> entries.size());
         }
 
-        return futures;
+        private void onBatchCompleted(List<Data> batch, Integer entryCount, Throwable t) {
+            if (t != null) {
+                loadStats.onBatchFailed(batch.size());
+                if (result.completeExceptionally(t)) {
+                    logger.warning("Could not load keys from map store", t);
+                    skipRemainingBatches();
+                }
+                return;
+            }
+            loadStats.onBatchLoaded(batch.size(), entryCount);
+            if (remainingBatchCount.decrementAndGet() == 0) {
+                result.complete(null);
+            }
+        }
+
+        private void skipRemainingBatches() {
+            List<Data> batch;
+            while ((batch = batches.poll()) != null) {
+                loadStats.onKeysSkipped(batch.size());
+            }
+        }
     }
 
     /**
@@ -193,7 +209,7 @@ class BasicRecordStoreLoader implements RecordStoreLoader {
      * @param keys the keys to be batched
      */
     private Queue<List<Data>> createBatchChunks(List<Data> keys) {
-        Queue<List<Data>> chunks = new LinkedList<>();
+        Queue<List<Data>> chunks = new ConcurrentLinkedQueue<>();
         int loadBatchSize = getLoadBatchSize();
         int page = 0;
         List<Data> tmpKeys;
@@ -203,24 +219,6 @@ class BasicRecordStoreLoader implements RecordStoreLoader {
         return chunks;
     }
 
-    /**
-     * Loads the provided keys from the underlying map store
-     * and transforms them to a list of alternating serialised key-value pairs.
-     *
-     * @param keys the keys for which values are loaded
-     * @return the list of loaded key-values
-     * @see MapLoader#loadAll(Collection)
-     */
-    private List<Data> loadAndGet(List<Data> keys) {
-        try {
-            Map entries = mapDataStore.loadAll(keys);
-            return getLoadingSequence(entries);
-        } catch (Throwable t) {
-            logger.warning("Could not load keys from map store", t);
-            throw ExceptionUtil.rethrow(t);
-        }
-    }
-
     /**
      * Transforms a map to a list of serialised alternating key-value pairs.
      *
@@ -288,7 +286,7 @@ class BasicRecordStoreLoader implements RecordStoreLoader {
      *                        sequences
      * @return the future representing the pending completion of the put operation
      */
-    private Future<?> sendOperation(List<Data> loadingSequence) {
+    private CompletableFuture<Object> sendOperation(List<Data> loadingSequence) {
         OperationService operationService = mapServiceContext.getNodeEngine().getOperationService();
         NodeEngine nodeEngine = mapServiceContext.getNodeEngine();
         Operation operation = createOperation(loadingSequence);
@@ -320,4 +318,13 @@ class BasicRecordStoreLoader implements RecordStoreLoader {
     private int getLoadBatchSize() {
         return mapServiceContext.getNodeEngine().getProperties().getInteger(ClusterProperty.MAP_LOAD_CHUNK_SIZE);
     }
+
+    /**
+     * Returns the maximum number of key batches of this partition for which
+     * values are being loaded at the same time.
+     */
+    private int getLoadParallelism() {
+        return Math.max(mapServiceContext.getNodeEngine().getProperties()
+                .getInteger(ClusterProperty.MAP_LOAD_PARALLELISM), 1);
+    }
 }
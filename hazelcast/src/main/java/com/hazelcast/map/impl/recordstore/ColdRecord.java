@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordReaderWriter;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.util.JVMUtil.OBJECT_HEADER_SIZE;
+import static com.hazelcast.internal.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+
+/**
+ * Stands in the {@link TieredStorage} for an entry which has been moved
+ * into the cold tier. It only keeps the address of the entry in the
+ * {@link ColdTierLog}, i.e. its segment and its offset in the segment, the
+ * value and the metadata of the entry must be read from there.
+ * <p>
+ * A cold record is immutable, so that the entry can be read through it by
+ * threads other than the partition thread. It is replaced in the storage
+ * when a compaction moves its entry.
+ */
+final class ColdRecord implements Record<Data> {
+
+    private static final long COST = OBJECT_HEADER_SIZE + REFERENCE_COST_IN_BYTES + INT_SIZE_IN_BYTES;
+
+    private final ColdTierLog.Segment segment;
+    private final int offset;
+
+    ColdRecord(ColdTierLog.Segment segment, int offset) {
+        this.segment = segment;
+        this.offset = offset;
+    }
+
+    ColdTierLog.Segment getSegment() {
+        return segment;
+    }
+
+    int getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Data getValue() {
+        throw new UnsupportedOperationException("The value of a cold record must be read from the cold tier");
+    }
+
+    @Override
+    public void setValue(Data value) {
+        throw new UnsupportedOperationException("A cold record must be promoted before it is updated");
+    }
+
+    @Override
+    public long getCost() {
+        return COST;
+    }
+
+    @Override
+    public int getVersion() {
+        throw new UnsupportedOperationException("The version of a cold record must be read from the cold tier");
+    }
+
+    @Override
+    public void setVersion(int version) {
+        throw new UnsupportedOperationException("A cold record must be promoted before it is updated");
+    }
+
+    @Override
+    public RecordReaderWriter getMatchingRecordReaderWriter() {
+        throw new UnsupportedOperationException("A cold record must be read from the cold tier to be serialized");
+    }
+
+    @Override
+    public String toString() {
+        return "ColdRecord{offset=" + offset + '}';
+    }
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.nio.DirectBufferCleaner;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.util.collection.Int2ObjectHashMap;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.Records;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadataImpl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import static com.hazelcast.internal.cluster.Versions.CURRENT_CLUSTER_VERSION;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+
+/**
+ * Append-only log of the cold entries of a single {@link TieredStorage}.
+ * <p>
+ * The log consists of segment files of a fixed size. Each segment is
+ * memory-mapped as a whole when it is created, and entries are read
+ * through the mapping. Entries are appended to the newest segment only,
+ * through its file channel, so that a full disk surfaces as an exception
+ * rather than as a fault on a mapped page.
+ * <p>
+ * An entry is addressed by the {@link ColdRecord} returned when it is
+ * appended, which references the segment of the entry and its offset in
+ * the segment. The entry is laid out as the length of the key, the length
+ * of the record, the key and the record in the format used by the
+ * replication. The expiry metadata is not written since it is kept on the
+ * heap by the {@link com.hazelcast.map.impl.recordstore.expiry.ExpirySystem}.
+ * <p>
+ * Entries are never overwritten: removing an entry only decreases the count
+ * of the live bytes of its segment. A segment without live bytes is deleted
+ * right away, other segments are {@link #compact compacted} once the share
+ * of their live bytes falls below a threshold.
+ * <p>
+ * Appending, removing and compacting must only be done by the partition
+ * thread. Entries can be read by any thread, e.g. by the query threads
+ * iterating over the storage: the cold records are immutable and a
+ * compaction moves an entry by replacing its cold record. A reader holds
+ * a reference to the segment while it copies the entry from the mapping,
+ * and the mapping of a deleted segment is released explicitly once no
+ * reader holds it anymore, so that the deleted file frees its disk space
+ * right away.
+ */
+final class ColdTierLog {
+
+    private static final int ENTRY_HEADER_SIZE = 2 * INT_SIZE_IN_BYTES;
+    private static final int HUNDRED_PERCENT = 100;
+    private static final String SEGMENT_FILE_SUFFIX = ".log";
+
+    private final File dir;
+    private final int segmentSize;
+    private final InternalSerializationService serializationService;
+    private final TieredStorageStats stats;
+    private final Int2ObjectHashMap<Segment> segments = new Int2ObjectHashMap<>();
+
+    private Segment activeSegment;
+    private int nextSegmentId;
+
+    ColdTierLog(File dir, int segmentSize, InternalSerializationService serializationService,
+                TieredStorageStats stats) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.serializationService = serializationService;
+        this.stats = stats;
+    }
+
+    /**
+     * Appends the given entry to the log.
+     *
+     * @return the cold record addressing the entry
+     */
+    ColdRecord append(Data key, Record record) {
+        byte[] keyBytes = key.toByteArray();
+        byte[] recordBytes = serialize(record);
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER_SIZE + keyBytes.length + recordBytes.length);
+        entry.putInt(keyBytes.length)
+                .putInt(recordBytes.length)
+                .put(keyBytes)
+                .put(recordBytes);
+        entry.flip();
+        return write(entry);
+    }
+
+    /**
+     * Reads the record of the entry addressed by the given cold record. The
+     * returned record is not connected to the log in any way. Can be called
+     * by any thread.
+     *
+     * @return the record, or {@code null} if the segment of the entry has
+     * been deleted, i.e. the entry has been removed or moved by a compaction
+     * since the cold record was read. This can only happen if not called by
+     * the partition thread.
+     */
+    Record readRecord(ColdRecord coldRecord) {
+        Segment segment = coldRecord.getSegment();
+        if (!segment.acquire()) {
+            return null;
+        }
+        byte[] recordBytes;
+        try {
+            ByteBuffer buffer = segment.entryBuffer(coldRecord.getOffset());
+            int keyLength = buffer.getInt();
+            recordBytes = new byte[buffer.getInt()];
+            buffer.position(buffer.position() + keyLength);
+            buffer.get(recordBytes);
+        } finally {
+            release(segment);
+        }
+
+        BufferObjectDataInput in = serializationService.createObjectDataInput(recordBytes);
+        try {
+            return Records.readRecord(in, new ExpiryMetadataImpl());
+        } catch (IOException e) {
+            throw new HazelcastException("Could not read the cold entry at " + coldRecord.getOffset()
+                    + " in " + coldRecord.getSegment().file, e);
+        } finally {
+            IOUtil.closeResource(in);
+        }
+    }
+
+    /**
+     * Marks the entry addressed by the given cold record as removed. Its
+     * bytes are reclaimed once the other entries of its segment are removed
+     * or copied by a compaction.
+     */
+    void remove(ColdRecord coldRecord) {
+        Segment segment = coldRecord.getSegment();
+        segment.liveBytes -= segment.entryLength(coldRecord.getOffset());
+        if (segment.liveBytes == 0 && segment != activeSegment) {
+            deleteSegment(segment);
+        }
+    }
+
+    /**
+     * Copies the entries of the segments whose share of live bytes is below
+     * the given percentage to the newest segment and deletes those segments.
+     *
+     * @param thresholdPercentage the percentage of the live bytes below which
+     *                            a segment is compacted
+     * @param coldRecords         returns the cold record of the given key in
+     *                            the storage, or {@code null} if the key is
+     *                            not cold
+     * @param relocatedRecords    replaces the cold record of the given key in
+     *                            the storage with the given one addressing
+     *                            the copy of the entry
+     * @return the number of compacted segments
+     */
+    int compact(int thresholdPercentage, Function<Data, ColdRecord> coldRecords,
+                BiConsumer<Data, ColdRecord> relocatedRecords) {
+        List<Segment> candidates = new ArrayList<>();
+        for (Segment segment : segments.values()) {
+            if (segment != activeSegment
+                    && segment.liveBytes * HUNDRED_PERCENT < (long) segment.writeOffset * thresholdPercentage) {
+                candidates.add(segment);
+            }
+        }
+
+        for (Segment segment : candidates) {
+            long copiedBytes = 0;
+            int offset = 0;
+            while (offset < segment.writeOffset) {
+                ByteBuffer buffer = segment.entryBuffer(offset);
+                byte[] keyBytes = new byte[buffer.getInt()];
+                int length = ENTRY_HEADER_SIZE + keyBytes.length + buffer.getInt();
+                buffer.get(keyBytes);
+
+                Data key = new HeapData(keyBytes);
+                ColdRecord coldRecord = coldRecords.apply(key);
+                if (coldRecord != null && coldRecord.getSegment() == segment && coldRecord.getOffset() == offset) {
+                    ByteBuffer entry = segment.entryBuffer(offset);
+                    entry.limit(offset + length);
+                    relocatedRecords.accept(key, write(entry));
+                    copiedBytes += length;
+                }
+                offset += length;
+            }
+            deleteSegment(segment);
+            stats.onCompacted(copiedBytes);
+        }
+        return candidates.size();
+    }
+
+    /**
+     * Deletes all segments of the log together with its directory.
+     */
+    void destroy() {
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            deleteSegment(segment);
+        }
+        IOUtil.deleteQuietly(dir);
+    }
+
+    int getSegmentCount() {
+        return segments.size();
+    }
+
+    File getDir() {
+        return dir;
+    }
+
+    private byte[] serialize(Record record) {
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        try {
+            out.setVersion(CURRENT_CLUSTER_VERSION);
+            Records.writeRecord(out, record, (Data) record.getValue(), ExpiryMetadata.NULL);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new HazelcastException("Could not serialize a cold entry of " + dir, e);
+        } finally {
+            IOUtil.closeResource(out);
+        }
+    }
+
+    private ColdRecord write(ByteBuffer entry) {
+        int length = entry.remaining();
+        Segment segment = segmentFor(length);
+        int offset = segment.writeOffset;
+        try {
+            int position = offset;
+            while (entry.hasRemaining()) {
+                position += segment.channel.write(entry, position);
+            }
+        } catch (IOException e) {
+            throw new HazelcastException("Could not write to the cold tier file " + segment.file, e);
+        }
+        segment.writeOffset += length;
+        segment.liveBytes += length;
+        return new ColdRecord(segment, offset);
+    }
+
+    private Segment segmentFor(int length) {
+        Segment segment = activeSegment;
+        if (segment != null && segment.capacity - segment.writeOffset >= length) {
+            return segment;
+        }
+
+        if (segment != null) {
+            segment.closeChannel();
+            if (segment.liveBytes == 0) {
+                deleteSegment(segment);
+            }
+        }
+        activeSegment = newSegment(Math.max(segmentSize, length));
+        return activeSegment;
+    }
+
+    private Segment newSegment(int capacity) {
+        int id = nextSegmentId++;
+        File file = new File(dir, id + SEGMENT_FILE_SUFFIX);
+        RandomAccessFile raf = null;
+        try {
+            Files.createDirectories(dir.toPath());
+            raf = new RandomAccessFile(file, "rw");
+            raf.setLength(capacity);
+            FileChannel channel = raf.getChannel();
+            MappedByteBuffer buffer = channel.map(READ_ONLY, 0, capacity);
+            Segment segment = new Segment(id, file, capacity, raf, buffer);
+            segments.put(id, segment);
+            stats.onColdFileCreated(capacity);
+            return segment;
+        } catch (IOException e) {
+            IOUtil.closeResource(raf);
+            IOUtil.deleteQuietly(file);
+            throw new HazelcastException("Could not create the cold tier file " + file, e);
+        }
+    }
+
+    private void deleteSegment(Segment segment) {
+        segment.closeChannel();
+        segments.remove(segment.id);
+        if (segment == activeSegment) {
+            activeSegment = null;
+        }
+        IOUtil.deleteQuietly(segment.file);
+        stats.onColdFileDeleted(segment.capacity);
+        // the deleted file keeps its disk space until it is unmapped, which
+        // waits for the concurrent readers still copying from the mapping
+        stats.onColdFileUnmapPending(segment.capacity);
+        release(segment);
+    }
+
+    /**
+     * Releases a reference to the mapping of the given segment acquired by
+     * {@link Segment#acquire()}, unmapping the segment if it has been
+     * deleted and this was the last reference.
+     */
+    void release(Segment segment) {
+        if (segment.release()) {
+            // without an explicit cleaner the mapping is released once the
+            // segment is garbage collected
+            DirectBufferCleaner.clean(segment.buffer);
+            stats.onColdFileUnmapped(segment.capacity);
+        }
+    }
+
+    /**
+     * A segment file of the log. Only the mapping of the file is read by
+     * threads other than the partition thread.
+     */
+    static final class Segment {
+        private final int id;
+        private final File file;
+        private final int capacity;
+        private final MappedByteBuffer buffer;
+        // one reference held by the log until the segment is deleted and
+        // one by each reader, the mapping is released when it drops to 0
+        private final AtomicInteger referenceCount = new AtomicInteger(1);
+        private RandomAccessFile raf;
+        private FileChannel channel;
+        private int writeOffset;
+        private long liveBytes;
+
+        Segment(int id, File file, int capacity, RandomAccessFile raf, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.capacity = capacity;
+            this.raf = raf;
+            this.channel = raf.getChannel();
+            this.buffer = buffer;
+        }
+
+        /**
+         * Returns a buffer positioned at the entry at the given offset.
+         * The mapping is never modified, so the buffer can be created by
+         * any thread.
+         */
+        ByteBuffer entryBuffer(int offset) {
+            ByteBuffer entryBuffer = buffer.duplicate();
+            entryBuffer.position(offset);
+            return entryBuffer;
+        }
+
+        /**
+         * Acquires a reference to the mapping, unless the mapping has
+         * already been released.
+         *
+         * @return {@code true} if the reference was acquired
+         */
+        boolean acquire() {
+            for (;;) {
+                int count = referenceCount.get();
+                if (count == 0) {
+                    return false;
+                }
+                if (referenceCount.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * @return {@code true} if the last reference was released
+         */
+        boolean release() {
+            return referenceCount.decrementAndGet() == 0;
+        }
+
+        int entryLength(int offset) {
+            ByteBuffer entryBuffer = entryBuffer(offset);
+            return ENTRY_HEADER_SIZE + entryBuffer.getInt() + entryBuffer.getInt();
+        }
+
+        void closeChannel() {
+            if (raf != null) {
+                IOUtil.closeResource(raf);
+                raf = null;
+                channel = null;
+            }
+        }
+    }
+}
@@ -118,6 +118,12 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
      * key loading.
      */
     private boolean loadedOnPreMigration;
+    /**
+     * Counts the mutations of the entries, so that a value loaded outside
+     * of the partition thread is not put if its entry may have been
+     * mutated while it was loaded.
+     */
+    private final MutationStampObserver mutationStampObserver = new MutationStampObserver();
 
     private final IPartitionService partitionService;
     private final InterceptorRegistry interceptorRegistry;
@@ -131,6 +137,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         this.recordStoreLoader = createRecordStoreLoader(mapStoreContext);
         this.partitionService = mapServiceContext.getNodeEngine().getPartitionService();
         this.interceptorRegistry = mapContainer.getInterceptorRegistry();
+        this.mutationObserver.add(mutationStampObserver);
         initJsonMetadataStore();
     }
 
@@ -195,6 +202,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
                                       boolean populateIndexes, long nowInMillis) {
         Record newRecord = createRecord(replicatedRecord, nowInMillis);
         storage.put(dataKey, newRecord);
+        recordFrequency(dataKey, true);
         expirySystem.addKeyIfExpirable(dataKey, expiryMetadata.getTtl(),
                 expiryMetadata.getMaxIdle(), expiryMetadata.getExpirationTime(), getNow());
         mutationObserver.onReplicationPutRecord(dataKey, newRecord, populateIndexes);
@@ -420,26 +428,23 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
      * when no value found returns null
      */
     private Object loadValueOf(Data key) {
-        Object value = mapDataStore.load(key);
-        if (value == null) {
-            return null;
-        }
+        return unwrapLoadedValue(mapDataStore.load(key));
+    }
 
-        if (mapDataStore.isWithExpirationTime()) {
-            MetadataAwareValue loaderEntry = (MetadataAwareValue) value;
-            long proposedTtl = expirationTimeToTtl(loaderEntry.getExpirationTime());
-            if (proposedTtl <= 0) {
-                return null;
-            }
-            value = loaderEntry.getValue();
+    private Object unwrapLoadedValue(Object value) {
+        if (value == null || !mapDataStore.isWithExpirationTime()) {
+            return value;
         }
-
-        return value;
+        MetadataAwareValue loaderEntry = (MetadataAwareValue) value;
+        return expirationTimeToTtl(loaderEntry.getExpirationTime()) > 0 ? loaderEntry.getValue() : null;
     }
 
     @Override
     public Record loadRecordOrNull(Data key, boolean backup, Address callerAddress) {
-        Object value = mapDataStore.load(key);
+        return putLoadedRecordOrNull(key, mapDataStore.load(key), backup, callerAddress);
+    }
+
+    private Record putLoadedRecordOrNull(Data key, Object value, boolean backup, Address callerAddress) {
         if (value == null) {
             return null;
         }
@@ -560,6 +565,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         if (record == null) {
             if (persistenceEnabledFor(provenance)) {
                 mapDataStore.remove(key, now, null);
+                mutationStampObserver.onStoreRemove();
             }
         } else {
             return removeRecord(key, record, now, provenance, null) != null;
@@ -588,6 +594,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             oldValue = loadValueOf(key);
             if (oldValue != null && persistenceEnabledFor(provenance)) {
                 mapDataStore.remove(key, now, transactionId);
+                mutationStampObserver.onStoreRemove();
                 updateStatsOnRemove(now);
             }
         } else {
@@ -617,6 +624,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         if (valueComparator.isEqual(testValue, oldValue, serializationService)) {
             mapServiceContext.interceptRemove(interceptorRegistry, oldValue);
             mapDataStore.remove(key, now, null);
+            mutationStampObserver.onStoreRemove();
             if (record != null) {
                 onStore(record);
                 mutationObserver.onRemoveRecord(key, record);
@@ -647,6 +655,33 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         return value;
     }
 
+    @Override
+    public long getMutationStamp() {
+        return mutationStampObserver.getMutationStamp();
+    }
+
+    @Override
+    public Object getOrPutLoaded(Data key, Object loadedValue, long loadMutationStamp, Address callerAddress) {
+        checkIfLoaded();
+        long now = getNow();
+
+        Record record = getRecordOrNull(key, now, false);
+        Object value;
+        if (record != null) {
+            accessRecord(key, record, now);
+            value = record.getValue();
+        } else if (loadMutationStamp != mutationStampObserver.getMutationStamp()) {
+            // the entry may have been put or removed while the value was
+            // loaded, putting the value could resurrect a removed entry
+            value = unwrapLoadedValue(loadedValue);
+        } else {
+            record = putLoadedRecordOrNull(key, loadedValue, false, callerAddress);
+            record = evictIfExpired(key, now, false) ? null : record;
+            value = record == null ? null : record.getValue();
+        }
+        return mapServiceContext.interceptGet(interceptorRegistry, value);
+    }
+
     /**
      * This method is called directly by user threads, in other words
      * it is called outside of the partition threads.
@@ -914,6 +949,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             putIntoMapStore(record, key, newValue, ttl, maxIdle, now, transactionId);
         }
         storage.put(key, record);
+        recordFrequency(key, true);
         expirySystem.addKeyIfExpirable(key, ttl, maxIdle, expiryTime, now);
 
         if (entryEventType == EntryEventType.LOADED) {
@@ -934,6 +970,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         if (countAsAccess) {
             record.onAccess(now);
         }
+        recordFrequency(key, false);
 
         if (mapDataStore != EMPTY_MAP_DATA_STORE && store) {
             newValue = putIntoMapStore(record, key, newValue,
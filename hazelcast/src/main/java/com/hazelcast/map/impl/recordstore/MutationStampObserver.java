@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.record.Record;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Counts the mutations of the entries of a {@link RecordStore}, see {@link
+ * RecordStore#getMutationStamp()}. Loads and evictions don't count, since
+ * they don't change the value of an entry. Used on the partition thread
+ * only.
+ */
+final class MutationStampObserver implements MutationObserver<Record> {
+
+    private long mutationStamp;
+
+    long getMutationStamp() {
+        return mutationStamp;
+    }
+
+    /**
+     * Called when a key missing from the record store is removed
+     * from the map store.
+     */
+    void onStoreRemove() {
+        mutationStamp++;
+    }
+
+    @Override
+    public void onPutRecord(@Nonnull Data key, Record record, Object oldValue, boolean backup) {
+        mutationStamp++;
+    }
+
+    @Override
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull Record record, boolean populateIndex) {
+        mutationStamp++;
+    }
+
+    @Override
+    public void onUpdateRecord(@Nonnull Data key, @Nonnull Record record, Object oldValue, Object newValue,
+                               boolean backup) {
+        mutationStamp++;
+    }
+
+    @Override
+    public void onRemoveRecord(@Nonnull Data key, Record record) {
+        mutationStamp++;
+    }
+
+    @Override
+    public void onEvictRecord(@Nonnull Data key, @Nonnull Record record) {
+    }
+
+    @Override
+    public void onLoadRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+    }
+
+    @Override
+    public void onReset() {
+        mutationStamp++;
+    }
+
+    @Override
+    public void onClear() {
+        mutationStamp++;
+    }
+
+    @Override
+    public void onDestroy(boolean isDuringShutdown, boolean internal) {
+        mutationStamp++;
+    }
+}
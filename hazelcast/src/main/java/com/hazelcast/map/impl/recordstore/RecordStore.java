@@ -20,6 +20,7 @@ import com.hazelcast.cluster.Address;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.internal.eviction.ExpiredKey;
+import com.hazelcast.internal.eviction.FrequencySketch;
 import com.hazelcast.internal.iteration.IterationPointer;
 import com.hazelcast.internal.monitor.LocalRecordStoreStats;
 import com.hazelcast.internal.monitor.impl.LocalRecordStoreStatsImpl;
@@ -59,6 +60,13 @@ public interface RecordStore<R extends Record> {
 
     ExpirySystem getExpirySystem();
 
+    /**
+     * @return the sketch estimating the access frequencies of the keys
+     * if the map uses {@link EvictionPolicy#TINY_LFU}
+     * eviction, otherwise {@code null}
+     */
+    FrequencySketch getFrequencySketch();
+
     LocalRecordStoreStats getLocalRecordStoreStats();
 
     String getName();
@@ -169,6 +177,32 @@ public interface RecordStore<R extends Record> {
         return get(dataKey, backup, callerAddress, true);
     }
 
+    /**
+     * Returns the count of the mutations of the entries of this record
+     * store, to be passed to {@link #getOrPutLoaded} by a load outside of
+     * the partition thread.
+     */
+    long getMutationStamp();
+
+    /**
+     * Same as {@link #get(Data, boolean, Address)} on a primary partition,
+     * except that a missing key is not loaded from the map store: the
+     * given value, loaded beforehand outside of the partition thread, is
+     * put instead. The value is only returned, not put, if an entry was
+     * mutated since the load started, since the mutation may have
+     * removed the entry.
+     *
+     * @param dataKey           key.
+     * @param loadedValue       the value loaded from the map store or {@code
+     *                          null} if the map store has no value for the key.
+     * @param loadMutationStamp the {@link #getMutationStamp() mutation stamp}
+     *                          taken when the load started.
+     * @param callerAddress     the address of the caller.
+     * @return value of an entry in {@link RecordStore}
+     * @see com.hazelcast.map.impl.mapstore.MapDataStore#loadAsync
+     */
+    Object getOrPutLoaded(Data dataKey, Object loadedValue, long loadMutationStamp, Address callerAddress);
+
     /**
      * Called when {@link
      * com.hazelcast.config.MapConfig#isReadBackupData}
@@ -133,6 +133,10 @@ public class StorageImpl<R extends Record> implements Storage<Data, R> {
         updateCostEstimate(-entryCostEstimator.calculateEntryCost(dataKey, record));
     }
 
+    protected final StorageSCHM<R> getRecords() {
+        return records;
+    }
+
     protected void updateCostEstimate(long entrySize) {
         entryCostEstimator.adjustEstimateBy(entrySize);
     }
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static com.hazelcast.config.InMemoryFormat.BINARY;
+
+/**
+ * {@link Storage} which keeps the recently used entries on the heap and
+ * moves the entries which have been neither accessed nor updated for a
+ * while into a {@link ColdTierLog}.
+ * <p>
+ * A cold entry keeps its key in the storage, mapped to a {@link ColdRecord}
+ * which only knows the address of the entry in the log, so the size of the
+ * storage, the key lookups and the key iteration do not touch the log. A
+ * cold entry is promoted back to the heap when it is looked up with {@link
+ * #get}, when its value is updated or when it is replaced.
+ * <p>
+ * The entries and records returned by the {@link #mutationTolerantIterator()
+ * iterator} are read from the log without promoting them, so changes to
+ * such a record are only retained if it is passed back to the storage, as
+ * it is done by {@link #updateRecordValue} or {@link #put}. The iterator
+ * can also be used by the query threads while the partition thread
+ * demotes, promotes and compacts entries.
+ * <p>
+ * Idle entries are demoted and the log is compacted by {@link
+ * #runMaintenance}, called periodically on the partition thread by the
+ * {@link TieredStorageManager}.
+ *
+ * @param <R> the value type to be put in this storage.
+ */
+public class TieredStorage<R extends Record> extends StorageImpl<R> {
+
+    private final ColdTierLog coldTier;
+    private final TieredStorageStats stats;
+    private final SerializationService serializationService;
+    private final long coldAfterMillis;
+    private final int compactionThresholdPercentage;
+
+    private int coldEntryCount;
+
+    TieredStorage(ExpirySystem expirySystem, SerializationService serializationService,
+                  ColdTierLog coldTier, TieredStorageStats stats,
+                  long coldAfterMillis, int compactionThresholdPercentage) {
+        super(BINARY, expirySystem, serializationService);
+        this.coldTier = coldTier;
+        this.stats = stats;
+        this.serializationService = serializationService;
+        this.coldAfterMillis = coldAfterMillis;
+        this.compactionThresholdPercentage = compactionThresholdPercentage;
+    }
+
+    @Override
+    public void put(Data key, R record) {
+        R current = getRecords().get(key);
+        if (current instanceof ColdRecord) {
+            removeFromColdTier((ColdRecord) current);
+        }
+        super.put(key, record);
+    }
+
+    @Override
+    public void updateRecordValue(Data key, R record, Object value) {
+        R current = getRecords().get(key);
+        if (current instanceof ColdRecord) {
+            // the record was read by an iterator without promoting it
+            removeFromColdTier((ColdRecord) current);
+            super.put(key, record);
+        }
+        super.updateRecordValue(key, record, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public R get(Data key) {
+        R record = super.get(key);
+        if (record instanceof ColdRecord) {
+            stats.onColdHit();
+            ColdRecord coldRecord = (ColdRecord) record;
+            R promoted = (R) coldTier.readRecord(coldRecord);
+            removeFromColdTier(coldRecord);
+            super.put(key, promoted);
+            return promoted;
+        }
+
+        if (record != null) {
+            stats.onHotHit();
+        }
+        return record;
+    }
+
+    @Override
+    public void removeRecord(Data dataKey, R record) {
+        R current = getRecords().get(dataKey);
+        if (current instanceof ColdRecord) {
+            removeFromColdTier((ColdRecord) current);
+            super.removeRecord(dataKey, current);
+        } else {
+            super.removeRecord(dataKey, record);
+        }
+    }
+
+    @Override
+    public Iterator<Map.Entry<Data, R>> mutationTolerantIterator() {
+        return new ColdRecordReadingIterator(super.mutationTolerantIterator());
+    }
+
+    @Override
+    public MapEntriesWithCursor fetchEntries(IterationPointer[] pointers, int size) {
+        List<Map.Entry<Data, R>> entries = new ArrayList<>(size);
+        IterationPointer[] newPointers = getRecords().fetchEntries(pointers, size, entries);
+        List<Map.Entry<Data, Data>> entriesData = new ArrayList<>(entries.size());
+        for (Map.Entry<Data, R> entry : entries) {
+            Record record = readIfCold(entry.getKey(), entry.getValue());
+            if (record == null) {
+                continue;
+            }
+            Data dataValue = serializationService.toData(record.getValue());
+            entriesData.add(new AbstractMap.SimpleEntry<>(entry.getKey(), dataValue));
+        }
+        return new MapEntriesWithCursor(entriesData, newPointers);
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        super.clear(isDuringShutdown);
+        coldTier.destroy();
+        stats.onColdEntriesRemoved(coldEntryCount);
+        coldEntryCount = 0;
+    }
+
+    /**
+     * Moves the entries which have been neither accessed nor updated for
+     * the configured time into the cold tier, then compacts the log files
+     * of the cold tier.
+     *
+     * @param now the current time in milliseconds
+     */
+    public void runMaintenance(long now) {
+        long idleSince = now - coldAfterMillis;
+        for (Map.Entry<Data, R> entry : getRecords().entrySet()) {
+            R record = entry.getValue();
+            if (!(record instanceof ColdRecord) && getLastUseTime(record) <= idleSince) {
+                demote(entry.getKey(), record);
+            }
+        }
+        coldTier.compact(compactionThresholdPercentage, this::getColdRecord, this::relocate);
+    }
+
+    /**
+     * @return the number of entries in the cold tier
+     */
+    public int getColdEntryCount() {
+        return coldEntryCount;
+    }
+
+    ColdTierLog getColdTier() {
+        return coldTier;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void demote(Data key, R record) {
+        super.put(key, (R) coldTier.append(key, record));
+        coldEntryCount++;
+        stats.onDemoted();
+    }
+
+    private void removeFromColdTier(ColdRecord coldRecord) {
+        coldTier.remove(coldRecord);
+        coldEntryCount--;
+        stats.onColdEntriesRemoved(1);
+    }
+
+    private ColdRecord getColdRecord(Data key) {
+        R record = getRecords().get(key);
+        return record instanceof ColdRecord ? (ColdRecord) record : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void relocate(Data key, ColdRecord coldRecord) {
+        super.put(key, (R) coldRecord);
+    }
+
+    /**
+     * Returns the given record of the given key, or the record read from
+     * the log if it is a cold record.
+     *
+     * @return the record, or {@code null} if the entry was removed after
+     * the given record was read from the storage, which can only happen
+     * if not called by the partition thread
+     */
+    @SuppressWarnings("unchecked")
+    private R readIfCold(Data key, R record) {
+        R current = record;
+        while (current instanceof ColdRecord) {
+            R read = (R) coldTier.readRecord((ColdRecord) current);
+            if (read != null) {
+                return read;
+            }
+            // the segment was deleted by the partition thread, after the
+            // entry had been removed or moved by a compaction
+            current = getRecords().get(key);
+        }
+        return current;
+    }
+
+    private static long getLastUseTime(Record record) {
+        return Math.max(record.getLastAccessTime(), Math.max(record.getLastUpdateTime(), record.getCreationTime()));
+    }
+
+    /**
+     * Reads the records of the cold entries from the log, leaving the
+     * entries in the cold tier. Skips the cold entries removed while they
+     * are read by a thread other than the partition thread.
+     */
+    private final class ColdRecordReadingIterator implements Iterator<Map.Entry<Data, R>> {
+
+        private final Iterator<Map.Entry<Data, R>> iterator;
+        private Map.Entry<Data, R> nextEntry;
+        private R nextRecord;
+        private Data lastKey;
+        private R lastRecord;
+
+        ColdRecordReadingIterator(Iterator<Map.Entry<Data, R>> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextEntry == null && iterator.hasNext()) {
+                Map.Entry<Data, R> entry = iterator.next();
+                nextRecord = entry.getValue();
+                if (nextRecord instanceof ColdRecord) {
+                    R record = readIfCold(entry.getKey(), nextRecord);
+                    nextEntry = record != null ? new AbstractMap.SimpleEntry<>(entry.getKey(), record) : null;
+                } else {
+                    nextEntry = entry;
+                }
+            }
+            return nextEntry != null;
+        }
+
+        @Override
+        public Map.Entry<Data, R> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<Data, R> entry = nextEntry;
+            nextEntry = null;
+            lastKey = entry.getKey();
+            lastRecord = nextRecord;
+            return entry;
+        }
+
+        /**
+         * Removes the entry returned by the last call to {@link #next()}
+         * by its key, since {@link #hasNext()} may have already moved the
+         * underlying iterator past it.
+         */
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            getRecords().remove(lastKey);
+            if (lastRecord instanceof ColdRecord) {
+                removeFromColdTier((ColdRecord) lastRecord);
+            }
+            lastKey = null;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+import static com.hazelcast.config.InMemoryFormat.BINARY;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_TIERED_STORAGE_BASE_DIR;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_TIERED_STORAGE_COLD_AFTER_SECONDS;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_TIERED_STORAGE_COMPACTION_THRESHOLD_PERCENTAGE;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_TIERED_STORAGE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_TIERED_STORAGE_SEGMENT_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_TIERED_STORAGE_TASK_PERIOD_SECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Creates the {@link TieredStorage tiered storages} of the maps on this
+ * member, periodically runs their {@link TieredStorage#runMaintenance
+ * maintenance} on the partition threads and keeps their statistics.
+ * <p>
+ * The log files of a partition of a map are created in the directory
+ * {@code <base-dir>/<member-uuid>/<map-name>/<partition-id>}, which is
+ * deleted when the record store of the partition is destroyed.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#MAP_TIERED_STORAGE_ENABLED
+ */
+public class TieredStorageManager {
+
+    private static final Pattern UNSAFE_FILE_NAME_CHARS = Pattern.compile("[^A-Za-z0-9._-]");
+
+    private final boolean enabled;
+    private final File memberDir;
+    private final long coldAfterMillis;
+    private final long taskPeriodMillis;
+    private final int segmentSize;
+    private final int compactionThresholdPercentage;
+    private final NodeEngine nodeEngine;
+    private final PartitionContainer[] partitionContainers;
+    private final ILogger logger;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ConcurrentMap<String, TieredStorageStats> statsByMapName = new ConcurrentHashMap<>();
+
+    private volatile ScheduledFuture<?> maintenanceTask;
+
+    public TieredStorageManager(NodeEngine nodeEngine, PartitionContainer[] partitionContainers) {
+        HazelcastProperties properties = nodeEngine.getProperties();
+        this.enabled = properties.getBoolean(MAP_TIERED_STORAGE_ENABLED);
+        this.memberDir = new File(properties.getString(MAP_TIERED_STORAGE_BASE_DIR),
+                nodeEngine.getLocalMember().getUuid().toString());
+        this.coldAfterMillis = properties.getMillis(MAP_TIERED_STORAGE_COLD_AFTER_SECONDS);
+        this.taskPeriodMillis = checkPositive(MAP_TIERED_STORAGE_TASK_PERIOD_SECONDS.getName(),
+                properties.getMillis(MAP_TIERED_STORAGE_TASK_PERIOD_SECONDS));
+        this.segmentSize = checkPositive(MAP_TIERED_STORAGE_SEGMENT_SIZE.getName(),
+                properties.getInteger(MAP_TIERED_STORAGE_SEGMENT_SIZE));
+        this.compactionThresholdPercentage = properties.getInteger(MAP_TIERED_STORAGE_COMPACTION_THRESHOLD_PERCENTAGE);
+        this.nodeEngine = nodeEngine;
+        this.partitionContainers = partitionContainers;
+        this.logger = nodeEngine.getLogger(getClass());
+    }
+
+    /**
+     * Returns {@code true} if the entries of the given map are kept in a
+     * tiered storage. Only the maps which keep their values in the {@link
+     * com.hazelcast.config.InMemoryFormat#BINARY BINARY} format and have
+     * no eviction configured are tiered, since the eviction would remove
+     * the idle entries instead of moving them into the cold tier.
+     */
+    public boolean isEnabledFor(MapConfig mapConfig) {
+        return enabled
+                && mapConfig.getInMemoryFormat() == BINARY
+                && mapConfig.getEvictionConfig().getEvictionPolicy() == EvictionPolicy.NONE;
+    }
+
+    /**
+     * Creates the tiered storage of the given partition of the given map.
+     */
+    public <R extends Record> TieredStorage<R> newStorage(String mapName, int partitionId, ExpirySystem expirySystem) {
+        scheduleMaintenanceTask();
+
+        InternalSerializationService serializationService
+                = (InternalSerializationService) nodeEngine.getSerializationService();
+        TieredStorageStats stats = getOrCreateStats(mapName);
+        File dir = new File(new File(memberDir, toDirName(mapName)), Integer.toString(partitionId));
+        // the files of a previous owner of the partition are of no use
+        IOUtil.deleteQuietly(dir);
+        ColdTierLog coldTier = new ColdTierLog(dir, segmentSize, serializationService, stats);
+        return new TieredStorage<>(expirySystem, serializationService, coldTier, stats,
+                coldAfterMillis, compactionThresholdPercentage);
+    }
+
+    /**
+     * @return the statistics of the tiered storages of the given map
+     * on this member, or {@code null} if the map is not tiered
+     */
+    public TieredStorageStats getStats(String mapName) {
+        return statsByMapName.get(mapName);
+    }
+
+    public Map<String, TieredStorageStats> getStatsByMapName() {
+        return statsByMapName;
+    }
+
+    public void destroyStats(String mapName) {
+        statsByMapName.remove(mapName);
+    }
+
+    /**
+     * Stops the maintenance task and deletes the directory of this member.
+     * Must be called after the record stores have been destroyed.
+     */
+    public void shutdown() {
+        ScheduledFuture<?> task = maintenanceTask;
+        if (task != null) {
+            task.cancel(false);
+        }
+        statsByMapName.clear();
+        if (enabled) {
+            IOUtil.deleteQuietly(memberDir);
+        }
+    }
+
+    private TieredStorageStats getOrCreateStats(String mapName) {
+        return statsByMapName.computeIfAbsent(mapName, name -> new TieredStorageStats());
+    }
+
+    private void scheduleMaintenanceTask() {
+        if (scheduled.get() || !scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        maintenanceTask = nodeEngine.getExecutionService().getGlobalTaskScheduler()
+                .scheduleWithRepetition(this::submitMaintenance, taskPeriodMillis, taskPeriodMillis, MILLISECONDS);
+    }
+
+    private void submitMaintenance() {
+        OperationServiceImpl operationService = (OperationServiceImpl) nodeEngine.getOperationService();
+        for (PartitionContainer container : partitionContainers) {
+            if (hasTieredStorage(container)) {
+                operationService.execute(new MaintenanceTask(container));
+            }
+        }
+    }
+
+    private static boolean hasTieredStorage(PartitionContainer container) {
+        for (RecordStore recordStore : container.getMaps().values()) {
+            if (recordStore.getStorage() instanceof TieredStorage) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String toDirName(String mapName) {
+        // the hash keeps the names which only differ in unsafe characters apart
+        return UNSAFE_FILE_NAME_CHARS.matcher(mapName).replaceAll("_") + '-' + Integer.toHexString(mapName.hashCode());
+    }
+
+    private final class MaintenanceTask implements PartitionSpecificRunnable {
+
+        private final PartitionContainer container;
+
+        MaintenanceTask(PartitionContainer container) {
+            this.container = container;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return container.getPartitionId();
+        }
+
+        @Override
+        public void run() {
+            long now = Clock.currentTimeMillis();
+            for (RecordStore recordStore : container.getMaps().values()) {
+                Storage storage = recordStore.getStorage();
+                if (!(storage instanceof TieredStorage)) {
+                    continue;
+                }
+                try {
+                    ((TieredStorage) storage).runMaintenance(now);
+                } catch (Exception e) {
+                    logger.warning("Could not move the idle entries of map '" + recordStore.getName()
+                            + "' in partition " + getPartitionId() + " into the cold tier", e);
+                }
+            }
+        }
+    }
+}
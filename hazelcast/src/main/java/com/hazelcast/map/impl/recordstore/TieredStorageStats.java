@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.Counter;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TIERED_STORAGE_COLD_ENTRY_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TIERED_STORAGE_COLD_FILE_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TIERED_STORAGE_COLD_FILE_PENDING_UNMAP_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TIERED_STORAGE_COLD_HIT_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TIERED_STORAGE_COMPACTED_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TIERED_STORAGE_COMPACTION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TIERED_STORAGE_DEMOTION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TIERED_STORAGE_HOT_HIT_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_TIERED_STORAGE_HOT_HIT_PERCENTAGE;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.metrics.ProbeUnit.PERCENT;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * The statistics of the {@link TieredStorage tiered storages} of all
+ * partitions of a map on this member.
+ * <p>
+ * The counters are updated by the partition threads, except the bytes
+ * of the deleted log files pending to be unmapped, which are also updated
+ * by the threads reading the cold entries. All counters may be read by any
+ * thread.
+ */
+public class TieredStorageStats {
+
+    private static final int HUNDRED_PERCENT = 100;
+
+    @Probe(name = MAP_METRIC_TIERED_STORAGE_HOT_HIT_COUNT)
+    private final Counter hotHitCount = newMwCounter();
+    @Probe(name = MAP_METRIC_TIERED_STORAGE_COLD_HIT_COUNT)
+    private final Counter coldHitCount = newMwCounter();
+    @Probe(name = MAP_METRIC_TIERED_STORAGE_DEMOTION_COUNT)
+    private final Counter demotionCount = newMwCounter();
+    @Probe(name = MAP_METRIC_TIERED_STORAGE_COLD_ENTRY_COUNT)
+    private final Counter coldEntryCount = newMwCounter();
+    @Probe(name = MAP_METRIC_TIERED_STORAGE_COLD_FILE_BYTES, unit = BYTES)
+    private final Counter coldFileBytes = newMwCounter();
+    @Probe(name = MAP_METRIC_TIERED_STORAGE_COLD_FILE_PENDING_UNMAP_BYTES, unit = BYTES)
+    private final Counter coldFilePendingUnmapBytes = newMwCounter();
+    @Probe(name = MAP_METRIC_TIERED_STORAGE_COMPACTION_COUNT)
+    private final Counter compactionCount = newMwCounter();
+    @Probe(name = MAP_METRIC_TIERED_STORAGE_COMPACTED_BYTES, unit = BYTES)
+    private final Counter compactedBytes = newMwCounter();
+
+    /**
+     * Returns the percentage of the lookups which found the entry on the
+     * heap. The rest of the lookups had to read the entry from the log
+     * files of the cold tier.
+     */
+    @Probe(name = MAP_METRIC_TIERED_STORAGE_HOT_HIT_PERCENTAGE, unit = PERCENT)
+    public double getHotHitPercentage() {
+        long hotHits = hotHitCount.get();
+        long hits = hotHits + coldHitCount.get();
+        return hits == 0 ? HUNDRED_PERCENT : (double) HUNDRED_PERCENT * hotHits / hits;
+    }
+
+    public long getHotHitCount() {
+        return hotHitCount.get();
+    }
+
+    public long getColdHitCount() {
+        return coldHitCount.get();
+    }
+
+    public long getDemotionCount() {
+        return demotionCount.get();
+    }
+
+    public long getColdEntryCount() {
+        return coldEntryCount.get();
+    }
+
+    public long getColdFileBytes() {
+        return coldFileBytes.get();
+    }
+
+    /**
+     * Returns the size of the deleted log files which are still mapped
+     * because concurrent readers are copying entries from them. These
+     * files keep their disk space until they are unmapped.
+     */
+    public long getColdFilePendingUnmapBytes() {
+        return coldFilePendingUnmapBytes.get();
+    }
+
+    public long getCompactionCount() {
+        return compactionCount.get();
+    }
+
+    public long getCompactedBytes() {
+        return compactedBytes.get();
+    }
+
+    void onHotHit() {
+        hotHitCount.inc();
+    }
+
+    void onColdHit() {
+        coldHitCount.inc();
+    }
+
+    void onDemoted() {
+        demotionCount.inc();
+        coldEntryCount.inc();
+    }
+
+    void onColdEntriesRemoved(long count) {
+        coldEntryCount.inc(-count);
+    }
+
+    void onColdFileCreated(long bytes) {
+        coldFileBytes.inc(bytes);
+    }
+
+    void onColdFileDeleted(long bytes) {
+        coldFileBytes.inc(-bytes);
+    }
+
+    void onColdFileUnmapPending(long bytes) {
+        coldFilePendingUnmapBytes.inc(bytes);
+    }
+
+    void onColdFileUnmapped(long bytes) {
+        coldFilePendingUnmapBytes.inc(-bytes);
+    }
+
+    void onCompacted(long copiedBytes) {
+        compactionCount.inc();
+        compactedBytes.inc(copiedBytes);
+    }
+}
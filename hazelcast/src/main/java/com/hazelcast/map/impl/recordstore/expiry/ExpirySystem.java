@@ -21,12 +21,14 @@ import com.hazelcast.internal.eviction.ClearExpiredRecordsTask;
 import com.hazelcast.internal.eviction.ExpiredKey;
 import com.hazelcast.internal.nearcache.impl.invalidation.InvalidationQueue;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.Clock;
 import com.hazelcast.internal.util.MapUtil;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.ExpirationTimeSetter;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.eviction.Evictor;
+import com.hazelcast.map.impl.eviction.MapClearExpiredRecordsTask;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.properties.ClusterProperty;
@@ -36,7 +38,6 @@ import com.hazelcast.spi.properties.HazelcastProperty;
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -45,12 +46,17 @@ import java.util.concurrent.TimeUnit;
 import static com.hazelcast.internal.util.ToHeapDataConverter.toHeapData;
 import static com.hazelcast.map.impl.ExpirationTimeSetter.pickMaxIdleMillis;
 import static com.hazelcast.map.impl.ExpirationTimeSetter.pickTTLMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * This class has all logic to remove expired entries. Expiry reason
  * can be ttl or idleness. An instance of this class is created for
  * each {@link RecordStore} and it is always accessed by same single thread.
+ * <p>
+ * Expirable keys are indexed by their expiration time in an {@link
+ * ExpiryTimingWheel}, so that a cleanup round only visits the keys whose
+ * expiration time has passed instead of scanning the expirable keys.
  */
 public class ExpirySystem {
     private static final long DEFAULT_EXPIRED_KEY_SCAN_TIMEOUT_NANOS
@@ -60,21 +66,34 @@ public class ExpirySystem {
     private static final HazelcastProperty EXPIRED_KEY_SCAN_TIMEOUT_NANOS
             = new HazelcastProperty(PROP_EXPIRED_KEY_SCAN_TIMEOUT_NANOS,
             DEFAULT_EXPIRED_KEY_SCAN_TIMEOUT_NANOS, NANOSECONDS);
+    private static final long DEFAULT_TIMING_WHEEL_TICK_MILLIS = 1000;
+    private static final String PROP_TIMING_WHEEL_TICK_MILLIS
+            = "hazelcast.internal.map.expiry.timing.wheel.tick.millis";
+    private static final HazelcastProperty TIMING_WHEEL_TICK_MILLIS
+            = new HazelcastProperty(PROP_TIMING_WHEEL_TICK_MILLIS,
+            DEFAULT_TIMING_WHEEL_TICK_MILLIS, MILLISECONDS);
     private static final int ONE_HUNDRED_PERCENT = 100;
     private static final int MIN_SCANNABLE_ENTRY_COUNT = 100;
+    /**
+     * The timing wheel is rebuilt from the expirable keys once it holds
+     * this many times more keys, since removed keys are left in the wheel.
+     */
+    private static final int STALE_KEY_REBUILD_FACTOR = 2;
 
     private final long expiryDelayMillis;
     private final long expiredKeyScanTimeoutNanos;
+    private final long timingWheelTickMillis;
     private final boolean canPrimaryDriveExpiration;
     private final ILogger logger;
     private final RecordStore recordStore;
     private final MapContainer mapContainer;
     private final MapServiceContext mapServiceContext;
     private final ClearExpiredRecordsTask clearExpiredRecordsTask;
+    private final MapClearExpiredRecordsTask mapClearExpiredRecordsTask;
     private final InvalidationQueue<ExpiredKey> expiredKeys = new InvalidationQueue<>();
 
-    private Iterator<Map.Entry<Data, ExpiryMetadata>> cachedExpirationIterator;
     private Map<Data, ExpiryMetadata> expireTimeByKey;
+    private ExpiryTimingWheel<Data> timingWheel;
 
     public ExpirySystem(RecordStore recordStore,
                         MapContainer mapContainer,
@@ -87,8 +106,10 @@ public class ExpirySystem {
         this.expiryDelayMillis = hazelcastProperties.getMillis(ClusterProperty.MAP_EXPIRY_DELAY_SECONDS);
         this.mapContainer = mapContainer;
         this.mapServiceContext = mapServiceContext;
-        this.canPrimaryDriveExpiration = mapServiceContext.getClearExpiredRecordsTask().canPrimaryDriveExpiration();
+        this.mapClearExpiredRecordsTask = mapServiceContext.getClearExpiredRecordsTask();
+        this.canPrimaryDriveExpiration = mapClearExpiredRecordsTask.canPrimaryDriveExpiration();
         this.expiredKeyScanTimeoutNanos = nodeEngine.getProperties().getNanos(EXPIRED_KEY_SCAN_TIMEOUT_NANOS);
+        this.timingWheelTickMillis = nodeEngine.getProperties().getMillis(TIMING_WHEEL_TICK_MILLIS);
     }
 
     public boolean isEmpty() {
@@ -98,10 +119,7 @@ public class ExpirySystem {
     // this method is overridden
     protected Map<Data, ExpiryMetadata> createExpiryTimeByKeyMap() {
         // Operation and partition threads can have concurrent access
-        // to this class that's why we used CHM here. Also its
-        // iterator doesn't throw ConcurrentModificationException
-        // and this makes incremental scanning of expirable
-        // entries easy(see method `scanAndEvictExpiredKeys`).
+        // to this class that's why we used CHM here.
         return new ConcurrentHashMap<>();
     }
 
@@ -109,6 +127,7 @@ public class ExpirySystem {
     public void clear() {
         Map<Data, ExpiryMetadata> map = getOrCreateExpireTimeByKeyMap(false);
         map.clear();
+        clearTimingWheel();
     }
 
     protected Map<Data, ExpiryMetadata> getOrCreateExpireTimeByKeyMap(boolean createIfAbsent) {
@@ -118,6 +137,7 @@ public class ExpirySystem {
 
         if (createIfAbsent) {
             expireTimeByKey = createExpiryTimeByKeyMap();
+            timingWheel = new ExpiryTimingWheel<>(timingWheelTickMillis, Clock.currentTimeMillis());
             return expireTimeByKey;
         }
 
@@ -157,10 +177,17 @@ public class ExpirySystem {
             expiryMetadata = createExpiryMetadata(ttlMillis, maxIdleMillis, expirationTime);
             Data nativeKey = recordStore.getStorage().toBackingDataKeyFormat(key);
             expireTimeByKey.put(nativeKey, expiryMetadata);
+            timingWheel.schedule(nativeKey, expirationTime);
         } else {
+            long previousExpirationTime = expiryMetadata.getExpirationTime();
             expiryMetadata.setTtl(ttlMillis)
                     .setMaxIdle(maxIdleMillis)
                     .setExpirationTime(expirationTime);
+            if (expirationTime < previousExpirationTime) {
+                // a later expiration time is picked up when the key is
+                // polled from the wheel, an earlier one needs a new entry
+                timingWheel.schedule(recordStore.getStorage().toBackingDataKeyFormat(key), expirationTime);
+            }
         }
 
         mapServiceContext.getExpirationManager().scheduleExpirationTask();
@@ -244,7 +271,6 @@ public class ExpirySystem {
         return expiryMetadata != null ? expiryMetadata : ExpiryMetadata.NULL;
     }
 
-    @SuppressWarnings("checkstyle:magicnumber")
     public void evictExpiredEntries(int percentage, long now, boolean backup) {
         Map<Data, ExpiryMetadata> expireTimeByKey = getOrCreateExpireTimeByKeyMap(false);
         if (expireTimeByKey.isEmpty()) {
@@ -256,42 +282,41 @@ public class ExpirySystem {
         int keyCountInPercentage = (int) (1D * expirableKeysMapSize * percentage / ONE_HUNDRED_PERCENT);
         int maxScannableKeyCount = Math.max(MIN_SCANNABLE_ENTRY_COUNT, keyCountInPercentage);
 
-        scanAndEvictExpiredKeys(maxScannableKeyCount, now, backup);
+        rebuildTimingWheelIfMostlyStale(expireTimeByKey, now);
+        pollAndEvictExpiredKeys(maxScannableKeyCount, now, backup);
 
         tryToSendBackupExpiryOp();
     }
 
-    /**
-     * Get cachedExpirationIterator or init it if it has no next entry.
-     */
-    private Iterator<Map.Entry<Data, ExpiryMetadata>> getOrInitCachedIterator() {
-        if (cachedExpirationIterator == null || !cachedExpirationIterator.hasNext()) {
-            cachedExpirationIterator = initIteratorOf(expireTimeByKey);
-        }
-
-        return cachedExpirationIterator;
-    }
-
-    private void scanAndEvictExpiredKeys(int maxScannableKeyCount, long now, boolean backup) {
-        // Scan to find expired keys.
+    private void pollAndEvictExpiredKeys(int maxScannableKeyCount, long now, boolean backup) {
+        // Poll the keys whose expiration time has passed.
         long scanLoopStartNanos = System.nanoTime();
         List expiredKeyExpiryReasonList = new ArrayList<>();
         int scannedKeyCount = 0;
         int expiredKeyCount = 0;
-        do {
-            Map.Entry<Data, ExpiryMetadata> entry = getOrInitCachedIterator().next();
+        Data key;
+        while (scannedKeyCount < maxScannableKeyCount && (key = timingWheel.poll(now)) != null) {
             scannedKeyCount++;
-            Data key = entry.getKey();
-            ExpiryMetadata expiryMetadata = entry.getValue();
+            ExpiryMetadata expiryMetadata = getExpiryMetadataForExpiryCheck(key, expireTimeByKey);
+            if (expiryMetadata == null) {
+                // key was removed from expirySystem after it was scheduled
+                continue;
+            }
 
             ExpiryReason expiryReason = hasExpired(expiryMetadata, now, backup);
             if (expiryReason != ExpiryReason.NOT_EXPIRED && !recordStore.isLocked(key)) {
+                if (!backup) {
+                    mapClearExpiredRecordsTask.onExpired(now - expiryMetadata.getExpirationTime());
+                }
                 // add key and expiryReason to list to evict them later
                 expiredKeyExpiryReasonList.add(key);
                 expiredKeyExpiryReasonList.add(expiryReason);
                 // remove expired key from expirySystem
-                callIterRemove(cachedExpirationIterator);
+                callRemove(key, expireTimeByKey);
                 expiredKeyCount++;
+            } else {
+                // expiration time was extended or key can't be evicted yet
+                timingWheel.schedule(key, nextExpiryCheckTime(expiryMetadata, now, backup));
             }
 
             // - If timed out while looping, break this loop to free
@@ -302,14 +327,13 @@ public class ExpirySystem {
                     && (System.nanoTime() - scanLoopStartNanos) >= expiredKeyScanTimeoutNanos) {
                 break;
             }
-
-        } while (scannedKeyCount < maxScannableKeyCount && getOrInitCachedIterator().hasNext());
+        }
 
         // Evict expired keys
         for (int i = 0; i < expiredKeyExpiryReasonList.size(); i += 2) {
-            Data key = (Data) expiredKeyExpiryReasonList.get(i);
+            Data expiredKey = (Data) expiredKeyExpiryReasonList.get(i);
             ExpiryReason reason = (ExpiryReason) expiredKeyExpiryReasonList.get(i + 1);
-            recordStore.evictExpiredEntryAndPublishExpiryEvent(key, reason, backup);
+            recordStore.evictExpiredEntryAndPublishExpiryEvent(expiredKey, reason, backup);
         }
 
         if (logger.isFinestEnabled()) {
@@ -321,20 +345,40 @@ public class ExpirySystem {
         }
     }
 
-    // this method is overridden
-    protected ExpiryMetadata getExpiryMetadataForExpiryCheck(Data key,
-                                                             Map<Data, ExpiryMetadata> expireTimeByKey) {
-        return expireTimeByKey.get(key);
+    /**
+     * Returns the time the key which is not expired at {@code now} should
+     * be checked again. Keys which are expired but can't be evicted, e.g.
+     * locked keys, are checked again after the expiry delay.
+     */
+    private long nextExpiryCheckTime(ExpiryMetadata expiryMetadata, long now, boolean backup) {
+        long nextExpirationTime = backup
+                ? expiryMetadata.getExpirationTime() + expiryDelayMillis
+                : expiryMetadata.getExpirationTime();
+        return nextExpirationTime > now
+                ? nextExpirationTime
+                : now + Math.max(expiryDelayMillis, timingWheelTickMillis);
     }
 
-    // this method is overridden
-    protected void callIterRemove(Iterator<Map.Entry<Data, ExpiryMetadata>> expirationIterator) {
-        expirationIterator.remove();
+    /**
+     * Removed keys are left in the timing wheel until they are polled. If
+     * they pile up, e.g. since keys with a long ttl are frequently removed,
+     * the wheel is rebuilt from the expirable keys.
+     */
+    private void rebuildTimingWheelIfMostlyStale(Map<Data, ExpiryMetadata> expireTimeByKey, long now) {
+        int liveKeyCount = Math.max(MIN_SCANNABLE_ENTRY_COUNT, expireTimeByKey.size());
+        if (timingWheel.size() <= STALE_KEY_REBUILD_FACTOR * liveKeyCount) {
+            return;
+        }
+        timingWheel = new ExpiryTimingWheel<>(timingWheelTickMillis, now);
+        for (Map.Entry<Data, ExpiryMetadata> entry : expireTimeByKey.entrySet()) {
+            timingWheel.schedule(entry.getKey(), entry.getValue().getExpirationTime());
+        }
     }
 
     // this method is overridden
-    protected Iterator<Map.Entry<Data, ExpiryMetadata>> initIteratorOf(Map<Data, ExpiryMetadata> expireTimeByKey) {
-        return expireTimeByKey.entrySet().iterator();
+    protected ExpiryMetadata getExpiryMetadataForExpiryCheck(Data key,
+                                                             Map<Data, ExpiryMetadata> expireTimeByKey) {
+        return expireTimeByKey.get(key);
     }
 
     // this method is overridden
@@ -345,6 +389,13 @@ public class ExpirySystem {
     // this method is overridden
     public void destroy() {
         getOrCreateExpireTimeByKeyMap(false).clear();
+        clearTimingWheel();
+    }
+
+    private void clearTimingWheel() {
+        if (timingWheel != null) {
+            timingWheel.clear();
+        }
     }
 
     public void accumulateOrSendExpiredKey(Data dataKey, long valueHashCode) {
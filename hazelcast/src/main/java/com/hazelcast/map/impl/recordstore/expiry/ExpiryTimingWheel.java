@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore.expiry;
+
+import java.util.Arrays;
+
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+
+/**
+ * Hierarchical timing wheel which indexes keys by their expiration time,
+ * so that the expired keys can be found without scanning the live ones.
+ * <p>
+ * The time is divided into ticks of {@code tickMillis}. The wheel consists
+ * of {@value #LEVEL_COUNT} levels of {@value #WHEEL_SIZE} slots, a slot of
+ * level {@code n} covers {@code WHEEL_SIZE^n} ticks. A key is put into the
+ * lowest level whose current rotation contains its expiration tick and is
+ * moved down to a lower level when the wheel reaches its slot, until it
+ * becomes due in level 0. Keys expiring beyond the highest level are kept
+ * in an overflow bucket which is redistributed once per rotation of the
+ * highest level. Scheduling a key is O(1) and advancing the wheel only
+ * visits the slots which became due.
+ * <p>
+ * The wheel doesn't support removal: keys which are removed or whose
+ * expiration time is extended stay in their slot and are expected to be
+ * checked against the actual expiry metadata, and if needed rescheduled,
+ * when they are {@link #poll(long) polled}.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <K> type of the keys
+ */
+final class ExpiryTimingWheel<K> {
+
+    static final int LEVEL_BITS = 6;
+    static final int WHEEL_SIZE = 1 << LEVEL_BITS;
+    static final int LEVEL_COUNT = 4;
+
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int INITIAL_BUCKET_CAPACITY = 8;
+
+    private final long tickMillis;
+    private final Bucket[][] levels = new Bucket[LEVEL_COUNT][];
+    private Bucket overflow;
+    private Bucket due;
+    private int dueIndex;
+    private long currentTick;
+    private int size;
+
+    ExpiryTimingWheel(long tickMillis, long now) {
+        this.tickMillis = checkPositive("tickMillis", tickMillis);
+        this.currentTick = now / tickMillis;
+    }
+
+    /**
+     * Schedules the key to be polled once the given time has passed.
+     *
+     * @param key            the key
+     * @param expirationTime the time in millis the key expires at
+     */
+    void schedule(K key, long expirationTime) {
+        // round up, so that a key never becomes due before its expiration time
+        long tick = expirationTime / tickMillis + (expirationTime % tickMillis == 0 ? 0 : 1);
+        place(key, tick);
+        size++;
+    }
+
+    /**
+     * Advances the wheel up to the given time and returns the next due
+     * key. The wheel is only advanced as far as needed to find a due key,
+     * so the work done by a single call is bounded by the number of ticks
+     * passed since the previous call.
+     *
+     * @param now the current time in millis
+     * @return the next key whose scheduled expiration time has passed or
+     * {@code null} if there is no such key
+     */
+    @SuppressWarnings("unchecked")
+    K poll(long now) {
+        long nowTick = now / tickMillis;
+        while (!hasDue() && currentTick < nowTick) {
+            if (size == 0) {
+                currentTick = nowTick;
+                break;
+            }
+            advance();
+        }
+        if (!hasDue()) {
+            return null;
+        }
+        Object key = due.keys[dueIndex];
+        due.keys[dueIndex++] = null;
+        size--;
+        return (K) key;
+    }
+
+    /**
+     * Returns the number of scheduled keys, including the ones which were
+     * removed or rescheduled since.
+     */
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(levels, null);
+        overflow = null;
+        due = null;
+        dueIndex = 0;
+        size = 0;
+    }
+
+    private boolean hasDue() {
+        return due != null && dueIndex < due.size;
+    }
+
+    private void advance() {
+        currentTick++;
+        if ((currentTick & ((1L << (LEVEL_BITS * LEVEL_COUNT)) - 1)) == 0 && overflow != null) {
+            Bucket keys = overflow;
+            overflow = null;
+            redistribute(keys);
+        }
+        // cascade from the highest level down, so that the keys moved into
+        // a lower level slot which is reached in this tick are cascaded too
+        for (int level = LEVEL_COUNT - 1; level > 0; level--) {
+            if ((currentTick & ((1L << (LEVEL_BITS * level)) - 1)) == 0) {
+                Bucket keys = takeSlot(level, slotOf(currentTick, level));
+                if (keys != null) {
+                    redistribute(keys);
+                }
+            }
+        }
+        Bucket keys = takeSlot(0, slotOf(currentTick, 0));
+        if (keys != null) {
+            appendDue(keys);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void redistribute(Bucket bucket) {
+        for (int i = 0; i < bucket.size; i++) {
+            place((K) bucket.keys[i], bucket.ticks[i]);
+        }
+    }
+
+    private void place(K key, long tick) {
+        if (tick <= currentTick) {
+            if (!hasDue()) {
+                due = null;
+                dueIndex = 0;
+            }
+            due = add(due, key, tick);
+            return;
+        }
+        for (int level = 0; level < LEVEL_COUNT; level++) {
+            int shift = LEVEL_BITS * (level + 1);
+            if ((tick >>> shift) == (currentTick >>> shift)) {
+                Bucket[] slots = levels[level];
+                if (slots == null) {
+                    slots = new Bucket[WHEEL_SIZE];
+                    levels[level] = slots;
+                }
+                int slot = slotOf(tick, level);
+                slots[slot] = add(slots[slot], key, tick);
+                return;
+            }
+        }
+        overflow = add(overflow, key, tick);
+    }
+
+    private void appendDue(Bucket keys) {
+        if (!hasDue()) {
+            due = keys;
+            dueIndex = 0;
+        } else {
+            for (int i = 0; i < keys.size; i++) {
+                due = add(due, keys.keys[i], keys.ticks[i]);
+            }
+        }
+    }
+
+    private Bucket takeSlot(int level, int slot) {
+        Bucket[] slots = levels[level];
+        if (slots == null) {
+            return null;
+        }
+        Bucket keys = slots[slot];
+        // drop the bucket to release its memory, it is recreated on demand
+        slots[slot] = null;
+        return keys;
+    }
+
+    private static int slotOf(long tick, int level) {
+        return (int) ((tick >>> (LEVEL_BITS * level)) & WHEEL_MASK);
+    }
+
+    private static Bucket add(Bucket bucket, Object key, long tick) {
+        if (bucket == null) {
+            bucket = new Bucket();
+        }
+        bucket.add(key, tick);
+        return bucket;
+    }
+
+    /**
+     * Keys of a slot together with their expiration ticks, kept in
+     * parallel arrays to avoid an entry object per key.
+     */
+    private static final class Bucket {
+        private Object[] keys = new Object[INITIAL_BUCKET_CAPACITY];
+        private long[] ticks = new long[INITIAL_BUCKET_CAPACITY];
+        private int size;
+
+        void add(Object key, long tick) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                ticks = Arrays.copyOf(ticks, size * 2);
+            }
+            keys[size] = key;
+            ticks[size] = tick;
+            size++;
+        }
+    }
+}
@@ -31,8 +31,10 @@ import com.hazelcast.query.impl.getters.MultiResult;
 import com.hazelcast.query.impl.predicates.PredicateDataSerializerHook;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 import static com.hazelcast.internal.util.SetUtil.createHashSet;
 import static com.hazelcast.query.impl.CompositeValue.NEGATIVE_INFINITY;
@@ -275,6 +277,33 @@ public abstract class AbstractIndex implements InternalIndex {
         return result;
     }
 
+    @Override
+    public boolean forEachValue(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                                BiConsumer<Comparable, Collection<QueryableEntry>> consumer) {
+        // like the queries matching all entries, which never use an index,
+        // traversals of the whole index are not tracked as index hits
+        boolean tracked = from != null || to != null;
+        long timestamp = stats.makeTimestamp();
+
+        if (converter == null) {
+            if (tracked) {
+                stats.onIndexHit(timestamp, 0);
+            }
+            return true;
+        }
+
+        long[] hits = new long[1];
+        boolean passed = indexStore.forEachValue(from == null ? null : convert(from), fromInclusive,
+                to == null ? null : convert(to), toInclusive, (value, entries) -> {
+                    hits[0] += entries.size();
+                    consumer.accept(value, entries);
+                });
+        if (tracked) {
+            stats.onIndexHit(timestamp, hits[0]);
+        }
+        return passed;
+    }
+
     @Override
     public void clear() {
         indexStore.clear();
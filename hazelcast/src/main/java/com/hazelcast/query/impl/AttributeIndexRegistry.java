@@ -23,11 +23,13 @@ import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.util.collection.PartitionIdSet;
 import com.hazelcast.query.Predicate;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
 
 import static com.hazelcast.query.impl.AbstractIndex.NULL;
 import static com.hazelcast.query.impl.Comparison.GREATER;
@@ -332,6 +334,13 @@ public class AttributeIndexRegistry {
             }
         }
 
+        @Override
+        public boolean forEachValue(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                                    BiConsumer<Comparable, Collection<QueryableEntry>> consumer) {
+            // the values of the first component are not stored separately
+            return false;
+        }
+
         @Override
         public void clear() {
             throw newUnsupportedException();
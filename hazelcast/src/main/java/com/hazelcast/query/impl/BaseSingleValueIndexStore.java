@@ -78,6 +78,14 @@ public abstract class BaseSingleValueIndexStore extends BaseIndexStore {
         return multiResultHasToDetectDuplicates ? new DuplicateDetectingMultiResult() : new FastMultiResultSet();
     }
 
+    /**
+     * @return {@code true} if a collection was inserted into this index, so
+     * that an entry may be associated with several values.
+     */
+    final boolean hasMultiValueEntries() {
+        return multiResultHasToDetectDuplicates;
+    }
+
     @Override
     public final void insert(Object value, QueryableEntry queryableEntry, IndexOperationStats operationStats) {
         takeWriteLock();
@@ -35,11 +35,13 @@ import com.hazelcast.query.impl.predicates.NotEqualPredicate;
 import com.hazelcast.query.impl.predicates.NotPredicate;
 import com.hazelcast.query.impl.predicates.OrPredicate;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 import static com.hazelcast.query.impl.QueryableEntry.extractAttributeValue;
 
@@ -364,6 +366,13 @@ public final class BitmapIndexStore extends BaseIndexStore {
         throw makeUnsupportedOperationException();
     }
 
+    @Override
+    public boolean forEachValue(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                                BiConsumer<Comparable, Collection<QueryableEntry>> consumer) {
+        // bitmaps may associate an entry with several values
+        return false;
+    }
+
     @Override
     Comparable canonicalizeScalarForStorage(Comparable value) {
         // Assuming on-heap overhead of 12 bytes for the object header and
@@ -23,10 +23,12 @@ import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.util.collection.PartitionIdSet;
 import com.hazelcast.query.Predicate;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 /**
  * Extends the basic query context to support the per-index stats tracking on
@@ -208,6 +210,14 @@ public class GlobalQueryContextWithStats extends QueryContext {
             return result;
         }
 
+        @Override
+        public boolean forEachValue(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                                    BiConsumer<Comparable, Collection<QueryableEntry>> consumer) {
+            boolean passed = delegate.forEachValue(from, fromInclusive, to, toInclusive, consumer);
+            hasQueries = true;
+            return passed;
+        }
+
         @Override
         public void clear() {
             delegate.clear();
@@ -22,8 +22,10 @@ import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.QueryException;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 /**
  * Represents an index built on top of the attribute of the map entries.
@@ -190,6 +192,35 @@ public interface Index {
      */
     Set<QueryableEntry> getRecords(Comparison comparison, Comparable value);
 
+    /**
+     * Passes the distinct attribute values belonging to the range defined by
+     * the passed arguments to the given consumer, together with the entries
+     * having them, so that an aggregation of the indexed attribute can be
+     * performed without accessing the entry values.
+     * <p>
+     * The values are passed as they are stored by the index, i.e. converted
+     * to the canonical representation used by the index, and in no particular
+     * order. The entries having a {@code null} value are passed with a {@code
+     * null} value, but only if the range is unbounded on both sides. Like
+     * the produced result sets, the passed collections may be views of the
+     * index contents and must not be modified by the consumer.
+     *
+     * @param from          the beginning of the range or {@code null} if the
+     *                      range is left-unbounded.
+     * @param fromInclusive {@code true} if the beginning of the range is
+     *                      inclusive, {@code false} otherwise.
+     * @param to            the end of the range or {@code null} if the range
+     *                      is right-unbounded.
+     * @param toInclusive   {@code true} if the end of the range is inclusive,
+     *                      {@code false} otherwise.
+     * @param consumer      the consumer of the values and their entries.
+     * @return {@code true} if the values were passed, {@code false} if this
+     * index can't pass them, e.g. because it's built for a multi-value
+     * attribute.
+     */
+    boolean forEachValue(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                         BiConsumer<Comparable, Collection<QueryableEntry>> consumer);
+
     /**
      * Clears out all entries from this index.
      */
@@ -21,8 +21,10 @@ import com.hazelcast.internal.monitor.impl.IndexOperationStats;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.query.Predicate;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 /**
  * Defines a contract for index stores, so different index stores may be used
@@ -208,4 +210,24 @@ public interface IndexStore {
      * @see Index#getRecords(Comparable, boolean, Comparable, boolean)
      */
     Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive);
+
+    /**
+     * Passes the distinct indexed attribute values belonging to the given
+     * range to the given consumer, together with the entries having them.
+     *
+     * @param from          the beginning of the range or {@code null} if the
+     *                      range is left-unbounded.
+     * @param fromInclusive {@code true} if the beginning of the range is
+     *                      inclusive, {@code false} otherwise.
+     * @param to            the end of the range or {@code null} if the range
+     *                      is right-unbounded.
+     * @param toInclusive   {@code true} if the end of the range is inclusive,
+     *                      {@code false} otherwise.
+     * @param consumer      the consumer of the values and their entries.
+     * @return {@code true} if the values were passed, {@code false} if this
+     * store can't pass them, e.g. because an entry may have several values.
+     * @see Index#forEachValue
+     */
+    boolean forEachValue(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                         BiConsumer<Comparable, Collection<QueryableEntry>> consumer);
 }
@@ -27,17 +27,23 @@ import com.hazelcast.internal.monitor.impl.PartitionIndexesStats;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.HashUtil;
 import com.hazelcast.internal.util.IterableUtil;
+import com.hazelcast.internal.util.collection.PartitionIdSet;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.getters.Extractors;
 import com.hazelcast.query.impl.predicates.IndexAwarePredicate;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ObjLongConsumer;
 
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
@@ -374,6 +380,68 @@ public class Indexes {
         }
     }
 
+    /**
+     * Passes the distinct values of the given index belonging to the given
+     * range to the given consumer, together with the number of entries having
+     * them, see {@link Index#forEachValue}. Only the entries accepted by the
+     * given filter and by the result filter of this indexes instance are
+     * counted, values without such entries are skipped.
+     * <p>
+     * Like the queries matching all entries, a traversal of the whole index
+     * is not counted as an indexed query.
+     *
+     * @param index         the index to read the values from.
+     * @param from          the beginning of the range or {@code null} if the
+     *                      range is left-unbounded.
+     * @param fromInclusive {@code true} if the beginning of the range is
+     *                      inclusive, {@code false} otherwise.
+     * @param to            the end of the range or {@code null} if the range
+     *                      is right-unbounded.
+     * @param toInclusive   {@code true} if the end of the range is inclusive,
+     *                      {@code false} otherwise.
+     * @param partitions    the partitions of the entries to count or
+     *                      {@code null} if all entries should be counted.
+     * @param consumer      the consumer of the values and their entry counts.
+     * @return {@code true} if the values were passed, {@code false} if the
+     * index can't pass them.
+     */
+    public boolean countValues(InternalIndex index, Comparable from, boolean fromInclusive, Comparable to,
+                               boolean toInclusive, PartitionIdSet partitions,
+                               ObjLongConsumer<Comparable> consumer) {
+        stats.incrementQueryCount();
+
+        List<Map.Entry<Comparable, Collection<QueryableEntry>>> values = new ArrayList<>();
+        if (!index.forEachValue(from, fromInclusive, to, toInclusive,
+                (value, entries) -> values.add(new SimpleImmutableEntry<>(value, entries)))) {
+            return false;
+        }
+        if (from != null || to != null) {
+            stats.incrementIndexedQueryCount();
+            // the index is used directly, not through a tracking query context
+            index.getPerIndexStats().incrementQueryCount();
+        }
+
+        // the entries are filtered outside of the index, the result filter
+        // may expire an entry and so remove it from the index
+        for (Map.Entry<Comparable, Collection<QueryableEntry>> value : values) {
+            long count = 0;
+            for (QueryableEntry entry : value.getValue()) {
+                if ((partitions == null || partitions.contains(partitionIdOf(entry)))
+                        && (resultFilter == null || resultFilter.test(entry))) {
+                    count++;
+                }
+            }
+            if (count > 0) {
+                consumer.accept(value.getKey(), count);
+            }
+        }
+        return true;
+    }
+
+    private int partitionIdOf(QueryableEntry entry) {
+        return HashUtil.hashToIndex(entry.getKeyData().getPartitionHash(), partitionCount);
+    }
+
     /**
      * Matches an index for the given pattern and match hint.
      *
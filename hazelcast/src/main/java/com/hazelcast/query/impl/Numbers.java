@@ -254,6 +254,23 @@ public final class Numbers {
         throw new IllegalArgumentException("Can't represent " + number + " as int exactly");
     }
 
+    /**
+     * Represents the given long value exactly as an int value; if that's not
+     * possible, fails by throwing an exception.
+     *
+     * @param value the value to represent as an int value.
+     * @return an int representation of the given value.
+     * @throws IllegalArgumentException if no exact representation exists.
+     */
+    public static int asIntExactly(long value) {
+        int intValue = (int) value;
+        if (intValue == value) {
+            return intValue;
+        }
+
+        throw new IllegalArgumentException("Can't represent " + value + " as int exactly");
+    }
+
     /**
      * @return {@code true} if instances of the given class can be represented
      * as double values without any magnitude and precision losses, {@code false}
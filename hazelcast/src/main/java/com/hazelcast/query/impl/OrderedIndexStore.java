@@ -22,15 +22,18 @@ import com.hazelcast.internal.util.FlatCompositeIterator;
 import com.hazelcast.query.Predicate;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
 
 import static com.hazelcast.query.impl.AbstractIndex.NULL;
 import static java.util.Collections.emptyIterator;
@@ -314,6 +317,52 @@ public class OrderedIndexStore extends BaseSingleValueIndexStore {
         }
     }
 
+    @Override
+    public boolean forEachValue(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                                BiConsumer<Comparable, Collection<QueryableEntry>> consumer) {
+        takeReadLock();
+        try {
+            if (hasMultiValueEntries()) {
+                return false;
+            }
+            if (from == null && to == null && !recordsWithNullValue.isEmpty()) {
+                consumer.accept(null, recordsWithNullValue.values());
+            }
+            NavigableMap<Comparable, Map<Data, QueryableEntry>> subMap = subMap(from, fromInclusive, to, toInclusive);
+            if (subMap == null) {
+                return true;
+            }
+            for (Map.Entry<Comparable, Map<Data, QueryableEntry>> entry : subMap.entrySet()) {
+                consumer.accept(entry.getKey(), entry.getValue().values());
+            }
+            return true;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * @return the part of the record map belonging to the given range, where
+     * {@code null} bounds mean the range is unbounded, or {@code null} if
+     * the range is empty.
+     */
+    private NavigableMap<Comparable, Map<Data, QueryableEntry>> subMap(Comparable from, boolean fromInclusive,
+                                                                      Comparable to, boolean toInclusive) {
+        if (from != null && to != null) {
+            int order = Comparables.compare(from, to);
+            if (order > 0 || order == 0 && (!fromInclusive || !toInclusive)) {
+                return null;
+            }
+            return recordMap.subMap(from, fromInclusive, to, toInclusive);
+        } else if (from != null) {
+            return recordMap.tailMap(from, fromInclusive);
+        } else if (to != null) {
+            return recordMap.headMap(to, toInclusive);
+        } else {
+            return recordMap;
+        }
+    }
+
     /**
      * Adds entry to the given index map without copying it.
      * Needs to be invoked in a thread-safe way.
@@ -26,6 +26,7 @@ import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.query.QueryException;
 import com.hazelcast.query.impl.getters.Extractors;
 import com.hazelcast.query.impl.getters.MultiResult;
+import com.hazelcast.query.impl.getters.PrimitiveAccessor;
 import com.hazelcast.query.impl.getters.ReflectionHelper;
 
 import java.util.Map;
@@ -62,6 +63,40 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
         return extractAttributeValue(attributeName);
     }
 
+    /**
+     * Returns the accessor reading the given attribute of the entry value
+     * without boxing. Attributes of the key are not supported.
+     *
+     * @param attributeName the attribute name
+     * @return the accessor or {@code null} if the attribute is not a
+     * numeric primitive attribute of the deserialized value, in which case
+     * it has to be read by {@link #getAttributeValue(String)}
+     * @see #getLongAttributeValue(PrimitiveAccessor)
+     * @see #getDoubleAttributeValue(PrimitiveAccessor)
+     */
+    public PrimitiveAccessor getPrimitiveAccessor(String attributeName) {
+        if (THIS_ATTRIBUTE_NAME.value().equals(attributeName) || attributeName.startsWith(KEY_ATTRIBUTE_NAME.value())) {
+            return null;
+        }
+        return extractors.getPrimitiveAccessor(getTargetObject(false), attributeName);
+    }
+
+    /**
+     * Reads the attribute of the entry value by the given accessor obtained
+     * from {@link #getPrimitiveAccessor(String)}.
+     */
+    public long getLongAttributeValue(PrimitiveAccessor accessor) {
+        return accessor.getLong(getTargetObject(false));
+    }
+
+    /**
+     * Reads the attribute of the entry value by the given accessor obtained
+     * from {@link #getPrimitiveAccessor(String)}.
+     */
+    public double getDoubleAttributeValue(PrimitiveAccessor accessor) {
+        return accessor.getDouble(getTargetObject(false));
+    }
+
     public abstract K getKey();
     public abstract Data getKeyData();
     public abstract V getValue();
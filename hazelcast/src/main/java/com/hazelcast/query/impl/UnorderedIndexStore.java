@@ -22,6 +22,7 @@ import com.hazelcast.internal.util.FlatCompositeIterator;
 import com.hazelcast.query.Predicate;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -29,6 +30,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
 
 import static com.hazelcast.query.impl.AbstractIndex.NULL;
 
@@ -288,6 +290,32 @@ public class UnorderedIndexStore extends BaseSingleValueIndexStore {
         }
     }
 
+    @Override
+    public boolean forEachValue(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                                BiConsumer<Comparable, Collection<QueryableEntry>> consumer) {
+        takeReadLock();
+        try {
+            if (hasMultiValueEntries()) {
+                return false;
+            }
+            if (from == null && to == null && !recordsWithNullValue.isEmpty()) {
+                consumer.accept(null, recordsWithNullValue.values());
+            }
+            int fromBound = fromInclusive ? 0 : +1;
+            int toBound = toInclusive ? 0 : -1;
+            for (Map.Entry<Comparable, Map<Data, QueryableEntry>> recordMapEntry : recordMap.entrySet()) {
+                Comparable value = recordMapEntry.getKey();
+                if ((from == null || Comparables.compare(value, from) >= fromBound)
+                        && (to == null || Comparables.compare(value, to) <= toBound)) {
+                    consumer.accept(value, recordMapEntry.getValue().values());
+                }
+            }
+            return true;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
     /**
      * Adds entry to the given index map without copying it.
      * Needs to be invoked in a thread-safe way.
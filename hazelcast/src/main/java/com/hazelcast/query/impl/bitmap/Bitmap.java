@@ -164,8 +164,12 @@ public final class Bitmap<E> {
         return new EntryIterator<>(predicateIterator(predicate, converter), entries.iterator());
     }
 
-    @SuppressWarnings("checkstyle:npathcomplexity")
+    @SuppressWarnings({"checkstyle:npathcomplexity", "checkstyle:returncount"})
     private AscendingLongIterator predicateIterator(Predicate predicate, TypeConverter converter) {
+        if (isBitSetEvaluable(predicate)) {
+            return evaluateBitSet(predicate, converter).iterator();
+        }
+
         if (predicate instanceof AndPredicate) {
             Predicate[] predicates = ((AndPredicate) predicate).getPredicates();
             assert predicates.length > 0;
@@ -209,6 +213,112 @@ public final class Bitmap<E> {
         throw new IllegalArgumentException("unexpected predicate: " + predicate);
     }
 
+    /**
+     * Tells whether the given predicate can be evaluated by combining the bit
+     * sets storage by storage instead of merging their iterators member by
+     * member.
+     * <p>
+     * Complements are not materialized since they are relative to the whole
+     * universe of entries, but they are supported as a part of a conjunction
+     * having at least one positive operand: {@code a and not b} is evaluated
+     * as a difference of the bit sets.
+     */
+    private static boolean isBitSetEvaluable(Predicate predicate) {
+        if (predicate instanceof EqualPredicate || predicate instanceof InPredicate) {
+            return true;
+        }
+
+        if (predicate instanceof OrPredicate) {
+            for (Predicate subPredicate : ((OrPredicate) predicate).getPredicates()) {
+                if (!isBitSetEvaluable(subPredicate)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        if (predicate instanceof AndPredicate) {
+            boolean positive = false;
+            for (Predicate subPredicate : ((AndPredicate) predicate).getPredicates()) {
+                if (isBitSetEvaluable(subPredicate)) {
+                    positive = true;
+                } else if (!isBitSetEvaluableNegation(subPredicate)) {
+                    return false;
+                }
+            }
+            return positive;
+        }
+
+        return false;
+    }
+
+    private static boolean isBitSetEvaluableNegation(Predicate predicate) {
+        return predicate instanceof NotEqualPredicate
+                || predicate instanceof NotPredicate && isBitSetEvaluable(((NotPredicate) predicate).getPredicate());
+    }
+
+    /**
+     * Evaluates the predicate negated by the given {@link #isBitSetEvaluableNegation
+     * negation}.
+     */
+    private SparseBitSet evaluateNegatedBitSet(Predicate predicate, TypeConverter converter) {
+        if (predicate instanceof NotEqualPredicate) {
+            return valueBitSet(((NotEqualPredicate) predicate).getValue(), converter);
+        }
+        return evaluateBitSet(((NotPredicate) predicate).getPredicate(), converter);
+    }
+
+    private SparseBitSet evaluateBitSet(Predicate predicate, TypeConverter converter) {
+        if (predicate instanceof EqualPredicate) {
+            return valueBitSet(((EqualPredicate) predicate).getFrom(), converter);
+        }
+
+        if (predicate instanceof InPredicate) {
+            Comparable[] values = ((InPredicate) predicate).getValues();
+            SparseBitSet result = valueBitSet(values[0], converter);
+            for (int i = 1; i < values.length; ++i) {
+                result = SparseBitSet.or(result, valueBitSet(values[i], converter));
+            }
+            return result;
+        }
+
+        if (predicate instanceof OrPredicate) {
+            Predicate[] predicates = ((OrPredicate) predicate).getPredicates();
+            SparseBitSet result = evaluateBitSet(predicates[0], converter);
+            for (int i = 1; i < predicates.length; ++i) {
+                result = SparseBitSet.or(result, evaluateBitSet(predicates[i], converter));
+            }
+            return result;
+        }
+
+        assert predicate instanceof AndPredicate;
+        return evaluateBitSetConjunction(((AndPredicate) predicate).getPredicates(), converter);
+    }
+
+    private SparseBitSet evaluateBitSetConjunction(Predicate[] predicates, TypeConverter converter) {
+        SparseBitSet result = null;
+        for (Predicate predicate : predicates) {
+            if (isBitSetEvaluable(predicate)) {
+                SparseBitSet bitSet = evaluateBitSet(predicate, converter);
+                result = result == null ? bitSet : SparseBitSet.and(result, bitSet);
+            }
+        }
+        assert result != null;
+
+        // subtract the negated operands once the positive ones are intersected
+        for (Predicate predicate : predicates) {
+            if (!isBitSetEvaluable(predicate)) {
+                result = SparseBitSet.andNot(result, evaluateNegatedBitSet(predicate, converter));
+            }
+        }
+        return result;
+    }
+
+    private SparseBitSet valueBitSet(Comparable value, TypeConverter converter) {
+        SparseBitSet bitSet = bitSets.get(converter.convert(value));
+        return bitSet == null ? new SparseBitSet() : bitSet;
+    }
+
     private AscendingLongIterator[] predicateIterators(Predicate[] predicates, TypeConverter converter) {
         AscendingLongIterator[] iterators = new AscendingLongIterator[predicates.length];
         for (int i = 0; i < predicates.length; ++i) {
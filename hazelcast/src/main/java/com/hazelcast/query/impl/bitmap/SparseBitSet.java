@@ -54,6 +54,12 @@ import static java.util.Arrays.copyOf;
  * various storage flavors once certain thresholds on storage size are reached.
  * <p>
  * Empty storages are never stored by the implementation.
+ * <p>
+ * Besides the member-by-member iteration, bit sets support set operations
+ * ({@link #and}, {@link #or} and {@link #andNot}) performed storage by storage:
+ * bit set storages are combined a word (64 members) at a time and storages
+ * having no counterpart in the other bit set are either skipped or shared
+ * without looking at their members.
  */
 final class SparseBitSet {
 
@@ -164,6 +170,297 @@ final class SparseBitSet {
         return new IteratorImpl(storages);
     }
 
+    /**
+     * Produces an intersection of the given bit sets.
+     * <p>
+     * The produced bit set may share storages with the given bit sets, so it
+     * must not be modified.
+     *
+     * @param left  the first bit set to intersect.
+     * @param right the second bit set to intersect.
+     * @return the produced intersection.
+     */
+    public static SparseBitSet and(SparseBitSet left, SparseBitSet right) {
+        return combine(left, right, Operation.AND);
+    }
+
+    /**
+     * Produces a union of the given bit sets.
+     * <p>
+     * The produced bit set may share storages with the given bit sets, so it
+     * must not be modified.
+     *
+     * @param left  the first bit set to unite.
+     * @param right the second bit set to unite.
+     * @return the produced union.
+     */
+    public static SparseBitSet or(SparseBitSet left, SparseBitSet right) {
+        return combine(left, right, Operation.OR);
+    }
+
+    /**
+     * Produces a difference of the given bit sets, i.e. a bit set containing
+     * the members of the left bit set which are not members of the right one.
+     * <p>
+     * The produced bit set may share storages with the given bit sets, so it
+     * must not be modified.
+     *
+     * @param left  the bit set to subtract from.
+     * @param right the bit set to subtract.
+     * @return the produced difference.
+     */
+    public static SparseBitSet andNot(SparseBitSet left, SparseBitSet right) {
+        return combine(left, right, Operation.AND_NOT);
+    }
+
+    private static SparseBitSet combine(SparseBitSet left, SparseBitSet right, Operation operation) {
+        SparseBitSet result = new SparseBitSet();
+
+        SparseIntArray.Iterator<Storage32> leftIterator = new SparseIntArray.Iterator<>();
+        SparseIntArray.Iterator<Storage32> rightIterator = new SparseIntArray.Iterator<>();
+        long leftPrefix = left.storages.iterate(leftIterator);
+        long rightPrefix = right.storages.iterate(rightIterator);
+
+        while (operation.needsMore(leftPrefix, rightPrefix)) {
+            if (rightPrefix == SparseIntArray.Iterator.END
+                    || leftPrefix != SparseIntArray.Iterator.END && leftPrefix < rightPrefix) {
+                // only the left bit set has the prefix
+                if (operation != Operation.AND) {
+                    result.storages.set((int) leftPrefix, leftIterator.getValue());
+                }
+                leftPrefix = left.storages.advance((int) leftPrefix, leftIterator);
+            } else if (leftPrefix == SparseIntArray.Iterator.END || rightPrefix < leftPrefix) {
+                // only the right bit set has the prefix
+                if (operation == Operation.OR) {
+                    result.storages.set((int) rightPrefix, rightIterator.getValue());
+                }
+                rightPrefix = right.storages.advance((int) rightPrefix, rightIterator);
+            } else {
+                Storage32 storage = operation.apply(leftIterator.getValue(), rightIterator.getValue());
+                if (storage != null) {
+                    result.storages.set((int) leftPrefix, storage);
+                }
+                leftPrefix = left.storages.advance((int) leftPrefix, leftIterator);
+                rightPrefix = right.storages.advance((int) rightPrefix, rightIterator);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Set operations supported by {@link #combine}.
+     */
+    private enum Operation {
+
+        AND {
+            @Override
+            boolean needsMore(long leftPrefix, long rightPrefix) {
+                return leftPrefix != SparseIntArray.Iterator.END && rightPrefix != SparseIntArray.Iterator.END;
+            }
+
+            @Override
+            Storage32 apply(Storage32 left, Storage32 right) {
+                if (left instanceof ArrayStorage32) {
+                    return ((ArrayStorage32) left).filter(right, true);
+                }
+                if (right instanceof ArrayStorage32) {
+                    return ((ArrayStorage32) right).filter(left, true);
+                }
+                return combine16((PrefixStorage32) left, (PrefixStorage32) right, this);
+            }
+
+            @Override
+            Storage16 apply(Storage16 left, Storage16 right) {
+                return and16(left, right);
+            }
+        },
+
+        OR {
+            @Override
+            boolean needsMore(long leftPrefix, long rightPrefix) {
+                return leftPrefix != SparseIntArray.Iterator.END || rightPrefix != SparseIntArray.Iterator.END;
+            }
+
+            @Override
+            Storage32 apply(Storage32 left, Storage32 right) {
+                if (left instanceof ArrayStorage32 && right instanceof ArrayStorage32) {
+                    return ((ArrayStorage32) left).union((ArrayStorage32) right);
+                }
+                return combine16(toPrefixStorage(left), toPrefixStorage(right), this);
+            }
+
+            @Override
+            Storage16 apply(Storage16 left, Storage16 right) {
+                return or16(left, right);
+            }
+        },
+
+        AND_NOT {
+            @Override
+            boolean needsMore(long leftPrefix, long rightPrefix) {
+                return leftPrefix != SparseIntArray.Iterator.END;
+            }
+
+            @Override
+            Storage32 apply(Storage32 left, Storage32 right) {
+                if (left instanceof ArrayStorage32) {
+                    return ((ArrayStorage32) left).filter(right, false);
+                }
+                return combine16((PrefixStorage32) left, toPrefixStorage(right), this);
+            }
+
+            @Override
+            Storage16 apply(Storage16 left, Storage16 right) {
+                return andNot16(left, right);
+            }
+        };
+
+        /**
+         * @return {@code true} if the storages at the given prefixes may
+         * still contribute to the result, {@code false} otherwise.
+         */
+        abstract boolean needsMore(long leftPrefix, long rightPrefix);
+
+        /**
+         * @return the result of this operation on the given storages or
+         * {@code null} if the result is empty.
+         */
+        abstract Storage32 apply(Storage32 left, Storage32 right);
+
+        /**
+         * @return the result of this operation on the given storages or
+         * {@code null} if the result is empty.
+         */
+        abstract Storage16 apply(Storage16 left, Storage16 right);
+
+    }
+
+    private static PrefixStorage32 toPrefixStorage(Storage32 storage) {
+        if (storage instanceof PrefixStorage32) {
+            return (PrefixStorage32) storage;
+        }
+        ArrayStorage32 arrayStorage = (ArrayStorage32) storage;
+        return new PrefixStorage32(arrayStorage.members, arrayStorage.size);
+    }
+
+    @SuppressWarnings({"checkstyle:npathcomplexity", "checkstyle:cyclomaticcomplexity"})
+    private static PrefixStorage32 combine16(PrefixStorage32 left, PrefixStorage32 right, Operation operation) {
+        int capacity = operation == Operation.OR ? Math.min(PrefixStorage32.MAX_CAPACITY, left.size + right.size) : left.size;
+        short[] prefixes = new short[Math.max(PrefixStorage32.MIN_CAPACITY, capacity)];
+        Storage16[] storages = new Storage16[prefixes.length];
+        int size = 0;
+
+        int leftPosition = 0;
+        int rightPosition = 0;
+        while (leftPosition < left.size || operation == Operation.OR && rightPosition < right.size) {
+            int leftPrefix = leftPosition < left.size ? toUnsignedInt(left.prefixes[leftPosition]) : Integer.MAX_VALUE;
+            int rightPrefix = rightPosition < right.size ? toUnsignedInt(right.prefixes[rightPosition]) : Integer.MAX_VALUE;
+
+            Storage16 storage;
+            if (leftPrefix < rightPrefix) {
+                storage = operation == Operation.AND ? null : left.storages[leftPosition];
+                ++leftPosition;
+            } else if (rightPrefix < leftPrefix) {
+                storage = operation == Operation.OR ? right.storages[rightPosition] : null;
+                ++rightPosition;
+            } else {
+                storage = operation.apply(left.storages[leftPosition], right.storages[rightPosition]);
+                ++leftPosition;
+                ++rightPosition;
+            }
+
+            if (storage != null) {
+                prefixes[size] = (short) Math.min(leftPrefix, rightPrefix);
+                storages[size] = storage;
+                ++size;
+            }
+        }
+
+        return size == 0 ? null : new PrefixStorage32(prefixes, storages, size);
+    }
+
+    private static Storage16 and16(Storage16 left, Storage16 right) {
+        if (left instanceof ArrayStorage16) {
+            return ((ArrayStorage16) left).filter(right, true);
+        }
+        if (right instanceof ArrayStorage16) {
+            return ((ArrayStorage16) right).filter(left, true);
+        }
+
+        long[] leftMembers = ((BitSetStorage16) left).members;
+        long[] rightMembers = ((BitSetStorage16) right).members;
+        long[] members = new long[BitSetStorage16.SIZE];
+        int size = 0;
+        for (int i = 0; i < members.length; ++i) {
+            long word = leftMembers[i] & rightMembers[i];
+            members[i] = word;
+            size += Long.bitCount(word);
+        }
+        return toStorage16(members, size);
+    }
+
+    private static Storage16 or16(Storage16 left, Storage16 right) {
+        if (left instanceof ArrayStorage16 && right instanceof ArrayStorage16) {
+            return ((ArrayStorage16) left).union((ArrayStorage16) right);
+        }
+
+        long[] members = new long[BitSetStorage16.SIZE];
+        if (left instanceof BitSetStorage16) {
+            System.arraycopy(((BitSetStorage16) left).members, 0, members, 0, members.length);
+        } else {
+            ((ArrayStorage16) left).setBits(members);
+        }
+        if (right instanceof BitSetStorage16) {
+            long[] rightMembers = ((BitSetStorage16) right).members;
+            for (int i = 0; i < members.length; ++i) {
+                members[i] |= rightMembers[i];
+            }
+        } else {
+            ((ArrayStorage16) right).setBits(members);
+        }
+        return toStorage16(members, bitCount(members));
+    }
+
+    private static Storage16 andNot16(Storage16 left, Storage16 right) {
+        if (left instanceof ArrayStorage16) {
+            return ((ArrayStorage16) left).filter(right, false);
+        }
+
+        long[] leftMembers = ((BitSetStorage16) left).members;
+        long[] members = new long[BitSetStorage16.SIZE];
+        if (right instanceof BitSetStorage16) {
+            long[] rightMembers = ((BitSetStorage16) right).members;
+            for (int i = 0; i < members.length; ++i) {
+                members[i] = leftMembers[i] & ~rightMembers[i];
+            }
+        } else {
+            System.arraycopy(leftMembers, 0, members, 0, members.length);
+            ((ArrayStorage16) right).clearBits(members);
+        }
+        return toStorage16(members, bitCount(members));
+    }
+
+    private static int bitCount(long[] members) {
+        int size = 0;
+        for (long word : members) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    /**
+     * Chooses the storage flavor for the given bits by their count, the same
+     * way the storages are upgraded and downgraded on member additions and
+     * removals.
+     */
+    private static Storage16 toStorage16(long[] members, int size) {
+        if (size == 0) {
+            return null;
+        }
+        return size <= ARRAY_STORAGE_16_MAX_SIZE ? new ArrayStorage16(members, size) : new BitSetStorage16(members, size);
+    }
+
     /**
      * Defines internal contract of storages responsible for storing of 32-bit
      * postfixes.
@@ -188,6 +485,12 @@ final class SparseBitSet {
          */
         boolean remove(int member);
 
+        /**
+         * @return {@code true} if the given member is present in this storage,
+         * {@code false} otherwise.
+         */
+        boolean contains(int member);
+
         /**
          * Starts iteration on this storage using the given iterator.
          * <p>
@@ -252,6 +555,79 @@ final class SparseBitSet {
             members[0] = member;
         }
 
+        /**
+         * Constructs a new storage for the given sorted members array.
+         */
+        ArrayStorage32(int[] members, int size) {
+            assert size > 0 && size <= ARRAY_STORAGE_32_MAX_SIZE;
+            this.size = size;
+            this.members = members;
+        }
+
+        @Override
+        public boolean contains(int member) {
+            return unsignedBinarySearch(members, size, toUnsignedLong(member)) >= 0;
+        }
+
+        /**
+         * Produces a storage containing the members of this storage which are
+         * present (if {@code keep} is {@code true}) or absent (otherwise) in
+         * the given storage.
+         *
+         * @return the produced storage or {@code null} if it's empty.
+         */
+        Storage32 filter(Storage32 other, boolean keep) {
+            int[] filtered = new int[size];
+            int filteredSize = 0;
+            for (int i = 0; i < size; ++i) {
+                int member = members[i];
+                if (other.contains(member) == keep) {
+                    filtered[filteredSize++] = member;
+                }
+            }
+
+            if (filteredSize == size) {
+                return this;
+            }
+            return filteredSize == 0 ? null : new ArrayStorage32(filtered, filteredSize);
+        }
+
+        /**
+         * Produces a storage containing the members of this storage and the
+         * given one.
+         */
+        Storage32 union(ArrayStorage32 other) {
+            int[] united = new int[size + other.size];
+            int unitedSize = 0;
+
+            int position = 0;
+            int otherPosition = 0;
+            while (position < size && otherPosition < other.size) {
+                long member = toUnsignedLong(members[position]);
+                long otherMember = toUnsignedLong(other.members[otherPosition]);
+                if (member <= otherMember) {
+                    united[unitedSize++] = members[position++];
+                    if (member == otherMember) {
+                        ++otherPosition;
+                    }
+                } else {
+                    united[unitedSize++] = other.members[otherPosition++];
+                }
+            }
+            while (position < size) {
+                united[unitedSize++] = members[position++];
+            }
+            while (otherPosition < other.size) {
+                united[unitedSize++] = other.members[otherPosition++];
+            }
+
+            if (unitedSize <= ARRAY_STORAGE_32_MAX_SIZE) {
+                return new ArrayStorage32(united, unitedSize);
+            } else {
+                return new PrefixStorage32(united, unitedSize);
+            }
+        }
+
         @Override
         public Storage32 add(int member) {
             int index = unsignedBinarySearch(members, size, toUnsignedLong(member));
@@ -412,6 +788,35 @@ final class SparseBitSet {
             }
         }
 
+        /**
+         * Constructs a new prefix storage for the given sorted members array.
+         */
+        PrefixStorage32(int[] members, int size) {
+            this.prefixes = new short[MIN_CAPACITY];
+            this.storages = new Storage16[MIN_CAPACITY];
+
+            for (int i = 0; i < size; ++i) {
+                append(members[i]);
+            }
+        }
+
+        /**
+         * Constructs a new prefix storage for the given sorted prefixes and
+         * their storages.
+         */
+        PrefixStorage32(short[] prefixes, Storage16[] storages, int size) {
+            assert size > 0;
+            this.prefixes = prefixes;
+            this.storages = storages;
+            this.size = size;
+        }
+
+        @Override
+        public boolean contains(int member) {
+            int index = unsignedBinarySearch(prefixes, size, toUnsignedInt((short) (member >>> Short.SIZE)));
+            return index >= 0 && storages[index].contains((short) member);
+        }
+
         @Override
         public Storage32 add(int member) {
             short prefix = (short) (member >>> Short.SIZE);
@@ -734,6 +1139,12 @@ final class SparseBitSet {
          */
         Storage16 remove(short member);
 
+        /**
+         * @return {@code true} if the given member is present in this storage,
+         * {@code false} otherwise.
+         */
+        boolean contains(short member);
+
         /**
          * Starts iteration on this storage using the given iterator.
          * <p>
@@ -798,15 +1209,25 @@ final class SparseBitSet {
             members[0] = member;
         }
 
+        /**
+         * Constructs a new storage for the given sorted members array.
+         */
+        ArrayStorage16(short[] members, int size) {
+            assert size > 0 && size <= ARRAY_STORAGE_16_MAX_SIZE;
+            this.size = size;
+            this.members = members;
+        }
+
         /**
          * Constructs a new storage by downgrading from the given {@link
-         * BitSetStorage16} data.
+         * BitSetStorage16} data or from the given bits produced by a set
+         * operation.
          */
         ArrayStorage16(long[] bits, int size) {
-            assert size == BitSetStorage16.MIN_SIZE;
+            assert size > 0 && size <= ARRAY_STORAGE_16_MAX_SIZE;
             this.size = size;
 
-            short[] members = new short[ARRAY_STORAGE_16_MAX_SIZE];
+            short[] members = new short[size == BitSetStorage16.MIN_SIZE ? ARRAY_STORAGE_16_MAX_SIZE : size];
             int index = 0;
             for (int i = 0; i < bits.length; ++i) {
                 long value = bits[i];
@@ -946,6 +1367,92 @@ final class SparseBitSet {
             return true;
         }
 
+        @Override
+        public boolean contains(short member) {
+            return unsignedBinarySearch(members, size, toUnsignedInt(member)) >= 0;
+        }
+
+        /**
+         * Produces a storage containing the members of this storage which are
+         * present (if {@code keep} is {@code true}) or absent (otherwise) in
+         * the given storage.
+         *
+         * @return the produced storage or {@code null} if it's empty.
+         */
+        Storage16 filter(Storage16 other, boolean keep) {
+            short[] filtered = new short[size];
+            int filteredSize = 0;
+            for (int i = 0; i < size; ++i) {
+                short member = members[i];
+                if (other.contains(member) == keep) {
+                    filtered[filteredSize++] = member;
+                }
+            }
+
+            if (filteredSize == size) {
+                return this;
+            }
+            return filteredSize == 0 ? null : new ArrayStorage16(filtered, filteredSize);
+        }
+
+        /**
+         * Produces a storage containing the members of this storage and the
+         * given one.
+         */
+        Storage16 union(ArrayStorage16 other) {
+            if (size + other.size > ARRAY_STORAGE_16_MAX_SIZE) {
+                long[] bits = new long[BitSetStorage16.SIZE];
+                setBits(bits);
+                other.setBits(bits);
+                return toStorage16(bits, bitCount(bits));
+            }
+
+            short[] united = new short[size + other.size];
+            int unitedSize = 0;
+
+            int position = 0;
+            int otherPosition = 0;
+            while (position < size && otherPosition < other.size) {
+                int member = toUnsignedInt(members[position]);
+                int otherMember = toUnsignedInt(other.members[otherPosition]);
+                if (member <= otherMember) {
+                    united[unitedSize++] = members[position++];
+                    if (member == otherMember) {
+                        ++otherPosition;
+                    }
+                } else {
+                    united[unitedSize++] = other.members[otherPosition++];
+                }
+            }
+            while (position < size) {
+                united[unitedSize++] = members[position++];
+            }
+            while (otherPosition < other.size) {
+                united[unitedSize++] = other.members[otherPosition++];
+            }
+            return new ArrayStorage16(united, unitedSize);
+        }
+
+        /**
+         * Sets the bits of the members of this storage in the given bits.
+         */
+        void setBits(long[] bits) {
+            for (int i = 0; i < size; ++i) {
+                int bitIndex = toUnsignedInt(members[i]);
+                bits[bitIndex >>> BitSetStorage16.BIT_SET_LONG_SHIFT] |= 1L << bitIndex;
+            }
+        }
+
+        /**
+         * Clears the bits of the members of this storage in the given bits.
+         */
+        void clearBits(long[] bits) {
+            for (int i = 0; i < size; ++i) {
+                int bitIndex = toUnsignedInt(members[i]);
+                bits[bitIndex >>> BitSetStorage16.BIT_SET_LONG_SHIFT] &= ~(1L << bitIndex);
+            }
+        }
+
         /**
          * Appends the given member to this storage. The given member must be
          * greater than any member already known by this storage.
@@ -976,7 +1483,7 @@ final class SparseBitSet {
         // masks lower 6 bits
         private static final long POSTFIX_MASK = 0xFFFFFFFFFFFFFFC0L;
 
-        private final long[] members = new long[SIZE];
+        private final long[] members;
         private int size;
 
         /**
@@ -984,6 +1491,7 @@ final class SparseBitSet {
          * and the given member to insert at the given index.
          */
         BitSetStorage16(short[] members, short member, int index) {
+            this.members = new long[SIZE];
             for (int i = 0; i < index; ++i) {
                 append(members[i]);
             }
@@ -994,6 +1502,22 @@ final class SparseBitSet {
             this.size = members.length + 1;
         }
 
+        /**
+         * Constructs a new bit set storage for the given bits produced by a
+         * set operation.
+         */
+        BitSetStorage16(long[] members, int size) {
+            assert members.length == SIZE && size > MIN_SIZE;
+            this.members = members;
+            this.size = size;
+        }
+
+        @Override
+        public boolean contains(short member) {
+            int bitIndex = toUnsignedInt(member);
+            return (members[bitIndex >>> BIT_SET_LONG_SHIFT] & 1L << bitIndex) != 0;
+        }
+
         @Override
         public Storage16 add(short member) {
             int bitIndex = toUnsignedInt(member);
@@ -85,6 +85,29 @@ public final class Extractors {
         return null;
     }
 
+    /**
+     * Returns the accessor reading the given attribute of the target
+     * without boxing, see {@link PrimitiveAccessor}.
+     *
+     * @param target        the deserialized target object
+     * @param attributeName the attribute name
+     * @return the accessor or {@code null} if the attribute is not a
+     * numeric primitive attribute of the target object itself, in which
+     * case it has to be extracted by {@link #extract}
+     */
+    public PrimitiveAccessor getPrimitiveAccessor(Object target, String attributeName) {
+        if (target == null || target instanceof Data || target instanceof Portable) {
+            return null;
+        }
+        Getter getter = getGetter(target, attributeName, true);
+        if (getter instanceof MethodGetter) {
+            return ((MethodGetter) getter).getPrimitiveAccessor();
+        } else if (getter instanceof FieldGetter) {
+            return ((FieldGetter) getter).getPrimitiveAccessor();
+        }
+        return null;
+    }
+
     /**
      * Returns the form of this data that is queryable.
      * Returns {@link Data} if {@code target} is
@@ -21,6 +21,7 @@ import java.lang.reflect.Field;
 public final class FieldGetter extends AbstractMultiValueGetter {
 
     private final Field field;
+    private final PrimitiveAccessor primitiveAccessor;
 
     // for testing purposes only
     public FieldGetter(Getter parent, Field field, String modifier, Class elementType) {
@@ -30,6 +31,18 @@ public final class FieldGetter extends AbstractMultiValueGetter {
     public FieldGetter(Getter parent, Field field, String modifier, Class type, Class elementType) {
         super(parent, modifier, type, elementType);
         this.field = field;
+        this.primitiveAccessor = parent == null && modifier == null ? PrimitiveAccessor.forField(field) : null;
+    }
+
+    /**
+     * Returns the accessor reading the attribute without boxing if it is
+     * a numeric primitive attribute of the target object itself.
+     *
+     * @return the accessor or {@code null} if the attribute can't be read
+     * without boxing
+     */
+    public PrimitiveAccessor getPrimitiveAccessor() {
+        return primitiveAccessor;
     }
 
     @Override
@@ -22,6 +22,7 @@ import java.lang.reflect.Method;
 public final class MethodGetter extends AbstractMultiValueGetter {
 
     private final Method method;
+    private final PrimitiveAccessor primitiveAccessor;
 
     // for testing purposes only
     public MethodGetter(Getter parent, Method method, String modifier, Class elementType) {
@@ -31,6 +32,18 @@ public final class MethodGetter extends AbstractMultiValueGetter {
     public MethodGetter(Getter parent, Method method, String modifier, Class type, Class elementType) {
         super(parent, modifier, type, elementType);
         this.method = method;
+        this.primitiveAccessor = parent == null && modifier == null ? PrimitiveAccessor.forMethod(method) : null;
+    }
+
+    /**
+     * Returns the accessor reading the attribute without boxing if it is
+     * a numeric primitive attribute of the target object itself.
+     *
+     * @return the accessor or {@code null} if the attribute can't be read
+     * without boxing
+     */
+    public PrimitiveAccessor getPrimitiveAccessor() {
+        return primitiveAccessor;
     }
 
     @Override
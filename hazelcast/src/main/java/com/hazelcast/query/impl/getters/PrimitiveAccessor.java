@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.query.QueryException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Reads a numeric primitive attribute of the target object itself, e.g.
+ * a {@code long} field or a getter returning an {@code int}, without
+ * boxing the value like {@link Getter#getValue(Object)} does. Used by the
+ * aggregators accumulating primitives.
+ * <p>
+ * The attribute is read through method handles adapted to return a
+ * {@code long} or a {@code double}, the widening conversions applied by
+ * them are exact except for {@code long} to {@code double}, so that a
+ * {@code long} attribute can only be read by {@link #getLong(Object)} and
+ * a floating-point attribute only by {@link #getDouble(Object)}.
+ */
+public final class PrimitiveAccessor {
+
+    private static final MethodType LONG_GETTER_TYPE = MethodType.methodType(long.class, Object.class);
+    private static final MethodType DOUBLE_GETTER_TYPE = MethodType.methodType(double.class, Object.class);
+
+    private final Class<?> type;
+    private final MethodHandle longGetter;
+    private final MethodHandle doubleGetter;
+
+    private PrimitiveAccessor(Class<?> type, MethodHandle getter) {
+        this.type = type;
+        this.longGetter = isIntegral(type) ? getter.asType(LONG_GETTER_TYPE) : null;
+        this.doubleGetter = type != long.class ? getter.asType(DOUBLE_GETTER_TYPE) : null;
+    }
+
+    /**
+     * @return the primitive type of the attribute, e.g. {@code int.class}
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return {@code true} if the attribute can be read exactly as a long
+     */
+    public boolean isLongReadable() {
+        return longGetter != null;
+    }
+
+    /**
+     * @return {@code true} if the attribute can be read exactly as a double
+     */
+    public boolean isDoubleReadable() {
+        return doubleGetter != null;
+    }
+
+    /**
+     * Reads the attribute of the given target as a long, only allowed if
+     * {@link #isLongReadable()}.
+     */
+    public long getLong(Object target) {
+        try {
+            return (long) longGetter.invokeExact(target);
+        } catch (Throwable t) {
+            throw new QueryException(t);
+        }
+    }
+
+    /**
+     * Reads the attribute of the given target as a double, only allowed if
+     * {@link #isDoubleReadable()}.
+     */
+    public double getDouble(Object target) {
+        try {
+            return (double) doubleGetter.invokeExact(target);
+        } catch (Throwable t) {
+            throw new QueryException(t);
+        }
+    }
+
+    static PrimitiveAccessor forField(Field field) {
+        if (!isNumeric(field.getType())) {
+            return null;
+        }
+        try {
+            return new PrimitiveAccessor(field.getType(), MethodHandles.lookup().unreflectGetter(field));
+        } catch (IllegalAccessException e) {
+            // not accessible, the attribute is read by reflection
+            return null;
+        }
+    }
+
+    static PrimitiveAccessor forMethod(Method method) {
+        if (!isNumeric(method.getReturnType())) {
+            return null;
+        }
+        try {
+            return new PrimitiveAccessor(method.getReturnType(), MethodHandles.lookup().unreflect(method));
+        } catch (IllegalAccessException e) {
+            // not accessible, the attribute is read by reflection
+            return null;
+        }
+    }
+
+    private static boolean isNumeric(Class<?> type) {
+        return isIntegral(type) || type == float.class || type == double.class;
+    }
+
+    private static boolean isIntegral(Class<?> type) {
+        return type == long.class || type == int.class || type == short.class || type == byte.class;
+    }
+}
@@ -375,6 +375,31 @@ public final class ClusterProperty {
     public static final HazelcastProperty TCP_JOIN_PORT_TRY_COUNT
             = new HazelcastProperty("hazelcast.tcp.join.port.try.count", 3);
 
+    /**
+     * Enables the parallel probing mode of the TCP-IP join. In this mode a
+     * joining member connects to all possible members at once, asks each of
+     * them for the master as soon as it is connected and sends the join
+     * request as soon as the master is known, instead of probing the possible
+     * members in rounds of one second.
+     * <p>
+     * If {@link #TCP_JOIN_MEMBERS_VIEW_CACHE_FILE} is also set, the members
+     * of the last known member list are probed as well, and a master which
+     * received the join requests of all these members starts the join
+     * without waiting for {@link #WAIT_SECONDS_BEFORE_JOIN}.
+     */
+    public static final HazelcastProperty TCP_JOIN_PARALLEL_PROBING_ENABLED
+            = new HazelcastProperty("hazelcast.tcp.join.parallel.probing.enabled", false);
+
+    /**
+     * The file in which a member using the TCP-IP join stores the last known
+     * member list of its cluster, to be used as join candidates on restart
+     * when {@link #TCP_JOIN_PARALLEL_PROBING_ENABLED} is set. The file is
+     * updated whenever the member list changes. If not set, the member list
+     * is not stored.
+     */
+    public static final HazelcastProperty TCP_JOIN_MEMBERS_VIEW_CACHE_FILE
+            = new HazelcastProperty("hazelcast.tcp.join.members.view.cache.file");
+
     /**
      * Timeout to connect all other cluster members when a member is joining to a cluster.
      */
@@ -567,6 +592,49 @@ public final class ClusterProperty {
     public static final HazelcastProperty HEARTBEAT_FAILURE_DETECTOR_TYPE
             = new HazelcastProperty("hazelcast.heartbeat.failuredetector.type", ClusterFailureDetectorType.DEADLINE.toString());
 
+    /**
+     * Enables the piggybacking of heartbeats on the regular member traffic.
+     * <p>
+     * When enabled, a member doesn't send an explicit heartbeat to a
+     * non-master member if it has recently written other packets to the
+     * connection of the member, and a member treats the packets recently
+     * read from the connection of a member as a heartbeat of that member.
+     * An explicit heartbeat is still sent at least every fifth heartbeat
+     * interval, and the heartbeats of the master and to the master are
+     * always sent explicitly, since they also carry the cluster time and the
+     * member list validation. Should be set to the same value on all
+     * members.
+     */
+    public static final HazelcastProperty HEARTBEAT_PIGGYBACKING_ENABLED
+            = new HazelcastProperty("hazelcast.heartbeat.piggybacking.enabled", false);
+
+    /**
+     * The cluster size from which the heartbeats are sent in a sampled
+     * ring topology instead of all-to-all. {@code 0} disables the sampled
+     * topology.
+     * <p>
+     * In the sampled topology, the master still sends heartbeats to and
+     * monitors all members, but a non-master member sends heartbeats only to
+     * the master and to the next {@link #HEARTBEAT_SAMPLING_NEIGHBOUR_COUNT}
+     * non-master members in the member list, and monitors only the master
+     * and the previous {@link #HEARTBEAT_SAMPLING_NEIGHBOUR_COUNT} non-master
+     * members. The heartbeat traffic grows linearly with the cluster size
+     * instead of quadratically. Sampling is disabled if a heartbeat-aware
+     * split brain protection function, e.g. the recently-active or the
+     * probabilistic one, is configured, since it needs the heartbeats of all
+     * members. Should be set to the same value on all members.
+     */
+    public static final HazelcastProperty HEARTBEAT_SAMPLING_CLUSTER_SIZE_THRESHOLD
+            = new HazelcastProperty("hazelcast.heartbeat.sampling.cluster.size.threshold", 0);
+
+    /**
+     * The number of the neighbour non-master members a member sends
+     * heartbeats to and monitors in the sampled heartbeat topology, see
+     * {@link #HEARTBEAT_SAMPLING_CLUSTER_SIZE_THRESHOLD}.
+     */
+    public static final HazelcastProperty HEARTBEAT_SAMPLING_NEIGHBOUR_COUNT
+            = new HazelcastProperty("hazelcast.heartbeat.sampling.neighbour.count", 3);
+
     /**
      * The interval at which the master sends the member lists are sent to other
      * non-master members.
@@ -609,6 +677,18 @@ public final class ClusterProperty {
     public static final HazelcastProperty PARTITION_BACKUP_SYNC_INTERVAL
             = new HazelcastProperty("hazelcast.partition.backup.sync.interval", 30, SECONDS);
 
+    /**
+     * Enables the batching of the periodic backup replica sync checks.
+     * <p>
+     * When enabled, the replica versions of the partitions checked in a
+     * round are sent to each backup replica owner in a single operation,
+     * and only the versions of the namespaces which changed since the last
+     * successful check are sent. When disabled, all replica versions are
+     * sent in an operation per partition replica.
+     */
+    public static final HazelcastProperty PARTITION_BACKUP_SYNC_BATCHING_ENABLED
+            = new HazelcastProperty("hazelcast.partition.backup.sync.batching.enabled", true);
+
     /**
      * Maximum number of partition migrations to be executed concurrently on a member.
      * Member can be either source or target of the migration.
@@ -731,6 +811,15 @@ public final class ClusterProperty {
     public static final HazelcastProperty METRICS_JMX_ENABLED
             = new HazelcastProperty("hazelcast.metrics.jmx.enabled");
 
+    /**
+     * Enables/disables exposing metrics in the Prometheus text format on the
+     * {@code /hazelcast/metrics} HTTP endpoint of the member. The endpoint
+     * belongs to the {@link com.hazelcast.config.RestEndpointGroup#CLUSTER_READ}
+     * REST endpoint group which has to be enabled as well. Disabled by default.
+     */
+    public static final HazelcastProperty METRICS_PROMETHEUS_ENABLED
+            = new HazelcastProperty("hazelcast.metrics.prometheus.enabled", false);
+
     /**
      * Health monitoring log level. When SILENT, logs are printed only when values
      * exceed some predefined threshold. When NOISY, logs are always printed
@@ -1108,6 +1197,19 @@ public final class ClusterProperty {
     public static final HazelcastProperty MAP_LOAD_CHUNK_SIZE
             = new HazelcastProperty("hazelcast.map.load.chunk.size", 1000);
 
+    /**
+     * The maximum number of key batches for which the values are being
+     * loaded at the same time in a single partition. While a batch is being
+     * loaded, the previously loaded batches are serialized and put into the
+     * record store, so loading, serialization and insertion overlap even
+     * with a single batch in flight. A higher value lets a
+     * {@link com.hazelcast.map.AsyncMapLoader} issue more concurrent
+     * requests, or lets more threads of the map loader executor call a
+     * blocking {@link com.hazelcast.map.MapLoader} of a partition.
+     */
+    public static final HazelcastProperty MAP_LOAD_PARALLELISM
+            = new HazelcastProperty("hazelcast.map.load.parallelism", 1);
+
     /**
      * Scheduler delay for map tasks those are executed on backup members.
      */
@@ -1178,6 +1280,75 @@ public final class ClusterProperty {
     public static final HazelcastProperty MAP_WRITE_BEHIND_QUEUE_CAPACITY
             = new HazelcastProperty("hazelcast.map.write.behind.queue.capacity", 50000);
 
+    /**
+     * Enables the tiered storage of maps. When enabled, the entries of the
+     * maps using the {@link com.hazelcast.config.InMemoryFormat#BINARY BINARY}
+     * in-memory format and no eviction which have not been accessed for
+     * {@link #MAP_TIERED_STORAGE_COLD_AFTER_SECONDS} are moved from the heap
+     * into per-partition append-only log files under the
+     * {@link #MAP_TIERED_STORAGE_BASE_DIR}. Only the keys of such cold
+     * entries stay on the heap, and an entry is moved back to the heap
+     * the next time it is accessed.
+     * <p>
+     * The log files are only a spill area for the heap, they are deleted
+     * when the member shuts down and the entries are not restored from
+     * them on restart.
+     */
+    public static final HazelcastProperty MAP_TIERED_STORAGE_ENABLED
+            = new HazelcastProperty("hazelcast.map.tiered.storage.enabled", false);
+
+    /**
+     * The directory under which the log files of the cold entries are
+     * created when {@link #MAP_TIERED_STORAGE_ENABLED the tiered storage}
+     * is enabled. Each member uses its own subdirectory.
+     */
+    public static final HazelcastProperty MAP_TIERED_STORAGE_BASE_DIR
+            = new HazelcastProperty("hazelcast.map.tiered.storage.base.dir", "tiered-storage");
+
+    /**
+     * The time after which an entry which has been neither read nor
+     * updated is moved into the cold tier when
+     * {@link #MAP_TIERED_STORAGE_ENABLED the tiered storage} is enabled.
+     */
+    public static final HazelcastProperty MAP_TIERED_STORAGE_COLD_AFTER_SECONDS
+            = new HazelcastProperty("hazelcast.map.tiered.storage.cold.after.seconds", 300, SECONDS);
+
+    /**
+     * The period of the task which moves the idle entries into the
+     * cold tier and compacts the log files of the cold tier.
+     */
+    public static final HazelcastProperty MAP_TIERED_STORAGE_TASK_PERIOD_SECONDS
+            = new HazelcastProperty("hazelcast.map.tiered.storage.task.period.seconds", 5, SECONDS);
+
+    /**
+     * The size of a single log file of the cold tier in bytes. Each file
+     * is memory-mapped as a whole. An entry larger than this size is
+     * written into a file of its own.
+     */
+    public static final HazelcastProperty MAP_TIERED_STORAGE_SEGMENT_SIZE
+            = new HazelcastProperty("hazelcast.map.tiered.storage.segment.size", 16 * 1024 * 1024);
+
+    /**
+     * A log file of the cold tier is compacted once the percentage of its
+     * bytes which still belong to cold entries falls below this value:
+     * its remaining entries are copied into the newest log file and the
+     * file is deleted.
+     */
+    public static final HazelcastProperty MAP_TIERED_STORAGE_COMPACTION_THRESHOLD_PERCENTAGE
+            = new HazelcastProperty("hazelcast.map.tiered.storage.compaction.threshold.percentage", 50);
+
+    /**
+     * The minimum number of entries in the persistence log of a partition
+     * of a map before it is compacted. A log is compacted into a snapshot
+     * of its record store once it holds more than twice as many entries as
+     * the record store, so this value only prevents the logs of small
+     * record stores from being rewritten too often.
+     *
+     * @see com.hazelcast.config.HotRestartPersistenceConfig
+     */
+    public static final HazelcastProperty MAP_PERSISTENCE_COMPACTION_MIN_ENTRY_COUNT
+            = new HazelcastProperty("hazelcast.map.persistence.compaction.min.entry.count", 10000);
+
     /*
      * INVOCATION / OPERATION SYSTEM PROPERTIES
      */
@@ -29,6 +29,7 @@ import com.hazelcast.transaction.impl.operations.ReplicateAllowedDuringPassiveSt
 import com.hazelcast.transaction.impl.operations.ReplicateTxBackupLogOperation;
 import com.hazelcast.transaction.impl.operations.RollbackAllowedDuringPassiveStateTxBackupLogOperation;
 import com.hazelcast.transaction.impl.operations.RollbackTxBackupLogOperation;
+import com.hazelcast.transaction.impl.operations.TxLogRecordBatchOperation;
 import com.hazelcast.transaction.impl.xa.XATransactionDTO;
 import com.hazelcast.transaction.impl.xa.operations.ClearRemoteTransactionBackupOperation;
 import com.hazelcast.transaction.impl.xa.operations.ClearRemoteTransactionOperation;
@@ -65,6 +66,7 @@ public final class TransactionDataSerializerHook implements DataSerializerHook {
     public static final int PUT_REMOTE_TX = 16;
     public static final int XA_REPLICATION = 17;
     public static final int XA_TRANSACTION_DTO = 18;
+    public static final int TX_LOG_RECORD_BATCH = 19;
 
 
     @Override
@@ -114,6 +116,8 @@ public final class TransactionDataSerializerHook implements DataSerializerHook {
                         return new XaReplicationOperation();
                     case XA_TRANSACTION_DTO:
                         return new XATransactionDTO();
+                    case TX_LOG_RECORD_BATCH:
+                        return new TxLogRecordBatchOperation();
                     default:
                         return null;
                 }
@@ -17,18 +17,27 @@
 package com.hazelcast.transaction.impl;
 
 import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.OperationService;
+import com.hazelcast.spi.exception.RetryableException;
 import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
+import com.hazelcast.transaction.impl.operations.TxLogRecordBatchOperation;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Future;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
+import static com.hazelcast.transaction.impl.TransactionManagerServiceImpl.SERVICE_NAME;
 
 /**
  * The transaction log contains all {@link
@@ -86,12 +95,7 @@ public class TransactionLog {
     }
 
     public List<Future> commit(NodeEngine nodeEngine) {
-        List<Future> futures = new ArrayList<>(size());
-        for (TransactionLogRecord record : recordMap.values()) {
-            Future future = invoke(nodeEngine, record, record.newCommitOperation());
-            futures.add(future);
-        }
-        return futures;
+        return invokeGroupedByMember(nodeEngine, TransactionLogRecord::newCommitOperation);
     }
 
     public void onCommitSuccess() {
@@ -107,23 +111,102 @@ public class TransactionLog {
     }
 
     public List<Future> prepare(NodeEngine nodeEngine) {
+        return invokeGroupedByMember(nodeEngine, TransactionLogRecord::newPrepareOperation);
+    }
+
+    public List<Future> rollback(NodeEngine nodeEngine) {
         List<Future> futures = new ArrayList<>(size());
         for (TransactionLogRecord record : recordMap.values()) {
-            Future future = invoke(nodeEngine, record, record.newPrepareOperation());
+            Future future = invoke(nodeEngine, record, record.newRollbackOperation());
             futures.add(future);
         }
         return futures;
     }
 
-    public List<Future> rollback(NodeEngine nodeEngine) {
+    /**
+     * Invokes the operations created by the given factory for all records,
+     * grouping the operations of the partition based records by the owners
+     * of their partitions. The operations of a member are sent in a single
+     * {@link TxLogRecordBatchOperation} which executes them on their
+     * partition threads, so the number of operations sent depends on the
+     * number of members instead of the number of records. The invocation of
+     * a batch completes once the backup acks of all record operations have
+     * been received.
+     *
+     * @return a future per target aware record and per member
+     */
+    private List<Future> invokeGroupedByMember(NodeEngine nodeEngine,
+                                               Function<TransactionLogRecord, Operation> operationFactory) {
         List<Future> futures = new ArrayList<>(size());
+        if (size() < 2) {
+            for (TransactionLogRecord record : recordMap.values()) {
+                futures.add(invoke(nodeEngine, record, operationFactory.apply(record)));
+            }
+            return futures;
+        }
+
+        IPartitionService partitionService = nodeEngine.getPartitionService();
+        Map<Address, List<Operation>> operationsByMember = new HashMap<>();
         for (TransactionLogRecord record : recordMap.values()) {
-            Future future = invoke(nodeEngine, record, record.newRollbackOperation());
-            futures.add(future);
+            Operation op = operationFactory.apply(record);
+            Address owner = record instanceof TargetAwareTransactionLogRecord
+                    ? null : partitionService.getPartitionOwner(op.getPartitionId());
+            if (owner == null) {
+                futures.add(invoke(nodeEngine, record, op));
+            } else {
+                operationsByMember.computeIfAbsent(owner, k -> new ArrayList<>()).add(op);
+            }
+        }
+
+        OperationService operationService = nodeEngine.getOperationService();
+        for (Map.Entry<Address, List<Operation>> entry : operationsByMember.entrySet()) {
+            List<Operation> operations = entry.getValue();
+            if (operations.size() == 1) {
+                Operation op = operations.get(0);
+                futures.add(operationService.invokeOnPartition(op.getServiceName(), op, op.getPartitionId()));
+            } else {
+                futures.add(invokeBatch(operationService, entry.getKey(), operations));
+            }
         }
         return futures;
     }
 
+    /**
+     * Sends the given record operations to the given member in a single
+     * operation. The record operations which failed with a retryable
+     * exception, e.g. because their partition migrated in the meantime, and
+     * all record operations if the batch itself failed, are invoked one by
+     * one on their partitions.
+     */
+    private static Future invokeBatch(OperationService operationService, Address target, List<Operation> operations) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        operationService.<List<Throwable>>invokeOnTarget(SERVICE_NAME, new TxLogRecordBatchOperation(operations), target)
+                .whenCompleteAsync((failures, throwable) -> {
+                    List<CompletableFuture> retries = new ArrayList<>();
+                    for (int i = 0; i < operations.size(); i++) {
+                        Throwable failure = throwable != null ? throwable : failures.get(i);
+                        if (failure == null) {
+                            continue;
+                        }
+                        if (throwable == null && !(failure instanceof RetryableException)) {
+                            future.completeExceptionally(failure);
+                            return;
+                        }
+                        Operation op = operations.get(i);
+                        retries.add(operationService.invokeOnPartition(op.getServiceName(), op, op.getPartitionId()));
+                    }
+                    CompletableFuture.allOf(retries.toArray(new CompletableFuture[0]))
+                            .whenComplete((v, t) -> {
+                                if (t == null) {
+                                    future.complete(null);
+                                } else {
+                                    future.completeExceptionally(t instanceof CompletionException ? t.getCause() : t);
+                                }
+                            });
+                }, CALLER_RUNS);
+        return future;
+    }
+
     private Future invoke(NodeEngine nodeEngine, TransactionLogRecord record, Operation op) {
         OperationService operationService = nodeEngine.getOperationService();
         if (record instanceof TargetAwareTransactionLogRecord) {
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.transaction.impl.operations;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.operationservice.CallStatus;
+import com.hazelcast.spi.impl.operationservice.Offload;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.OperationAccessor;
+import com.hazelcast.spi.impl.operationservice.OperationResponseHandler;
+import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
+import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.transaction.impl.TransactionDataSerializerHook.TX_LOG_RECORD_BATCH;
+
+/**
+ * Executes the prepare or commit operations of the transaction log
+ * records of a transaction which belong to the partitions owned by the
+ * target member, so that a single operation per member is sent instead of
+ * one operation per record.
+ * <p>
+ * Each record operation is executed on its partition thread, like the
+ * operations of the {@link com.hazelcast.spi.impl.operationservice.impl.operations.PartitionIteratingOperation
+ * PartitionIteratingOperation}. The response contains the failure of each
+ * record operation in the order of the operations, or {@code null} if the
+ * record operation succeeded. Failed record operations, e.g. because their
+ * partition migrated, are retried one by one by the caller.
+ * <p>
+ * The record operations share the call ID of the batch operation, so the
+ * backup acks of their sync backups are sent to the invocation of the
+ * batch operation. The response carries the total number of sync backups
+ * and the caller waits for all of their acks, as if the record operations
+ * were invoked one by one.
+ */
+public final class TxLogRecordBatchOperation extends AbstractTxOperation {
+
+    private List<Operation> operations;
+
+    public TxLogRecordBatchOperation() {
+    }
+
+    public TxLogRecordBatchOperation(List<Operation> operations) {
+        this.operations = operations;
+    }
+
+    @Override
+    public CallStatus call() {
+        return new OffloadImpl();
+    }
+
+    @Override
+    public void onExecutionFailure(Throwable cause) {
+        // we also send a response so that the caller doesn't wait indefinitely
+        sendResponse(new ErrorResponse(cause, getCallId(), isUrgent()));
+        getLogger().severe(cause);
+    }
+
+    @Override
+    public int getClassId() {
+        return TX_LOG_RECORD_BATCH;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeInt(operations.size());
+        for (Operation operation : operations) {
+            out.writeObject(operation);
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        int size = in.readInt();
+        operations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            operations.add(in.readObject());
+        }
+    }
+
+    @Override
+    protected void toString(StringBuilder sb) {
+        super.toString(sb);
+
+        sb.append(", operationCount=").append(operations.size());
+    }
+
+    private final class OffloadImpl extends Offload {
+
+        private OffloadImpl() {
+            super(TxLogRecordBatchOperation.this);
+        }
+
+        @Override
+        public void start() {
+            NodeEngine nodeEngine = getNodeEngine();
+            BatchResponse batchResponse = new BatchResponse();
+            for (int i = 0; i < operations.size(); i++) {
+                Operation op = operations.get(i)
+                        .setNodeEngine(nodeEngine)
+                        .setOperationResponseHandler(new OperationResponseHandlerImpl(batchResponse, i))
+                        .setCallerUuid(getCallerUuid());
+                OperationAccessor.setCallerAddress(op, getCallerAddress());
+                OperationAccessor.setCallId(op, getCallId());
+                operationService.execute(op);
+            }
+        }
+    }
+
+    /**
+     * Collects the failures and the sync backup counts of the record
+     * operations and sends the response once all record operations
+     * completed.
+     */
+    private final class BatchResponse {
+
+        private final AtomicReferenceArray<Throwable> failures = new AtomicReferenceArray<>(operations.size());
+        private final AtomicInteger pendingOperations = new AtomicInteger(operations.size());
+        private final AtomicInteger backupAcks = new AtomicInteger();
+
+        void onResponse(int index, Object response) {
+            if (response instanceof NormalResponse) {
+                NormalResponse normalResponse = (NormalResponse) response;
+                backupAcks.addAndGet(normalResponse.getBackupAcks());
+                response = normalResponse.getValue();
+            } else if (response instanceof ErrorResponse) {
+                response = ((ErrorResponse) response).getCause();
+            }
+            if (response instanceof Throwable) {
+                failures.set(index, (Throwable) response);
+            }
+
+            if (pendingOperations.decrementAndGet() == 0) {
+                List<Throwable> result = new ArrayList<>(failures.length());
+                for (int i = 0; i < failures.length(); i++) {
+                    result.add(failures.get(i));
+                }
+                int acks = backupAcks.get();
+                sendResponse(acks > 0 ? new NormalResponse(result, getCallId(), acks, isUrgent()) : result);
+            }
+        }
+    }
+
+    private static final class OperationResponseHandlerImpl implements OperationResponseHandler {
+
+        private final BatchResponse batchResponse;
+        private final int index;
+
+        OperationResponseHandlerImpl(BatchResponse batchResponse, int index) {
+            this.batchResponse = batchResponse;
+            this.index = index;
+        }
+
+        @Override
+        public void sendResponse(Operation op, Object response) {
+            // the record operation may be invoked again on its own if it failed
+            OperationAccessor.deactivate(op);
+            batchResponse.onResponse(index, response);
+        }
+    }
+}
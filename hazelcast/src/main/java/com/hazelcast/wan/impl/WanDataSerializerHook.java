@@ -23,6 +23,10 @@ import com.hazelcast.map.impl.wan.WanMapRemoveEvent;
 import com.hazelcast.map.impl.wan.WanMapAddOrUpdateEvent;
 import com.hazelcast.map.impl.wan.WanMapEntryView;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
+import com.hazelcast.wan.impl.batch.WanBatchReplicationOperation;
+import com.hazelcast.wan.impl.batch.WanEventBatch;
+import com.hazelcast.wan.impl.batch.WanMerkleTreeHashesOperation;
+import com.hazelcast.wan.impl.batch.WanMerkleTreeSyncOperation;
 
 import static com.hazelcast.internal.serialization.impl.FactoryIdHelper.WAN_REPLICATION_DS_FACTORY;
 import static com.hazelcast.internal.serialization.impl.FactoryIdHelper.WAN_REPLICATION_DS_FACTORY_ID;
@@ -39,6 +43,10 @@ public class WanDataSerializerHook implements DataSerializerHook {
     public static final int WAN_MAP_ENTRY_VIEW = 2;
     public static final int WAN_CACHE_ENTRY_VIEW = 3;
     public static final int WAN_EVENT_CONTAINER_REPLICATION_OPERATION = 4;
+    public static final int WAN_EVENT_BATCH = 5;
+    public static final int WAN_BATCH_REPLICATION_OPERATION = 6;
+    public static final int WAN_MERKLE_TREE_HASHES_OPERATION = 7;
+    public static final int WAN_MERKLE_TREE_SYNC_OPERATION = 8;
 
     @Override
     public int getFactoryId() {
@@ -59,6 +67,14 @@ public class WanDataSerializerHook implements DataSerializerHook {
                     return new WanCacheEntryView<>();
                 case WAN_EVENT_CONTAINER_REPLICATION_OPERATION:
                     return new WanEventContainerReplicationOperation();
+                case WAN_EVENT_BATCH:
+                    return new WanEventBatch();
+                case WAN_BATCH_REPLICATION_OPERATION:
+                    return new WanBatchReplicationOperation();
+                case WAN_MERKLE_TREE_HASHES_OPERATION:
+                    return new WanMerkleTreeHashesOperation();
+                case WAN_MERKLE_TREE_SYNC_OPERATION:
+                    return new WanMerkleTreeSyncOperation();
                 default:
                     throw new IllegalArgumentException("Unknown type-id: " + typeId);
             }
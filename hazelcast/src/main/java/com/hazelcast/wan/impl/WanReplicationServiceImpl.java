@@ -21,12 +21,18 @@ import com.hazelcast.config.InvalidConfigurationException;
 import com.hazelcast.config.WanBatchPublisherConfig;
 import com.hazelcast.config.WanCustomPublisherConfig;
 import com.hazelcast.config.WanReplicationConfig;
+import com.hazelcast.config.WanReplicationRef;
 import com.hazelcast.core.ManagedContext;
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.internal.management.events.AddWanConfigIgnoredEvent;
 import com.hazelcast.internal.management.events.WanConsistencyCheckIgnoredEvent;
 import com.hazelcast.internal.management.events.WanSyncIgnoredEvent;
+import com.hazelcast.internal.metrics.DynamicMetricsProvider;
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsCollectionContext;
+import com.hazelcast.internal.monitor.LocalWanPublisherStats;
 import com.hazelcast.internal.monitor.LocalWanStats;
+import com.hazelcast.internal.monitor.impl.LocalWanStatsImpl;
 import com.hazelcast.internal.monitor.WanSyncState;
 import com.hazelcast.internal.partition.FragmentedMigrationAwareService;
 import com.hazelcast.internal.partition.PartitionMigrationEvent;
@@ -35,15 +41,20 @@ import com.hazelcast.internal.services.ManagedService;
 import com.hazelcast.internal.services.ObjectNamespace;
 import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.internal.util.ConstructorFunction;
+import com.hazelcast.internal.util.executor.ExecutorType;
+import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapService;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.version.Version;
 import com.hazelcast.wan.WanEventCounters;
 import com.hazelcast.wan.WanMigrationAwarePublisher;
 import com.hazelcast.wan.WanPublisher;
+import com.hazelcast.wan.impl.batch.WanBatchPublisher;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -55,19 +66,27 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.WAN_DISCRIMINATOR_REPLICATION;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.WAN_PREFIX;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.WAN_PREFIX_SYNC;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.WAN_TAG_MAP;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.WAN_TAG_PUBLISHERID;
 import static com.hazelcast.internal.nio.ClassLoaderUtil.getOrCreate;
 import static com.hazelcast.internal.util.ConcurrencyUtil.getOrPutSynchronized;
 import static com.hazelcast.internal.util.MapUtil.createConcurrentHashMap;
 import static com.hazelcast.internal.util.MapUtil.createHashMap;
 import static com.hazelcast.internal.util.StringUtil.isNullOrEmptyAfterTrim;
+import static com.hazelcast.wan.impl.batch.WanBatchPublisher.WAN_SYNC_EXECUTOR;
+import static com.hazelcast.wan.impl.batch.WanBatchReplicationOperation.WAN_RECEIVER_EXECUTOR;
 
 /**
  * Open source implementation of the {@link WanReplicationService}
  */
 @SuppressWarnings({"checkstyle:methodcount"})
 public class WanReplicationServiceImpl implements WanReplicationService,
-        FragmentedMigrationAwareService, ManagedService {
+        FragmentedMigrationAwareService, ManagedService, DynamicMetricsProvider {
 
     private final Node node;
 
@@ -92,12 +111,6 @@ public class WanReplicationServiceImpl implements WanReplicationService,
             if (wanReplicationConfig == null) {
                 return null;
             }
-            List<WanBatchPublisherConfig> batchPublisherConfigs
-                    = wanReplicationConfig.getBatchPublisherConfigs();
-            if (!batchPublisherConfigs.isEmpty()) {
-                throw new InvalidConfigurationException("Built-in batching WAN replication implementation "
-                        + "is only available in Hazelcast enterprise edition.");
-            }
             return new DelegatingWanScheme(name, createPublishers(wanReplicationConfig));
         };
     }
@@ -112,8 +125,9 @@ public class WanReplicationServiceImpl implements WanReplicationService,
     }
 
     private ConcurrentMap<String, WanPublisher> createPublishers(WanReplicationConfig wanReplicationConfig) {
+        List<WanBatchPublisherConfig> batchPublisherConfigs = wanReplicationConfig.getBatchPublisherConfigs();
         List<WanCustomPublisherConfig> customPublisherConfigs = wanReplicationConfig.getCustomPublisherConfigs();
-        int publisherCount = customPublisherConfigs.size();
+        int publisherCount = batchPublisherConfigs.size() + customPublisherConfigs.size();
 
         if (publisherCount == 0) {
             return createConcurrentHashMap(1);
@@ -122,7 +136,7 @@ public class WanReplicationServiceImpl implements WanReplicationService,
         ConcurrentMap<String, WanPublisher> publishers = createConcurrentHashMap(publisherCount);
         Map<String, AbstractWanPublisherConfig> publisherConfigs = createHashMap(publisherCount);
 
-        customPublisherConfigs.forEach(
+        Stream.concat(batchPublisherConfigs.stream(), customPublisherConfigs.stream()).forEach(
                 publisherConfig -> {
                     String publisherId = getWanPublisherId(publisherConfig);
                     if (publishers.containsKey(publisherId)) {
@@ -156,6 +170,9 @@ public class WanReplicationServiceImpl implements WanReplicationService,
      *                                       implementation or class name defined on the config
      */
     private WanPublisher createPublisher(AbstractWanPublisherConfig publisherConfig) {
+        if (publisherConfig instanceof WanBatchPublisherConfig) {
+            return new WanBatchPublisher(node.getNodeEngine());
+        }
         WanPublisher publisher = getOrCreate(
                 publisherConfig.getImplementation(),
                 node.getConfigClassLoader(),
@@ -206,31 +223,63 @@ public class WanReplicationServiceImpl implements WanReplicationService,
 
     @Override
     public void pause(String wanReplicationName, String wanPublisherId) {
-        throw new UnsupportedOperationException("Pausing WAN replication is not supported.");
+        getBatchPublisher(wanReplicationName, wanPublisherId, "Pausing WAN replication is not supported.").pause();
     }
 
     @Override
     public void stop(String wanReplicationName, String wanPublisherId) {
-        throw new UnsupportedOperationException("Stopping WAN replication is not supported");
+        getBatchPublisher(wanReplicationName, wanPublisherId, "Stopping WAN replication is not supported").stop();
     }
 
     @Override
     public void resume(String wanReplicationName, String wanPublisherId) {
-        throw new UnsupportedOperationException("Resuming WAN replication is not supported");
+        getBatchPublisher(wanReplicationName, wanPublisherId, "Resuming WAN replication is not supported").resume();
+    }
+
+    /**
+     * Returns the built-in batching publisher with the given ID.
+     *
+     * @throws UnsupportedOperationException with the given message if the
+     *                                       publisher is a custom publisher
+     */
+    private WanBatchPublisher getBatchPublisher(String wanReplicationName, String wanPublisherId, String unsupportedMessage) {
+        WanPublisher publisher = getPublisherOrNull(wanReplicationName, wanPublisherId);
+        if (!(publisher instanceof WanBatchPublisher)) {
+            throw new UnsupportedOperationException(unsupportedMessage);
+        }
+        return (WanBatchPublisher) publisher;
     }
 
     @Override
     public UUID syncMap(String wanReplicationName, String wanPublisherId, String mapName) {
-        node.getManagementCenterService().log(
-                WanSyncIgnoredEvent.enterpriseOnly(wanReplicationName, wanPublisherId, mapName));
-        throw new UnsupportedOperationException("WAN sync for map is not supported.");
+        WanPublisher publisher = getPublisherOrNull(wanReplicationName, wanPublisherId);
+        if (!(publisher instanceof WanBatchPublisher)) {
+            node.getManagementCenterService().log(
+                    WanSyncIgnoredEvent.enterpriseOnly(wanReplicationName, wanPublisherId, mapName));
+            throw new UnsupportedOperationException("WAN sync for map is not supported.");
+        }
+        return ((WanBatchPublisher) publisher).syncMaps(Collections.singletonList(mapName));
     }
 
     @Override
     public UUID syncAllMaps(String wanReplicationName, String wanPublisherId) {
-        node.getManagementCenterService().log(
-                WanSyncIgnoredEvent.enterpriseOnly(wanReplicationName, wanPublisherId, null));
-        throw new UnsupportedOperationException("WAN sync is not supported.");
+        WanPublisher publisher = getPublisherOrNull(wanReplicationName, wanPublisherId);
+        if (!(publisher instanceof WanBatchPublisher)) {
+            node.getManagementCenterService().log(
+                    WanSyncIgnoredEvent.enterpriseOnly(wanReplicationName, wanPublisherId, null));
+            throw new UnsupportedOperationException("WAN sync is not supported.");
+        }
+        MapService mapService = node.getNodeEngine().getService(MapService.SERVICE_NAME);
+        List<String> mapNames = new ArrayList<>();
+        for (MapContainer mapContainer : mapService.getMapServiceContext().getMapContainers().values()) {
+            // the maps without Merkle trees can't be synchronized
+            WanReplicationRef wanReplicationRef = mapContainer.getMapConfig().getWanReplicationRef();
+            if (wanReplicationRef != null && wanReplicationName.equals(wanReplicationRef.getName())
+                    && mapContainer.getMapConfig().getMerkleTreeConfig().isEnabled()) {
+                mapNames.add(mapContainer.getName());
+            }
+        }
+        return ((WanBatchPublisher) publisher).syncMaps(mapNames);
     }
 
     @Override
@@ -244,7 +293,8 @@ public class WanReplicationServiceImpl implements WanReplicationService,
 
     @Override
     public void removeWanEvents(String wanReplicationName, String wanPublisherId) {
-        throw new UnsupportedOperationException("Clearing WAN replication queues is not supported.");
+        getBatchPublisher(wanReplicationName, wanPublisherId, "Clearing WAN replication queues is not supported.")
+                .removeWanEvents();
     }
 
     @Override
@@ -261,7 +311,53 @@ public class WanReplicationServiceImpl implements WanReplicationService,
 
     @Override
     public Map<String, LocalWanStats> getStats() {
-        return null;
+        if (wanReplications.isEmpty()) {
+            return null;
+        }
+        Map<String, LocalWanStats> stats = createHashMap(wanReplications.size());
+        for (Entry<String, DelegatingWanScheme> entry : wanReplications.entrySet()) {
+            Map<String, LocalWanPublisherStats> publisherStats = entry.getValue().getStats();
+            if (!publisherStats.isEmpty()) {
+                LocalWanStatsImpl schemeStats = new LocalWanStatsImpl();
+                schemeStats.setLocalPublisherStatsMap(publisherStats);
+                stats.put(entry.getKey(), schemeStats);
+            }
+        }
+        return stats.isEmpty() ? null : stats;
+    }
+
+    @Override
+    public void provideDynamicMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+        for (DelegatingWanScheme scheme : wanReplications.values()) {
+            for (Entry<String, LocalWanPublisherStats> entry : scheme.getStats().entrySet()) {
+                String publisherId = entry.getKey();
+                MetricDescriptor publisherDescriptor = descriptor
+                        .copy()
+                        .withPrefix(WAN_PREFIX)
+                        .withDiscriminator(WAN_DISCRIMINATOR_REPLICATION, scheme.getName())
+                        .withTag(WAN_TAG_PUBLISHERID, publisherId);
+                context.collect(publisherDescriptor, entry.getValue());
+                context.collect(publisherDescriptor.copy(), scheme.getPublisher(publisherId));
+                provideSyncMetrics(descriptor, scheme.getName(), publisherId, entry.getValue(), context);
+            }
+        }
+    }
+
+    private static void provideSyncMetrics(MetricDescriptor descriptor, String wanReplicationName, String publisherId,
+                                           LocalWanPublisherStats publisherStats, MetricsCollectionContext context) {
+        Map<String, WanSyncStats> syncStats = publisherStats.getLastSyncStats();
+        if (syncStats == null) {
+            return;
+        }
+        for (Entry<String, WanSyncStats> entry : syncStats.entrySet()) {
+            MetricDescriptor syncDescriptor = descriptor
+                    .copy()
+                    .withPrefix(WAN_PREFIX_SYNC)
+                    .withDiscriminator(WAN_DISCRIMINATOR_REPLICATION, wanReplicationName)
+                    .withTag(WAN_TAG_PUBLISHERID, publisherId)
+                    .withTag(WAN_TAG_MAP, entry.getKey());
+            context.collect(syncDescriptor, entry.getValue());
+        }
     }
 
     @Override
@@ -310,7 +406,9 @@ public class WanReplicationServiceImpl implements WanReplicationService,
 
     @Override
     public void init(NodeEngine nodeEngine, Properties properties) {
-        // NOP
+        nodeEngine.getExecutionService().register(WAN_RECEIVER_EXECUTOR, 1, Integer.MAX_VALUE, ExecutorType.CACHED);
+        nodeEngine.getExecutionService().register(WAN_SYNC_EXECUTOR, 1, Integer.MAX_VALUE, ExecutorType.CACHED);
+        ((NodeEngineImpl) nodeEngine).getMetricsRegistry().registerDynamicMetricsProvider(this);
     }
 
     @Override
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.wan.impl.batch;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.wan.impl.WanSyncStats;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.WAN_METRIC_MERKLE_SYNC_BYTES_TRANSFERRED;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.WAN_METRIC_MERKLE_SYNC_FULL_SYNC_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.WAN_METRIC_MERKLE_SYNC_NODES_SYNCED;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.WAN_METRIC_MERKLE_SYNC_PARTITIONS_SYNCED;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.WAN_METRIC_MERKLE_SYNC_PARTITIONS_TO_SYNC;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.WAN_METRIC_MERKLE_SYNC_RECORDS_SYNCED;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.WAN_METRIC_MERKLE_SYNC_START_SYNC_NANOS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.WAN_METRIC_MERKLE_SYNC_SYNC_DURATION_NANOS;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
+
+/**
+ * Statistics of a Merkle tree based synchronization of a map, see
+ * {@link WanMerkleTreeSync}.
+ * <p>
+ * Besides the usual synchronization statistics, it records the number of
+ * bytes transferred by the synchronization, i.e. the exchanged node hashes
+ * and the sent entries, and the number of bytes a full synchronization,
+ * sending every entry, would have transferred.
+ */
+public class MerkleTreeSyncStats implements WanSyncStats {
+
+    private final UUID uuid;
+    @Probe(name = WAN_METRIC_MERKLE_SYNC_START_SYNC_NANOS, unit = NS)
+    private final long startSyncNanos = System.nanoTime();
+    @Probe(name = WAN_METRIC_MERKLE_SYNC_PARTITIONS_TO_SYNC)
+    private final int partitionsToSync;
+    @Probe(name = WAN_METRIC_MERKLE_SYNC_PARTITIONS_SYNCED)
+    private final AtomicInteger partitionsSynced = new AtomicInteger();
+    @Probe(name = WAN_METRIC_MERKLE_SYNC_RECORDS_SYNCED)
+    private final AtomicInteger recordsSynced = new AtomicInteger();
+    @Probe(name = WAN_METRIC_MERKLE_SYNC_NODES_SYNCED)
+    private final AtomicInteger nodesSynced = new AtomicInteger();
+    @Probe(name = WAN_METRIC_MERKLE_SYNC_BYTES_TRANSFERRED, unit = BYTES)
+    private final AtomicLong bytesTransferred = new AtomicLong();
+    @Probe(name = WAN_METRIC_MERKLE_SYNC_FULL_SYNC_BYTES, unit = BYTES)
+    private final AtomicLong fullSyncBytes = new AtomicLong();
+    private volatile long syncDurationNanos = -1;
+
+    public MerkleTreeSyncStats(UUID uuid, int partitionsToSync) {
+        this.uuid = uuid;
+        this.partitionsToSync = partitionsToSync;
+    }
+
+    @Override
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    @Override
+    public long getDurationSecs() {
+        return TimeUnit.NANOSECONDS.toSeconds(getSyncDurationNanos());
+    }
+
+    /**
+     * Returns the duration of the synchronization so far, or in total if
+     * it completed.
+     */
+    @Probe(name = WAN_METRIC_MERKLE_SYNC_SYNC_DURATION_NANOS, unit = NS)
+    public long getSyncDurationNanos() {
+        long duration = syncDurationNanos;
+        return duration >= 0 ? duration : System.nanoTime() - startSyncNanos;
+    }
+
+    @Override
+    public int getPartitionsToSync() {
+        return partitionsToSync;
+    }
+
+    @Override
+    public int getPartitionsSynced() {
+        return partitionsSynced.get();
+    }
+
+    @Override
+    public int getRecordsSynced() {
+        return recordsSynced.get();
+    }
+
+    /**
+     * Returns the number of the Merkle tree leaves found to be different
+     * and synchronized.
+     */
+    public int getNodesSynced() {
+        return nodesSynced.get();
+    }
+
+    /**
+     * Returns the number of bytes transferred to and from the target
+     * cluster, i.e. the exchanged node hashes and the serialized entries.
+     */
+    public long getBytesTransferred() {
+        return bytesTransferred.get();
+    }
+
+    /**
+     * Returns the number of bytes a full synchronization would transfer,
+     * i.e. the serialized size of all synchronized entries.
+     */
+    public long getFullSyncBytes() {
+        return fullSyncBytes.get();
+    }
+
+    /**
+     * Returns whether the synchronization completed.
+     */
+    public boolean isCompleted() {
+        return syncDurationNanos >= 0;
+    }
+
+    void onBytesTransferred(long bytes) {
+        bytesTransferred.addAndGet(bytes);
+    }
+
+    void onPartitionSynced(long partitionFullSyncBytes, int leafCount, int recordCount) {
+        fullSyncBytes.addAndGet(partitionFullSyncBytes);
+        nodesSynced.addAndGet(leafCount);
+        recordsSynced.addAndGet(recordCount);
+        partitionsSynced.incrementAndGet();
+    }
+
+    void onCompleted() {
+        syncDurationNanos = System.nanoTime() - startSyncNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "MerkleTreeSyncStats{"
+                + "uuid=" + uuid
+                + ", partitionsToSync=" + partitionsToSync
+                + ", partitionsSynced=" + partitionsSynced
+                + ", recordsSynced=" + recordsSynced
+                + ", nodesSynced=" + nodesSynced
+                + ", bytesTransferred=" + bytesTransferred
+                + ", fullSyncBytes=" + fullSyncBytes
+                + ", syncDurationNanos=" + getSyncDurationNanos()
+                + '}';
+    }
+}
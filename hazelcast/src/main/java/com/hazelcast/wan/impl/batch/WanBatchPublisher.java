@@ -0,0 +1,670 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.wan.impl.batch;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.config.AbstractWanPublisherConfig;
+import com.hazelcast.config.InvalidConfigurationException;
+import com.hazelcast.config.WanAcknowledgeType;
+import com.hazelcast.config.WanBatchPublisherConfig;
+import com.hazelcast.config.WanQueueFullBehavior;
+import com.hazelcast.config.WanReplicationConfig;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.monitor.LocalWanPublisherStats;
+import com.hazelcast.internal.monitor.impl.LocalWanPublisherStatsImpl;
+import com.hazelcast.internal.partition.IPartitionService;
+import com.hazelcast.internal.partition.MigrationEndpoint;
+import com.hazelcast.internal.partition.PartitionMigrationEvent;
+import com.hazelcast.internal.partition.PartitionReplicationEvent;
+import com.hazelcast.internal.services.DistributedObjectNamespace;
+import com.hazelcast.internal.services.ServiceNamespace;
+import com.hazelcast.internal.util.AddressUtil;
+import com.hazelcast.internal.util.AddressUtil.AddressHolder;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.internal.util.UuidUtil;
+import com.hazelcast.internal.util.concurrent.BackoffIdleStrategy;
+import com.hazelcast.internal.util.concurrent.IdleStrategy;
+import com.hazelcast.internal.util.counters.Counter;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.operationservice.OperationService;
+import com.hazelcast.wan.WanEvent;
+import com.hazelcast.wan.WanEventCounters;
+import com.hazelcast.wan.WanMigrationAwarePublisher;
+import com.hazelcast.wan.WanPublisherState;
+import com.hazelcast.wan.WanQueueFullException;
+import com.hazelcast.wan.impl.InternalWanEvent;
+import com.hazelcast.wan.impl.InternalWanPublisher;
+import com.hazelcast.wan.impl.WanReplicationService;
+import com.hazelcast.wan.impl.WanReplicationServiceImpl;
+import com.hazelcast.wan.impl.WanSyncStats;
+import com.hazelcast.wan.impl.batch.WanPartitionQueue.QueuedEvent;
+
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Predicate;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.WAN_METRIC_DROPPED_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.WAN_METRIC_FAILED_BATCH_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.WAN_METRIC_MAX_PUBLISH_LATENCY;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.WAN_METRIC_SENT_BATCH_COUNT;
+import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static com.hazelcast.internal.nio.IOUtil.compress;
+import static com.hazelcast.internal.util.ThreadUtil.createThreadName;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.internal.util.StringUtil.isNullOrEmptyAfterTrim;
+
+/**
+ * Open source implementation of the built-in batching WAN publisher,
+ * configured with a {@link WanBatchPublisherConfig}.
+ * <p>
+ * The events of the partitions owned by this member are queued per
+ * partition and sent to the target cluster in batches by a dedicated
+ * publisher thread. A batch is sent once it holds
+ * {@link WanBatchPublisherConfig#getBatchSize() batchSize} events or its
+ * oldest event waited for
+ * {@link WanBatchPublisherConfig#getBatchMaxDelayMillis() batchMaxDelayMillis}.
+ * The events are removed from their queues only once the target cluster
+ * acknowledges the batch, so a batch which fails or times out is sent
+ * again and the replication is at-least-once.
+ * <p>
+ * The partitions are spread over the configured
+ * {@link WanBatchPublisherConfig#getTargetEndpoints() target endpoints} and
+ * each endpoint has at most one batch in flight, which preserves the order
+ * of the events of a partition. The events of the backup partitions are
+ * kept in separate bounded queues and become publishable when the member
+ * is promoted to the partition owner.
+ * <p>
+ * Unlike the enterprise implementation, this publisher doesn't discover
+ * the target endpoints, doesn't support WAN sync and consistency checks
+ * and doesn't use a dedicated WAN endpoint, the batches are sent over the
+ * member connections.
+ */
+@SuppressWarnings({"checkstyle:methodcount", "checkstyle:classfanoutcomplexity", "checkstyle:classdataabstractioncoupling"})
+public class WanBatchPublisher implements InternalWanPublisher<Object>, WanMigrationAwarePublisher<WanEventBatch> {
+
+    /**
+     * The name of the executor running the Merkle tree synchronizations.
+     */
+    public static final String WAN_SYNC_EXECUTOR = "hz:wan:sync";
+
+    private static final int DEFAULT_TARGET_PORT = 5701;
+    private static final long MAX_SPINS = 0;
+    private static final long MAX_YIELDS = 0;
+    private static final long MAX_RETRY_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private final NodeEngine nodeEngine;
+    private final ILogger logger;
+    private final IPartitionService partitionService;
+    private final LocalWanPublisherStatsImpl stats = new LocalWanPublisherStatsImpl();
+    private final AtomicInteger primaryEventCount = new AtomicInteger();
+    private final AtomicInteger backupEventCount = new AtomicInteger();
+
+    @Probe(name = WAN_METRIC_DROPPED_COUNT)
+    private final Counter droppedCount = newMwCounter();
+    @Probe(name = WAN_METRIC_SENT_BATCH_COUNT)
+    private final Counter sentBatchCount = newMwCounter();
+    @Probe(name = WAN_METRIC_FAILED_BATCH_COUNT)
+    private final Counter failedBatchCount = newMwCounter();
+    private final LongAccumulator maxPublishLatency = new LongAccumulator(Math::max, 0);
+    private final Map<String, WanSyncStats> lastSyncStats = new ConcurrentHashMap<>();
+
+    private String wanReplicationName;
+    private String wanPublisherId;
+    private String targetClusterName;
+    private WanAcknowledgeType acknowledgeType;
+    private WanQueueFullBehavior queueFullBehavior;
+    private int queueCapacity;
+    private int batchSize;
+    private long batchMaxDelayMillis;
+    private long responseTimeoutMillis;
+    private WanPartitionQueue[] primaryQueues;
+    private WanPartitionQueue[] backupQueues;
+    private List<TargetEndpoint> endpoints;
+    private Thread publisherThread;
+
+    private volatile WanPublisherState state;
+    private volatile boolean running;
+
+    public WanBatchPublisher(NodeEngine nodeEngine) {
+        this.nodeEngine = nodeEngine;
+        this.logger = nodeEngine.getLogger(WanBatchPublisher.class);
+        this.partitionService = nodeEngine.getPartitionService();
+    }
+
+    @Override
+    public void init(WanReplicationConfig wanReplicationConfig, AbstractWanPublisherConfig publisherConfig) {
+        WanBatchPublisherConfig config = (WanBatchPublisherConfig) publisherConfig;
+        this.wanReplicationName = wanReplicationConfig.getName();
+        this.wanPublisherId = WanReplicationServiceImpl.getWanPublisherId(config);
+        this.targetClusterName = config.getClusterName();
+        this.acknowledgeType = config.getAcknowledgeType();
+        this.queueFullBehavior = config.getQueueFullBehavior();
+        this.queueCapacity = config.getQueueCapacity();
+        this.batchSize = config.getBatchSize();
+        this.batchMaxDelayMillis = config.getBatchMaxDelayMillis();
+        this.responseTimeoutMillis = config.getResponseTimeoutMillis();
+        this.endpoints = createEndpoints(config.getTargetEndpoints());
+        this.state = config.getInitialPublisherState();
+        stats.setState(state);
+        stats.setLastSyncStats(lastSyncStats);
+
+        int partitionCount = partitionService.getPartitionCount();
+        primaryQueues = new WanPartitionQueue[partitionCount];
+        backupQueues = new WanPartitionQueue[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            primaryQueues[i] = new WanPartitionQueue();
+            backupQueues[i] = new WanPartitionQueue();
+        }
+
+        IdleStrategy idleStrategy = new BackoffIdleStrategy(MAX_SPINS, MAX_YIELDS,
+                config.getIdleMinParkNs(), config.getIdleMaxParkNs());
+        String threadName = createThreadName(nodeEngine.getHazelcastInstance().getName(),
+                "wan-batch-publisher-" + wanReplicationName + "-" + wanPublisherId);
+        running = true;
+        publisherThread = new Thread(() -> publishLoop(idleStrategy), threadName);
+        publisherThread.setDaemon(true);
+        publisherThread.start();
+    }
+
+    private List<TargetEndpoint> createEndpoints(String targetEndpoints) {
+        if (isNullOrEmptyAfterTrim(targetEndpoints)) {
+            throw new InvalidConfigurationException("The target endpoints of the WAN publisher "
+                    + wanPublisherId + " must be configured, discovery is not supported.");
+        }
+        List<TargetEndpoint> endpoints = new ArrayList<>();
+        for (String endpoint : targetEndpoints.split(",")) {
+            if (isNullOrEmptyAfterTrim(endpoint)) {
+                continue;
+            }
+            AddressHolder holder = AddressUtil.getAddressHolder(endpoint.trim(), DEFAULT_TARGET_PORT);
+            try {
+                endpoints.add(new TargetEndpoint(endpoints.size(), new Address(holder.getAddress(), holder.getPort())));
+            } catch (UnknownHostException e) {
+                throw new InvalidConfigurationException("Invalid WAN target endpoint " + endpoint, e);
+            }
+        }
+        return endpoints;
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+        Thread thread = publisherThread;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(SHUTDOWN_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void doPrepublicationChecks() {
+        boolean throwIfFull = queueFullBehavior == WanQueueFullBehavior.THROW_EXCEPTION
+                || queueFullBehavior == WanQueueFullBehavior.THROW_EXCEPTION_ONLY_IF_REPLICATION_ACTIVE
+                && state == WanPublisherState.REPLICATING;
+        if (throwIfFull && primaryEventCount.get() >= queueCapacity) {
+            throw new WanQueueFullException("WAN replication queue of the publisher " + wanPublisherId
+                    + " of the WAN replication " + wanReplicationName + " is full, its capacity is " + queueCapacity);
+        }
+    }
+
+    @Override
+    public void publishReplicationEvent(WanEvent<Object> eventObject) {
+        if (!state.isEnqueueNewEvents()) {
+            return;
+        }
+        InternalWanEvent event = (InternalWanEvent) eventObject;
+        if (!tryReserveCapacity()) {
+            droppedCount.inc();
+            sentEventCounters(event).incrementDropped(event.getObjectName());
+            return;
+        }
+        int partitionId = partitionService.getPartitionId(event.getKey());
+        primaryQueues[partitionId].offer(event, Clock.currentTimeMillis());
+    }
+
+    @Override
+    public void publishReplicationEventBackup(WanEvent<Object> eventObject) {
+        if (!state.isEnqueueNewEvents()) {
+            return;
+        }
+        InternalWanEvent event = (InternalWanEvent) eventObject;
+        int partitionId = partitionService.getPartitionId(event.getKey());
+        WanPartitionQueue queue = backupQueues[partitionId];
+        queue.offer(event, Clock.currentTimeMillis());
+        // the backup queues are bounded by dropping their oldest events
+        if (backupEventCount.incrementAndGet() > queueCapacity && queue.removeOldest()) {
+            backupEventCount.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void republishReplicationEvent(InternalWanEvent<Object> wanEvent) {
+        publishReplicationEvent(wanEvent);
+    }
+
+    private boolean tryReserveCapacity() {
+        for (; ; ) {
+            int count = primaryEventCount.get();
+            if (count >= queueCapacity) {
+                return false;
+            }
+            if (primaryEventCount.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void pause() {
+        setState(WanPublisherState.PAUSED);
+    }
+
+    @Override
+    public void stop() {
+        setState(WanPublisherState.STOPPED);
+    }
+
+    @Override
+    public void resume() {
+        setState(WanPublisherState.REPLICATING);
+    }
+
+    private void setState(WanPublisherState state) {
+        this.state = state;
+        stats.setState(state);
+    }
+
+    @Override
+    public LocalWanPublisherStats getStats() {
+        stats.setOutboundQueueSize(primaryEventCount.get());
+        stats.setSentMapEventCounter(Collections.unmodifiableMap(
+                sentEventCounters(MapService.SERVICE_NAME).getEventCounterMap()));
+        return stats;
+    }
+
+    @Probe(name = WAN_METRIC_MAX_PUBLISH_LATENCY, unit = MS)
+    public long getMaxPublishLatency() {
+        return maxPublishLatency.get();
+    }
+
+    /**
+     * Synchronizes the given maps with the target cluster by comparing the
+     * Merkle trees of their partitions, see {@link WanMerkleTreeSync}. Each
+     * member of the cluster synchronizes the partitions it owns. The
+     * synchronization runs asynchronously, its progress is reported by the
+     * {@link LocalWanPublisherStats#getLastSyncStats() sync stats} of the
+     * maps on each member.
+     *
+     * @param mapNames the names of the maps to synchronize
+     * @return the UUID of the synchronization
+     * @throws IllegalArgumentException if a map is not configured for WAN
+     *                                  replication or has no Merkle trees
+     */
+    public UUID syncMaps(Collection<String> mapNames) {
+        for (String mapName : mapNames) {
+            WanMerkleTreeSync.checkSyncable(nodeEngine, mapName);
+        }
+        UUID uuid = UuidUtil.newUnsecureUUID();
+        List<String> mapNameList = new ArrayList<>(mapNames);
+        OperationService operationService = nodeEngine.getOperationService();
+        for (Member member : nodeEngine.getClusterService().getMembers()) {
+            if (!member.localMember()) {
+                operationService.invokeOnTarget(WanReplicationService.SERVICE_NAME,
+                        new WanMerkleTreeSyncOperation(wanReplicationName, wanPublisherId, mapNameList, uuid),
+                        member.getAddress());
+            }
+        }
+        syncLocalPartitions(uuid, mapNameList);
+        return uuid;
+    }
+
+    /**
+     * Synchronizes the partitions of the given maps owned by this member.
+     *
+     * @param uuid     the UUID of the synchronization
+     * @param mapNames the names of the maps to synchronize
+     */
+    void syncLocalPartitions(UUID uuid, Collection<String> mapNames) {
+        List<Integer> partitionIds = partitionService.getMemberPartitions(nodeEngine.getThisAddress());
+        Map<String, MerkleTreeSyncStats> statsByMap = new LinkedHashMap<>();
+        for (String mapName : mapNames) {
+            MerkleTreeSyncStats syncStats = new MerkleTreeSyncStats(uuid, partitionIds.size());
+            statsByMap.put(mapName, syncStats);
+            lastSyncStats.put(mapName, syncStats);
+        }
+        nodeEngine.getExecutionService().execute(WAN_SYNC_EXECUTOR,
+                new WanMerkleTreeSync(this, nodeEngine, partitionIds, statsByMap));
+    }
+
+    String getTargetClusterName() {
+        return targetClusterName;
+    }
+
+    int getBatchSize() {
+        return batchSize;
+    }
+
+    long getResponseTimeoutMillis() {
+        return responseTimeoutMillis;
+    }
+
+    /**
+     * Returns the address of the target endpoint the events of the given
+     * partition are sent to.
+     */
+    Address getTargetAddress(int partitionId) {
+        return endpoints.get(partitionId % endpoints.size()).address;
+    }
+
+    void onEntriesSynced(String mapName, int count) {
+        sentEventCounters(MapService.SERVICE_NAME).incrementSync(mapName, count);
+    }
+
+    @Override
+    public void destroyMapData(String mapName) {
+        Predicate<InternalWanEvent> predicate = event -> mapName.equals(event.getObjectName());
+        for (int i = 0; i < primaryQueues.length; i++) {
+            primaryEventCount.addAndGet(-primaryQueues[i].removeIf(predicate, Integer.MAX_VALUE));
+            backupEventCount.addAndGet(-backupQueues[i].removeIf(predicate, Integer.MAX_VALUE));
+        }
+    }
+
+    @Override
+    public int removeWanEvents(int partitionId, String serviceName, String objectName, int count) {
+        int removed = primaryQueues[partitionId].removeIf(event -> serviceName.equals(event.getServiceName())
+                && objectName.equals(event.getObjectName()), count);
+        primaryEventCount.addAndGet(-removed);
+        return removed;
+    }
+
+    @Override
+    public int removeWanEvents() {
+        int removed = 0;
+        for (int i = 0; i < primaryQueues.length; i++) {
+            removed += primaryQueues[i].drain().size();
+            backupEventCount.addAndGet(-backupQueues[i].drain().size());
+        }
+        primaryEventCount.addAndGet(-removed);
+        return removed;
+    }
+
+    @Override
+    public void onMigrationStart(PartitionMigrationEvent event) {
+        // the queues are moved only once the migration is committed
+    }
+
+    @Override
+    public void onMigrationCommit(PartitionMigrationEvent event) {
+        int partitionId = event.getPartitionId();
+        if (event.getMigrationEndpoint() == MigrationEndpoint.SOURCE) {
+            if (event.getCurrentReplicaIndex() == 0) {
+                List<InternalWanEvent> events = primaryQueues[partitionId].drain();
+                primaryEventCount.addAndGet(-events.size());
+                if (event.getNewReplicaIndex() > 0) {
+                    backupQueues[partitionId].addAll(events, Clock.currentTimeMillis());
+                    backupEventCount.addAndGet(events.size());
+                }
+            } else if (event.getNewReplicaIndex() == -1) {
+                backupEventCount.addAndGet(-backupQueues[partitionId].drain().size());
+            }
+        } else if (event.getNewReplicaIndex() == 0) {
+            List<InternalWanEvent> events = backupQueues[partitionId].drain();
+            backupEventCount.addAndGet(-events.size());
+            primaryQueues[partitionId].addAll(events, Clock.currentTimeMillis());
+            primaryEventCount.addAndGet(events.size());
+        }
+    }
+
+    @Override
+    public void onMigrationRollback(PartitionMigrationEvent event) {
+        if (event.getMigrationEndpoint() == MigrationEndpoint.DESTINATION && event.getCurrentReplicaIndex() == -1) {
+            backupEventCount.addAndGet(-backupQueues[event.getPartitionId()].drain().size());
+        }
+    }
+
+    @Override
+    public WanEventBatch prepareEventContainerReplicationData(PartitionReplicationEvent event,
+                                                              Collection<ServiceNamespace> namespaces) {
+        List<InternalWanEvent> events = primaryQueues[event.getPartitionId()].snapshot();
+        events.removeIf(e -> !namespaces.contains(namespaceOf(e)));
+        return events.isEmpty() ? null : new WanEventBatch(events);
+    }
+
+    @Override
+    public void processEventContainerReplicationData(int partitionId, WanEventBatch eventContainer) {
+        WanPartitionQueue queue = backupQueues[partitionId];
+        List<InternalWanEvent> events = eventContainer.getEvents();
+        // replace the events of the replicated namespaces, keep the others
+        List<ServiceNamespace> namespaces = new ArrayList<>();
+        for (InternalWanEvent event : events) {
+            ServiceNamespace namespace = namespaceOf(event);
+            if (!namespaces.contains(namespace)) {
+                namespaces.add(namespace);
+            }
+        }
+        int removed = queue.removeIf(e -> namespaces.contains(namespaceOf(e)), Integer.MAX_VALUE);
+        queue.addAll(events, Clock.currentTimeMillis());
+        backupEventCount.addAndGet(events.size() - removed);
+    }
+
+    @Override
+    public void collectAllServiceNamespaces(PartitionReplicationEvent event, Set<ServiceNamespace> namespaces) {
+        for (InternalWanEvent wanEvent : primaryQueues[event.getPartitionId()].snapshot()) {
+            namespaces.add(namespaceOf(wanEvent));
+        }
+    }
+
+    private WanEventCounters sentEventCounters(InternalWanEvent event) {
+        return sentEventCounters(event.getServiceName());
+    }
+
+    private WanEventCounters sentEventCounters(String serviceName) {
+        WanReplicationService service = nodeEngine.getWanReplicationService();
+        return service.getSentEventCounters(wanReplicationName, wanPublisherId, serviceName);
+    }
+
+    private void publishLoop(IdleStrategy idleStrategy) {
+        long idleCount = 0;
+        while (running) {
+            boolean sent = false;
+            try {
+                if (state.isReplicateEnqueuedEvents()) {
+                    long now = Clock.currentTimeMillis();
+                    for (TargetEndpoint endpoint : endpoints) {
+                        sent |= endpoint.trySend(now);
+                    }
+                }
+            } catch (Throwable t) {
+                logger.warning("Failed to send a WAN batch for the publisher " + wanPublisherId, t);
+            }
+            if (sent) {
+                idleCount = 0;
+            } else {
+                idleStrategy.idle(idleCount++);
+            }
+        }
+    }
+
+    private static ServiceNamespace namespaceOf(InternalWanEvent event) {
+        return new DistributedObjectNamespace(event.getServiceName(), event.getObjectName());
+    }
+
+    /**
+     * The events taken from a single partition queue into a batch.
+     */
+    private static final class PartitionSlice {
+
+        final WanPartitionQueue queue;
+        final long epoch;
+        final List<QueuedEvent> events;
+
+        PartitionSlice(WanPartitionQueue queue, long epoch, List<QueuedEvent> events) {
+            this.queue = queue;
+            this.epoch = epoch;
+            this.events = events;
+        }
+    }
+
+    /**
+     * A member of the target cluster along with the batch in flight to it.
+     * The partitions are assigned to the endpoints by their IDs.
+     */
+    private final class TargetEndpoint {
+
+        private final int index;
+        private final Address address;
+        private volatile boolean inFlight;
+        private volatile long retryAtMillis;
+        private int failureCount;
+        private int nextPartitionId;
+
+        TargetEndpoint(int index, Address address) {
+            this.index = index;
+            this.address = address;
+            this.nextPartitionId = index;
+        }
+
+        boolean trySend(long now) {
+            if (inFlight || now < retryAtMillis) {
+                return false;
+            }
+            List<PartitionSlice> slices = new ArrayList<>();
+            long oldestMillis = collect(slices);
+            if (slices.isEmpty()) {
+                return false;
+            }
+            int eventCount = 0;
+            for (PartitionSlice slice : slices) {
+                eventCount += slice.events.size();
+            }
+            if (eventCount < batchSize && now - oldestMillis < batchMaxDelayMillis) {
+                return false;
+            }
+            send(slices, eventCount);
+            return true;
+        }
+
+        /**
+         * Collects up to {@code batchSize} events of the owned partitions
+         * assigned to this endpoint, starting from the partition following
+         * the last one sent to spread the batches fairly.
+         *
+         * @return the queue time of the oldest collected event.
+         */
+        private long collect(List<PartitionSlice> slices) {
+            int partitionCount = primaryQueues.length;
+            int stride = endpoints.size();
+            int remaining = batchSize;
+            long oldestMillis = Long.MAX_VALUE;
+            int partitionId = nextPartitionId;
+            for (int i = index; i < partitionCount && remaining > 0; i += stride) {
+                if (partitionService.isPartitionOwner(partitionId)) {
+                    WanPartitionQueue queue = primaryQueues[partitionId];
+                    long epoch = queue.epoch();
+                    List<QueuedEvent> events = new ArrayList<>();
+                    remaining -= queue.peek(remaining, events);
+                    if (!events.isEmpty()) {
+                        slices.add(new PartitionSlice(queue, epoch, events));
+                        oldestMillis = Math.min(oldestMillis, events.get(0).queuedMillis);
+                    }
+                }
+                partitionId += stride;
+                if (partitionId >= partitionCount) {
+                    partitionId = index;
+                }
+            }
+            nextPartitionId = partitionId;
+            return oldestMillis;
+        }
+
+        private void send(List<PartitionSlice> slices, int eventCount) {
+            List<InternalWanEvent> events = new ArrayList<>(eventCount);
+            for (PartitionSlice slice : slices) {
+                for (QueuedEvent event : slice.events) {
+                    events.add(event.event);
+                }
+            }
+            byte[] payload = compress(nodeEngine.getSerializationService().toData(new WanEventBatch(events)).toByteArray());
+            WanBatchReplicationOperation operation
+                    = new WanBatchReplicationOperation(targetClusterName, acknowledgeType, payload);
+            inFlight = true;
+            nodeEngine.getOperationService()
+                      .createInvocationBuilder(WanReplicationService.SERVICE_NAME, operation, address)
+                      .setTryCount(1)
+                      .setCallTimeout(responseTimeoutMillis)
+                      .invoke()
+                      .whenComplete((response, throwable) -> {
+                          if (throwable == null) {
+                              onAcknowledged(slices);
+                          } else {
+                              onFailure(throwable);
+                          }
+                      });
+        }
+
+        private void onAcknowledged(List<PartitionSlice> slices) {
+            long now = Clock.currentTimeMillis();
+            for (PartitionSlice slice : slices) {
+                int removed = slice.queue.remove(slice.epoch, slice.events.size());
+                primaryEventCount.addAndGet(-removed);
+                for (int i = 0; i < removed; i++) {
+                    QueuedEvent event = slice.events.get(i);
+                    long latency = now - event.queuedMillis;
+                    stats.incrementPublishedEventCount(latency);
+                    maxPublishLatency.accumulate(latency);
+                    event.event.incrementEventCount(sentEventCounters(event.event));
+                }
+            }
+            sentBatchCount.inc();
+            stats.setConnected(true);
+            failureCount = 0;
+            inFlight = false;
+        }
+
+        private void onFailure(Throwable throwable) {
+            failedBatchCount.inc();
+            stats.setConnected(false);
+            failureCount++;
+            long backoffMillis = Math.min(MAX_RETRY_BACKOFF_MILLIS, batchMaxDelayMillis * failureCount);
+            retryAtMillis = Clock.currentTimeMillis() + backoffMillis;
+            if (logger.isFineEnabled()) {
+                logger.fine("Failed to send a WAN batch to " + address + ", retrying in " + backoffMillis + " ms", throwable);
+            }
+            inFlight = false;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.wan.impl.batch;
+
+import com.hazelcast.config.WanAcknowledgeType;
+import com.hazelcast.internal.cluster.impl.operations.WanOperation;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.services.WanSupportingService;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.impl.operationservice.CallStatus;
+import com.hazelcast.spi.impl.operationservice.Offload;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.wan.impl.InternalWanEvent;
+import com.hazelcast.wan.impl.WanDataSerializerHook;
+import com.hazelcast.wan.impl.WanReplicationService;
+
+import java.io.IOException;
+
+import static com.hazelcast.internal.nio.IOUtil.decompress;
+
+/**
+ * Carries a compressed {@link WanEventBatch} from a {@link WanBatchPublisher}
+ * to a member of the target cluster and applies its events there.
+ * <p>
+ * The batches are applied one at a time, in the order of their arrival, by
+ * the single-threaded {@link #WAN_RECEIVER_EXECUTOR}. Depending on the
+ * acknowledge type, the batch is acknowledged once it's received or once
+ * all of its events are applied.
+ */
+public class WanBatchReplicationOperation extends Operation implements WanOperation, IdentifiedDataSerializable {
+
+    /**
+     * The name of the executor applying the received batches.
+     */
+    public static final String WAN_RECEIVER_EXECUTOR = "hz:wan:receiver";
+
+    private String targetClusterName;
+    private WanAcknowledgeType acknowledgeType;
+    private byte[] payload;
+
+    public WanBatchReplicationOperation() {
+    }
+
+    /**
+     * @param targetClusterName the name of the cluster the batch is sent to
+     * @param acknowledgeType   when to acknowledge the batch
+     * @param payload           the compressed serialized {@link WanEventBatch}
+     */
+    public WanBatchReplicationOperation(String targetClusterName, WanAcknowledgeType acknowledgeType, byte[] payload) {
+        this.targetClusterName = targetClusterName;
+        this.acknowledgeType = acknowledgeType;
+        this.payload = payload;
+    }
+
+    @Override
+    public CallStatus call() {
+        return new OffloadImpl();
+    }
+
+    @Override
+    public String getServiceName() {
+        return WanReplicationService.SERVICE_NAME;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return WanDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return WanDataSerializerHook.WAN_BATCH_REPLICATION_OPERATION;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeString(targetClusterName);
+        out.writeInt(acknowledgeType.getId());
+        out.writeByteArray(payload);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        targetClusterName = in.readString();
+        acknowledgeType = WanAcknowledgeType.getById(in.readInt());
+        payload = in.readByteArray();
+    }
+
+    private final class OffloadImpl extends Offload {
+
+        private OffloadImpl() {
+            super(WanBatchReplicationOperation.this);
+        }
+
+        @Override
+        public void start() {
+            String clusterName = nodeEngine.getConfig().getClusterName();
+            if (!clusterName.equals(targetClusterName)) {
+                sendResponse(new IllegalStateException("WAN batch for cluster " + targetClusterName
+                        + " was sent to a member of cluster " + clusterName));
+                return;
+            }
+
+            WanEventBatch batch = serializationService.toObject(new HeapData(decompress(payload)));
+            boolean ackOnReceipt = acknowledgeType == WanAcknowledgeType.ACK_ON_RECEIPT;
+            if (ackOnReceipt) {
+                sendResponse(Boolean.TRUE);
+            }
+            executionService.execute(WAN_RECEIVER_EXECUTOR, () -> {
+                try {
+                    apply(batch);
+                    if (!ackOnReceipt) {
+                        sendResponse(Boolean.TRUE);
+                    }
+                } catch (Throwable t) {
+                    if (ackOnReceipt) {
+                        getLogger().warning("Failed to apply a WAN batch received from " + getCallerAddress(), t);
+                    } else {
+                        sendResponse(t);
+                    }
+                }
+            });
+        }
+
+        private void apply(WanEventBatch batch) {
+            for (InternalWanEvent event : batch.getEvents()) {
+                WanSupportingService service = nodeEngine.getService(event.getServiceName());
+                service.onReplicationEvent(event, acknowledgeType);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.wan.impl.batch;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.wan.impl.InternalWanEvent;
+import com.hazelcast.wan.impl.WanDataSerializerHook;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An ordered list of WAN events. Used as the payload of the batches sent to
+ * the target cluster and as the WAN event container replicated between the
+ * members of the source cluster on migrations.
+ */
+public class WanEventBatch implements IdentifiedDataSerializable {
+
+    private List<InternalWanEvent> events;
+
+    public WanEventBatch() {
+    }
+
+    public WanEventBatch(List<InternalWanEvent> events) {
+        this.events = events;
+    }
+
+    public List<InternalWanEvent> getEvents() {
+        return events;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeInt(events.size());
+        for (InternalWanEvent event : events) {
+            out.writeObject(event);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        int size = in.readInt();
+        events = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            events.add(in.readObject());
+        }
+    }
+
+    @Override
+    public int getFactoryId() {
+        return WanDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return WanDataSerializerHook.WAN_EVENT_BATCH;
+    }
+
+}
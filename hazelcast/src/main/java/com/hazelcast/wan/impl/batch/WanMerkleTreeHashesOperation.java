@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.wan.impl.batch;
+
+import com.hazelcast.internal.cluster.impl.operations.WanOperation;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MerkleTreeHashes;
+import com.hazelcast.map.impl.operation.MerkleTreeHashesOperation;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.wan.impl.WanDataSerializerHook;
+import com.hazelcast.wan.impl.WanReplicationService;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
+import static com.hazelcast.internal.util.UUIDSerializationUtil.readUUID;
+import static com.hazelcast.internal.util.UUIDSerializationUtil.writeUUID;
+
+/**
+ * Returns the hashes of the requested nodes of the Merkle tree of a map
+ * partition in the target cluster of a WAN replication, see
+ * {@link WanMerkleTreeSync}.
+ * <p>
+ * The operation is sent to any member of the target cluster, which
+ * forwards it to the owner of the partition. Hence the source and the
+ * target clusters must have the same partition count. The requests of a
+ * synchronization share the tree built by the target partition owner, see
+ * {@link MerkleTreeHashesOperation}.
+ */
+public class WanMerkleTreeHashesOperation extends Operation implements WanOperation, IdentifiedDataSerializable {
+
+    private String targetClusterName;
+    private String mapName;
+    private int mapPartitionId;
+    private int depth;
+    private int[] nodeOrders;
+    private UUID comparisonId;
+
+    public WanMerkleTreeHashesOperation() {
+    }
+
+    public WanMerkleTreeHashesOperation(String targetClusterName, String mapName, int mapPartitionId, int depth,
+                                        int[] nodeOrders, UUID comparisonId) {
+        this.targetClusterName = targetClusterName;
+        this.mapName = mapName;
+        this.mapPartitionId = mapPartitionId;
+        this.depth = depth;
+        this.nodeOrders = nodeOrders;
+        this.comparisonId = comparisonId;
+    }
+
+    @Override
+    public void run() {
+        NodeEngine nodeEngine = getNodeEngine();
+        String clusterName = nodeEngine.getConfig().getClusterName();
+        if (!clusterName.equals(targetClusterName)) {
+            sendResponse(new IllegalStateException("Merkle tree request for cluster " + targetClusterName
+                    + " was sent to a member of cluster " + clusterName));
+            return;
+        }
+        int partitionCount = nodeEngine.getPartitionService().getPartitionCount();
+        if (mapPartitionId >= partitionCount) {
+            sendResponse(new IllegalStateException("Merkle tree request for partition " + mapPartitionId
+                    + " was sent to a cluster with " + partitionCount + " partitions"));
+            return;
+        }
+        nodeEngine.getOperationService()
+                  .<MerkleTreeHashes>invokeOnPartition(MapService.SERVICE_NAME,
+                          new MerkleTreeHashesOperation(mapName, depth, nodeOrders, comparisonId), mapPartitionId)
+                  .whenCompleteAsync((hashes, throwable) -> sendResponse(throwable != null
+                          ? throwable : hashes.getNodeHashes()), CALLER_RUNS);
+    }
+
+    @Override
+    public boolean returnsResponse() {
+        return false;
+    }
+
+    @Override
+    public String getServiceName() {
+        return WanReplicationService.SERVICE_NAME;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return WanDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return WanDataSerializerHook.WAN_MERKLE_TREE_HASHES_OPERATION;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeString(targetClusterName);
+        out.writeString(mapName);
+        out.writeInt(mapPartitionId);
+        out.writeInt(depth);
+        out.writeIntArray(nodeOrders);
+        writeUUID(out, comparisonId);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        targetClusterName = in.readString();
+        mapName = in.readString();
+        mapPartitionId = in.readInt();
+        depth = in.readInt();
+        nodeOrders = in.readIntArray();
+        comparisonId = readUUID(in);
+    }
+}
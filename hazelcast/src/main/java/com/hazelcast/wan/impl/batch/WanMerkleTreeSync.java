@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.wan.impl.batch;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.WanAcknowledgeType;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MerkleTreeHashes;
+import com.hazelcast.map.impl.MerkleTreeNodeEntries;
+import com.hazelcast.map.impl.operation.MerkleTreeHashesOperation;
+import com.hazelcast.map.impl.operation.MerkleTreeNodeEntriesOperation;
+import com.hazelcast.map.impl.wan.WanMapAddOrUpdateEvent;
+import com.hazelcast.map.impl.wan.WanMapEntryView;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.OperationService;
+import com.hazelcast.spi.merge.SplitBrainMergePolicy;
+import com.hazelcast.wan.impl.InternalWanEvent;
+import com.hazelcast.wan.impl.WanReplicationService;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.IOUtil.compress;
+
+/**
+ * Synchronizes maps with the target cluster of a {@link WanBatchPublisher}
+ * by comparing the Merkle trees of their partitions.
+ * <p>
+ * The trees of a partition are built on demand by the partition owners in
+ * both clusters and are compared level by level, see
+ * {@link MerkleTreeUtil#compareTreesLevelByLevel}, so that only the hashes
+ * of the subtrees that differ are exchanged. Then only the entries of the
+ * leaves found to be different are sent to the target cluster, where they
+ * are merged with the WAN merge policy of the map. The entries existing
+ * only in the target cluster are not removed.
+ * <p>
+ * Each member synchronizes the partitions it owns, one at a time. The
+ * progress and the transferred bytes versus the bytes of a full
+ * synchronization are recorded in the {@link MerkleTreeSyncStats} of each
+ * map.
+ */
+class WanMerkleTreeSync implements Runnable {
+
+    private final WanBatchPublisher publisher;
+    private final NodeEngine nodeEngine;
+    private final OperationService operationService;
+    private final ILogger logger;
+    private final List<Integer> partitionIds;
+    private final Map<String, MerkleTreeSyncStats> statsByMap;
+
+    /**
+     * @param publisher    the publisher of the target cluster
+     * @param nodeEngine   the node engine
+     * @param partitionIds the IDs of the partitions owned by this member
+     * @param statsByMap   the stats of the synchronization by map name
+     */
+    WanMerkleTreeSync(WanBatchPublisher publisher, NodeEngine nodeEngine, List<Integer> partitionIds,
+                      Map<String, MerkleTreeSyncStats> statsByMap) {
+        this.publisher = publisher;
+        this.nodeEngine = nodeEngine;
+        this.operationService = nodeEngine.getOperationService();
+        this.logger = nodeEngine.getLogger(WanMerkleTreeSync.class);
+        this.partitionIds = partitionIds;
+        this.statsByMap = statsByMap;
+    }
+
+    /**
+     * Checks that the given map can be synchronized, i.e. that it is
+     * configured for WAN replication and maintains Merkle trees.
+     *
+     * @throws IllegalArgumentException if the map can't be synchronized
+     */
+    static MapContainer checkSyncable(NodeEngine nodeEngine, String mapName) {
+        MapContainer mapContainer = ((MapService) nodeEngine.getService(MapService.SERVICE_NAME))
+                .getMapServiceContext().getMapContainer(mapName);
+        if (mapContainer.getWanMergePolicy() == null) {
+            throw new IllegalArgumentException("Map " + mapName + " is not configured for WAN replication");
+        }
+        if (!mapContainer.getMapConfig().getMerkleTreeConfig().isEnabled()) {
+            throw new IllegalArgumentException("Merkle trees are not enabled for map " + mapName);
+        }
+        return mapContainer;
+    }
+
+    @Override
+    public void run() {
+        for (Map.Entry<String, MerkleTreeSyncStats> entry : statsByMap.entrySet()) {
+            String mapName = entry.getKey();
+            MerkleTreeSyncStats stats = entry.getValue();
+            try {
+                syncMap(mapName, stats);
+                stats.onCompleted();
+                logger.info("Merkle tree sync of map " + mapName + " to cluster " + publisher.getTargetClusterName()
+                        + " completed: " + stats);
+            } catch (Throwable t) {
+                logger.warning("Merkle tree sync of map " + mapName + " to cluster " + publisher.getTargetClusterName()
+                        + " failed: " + stats, t);
+            }
+        }
+    }
+
+    private void syncMap(String mapName, MerkleTreeSyncStats stats) {
+        MapContainer mapContainer = checkSyncable(nodeEngine, mapName);
+        int depth = mapContainer.getMapConfig().getMerkleTreeConfig().getDepth();
+        SplitBrainMergePolicy mergePolicy = mapContainer.getWanMergePolicy();
+        for (int partitionId : partitionIds) {
+            syncPartition(mapName, partitionId, depth, mergePolicy, stats);
+        }
+    }
+
+    private void syncPartition(String mapName, int partitionId, int depth, SplitBrainMergePolicy mergePolicy,
+                               MerkleTreeSyncStats stats) {
+        MerkleTreeHashes localTree = operationService.<MerkleTreeHashes>invokeOnPartition(MapService.SERVICE_NAME,
+                new MerkleTreeHashesOperation(mapName, depth, null), partitionId).joinInternal();
+        int[] localHashes = localTree.getNodeHashes();
+        Address target = publisher.getTargetAddress(partitionId);
+
+        int[] leafOrders = MerkleTreeUtil.compareTreesLevelByLevel(depth, nodeOrders -> {
+            int[] hashes = new int[nodeOrders.length];
+            for (int i = 0; i < nodeOrders.length; i++) {
+                hashes[i] = localHashes[nodeOrders[i]];
+            }
+            return hashes;
+        }, nodeOrders -> {
+            int[] hashes = invoke(target, new WanMerkleTreeHashesOperation(publisher.getTargetClusterName(),
+                    mapName, partitionId, depth, nodeOrders, stats.getUuid()));
+            stats.onBytesTransferred((long) (nodeOrders.length + hashes.length) * INT_SIZE_IN_BYTES);
+            return hashes;
+        });
+
+        int recordCount = 0;
+        if (leafOrders.length > 0) {
+            List<MerkleTreeNodeEntries> leafEntries = operationService.<List<MerkleTreeNodeEntries>>invokeOnPartition(
+                    MapService.SERVICE_NAME, new MerkleTreeNodeEntriesOperation(mapName, depth, leafOrders), partitionId)
+                    .joinInternal();
+            recordCount = sendEntries(mapName, mergePolicy, leafEntries, target, stats);
+        }
+        stats.onPartitionSynced(localTree.getEntryDataSize(), leafOrders.length, recordCount);
+    }
+
+    private int sendEntries(String mapName, SplitBrainMergePolicy mergePolicy, List<MerkleTreeNodeEntries> leafEntries,
+                            Address target, MerkleTreeSyncStats stats) {
+        int batchSize = publisher.getBatchSize();
+        List<InternalWanEvent> events = new ArrayList<>(batchSize);
+        int recordCount = 0;
+        for (MerkleTreeNodeEntries entries : leafEntries) {
+            for (WanMapEntryView<Object, Object> entryView : entries.getNodeEntries()) {
+                events.add(new WanMapAddOrUpdateEvent(mapName, mergePolicy, entryView));
+                if (events.size() == batchSize) {
+                    sendBatch(events, target, stats);
+                    events.clear();
+                }
+                recordCount++;
+            }
+        }
+        if (!events.isEmpty()) {
+            sendBatch(events, target, stats);
+        }
+        publisher.onEntriesSynced(mapName, recordCount);
+        return recordCount;
+    }
+
+    private void sendBatch(List<InternalWanEvent> events, Address target, MerkleTreeSyncStats stats) {
+        byte[] payload = compress(nodeEngine.getSerializationService()
+                                            .toData(new WanEventBatch(new ArrayList<>(events))).toByteArray());
+        invoke(target, new WanBatchReplicationOperation(publisher.getTargetClusterName(),
+                WanAcknowledgeType.ACK_ON_OPERATION_COMPLETE, payload));
+        stats.onBytesTransferred(payload.length);
+    }
+
+    private <T> T invoke(Address target, Operation operation) {
+        return operationService.createInvocationBuilder(WanReplicationService.SERVICE_NAME, operation, target)
+                               .setTryCount(1)
+                               .setCallTimeout(publisher.getResponseTimeoutMillis())
+                               .<T>invoke()
+                               .joinInternal();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.wan.impl.batch;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.wan.WanPublisher;
+import com.hazelcast.wan.impl.DelegatingWanScheme;
+import com.hazelcast.wan.impl.WanDataSerializerHook;
+import com.hazelcast.wan.impl.WanReplicationService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.hazelcast.internal.util.UUIDSerializationUtil.readUUID;
+import static com.hazelcast.internal.util.UUIDSerializationUtil.writeUUID;
+
+/**
+ * Starts the Merkle tree based synchronization of the partitions owned by
+ * the target member, sent by the member the synchronization was requested
+ * on, see {@link WanBatchPublisher#syncMaps}.
+ */
+public class WanMerkleTreeSyncOperation extends Operation implements IdentifiedDataSerializable {
+
+    private String wanReplicationName;
+    private String wanPublisherId;
+    private List<String> mapNames;
+    private UUID uuid;
+
+    public WanMerkleTreeSyncOperation() {
+    }
+
+    public WanMerkleTreeSyncOperation(String wanReplicationName, String wanPublisherId, List<String> mapNames,
+                                      UUID uuid) {
+        this.wanReplicationName = wanReplicationName;
+        this.wanPublisherId = wanPublisherId;
+        this.mapNames = mapNames;
+        this.uuid = uuid;
+    }
+
+    @Override
+    public void run() {
+        DelegatingWanScheme scheme = getNodeEngine().getWanReplicationService()
+                                                    .getWanReplicationPublishers(wanReplicationName);
+        WanPublisher publisher = scheme != null ? scheme.getPublisher(wanPublisherId) : null;
+        if (!(publisher instanceof WanBatchPublisher)) {
+            throw new IllegalStateException("No WAN batch publisher " + wanPublisherId
+                    + " in WAN replication " + wanReplicationName);
+        }
+        ((WanBatchPublisher) publisher).syncLocalPartitions(uuid, mapNames);
+    }
+
+    @Override
+    public String getServiceName() {
+        return WanReplicationService.SERVICE_NAME;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return WanDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return WanDataSerializerHook.WAN_MERKLE_TREE_SYNC_OPERATION;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeString(wanReplicationName);
+        out.writeString(wanPublisherId);
+        out.writeInt(mapNames.size());
+        for (String mapName : mapNames) {
+            out.writeString(mapName);
+        }
+        writeUUID(out, uuid);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        wanReplicationName = in.readString();
+        wanPublisherId = in.readString();
+        int size = in.readInt();
+        mapNames = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            mapNames.add(in.readString());
+        }
+        uuid = readUUID(in);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.wan.impl.batch;
+
+import com.hazelcast.wan.impl.InternalWanEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * FIFO queue of the WAN events of a single partition.
+ * <p>
+ * Events are not removed from the queue when they are sent, but only once
+ * the target cluster acknowledges them, see {@link #remove(long, int)}.
+ * Every time the queue content is replaced or drained, e.g. because of a
+ * migration, the queue epoch is incremented, so that an acknowledgement
+ * of a batch taken from the previous content does not remove the events
+ * which were never sent.
+ * <p>
+ * The queue is accessed by partition threads (offering events), by the
+ * publisher thread (sending and trimming) and by migration callbacks,
+ * hence all methods are synchronized.
+ */
+final class WanPartitionQueue {
+
+    private final ArrayDeque<QueuedEvent> events = new ArrayDeque<>();
+    private long epoch;
+
+    synchronized void offer(InternalWanEvent event, long nowMillis) {
+        events.addLast(new QueuedEvent(event, nowMillis));
+    }
+
+    /**
+     * Removes the oldest event from this queue.
+     *
+     * @return {@code true} if there was an event to remove, {@code false}
+     * otherwise.
+     */
+    synchronized boolean removeOldest() {
+        return events.pollFirst() != null;
+    }
+
+    /**
+     * Copies up to {@code maxCount} oldest events of this queue into the
+     * given list, keeping them in the queue.
+     *
+     * @return the number of copied events.
+     */
+    synchronized int peek(int maxCount, List<QueuedEvent> into) {
+        int count = 0;
+        for (QueuedEvent event : events) {
+            if (count == maxCount) {
+                break;
+            }
+            into.add(event);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Removes the {@code count} oldest events if the queue content was not
+     * replaced since the given epoch.
+     *
+     * @return the number of removed events.
+     */
+    synchronized int remove(long expectedEpoch, int count) {
+        if (expectedEpoch != epoch) {
+            return 0;
+        }
+        int removed = 0;
+        while (removed < count && events.pollFirst() != null) {
+            removed++;
+        }
+        return removed;
+    }
+
+    /**
+     * Removes up to {@code maxCount} oldest events matching the given
+     * predicate. Since the removed events are not necessarily at the head
+     * of the queue, the queue epoch is incremented if any event is removed.
+     *
+     * @return the number of removed events.
+     */
+    synchronized int removeIf(Predicate<InternalWanEvent> predicate, int maxCount) {
+        int removed = 0;
+        Iterator<QueuedEvent> iterator = events.iterator();
+        while (removed < maxCount && iterator.hasNext()) {
+            if (predicate.test(iterator.next().event)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            epoch++;
+        }
+        return removed;
+    }
+
+    /**
+     * Removes and returns all events of this queue.
+     */
+    synchronized List<InternalWanEvent> drain() {
+        List<InternalWanEvent> drained = snapshot();
+        events.clear();
+        epoch++;
+        return drained;
+    }
+
+    /**
+     * Returns all events of this queue, keeping them in the queue.
+     */
+    synchronized List<InternalWanEvent> snapshot() {
+        List<InternalWanEvent> snapshot = new ArrayList<>(events.size());
+        for (QueuedEvent event : events) {
+            snapshot.add(event.event);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Appends the given events to this queue.
+     */
+    synchronized void addAll(List<InternalWanEvent> added, long nowMillis) {
+        for (InternalWanEvent event : added) {
+            events.addLast(new QueuedEvent(event, nowMillis));
+        }
+    }
+
+    synchronized long epoch() {
+        return epoch;
+    }
+
+    synchronized int size() {
+        return events.size();
+    }
+
+    /**
+     * A WAN event along with the time it was queued at.
+     */
+    static final class QueuedEvent {
+
+        final InternalWanEvent event;
+        final long queuedMillis;
+
+        QueuedEvent(InternalWanEvent event, long queuedMillis) {
+            this.event = event;
+            this.queuedMillis = queuedMillis;
+        }
+
+    }
+
+}
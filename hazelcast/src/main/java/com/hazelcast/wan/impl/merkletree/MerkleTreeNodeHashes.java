@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.wan.impl.merkletree;
+
+/**
+ * Source of the hashes of the nodes of a Merkle tree which may be local
+ * or held by a remote member or cluster.
+ *
+ * @see MerkleTreeUtil#compareTreesLevelByLevel(int, MerkleTreeNodeHashes, MerkleTreeNodeHashes)
+ */
+@FunctionalInterface
+public interface MerkleTreeNodeHashes {
+
+    /**
+     * Returns the hashes of the nodes with the given breadth-first orders.
+     *
+     * @param nodeOrders the orders of the nodes
+     * @return the hashes of the nodes, in the order of {@code nodeOrders}
+     */
+    int[] getNodeHashes(int[] nodeOrders);
+}
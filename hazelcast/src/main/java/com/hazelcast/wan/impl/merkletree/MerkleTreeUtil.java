@@ -21,6 +21,7 @@ import com.hazelcast.internal.util.QuickMath;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
 
@@ -336,6 +337,70 @@ public final class MerkleTreeUtil {
         return deltaOrders;
     }
 
+    /**
+     * Compares the provided local and remote Merkle trees of the same
+     * {@code depth} level by level and returns the breadth-first orders of
+     * the leaves found to be different.
+     * <p>
+     * Unlike {@link #compareTrees(MerkleTreeView, MerkleTreeView)}, this
+     * method descends only into the subtrees whose roots are different,
+     * starting from the root of the trees. Every level takes one call to
+     * {@code remote}, which asks only for the children of the nodes found
+     * to be different on the previous level. This way trees that are
+     * mostly in sync are compared by exchanging only a few hashes, at the
+     * cost of up to {@code depth} round trips and of missing the
+     * differences hidden by a hash collision of an inner node.
+     *
+     * @param depth  The depth of both trees
+     * @param local  The hashes of the local Merkle tree
+     * @param remote The hashes of the remote Merkle tree
+     * @return the orders of the leaves found to be different, in ascending
+     * order
+     */
+    public static int[] compareTreesLevelByLevel(int depth, MerkleTreeNodeHashes local, MerkleTreeNodeHashes remote) {
+        checkTrue(depth > 0, "Invalid depth: " + depth);
+        int leafLevel = depth - 1;
+        int[] nodeOrders = {0};
+        for (int level = 0; ; level++) {
+            int[] localHashes = local.getNodeHashes(nodeOrders);
+            int[] remoteHashes = remote.getNodeHashes(nodeOrders);
+
+            int[] deltaOrders = new int[nodeOrders.length];
+            int deltaCount = 0;
+            for (int i = 0; i < nodeOrders.length; i++) {
+                if (localHashes[i] != remoteHashes[i]) {
+                    deltaOrders[deltaCount++] = nodeOrders[i];
+                }
+            }
+
+            if (deltaCount == 0 || level == leafLevel) {
+                return Arrays.copyOf(deltaOrders, deltaCount);
+            }
+
+            nodeOrders = new int[deltaCount << 1];
+            for (int i = 0; i < deltaCount; i++) {
+                nodeOrders[i << 1] = getLeftChildOrder(deltaOrders[i]);
+                nodeOrders[(i << 1) + 1] = getRightChildOrder(deltaOrders[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the hashes of the nodes of the provided Merkle tree with the
+     * given breadth-first orders.
+     *
+     * @param merkleTree The Merkle tree
+     * @param nodeOrders The orders of the nodes
+     * @return the hashes of the nodes, in the order of {@code nodeOrders}
+     */
+    public static int[] getNodeHashes(MerkleTree merkleTree, int[] nodeOrders) {
+        int[] hashes = new int[nodeOrders.length];
+        for (int i = 0; i < nodeOrders.length; i++) {
+            hashes[i] = merkleTree.getNodeHash(nodeOrders[i]);
+        }
+        return hashes;
+    }
+
     /**
      * Writes the hashes of the leaves of a Merkle tree into the
      * provided {@link DataOutput}
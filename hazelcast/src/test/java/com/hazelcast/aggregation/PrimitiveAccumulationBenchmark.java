@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.aggregation.TestSamples.createExtractableEntryWithValue;
+
+/**
+ * Compares the accumulation of a primitive attribute, which is read
+ * without boxing, with the accumulation of the same values held by a
+ * {@link Number} attribute, which takes the boxed path.
+ */
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(value = 3, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class PrimitiveAccumulationBenchmark {
+    private static final int ENTRY_COUNT = 10000;
+
+    private final List<Map.Entry<ValueContainer, ValueContainer>> entries = new ArrayList<>(ENTRY_COUNT);
+
+    @Setup
+    public void setup() {
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            ValueContainer container = new ValueContainer((long) i);
+            container.doubleValue = i;
+            container.numberValue = (double) i;
+            entries.add(createExtractableEntryWithValue(container, ss));
+        }
+    }
+
+    @Benchmark
+    public Long longSum_primitive() {
+        return accumulate(Aggregators.longSum("longValue"));
+    }
+
+    @Benchmark
+    public Long longSum_boxed() {
+        return accumulate(Aggregators.longSum("numberValue"));
+    }
+
+    @Benchmark
+    public Double doubleSum_primitive() {
+        return accumulate(Aggregators.doubleSum("doubleValue"));
+    }
+
+    @Benchmark
+    public Double doubleSum_boxed() {
+        return accumulate(Aggregators.doubleSum("numberValue"));
+    }
+
+    private <R> R accumulate(Aggregator<Map.Entry<ValueContainer, ValueContainer>, R> aggregator) {
+        for (Map.Entry<ValueContainer, ValueContainer> entry : entries) {
+            aggregator.accumulate(entry);
+        }
+        return aggregator.aggregate();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PrimitiveAccumulationBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
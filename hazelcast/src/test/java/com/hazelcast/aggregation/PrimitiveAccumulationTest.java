@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+
+import static com.hazelcast.aggregation.TestSamples.createExtractableEntryWithValue;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the aggregators accumulating primitive attributes without
+ * boxing give the same results as the boxed path.
+ */
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PrimitiveAccumulationTest {
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void longSum_whenGetter() {
+        Aggregator<Map.Entry<Sample, Sample>, Long> aggregator = Aggregators.longSum("longValue");
+        aggregator.accumulate(entry(new Sample(Long.MAX_VALUE - 1, 0, 0)));
+        aggregator.accumulate(entry(new Sample(1, 0, 0)));
+
+        assertEquals(Long.MAX_VALUE, (long) aggregator.aggregate());
+    }
+
+    @Test
+    public void integerSum_whenIntGetter() {
+        Aggregator<Map.Entry<Sample, Sample>, Long> aggregator = Aggregators.integerSum("intValue");
+        aggregator.accumulate(entry(new Sample(0, Integer.MAX_VALUE, 0)));
+        aggregator.accumulate(entry(new Sample(0, Integer.MAX_VALUE, 0)));
+
+        assertEquals(2L * Integer.MAX_VALUE, (long) aggregator.aggregate());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void integerSum_whenLongNotRepresentableAsInt() {
+        Aggregator<Map.Entry<Sample, Sample>, Long> aggregator = Aggregators.integerSum("longValue");
+        aggregator.accumulate(entry(new Sample(Long.MAX_VALUE, 0, 0)));
+    }
+
+    @Test
+    public void doubleAvg_whenIntGetter() {
+        Aggregator<Map.Entry<Sample, Sample>, Double> aggregator = Aggregators.doubleAvg("intValue");
+        aggregator.accumulate(entry(new Sample(0, 1, 0)));
+        aggregator.accumulate(entry(new Sample(0, 2, 0)));
+
+        assertEquals(1.5, aggregator.aggregate(), 0);
+    }
+
+    @Test
+    public void numberAvg_whenLongGetter_usesBoxedPath() {
+        // a long isn't represented exactly as a double, so it takes the boxed path
+        Aggregator<Map.Entry<Sample, Sample>, Double> aggregator = Aggregators.numberAvg("longValue");
+        aggregator.accumulate(entry(new Sample(1, 0, 0)));
+        aggregator.accumulate(entry(new Sample(4, 0, 0)));
+
+        assertEquals(2.5, aggregator.aggregate(), 0);
+    }
+
+    @Test
+    public void doubleSum_whenCombined() {
+        Aggregator<Map.Entry<Sample, Sample>, Double> first = Aggregators.doubleSum("doubleValue");
+        Aggregator<Map.Entry<Sample, Sample>, Double> second = Aggregators.doubleSum("doubleValue");
+        first.accumulate(entry(new Sample(0, 0, 0.25)));
+        second.accumulate(entry(new Sample(0, 0, 0.5)));
+
+        first.combine(second);
+
+        assertEquals(0.75, first.aggregate(), 0);
+    }
+
+    @Test
+    public void longSum_whenKeyAttribute_usesBoxedPath() {
+        Aggregator<Map.Entry<Sample, Sample>, Long> aggregator = Aggregators.longSum("__key.longValue");
+        aggregator.accumulate(entry(new Sample(3, 0, 0)));
+
+        assertEquals(3L, (long) aggregator.aggregate());
+    }
+
+    private Map.Entry<Sample, Sample> entry(Sample sample) {
+        return createExtractableEntryWithValue(sample, ss);
+    }
+
+    public static class Sample {
+        private final long longValue;
+        private final int intValue;
+        private final double doubleValue;
+
+        Sample(long longValue, int intValue, double doubleValue) {
+            this.longValue = longValue;
+            this.intValue = intValue;
+            this.doubleValue = doubleValue;
+        }
+
+        public long getLongValue() {
+            return longValue;
+        }
+
+        public int getIntValue() {
+            return intValue;
+        }
+
+        public double getDoubleValue() {
+            return doubleValue;
+        }
+    }
+}
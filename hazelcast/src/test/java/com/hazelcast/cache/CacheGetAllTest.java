@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache;
+
+import com.hazelcast.cache.impl.CacheProxy;
+import com.hazelcast.config.CacheConfig;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import javax.cache.Cache;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.integration.CacheWriter;
+import javax.cache.integration.CacheWriterException;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CacheGetAllTest extends CacheTestSupport {
+
+    private static final int INSTANCE_COUNT = 3;
+    private static final int ENTRY_COUNT = 1000;
+
+    private TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(INSTANCE_COUNT);
+    private HazelcastInstance[] hazelcastInstances;
+
+    @Override
+    protected void onSetup() {
+        Config config = createConfig();
+        hazelcastInstances = new HazelcastInstance[INSTANCE_COUNT];
+        for (int i = 0; i < INSTANCE_COUNT; i++) {
+            hazelcastInstances[i] = factory.newHazelcastInstance(config);
+        }
+        warmUpPartitions(hazelcastInstances);
+    }
+
+    @Override
+    protected void onTearDown() {
+        factory.shutdownAll();
+        hazelcastInstances = null;
+    }
+
+    @Override
+    protected HazelcastInstance getHazelcastInstance() {
+        return hazelcastInstances[0];
+    }
+
+    @Test
+    public void testGetAll() {
+        ICache<Integer, String> cache = createCache();
+        Map<Integer, String> entries = fill(cache);
+        Set<Integer> keys = new HashSet<>(entries.keySet());
+        keys.add(-1);
+
+        assertEquals(entries, cache.getAll(keys));
+    }
+
+    @Test
+    public void testGetAllAsync_streamsAllEntries() throws Exception {
+        ICache<Integer, String> cache = createCache();
+        Map<Integer, String> entries = fill(cache);
+        Set<Integer> keys = new HashSet<>(entries.keySet());
+        keys.add(-1);
+
+        Map<Integer, String> result = new ConcurrentHashMap<>();
+        cache.unwrap(CacheProxy.class).getAllAsync(keys, null, (k, v) -> result.put((Integer) k, (String) v)).get();
+
+        assertEquals(entries, result);
+    }
+
+    @Test
+    public void testRemoveAll_withKeys() {
+        ICache<Integer, String> cache = createCache();
+        Map<Integer, String> entries = fill(cache);
+        Set<Integer> keysToRemove = new HashSet<>();
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            keysToRemove.add(i);
+        }
+
+        cache.removeAll(keysToRemove);
+
+        assertEquals(ENTRY_COUNT / 2, cache.size());
+        for (Integer key : entries.keySet()) {
+            assertEquals(!keysToRemove.contains(key), cache.containsKey(key));
+        }
+    }
+
+    @Test
+    public void testRemoveAll_withNoKeys() {
+        ICache<Integer, String> cache = createCache();
+        fill(cache);
+
+        cache.removeAll(new HashSet<>());
+
+        assertEquals(ENTRY_COUNT, cache.size());
+        cache.removeAll();
+        assertEquals(0, cache.size());
+        assertFalse(cache.iterator().hasNext());
+    }
+
+    @Test
+    public void testPutAll_whenCacheWriterFails_thenWritesEachEntryOnce() {
+        CacheConfig<Integer, String> config = createCacheConfig();
+        config.setWriteThrough(true);
+        config.setCacheWriterFactory(FactoryBuilder.factoryOf(new FailingCacheWriter()));
+        ICache<Integer, String> cache = createCache(config);
+        Map<Integer, String> entries = new HashMap<>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            entries.put(i, "value-" + i);
+        }
+
+        try {
+            cache.putAll(entries);
+            fail("the failure of the cache writer should have been propagated");
+        } catch (CacheWriterException expected) {
+            ignore(expected);
+        }
+
+        // the entries of the failing partition after the failing key are not written
+        assertEquals(1, FailingCacheWriter.WRITE_COUNTS.get(FailingCacheWriter.FAILING_KEY).get());
+        for (AtomicInteger writeCount : FailingCacheWriter.WRITE_COUNTS.values()) {
+            assertEquals(1, writeCount.get());
+        }
+        assertFalse(cache.containsKey(FailingCacheWriter.FAILING_KEY));
+    }
+
+    private Map<Integer, String> fill(ICache<Integer, String> cache) {
+        Map<Integer, String> entries = new HashMap<>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            entries.put(i, "value-" + i);
+        }
+        cache.putAll(entries);
+        assertEquals(ENTRY_COUNT, cache.size());
+        return entries;
+    }
+
+    public static class FailingCacheWriter implements CacheWriter<Integer, String>, Serializable {
+
+        static final int FAILING_KEY = ENTRY_COUNT / 2;
+        static final ConcurrentMap<Integer, AtomicInteger> WRITE_COUNTS = new ConcurrentHashMap<>();
+
+        @Override
+        public void write(Cache.Entry<? extends Integer, ? extends String> entry) {
+            Integer key = entry.getKey();
+            WRITE_COUNTS.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            if (key == FAILING_KEY) {
+                throw new CacheWriterException("failing write of " + key);
+            }
+        }
+
+        @Override
+        public void writeAll(Collection<Cache.Entry<? extends Integer, ? extends String>> entries) {
+            Iterator<Cache.Entry<? extends Integer, ? extends String>> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                write(iterator.next());
+                iterator.remove();
+            }
+        }
+
+        @Override
+        public void delete(Object key) {
+        }
+
+        @Override
+        public void deleteAll(Collection<?> keys) {
+        }
+    }
+}
@@ -67,10 +67,8 @@ import static com.hazelcast.config.MaxSizePolicy.USED_NATIVE_MEMORY_PERCENTAGE;
 import static com.hazelcast.test.Accessors.getNode;
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
-import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
-import static org.junit.Assume.assumeThat;
 
 @RunWith(Parameterized.class)
 @UseParametersRunnerFactory(HazelcastSerialParametersRunnerFactory.class)
@@ -114,7 +112,6 @@ public class CacheCreateUseDestroyTest extends HazelcastTestSupport {
     }
 
     protected void assumptions() {
-        assumeThat(inMemoryFormat, not(NATIVE));
     }
 
     @Override
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache.impl.record;
+
+import com.hazelcast.cache.impl.CacheContext;
+import com.hazelcast.cache.impl.CacheKeysWithCursor;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.memory.MemoryUnit;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NativeCacheRecordMapTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private final SerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+    private StandardMemoryManager memoryManager;
+    private CacheContext cacheContext;
+    private NativeCacheRecordMap map;
+
+    @Before
+    public void setUp() {
+        memoryManager = new StandardMemoryManager(MemoryUnit.MEGABYTES.toBytes(16));
+        cacheContext = new CacheContext();
+        map = new NativeCacheRecordMap(memoryManager, ss, cacheContext);
+        map.setEntryCounting(true);
+    }
+
+    @After
+    public void tearDown() {
+        map.dispose();
+        assertEquals(0, memoryManager.getUsedNative());
+    }
+
+    @Test
+    public void putAndGet() {
+        fill();
+
+        assertEquals(ENTRY_COUNT, map.size());
+        assertEquals(ENTRY_COUNT, cacheContext.getEntryCount());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            CacheRecord record = map.get(ss.toData(i));
+            assertEquals("value-" + i, ss.toObject(record.getValue()));
+            assertEquals(i, record.getCreationTime());
+        }
+        assertNull(map.get(ss.toData(-1)));
+    }
+
+    @Test
+    public void put_whenPresent_returnsHeapCopyOfOldRecord() {
+        Data key = ss.toData(1);
+        map.put(key, newRecord("old"));
+
+        CacheRecord oldRecord = map.put(key, newRecord("new"));
+        map.disposeDeferredBlocks();
+
+        assertTrue(oldRecord instanceof CacheDataRecord);
+        assertEquals("old", ss.toObject(oldRecord.getValue()));
+        assertEquals("new", ss.toObject(map.get(key).getValue()));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void recordSetters_writeThrough() {
+        Data key = ss.toData(1);
+        map.put(key, newRecord("value"));
+
+        CacheRecord record = map.get(key);
+        record.setValue(ss.toData("updated"));
+        record.setExpirationTime(42);
+        record.incrementHits();
+
+        CacheRecord reread = map.get(key);
+        assertEquals("updated", ss.toObject(reread.getValue()));
+        assertEquals(42, reread.getExpirationTime());
+        assertEquals(1, reread.getHits());
+    }
+
+    @Test
+    public void remove_freesMemory_afterDisposingDeferredBlocks() {
+        fill();
+        long usedWhenFull = memoryManager.getUsedNative();
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            CacheRecord removed = map.remove(ss.toData(i));
+            assertEquals("value-" + i, ss.toObject(removed.getValue()));
+        }
+        assertEquals(usedWhenFull, memoryManager.getUsedNative());
+
+        map.disposeDeferredBlocks();
+        assertEquals(0, map.size());
+        assertEquals(0, cacheContext.getEntryCount());
+        assertTrue(memoryManager.getUsedNative() < usedWhenFull);
+
+        fill();
+        assertEquals(usedWhenFull, memoryManager.getUsedNative());
+    }
+
+    @Test
+    public void clear_freesAllRecords() {
+        fill();
+
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(ss.toData(0)));
+        assertEquals(0, cacheContext.getEntryCount());
+    }
+
+    @Test
+    public void iterator_visitsAllEntries() {
+        fill();
+
+        Set<Object> keys = new HashSet<>();
+        Iterator<Map.Entry<Data, CacheRecord>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Data, CacheRecord> entry = iterator.next();
+            keys.add(ss.toObject(entry.getKey()));
+            if ((Integer) ss.toObject(entry.getKey()) % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(ENTRY_COUNT, keys.size());
+        assertEquals(ENTRY_COUNT / 2, map.size());
+    }
+
+    @Test
+    public void fetchKeys_visitsAllKeys() {
+        fill();
+
+        Set<Data> keys = new HashSet<>();
+        IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+        CacheKeysWithCursor result;
+        do {
+            result = map.fetchKeys(pointers, 100);
+            keys.addAll(result.getKeys());
+            pointers = result.getPointers();
+        } while (!result.getKeys().isEmpty());
+
+        assertEquals(ENTRY_COUNT, keys.size());
+    }
+
+    @Test
+    public void sample_returnsStoredEntries() {
+        fill();
+
+        int sampled = 0;
+        for (NativeCacheRecordMap.NativeEvictionCandidate candidate : map.sample(15)) {
+            int key = ss.toObject(candidate.getAccessor());
+            assertEquals("value-" + key, ss.toObject(candidate.getEvictable().getValue()));
+            sampled++;
+        }
+        assertEquals(15, sampled);
+    }
+
+    private void fill() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            CacheRecord record = newRecord("value-" + i);
+            record.setCreationTime(i);
+            assertNull(map.put(ss.toData(i), record));
+        }
+    }
+
+    private CacheRecord newRecord(String value) {
+        return new CacheDataRecord(ss.toData(value), 0, CacheRecord.TIME_NOT_AVAILABLE);
+    }
+}
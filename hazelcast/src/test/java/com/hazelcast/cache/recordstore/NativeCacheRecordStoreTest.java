@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache.recordstore;
+
+import com.hazelcast.cache.impl.CacheService;
+import com.hazelcast.cache.impl.ICacheRecordStore;
+import com.hazelcast.cache.impl.ICacheService;
+import com.hazelcast.cache.impl.NativeCacheRecordStore;
+import com.hazelcast.cache.impl.record.CacheDataRecord;
+import com.hazelcast.config.CacheConfig;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NativeMemoryConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.memory.MemorySize;
+import com.hazelcast.memory.MemoryUnit;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getSerializationService;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class NativeCacheRecordStoreTest
+        extends CacheRecordStoreTestSupport {
+
+    private static final int USED_NATIVE_MEMORY_PERCENTAGE = 50;
+
+    @Override
+    protected Config createConfig() {
+        Config config = super.createConfig();
+        config.setNativeMemoryConfig(new NativeMemoryConfig()
+                .setEnabled(true)
+                .setSize(new MemorySize(4, MemoryUnit.MEGABYTES)));
+        return config;
+    }
+
+    @Override
+    protected CacheConfig createCacheConfig(String cacheName, InMemoryFormat inMemoryFormat) {
+        return super.createCacheConfig(cacheName, inMemoryFormat)
+                .setEvictionConfig(new EvictionConfig()
+                        .setEvictionPolicy(EvictionPolicy.LRU)
+                        .setMaxSizePolicy(MaxSizePolicy.USED_NATIVE_MEMORY_PERCENTAGE)
+                        .setSize(USED_NATIVE_MEMORY_PERCENTAGE));
+    }
+
+    @Override
+    protected ICacheRecordStore createCacheRecordStore(HazelcastInstance instance, String cacheName,
+                                                       int partitionId, InMemoryFormat inMemoryFormat) {
+        ICacheService cacheService = getCacheService(instance);
+        cacheService.putCacheConfigIfAbsent(createCacheConfig(cacheName, inMemoryFormat));
+        return new NativeCacheRecordStore(CACHE_NAME_PREFIX + cacheName, partitionId, getNodeEngineImpl(instance),
+                (CacheService) cacheService);
+    }
+
+    @Test
+    public void putObjectAndGetDataFromCacheRecordStore() {
+        ICacheRecordStore cacheRecordStore = createCacheRecordStore(InMemoryFormat.NATIVE);
+        putAndGetFromCacheRecordStore(cacheRecordStore, InMemoryFormat.NATIVE);
+    }
+
+    @Test
+    public void putObjectAndGetDataExpiryPolicyFromCacheRecordStore() {
+        ICacheRecordStore cacheRecordStore = createCacheRecordStore(InMemoryFormat.NATIVE);
+        putAndSetExpiryPolicyFromRecordStore(cacheRecordStore, InMemoryFormat.NATIVE);
+    }
+
+    @Test
+    public void getRecord_returnsHeapCopy() {
+        ICacheRecordStore cacheRecordStore = createCacheRecordStore(InMemoryFormat.NATIVE);
+        SerializationService ss = getSerializationService(hz);
+        Data key = ss.toData(1);
+        cacheRecordStore.put(key, "value", null, null, -1);
+
+        assertTrue(cacheRecordStore.getRecord(key) instanceof CacheDataRecord);
+        assertEquals("value", ss.toObject(cacheRecordStore.getRecord(key).getValue()));
+        assertEquals(1, cacheRecordStore.getReadOnlyRecords().size());
+    }
+
+    @Test
+    public void removedRecords_areFreed_afterDisposingDeferredBlocks() {
+        ICacheRecordStore cacheRecordStore = createCacheRecordStore(InMemoryFormat.NATIVE);
+        SerializationService ss = getSerializationService(hz);
+        StandardMemoryManager memoryManager = getNativeMemoryManager();
+        long usedBeforePut = memoryManager.getUsedNative();
+
+        for (int i = 0; i < CACHE_RECORD_COUNT; i++) {
+            cacheRecordStore.put(ss.toData(i), "value-" + i, null, null, -1);
+        }
+        assertTrue(memoryManager.getUsedNative() > usedBeforePut);
+
+        for (int i = 0; i < CACHE_RECORD_COUNT; i++) {
+            assertTrue(cacheRecordStore.remove(ss.toData(i), null, null, -1));
+        }
+        cacheRecordStore.disposeDeferredBlocks();
+
+        assertEquals(0, cacheRecordStore.size());
+        assertNull(cacheRecordStore.get(ss.toData(0), null));
+        assertEquals(usedBeforePut, memoryManager.getUsedNative());
+    }
+
+    @Test
+    public void evictsRecords_whenUsedNativeMemoryPercentageIsExceeded() {
+        ICacheRecordStore cacheRecordStore = createCacheRecordStore(InMemoryFormat.NATIVE);
+        SerializationService ss = getSerializationService(hz);
+        StandardMemoryManager memoryManager = getNativeMemoryManager();
+        byte[] value = new byte[1024];
+
+        int entryCount = 10000;
+        for (int i = 0; i < entryCount; i++) {
+            cacheRecordStore.put(ss.toData(i), value, null, null, -1);
+            cacheRecordStore.disposeDeferredBlocks();
+        }
+
+        assertTrue(cacheRecordStore.size() < entryCount);
+        long maxUsed = memoryManager.getMaxNative() * USED_NATIVE_MEMORY_PERCENTAGE / 100;
+        assertTrue(memoryManager.getUsedNative() < maxUsed + 4 * value.length);
+    }
+
+    private StandardMemoryManager getNativeMemoryManager() {
+        return ((CacheService) getCacheService(hz)).getNativeMemoryManager();
+    }
+}
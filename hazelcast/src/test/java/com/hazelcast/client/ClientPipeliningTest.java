@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ClientPipeliningTest extends HazelcastTestSupport {
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+
+    private HazelcastInstance member;
+    private HazelcastInstance client;
+
+    @Before
+    public void setup() {
+        member = hazelcastFactory.newHazelcastInstance();
+        hazelcastFactory.newHazelcastInstance();
+        client = hazelcastFactory.newHazelcastClient();
+    }
+
+    @After
+    public void tearDown() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenDepthZero() {
+        new ClientPipelining<String>(client, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenMemberInstance() {
+        new ClientPipelining<String>(member, 1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void add_whenNullRequest() throws InterruptedException {
+        ClientPipelining<String> pipelining = new ClientPipelining<>(client, 1);
+        pipelining.add("key", null);
+    }
+
+    @Test
+    public void results_inRequestOrder() throws Exception {
+        IMap<Integer, String> map = client.getMap(randomMapName());
+        for (int k = 0; k < 1000; k++) {
+            map.put(k, "value" + k);
+        }
+
+        ClientPipelining<String> pipelining = new ClientPipelining<>(client, 5);
+        for (int k = 0; k < 1000; k++) {
+            int key = k;
+            pipelining.add(key, () -> map.getAsync(key));
+        }
+
+        List<String> results = pipelining.results();
+        assertEquals(1000, results.size());
+        for (int k = 0; k < 1000; k++) {
+            assertEquals("value" + k, results.get(k));
+        }
+        assertEquals(1000, pipelining.getCompletedCount());
+        assertTrue(pipelining.getThroughput() > 0);
+    }
+
+    @Test
+    public void add_whenNonSmartClient() throws Exception {
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.getNetworkConfig().setSmartRouting(false);
+        HazelcastInstance nonSmartClient = hazelcastFactory.newHazelcastClient(clientConfig);
+        IMap<Integer, Integer> map = nonSmartClient.getMap(randomMapName());
+
+        ClientPipelining<Integer> pipelining = new ClientPipelining<>(nonSmartClient, 3);
+        for (int k = 0; k < 100; k++) {
+            int key = k;
+            pipelining.add(key, () -> map.putAsync(key, key));
+        }
+        pipelining.results();
+
+        assertEquals(100, map.size());
+    }
+
+    @Test
+    public void add_blocksWhenWindowOfConnectionFull() throws Exception {
+        ClientPipelining<String> pipelining = new ClientPipelining<>(client, 2);
+        CompletableFuture<String> f1 = new CompletableFuture<>();
+        CompletableFuture<String> f2 = new CompletableFuture<>();
+        CompletableFuture<String> f3 = new CompletableFuture<>();
+        pipelining.add("key", () -> f1);
+        pipelining.add("key", () -> f2);
+
+        CountDownLatch issued = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            try {
+                pipelining.add("key", () -> {
+                    issued.countDown();
+                    return f3;
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+
+        assertTrueFiveSeconds(() -> assertEquals(1, issued.getCount()));
+        f1.complete("1");
+        assertOpenEventually(issued);
+        thread.join();
+
+        f2.complete("2");
+        f3.complete("3");
+        assertEquals(asList("1", "2", "3"), pipelining.results());
+        assertEquals(3, pipelining.getCompletedCount());
+        assertTrue(pipelining.getQueueWaitNanos() > 0);
+    }
+
+    @Test
+    public void add_releasesSlotWhenRequestFails() throws Exception {
+        ClientPipelining<String> pipelining = new ClientPipelining<>(client, 1);
+        CompletableFuture<String> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException());
+        pipelining.add("key", () -> failed);
+        try {
+            pipelining.add("key", () -> {
+                throw new IllegalStateException();
+            });
+        } catch (IllegalStateException expected) {
+            ignore(expected);
+        }
+
+        // would block if any of the slots were leaked
+        pipelining.add("key", () -> CompletableFuture.completedFuture("value"));
+
+        try {
+            pipelining.results();
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof IllegalStateException);
+            return;
+        }
+        fail("results should have failed");
+    }
+}
@@ -213,6 +213,25 @@ public class MapStoreConfigTest extends HazelcastTestSupport {
         assertEquals(otherCfg, cfg);
     }
 
+    @Test
+    public void getLoadCoalescingWindowMillis() {
+        assertEquals(MapStoreConfig.DEFAULT_LOAD_COALESCING_WINDOW_MILLIS,
+                new MapStoreConfig().getLoadCoalescingWindowMillis());
+    }
+
+    @Test
+    public void setLoadCoalescingWindowMillis() {
+        MapStoreConfig cfg = new MapStoreConfig().setLoadCoalescingWindowMillis(5);
+        assertEquals(5, cfg.getLoadCoalescingWindowMillis());
+        assertEquals(new MapStoreConfig().setLoadCoalescingWindowMillis(5), cfg);
+        assertNotEquals(new MapStoreConfig(), cfg);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setLoadCoalescingWindowMillis_whenNegative() {
+        new MapStoreConfig().setLoadCoalescingWindowMillis(-1);
+    }
+
     @Test
     public void equals_whenNull() {
         MapStoreConfig cfg = new MapStoreConfig();
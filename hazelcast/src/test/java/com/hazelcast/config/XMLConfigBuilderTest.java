@@ -2370,6 +2370,7 @@ public class XMLConfigBuilderTest extends AbstractConfigBuilderTest {
                 + "            <write-delay-seconds>42</write-delay-seconds>\n"
                 + "            <write-batch-size>42</write-batch-size>\n"
                 + "            <write-coalescing>true</write-coalescing>\n"
+                + "            <load-coalescing-window-millis>42</load-coalescing-window-millis>\n"
                 + "            <properties>\n"
                 + "                <property name=\"jdbc_url\">my.jdbc.com</property>\n"
                 + "            </properties>\n"
@@ -2454,6 +2455,7 @@ public class XMLConfigBuilderTest extends AbstractConfigBuilderTest {
         assertEquals(42, mapStoreConfig.getWriteDelaySeconds());
         assertEquals(42, mapStoreConfig.getWriteBatchSize());
         assertTrue(mapStoreConfig.isWriteCoalescing());
+        assertEquals(42, mapStoreConfig.getLoadCoalescingWindowMillis());
         assertEquals("com.hazelcast.examples.DummyStore", mapStoreConfig.getClassName());
         assertEquals(1, mapStoreConfig.getProperties().size());
         assertEquals("my.jdbc.com", mapStoreConfig.getProperties().getProperty("jdbc_url"));
@@ -2388,6 +2388,7 @@ public class YamlConfigBuilderTest extends AbstractConfigBuilderTest {
                 + "        write-delay-seconds: 42\n"
                 + "        write-batch-size: 42\n"
                 + "        write-coalescing: true\n"
+                + "        load-coalescing-window-millis: 42\n"
                 + "        properties:\n"
                 + "           jdbc_url: my.jdbc.com\n"
                 + "      near-cache:\n"
@@ -2466,6 +2467,7 @@ public class YamlConfigBuilderTest extends AbstractConfigBuilderTest {
         assertEquals(42, mapStoreConfig.getWriteDelaySeconds());
         assertEquals(42, mapStoreConfig.getWriteBatchSize());
         assertTrue(mapStoreConfig.isWriteCoalescing());
+        assertEquals(42, mapStoreConfig.getLoadCoalescingWindowMillis());
         assertEquals("com.hazelcast.examples.DummyStore", mapStoreConfig.getClassName());
         assertEquals(1, mapStoreConfig.getProperties().size());
         assertEquals("my.jdbc.com", mapStoreConfig.getProperties().getProperty("jdbc_url"));
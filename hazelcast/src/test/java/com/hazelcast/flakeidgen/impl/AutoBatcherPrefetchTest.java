@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.flakeidgen.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.config.FlakeIdGeneratorConfig.MAXIMUM_PREFETCH_COUNT;
+import static com.hazelcast.flakeidgen.impl.FlakeIdConcurrencyTestUtil.IDS_IN_THREAD;
+import static com.hazelcast.flakeidgen.impl.FlakeIdConcurrencyTestUtil.NUM_THREADS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class AutoBatcherPrefetchTest {
+
+    private static final int BATCH_SIZE = 10;
+    private static final int VALIDITY = 10000;
+
+    private final AtomicInteger base = new AtomicInteger();
+    private final List<Integer> requestedSizes = new ArrayList<>();
+    private final AtomicBoolean failing = new AtomicBoolean();
+    private final AtomicInteger waitCount = new AtomicInteger();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final AutoBatcher.IdBatchSupplier supplier = batchSize -> {
+        if (failing.get()) {
+            throw new IllegalStateException("expected");
+        }
+        synchronized (requestedSizes) {
+            requestedSizes.add(batchSize);
+        }
+        return new IdBatch(base.getAndAdd(batchSize), 1, batchSize);
+    };
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void when_halfOfBatchUsed_then_nextBatchPrefetched() {
+        AutoBatcher batcher = new AutoBatcher(BATCH_SIZE, VALIDITY, supplier, Runnable::run,
+                waitNanos -> waitCount.incrementAndGet());
+
+        for (int i = 0; i < BATCH_SIZE / 2; i++) {
+            assertEquals(i, batcher.newId());
+        }
+        assertEquals(1, requestedSizes.size());
+        assertEquals(BATCH_SIZE / 2, batcher.newId());
+        assertEquals(2, requestedSizes.size());
+
+        for (int i = BATCH_SIZE / 2 + 1; i < 3 * BATCH_SIZE; i++) {
+            assertEquals(i, batcher.newId());
+        }
+        // only the first batch was waited for
+        assertEquals(1, waitCount.get());
+    }
+
+    @Test
+    public void when_batchesUsedQuickly_then_batchSizeGrows() {
+        AutoBatcher batcher = new AutoBatcher(BATCH_SIZE, VALIDITY, supplier, Runnable::run, null);
+
+        for (int i = 0; i < 1000 * BATCH_SIZE; i++) {
+            assertEquals(i, batcher.newId());
+        }
+
+        assertTrue(batcher.getCurrentBatchSize() > BATCH_SIZE);
+        assertTrue(batcher.getCurrentBatchSize() <= MAXIMUM_PREFETCH_COUNT);
+    }
+
+    @Test
+    public void when_batchesExpire_then_batchSizeShrinks() throws Exception {
+        AutoBatcher batcher = new AutoBatcher(BATCH_SIZE, 100, supplier, Runnable::run, null);
+        for (int i = 0; i < 100 * BATCH_SIZE; i++) {
+            batcher.newId();
+        }
+        int grownSize = batcher.getCurrentBatchSize();
+        assertTrue(grownSize > BATCH_SIZE);
+
+        batcher.newId();
+        Thread.sleep(200);
+        batcher.newId();
+
+        assertTrue(batcher.getCurrentBatchSize() < grownSize);
+    }
+
+    @Test
+    public void when_prefetchFails_then_fetchedSynchronously() {
+        AutoBatcher batcher = new AutoBatcher(BATCH_SIZE, VALIDITY, supplier, Runnable::run,
+                waitNanos -> waitCount.incrementAndGet());
+        batcher.newId();
+        failing.set(true);
+        for (int i = 1; i < BATCH_SIZE; i++) {
+            assertEquals(i, batcher.newId());
+        }
+
+        failing.set(false);
+        assertEquals(BATCH_SIZE, batcher.newId());
+        assertEquals(2, waitCount.get());
+    }
+
+    @Test
+    public void concurrencySmokeTest() throws Exception {
+        AutoBatcher batcher = new AutoBatcher(BATCH_SIZE, VALIDITY, supplier, executor, null);
+
+        FlakeIdConcurrencyTestUtil.concurrentlyGenerateIds(batcher::newId);
+
+        // all IDs of the batches except the last ones were handed out
+        assertTrue(base.get() >= NUM_THREADS * IDS_IN_THREAD);
+    }
+}
@@ -26,6 +26,7 @@ import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.executionservice.ExecutionService;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
 import com.hazelcast.test.annotation.QuickTest;
@@ -89,6 +90,7 @@ public class FlakeIdGeneratorProxyTest {
         config.setName("foo");
         when(nodeEngine.getConfig()).thenReturn(new Config().addFlakeIdGeneratorConfig(config));
         when(nodeEngine.getClusterService()).thenReturn(clusterService);
+        when(nodeEngine.getExecutionService()).thenReturn(mock(ExecutionService.class));
         Address address = null;
         try {
             address = new Address("127.0.0.1", 5701);
@@ -214,6 +214,11 @@ public class HTTPCommunicator {
         return doGet(url).responseCode;
     }
 
+    public ConnectionResponse getMetrics() throws IOException {
+        String url = "http:/" + baseRestAddress + HttpCommandProcessor.URI_METRICS;
+        return doGet(url);
+    }
+
     public String getClusterInfo() throws IOException {
         String url = getUrl("cluster");
         return doGet(url).response;
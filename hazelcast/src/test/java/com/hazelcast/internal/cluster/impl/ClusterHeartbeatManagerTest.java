@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.cluster.impl;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.SplitBrainProtectionConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.splitbrainprotection.SplitBrainProtection;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.cluster.impl.ClusterDataSerializerHook.F_ID;
+import static com.hazelcast.internal.cluster.impl.ClusterDataSerializerHook.HEARTBEAT;
+import static com.hazelcast.spi.properties.ClusterProperty.HEARTBEAT_INTERVAL_SECONDS;
+import static com.hazelcast.spi.properties.ClusterProperty.HEARTBEAT_PIGGYBACKING_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.HEARTBEAT_SAMPLING_CLUSTER_SIZE_THRESHOLD;
+import static com.hazelcast.spi.properties.ClusterProperty.HEARTBEAT_SAMPLING_NEIGHBOUR_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.MAX_NO_HEARTBEAT_SECONDS;
+import static com.hazelcast.test.Accessors.getNode;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.PacketFiltersUtil.dropOperationsFrom;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ClusterHeartbeatManagerTest extends HazelcastTestSupport {
+
+    @Test
+    public void testSampledTopology() {
+        Config config = getSamplingConfig();
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(5);
+        HazelcastInstance[] instances = factory.newInstances(config, 5);
+        assertClusterSizeEventually(5, instances);
+
+        HazelcastInstance master = instances[0];
+        HazelcastInstance slave = instances[2];
+        assertTrueEventually(() -> assertEquals(2, readMetric(slave, "monitoredMemberCount")));
+        assertEquals(4, readMetric(master, "monitoredMemberCount"));
+
+        ClusterHeartbeatManager heartbeatManager = getHeartbeatManager(slave);
+        Member masterMember = master.getCluster().getLocalMember();
+        assertTrue(heartbeatManager.isMonitored(masterMember));
+        // the previous non-master member in the member list is monitored, the next one is not
+        assertTrue(heartbeatManager.isMonitored(instances[1].getCluster().getLocalMember()));
+        assertFalse(heartbeatManager.isMonitored(instances[3].getCluster().getLocalMember()));
+
+        // none of the members is suspected because of the heartbeats not sent to it
+        assertTrueAllTheTime(() -> assertClusterSize(5, instances), 8);
+    }
+
+    @Test
+    public void testSampledTopology_whenMemberStopsHeartbeating() {
+        Config config = getSamplingConfig();
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(5);
+        HazelcastInstance[] instances = factory.newInstances(config, 5);
+        assertClusterSizeEventually(5, instances);
+
+        HazelcastInstance master = instances[0];
+        dropOperationsFrom(instances[4], F_ID, singletonList(HEARTBEAT));
+
+        assertClusterSizeEventually(4, master, instances[1], instances[2], instances[3]);
+        long detectionLatency = readMetric(master, "lastDetectionLatency");
+        long maxNoHeartbeatMillis = getNode(master).getProperties().getMillis(MAX_NO_HEARTBEAT_SECONDS);
+        assertTrue("Detection latency: " + detectionLatency, detectionLatency >= maxNoHeartbeatMillis);
+        assertTrue(readMetric(master, "maxDetectionLatency") >= detectionLatency);
+        assertTrue(readMetric(master, "suspicionCount") > 0);
+    }
+
+    @Test
+    public void testSampling_whenRecentlyActiveSplitBrainProtectionConfigured_thenAllMembersMonitored() {
+        Config config = getSamplingConfig();
+        config.addSplitBrainProtectionConfig(SplitBrainProtectionConfig
+                .newRecentlyActiveSplitBrainProtectionConfigBuilder("recentlyActive", 5, 3000).build());
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(5);
+        HazelcastInstance[] instances = factory.newInstances(config, 5);
+        assertClusterSizeEventually(5, instances);
+
+        HazelcastInstance slave = instances[2];
+        assertTrueEventually(() -> assertEquals(4, readMetric(slave, "monitoredMemberCount")));
+        assertTrue(getHeartbeatManager(slave).isMonitored(instances[3].getCluster().getLocalMember()));
+
+        // the split brain protection observes the heartbeats of all members
+        SplitBrainProtection splitBrainProtection = slave.getSplitBrainProtectionService()
+                .getSplitBrainProtection("recentlyActive");
+        assertTrueEventually(() -> assertTrue(splitBrainProtection.hasMinimumSize()));
+        assertTrueAllTheTime(() -> assertTrue(splitBrainProtection.hasMinimumSize()), 6);
+    }
+
+    @Test
+    public void testPiggybacking() {
+        Config config = smallInstanceConfig()
+                .setProperty(HEARTBEAT_INTERVAL_SECONDS.getName(), "1")
+                .setProperty(HEARTBEAT_PIGGYBACKING_ENABLED.getName(), "true");
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(3);
+        HazelcastInstance[] instances = factory.newInstances(config, 3);
+        assertClusterSizeEventually(3, instances);
+
+        HazelcastInstance slave = instances[1];
+        // the mock connections report that they are always busy
+        assertTrueEventually(() -> {
+            assertTrue(readMetric(slave, "skippedHeartbeatCount") > 0);
+            assertTrue(readMetric(slave, "implicitHeartbeatCount") > 0);
+            assertTrue(readMetric(slave, "sentHeartbeatCount") > 0);
+        });
+        assertClusterSize(3, instances);
+    }
+
+    private static Config getSamplingConfig() {
+        return smallInstanceConfig()
+                .setProperty(MAX_NO_HEARTBEAT_SECONDS.getName(), "5")
+                .setProperty(HEARTBEAT_INTERVAL_SECONDS.getName(), "1")
+                .setProperty(HEARTBEAT_SAMPLING_CLUSTER_SIZE_THRESHOLD.getName(), "4")
+                .setProperty(HEARTBEAT_SAMPLING_NEIGHBOUR_COUNT.getName(), "1");
+    }
+
+    private static ClusterHeartbeatManager getHeartbeatManager(HazelcastInstance instance) {
+        return getNode(instance).getClusterService().getClusterHeartbeatManager();
+    }
+
+    private static long readMetric(HazelcastInstance instance, String name) {
+        return getNodeEngineImpl(instance).getMetricsRegistry().newLongGauge("cluster.heartbeat." + name).read();
+    }
+}
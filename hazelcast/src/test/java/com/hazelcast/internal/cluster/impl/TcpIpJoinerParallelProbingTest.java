@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.cluster.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.instance.impl.HazelcastInstanceFactory;
+import com.hazelcast.instance.impl.Node;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.Collection;
+
+import static com.hazelcast.test.Accessors.getAddress;
+import static com.hazelcast.test.Accessors.getNode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class TcpIpJoinerParallelProbingTest extends HazelcastTestSupport {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Before
+    @After
+    public void killAllHazelcastInstances() {
+        HazelcastInstanceFactory.terminateAll();
+    }
+
+    @Test
+    public void testClusterForms() {
+        HazelcastInstance hz1 = Hazelcast.newHazelcastInstance(newConfig(null, "127.0.0.1"));
+        HazelcastInstance hz2 = Hazelcast.newHazelcastInstance(newConfig(null, "127.0.0.1"));
+        HazelcastInstance hz3 = Hazelcast.newHazelcastInstance(newConfig(null, "127.0.0.1"));
+
+        assertClusterSize(3, hz1, hz3);
+        assertClusterSizeEventually(3, hz2);
+
+        JoinTimings joinTimings = getJoinTimings(hz3);
+        assertTrue(joinTimings.getStartMillis() > 0);
+        assertTrue(joinTimings.getAddressResolutionMillis() >= 0);
+        assertTrue(joinTimings.getMasterDiscoveryMillis() >= 0);
+        assertTrue(joinTimings.getJoinMillis() >= 0);
+        assertTrue(joinTimings.getProbedAddressCount() > 0);
+        assertEquals(0, joinTimings.getCachedAddressCount());
+    }
+
+    @Test
+    public void testMembersViewCached() {
+        File file1 = new File(tempFolder.getRoot(), "members-view-1");
+        File file2 = new File(tempFolder.getRoot(), "members-view-2");
+        HazelcastInstance hz1 = Hazelcast.newHazelcastInstance(newConfig(file1, "127.0.0.1"));
+        HazelcastInstance hz2 = Hazelcast.newHazelcastInstance(newConfig(file2, "127.0.0.1"));
+        assertClusterSize(2, hz1, hz2);
+
+        assertTrueEventually(() -> {
+            assertCachedAddress(hz1, file1, getAddress(hz2));
+            assertCachedAddress(hz2, file2, getAddress(hz1));
+        });
+    }
+
+    @Test
+    public void testJoin_viaCachedMembersView() {
+        File file = new File(tempFolder.getRoot(), "members-view");
+        HazelcastInstance hz1 = Hazelcast.newHazelcastInstance(newConfig(null, "127.0.0.1:5701"));
+        HazelcastInstance hz2 = Hazelcast.newHazelcastInstance(newConfig(file, "127.0.0.1:5701"));
+        assertClusterSize(2, hz1, hz2);
+        assertTrueEventually(() -> assertCachedAddress(hz2, file, getAddress(hz1)));
+
+        hz2.getLifecycleService().terminate();
+        assertClusterSizeEventually(1, hz1);
+
+        // the configured member does not exist, the member can join only via the cached members view
+        HazelcastInstance hz3 = Hazelcast.newHazelcastInstance(newConfig(file, "127.0.0.1:5799"));
+        assertClusterSize(2, hz1, hz3);
+
+        JoinTimings joinTimings = getJoinTimings(hz3);
+        assertEquals(1, joinTimings.getCachedAddressCount());
+        assertTrue(joinTimings.getMasterDiscoveryMillis() >= 0);
+        assertTrue(joinTimings.getJoinMillis() >= 0);
+    }
+
+    private static void assertCachedAddress(HazelcastInstance hz, File file, Address expected) {
+        Collection<Address> addresses = new MembersViewCache(getNode(hz), file.getAbsolutePath()).readAddresses();
+        assertEquals(1, addresses.size());
+        assertTrue(addresses.contains(expected));
+    }
+
+    private static JoinTimings getJoinTimings(HazelcastInstance hz) {
+        Node node = getNode(hz);
+        return ((AbstractJoiner) node.getJoiner()).getJoinTimings();
+    }
+
+    private static Config newConfig(File membersViewCacheFile, String member) {
+        Config config = new Config();
+        config.setProperty(ClusterProperty.WAIT_SECONDS_BEFORE_JOIN.getName(), "1");
+        config.setProperty(ClusterProperty.TCP_JOIN_PARALLEL_PROBING_ENABLED.getName(), "true");
+        if (membersViewCacheFile != null) {
+            config.setProperty(ClusterProperty.TCP_JOIN_MEMBERS_VIEW_CACHE_FILE.getName(),
+                    membersViewCacheFile.getAbsolutePath());
+        }
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember(member);
+        return config;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.crdt.pncounter;
+
+import com.hazelcast.config.CRDTReplicationConfig;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.crdt.pncounter.PNCounter;
+import com.hazelcast.internal.metrics.LongGauge;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the PN counter changes are replicated as deltas and that the
+ * replication is tracked by the metrics.
+ */
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PNCounterDeltaReplicationTest extends HazelcastTestSupport {
+
+    private static final int COUNTER_COUNT = 100;
+
+    private HazelcastInstance instance1;
+    private HazelcastInstance instance2;
+
+    @Before
+    public void setup() {
+        Config config = smallInstanceConfig()
+                .setCRDTReplicationConfig(new CRDTReplicationConfig().setReplicationPeriodMillis(100));
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        instance1 = instances[0];
+        instance2 = instances[1];
+    }
+
+    @Test
+    public void testReplication() {
+        for (int i = 0; i < COUNTER_COUNT; i++) {
+            instance1.getPNCounter("counter" + i).addAndGet(i);
+        }
+        assertReplicatedEventually();
+
+        LongGauge replicationCount = getNodeEngineImpl(instance1).getMetricsRegistry()
+                .newLongGauge("crdtReplication.replicationCount");
+        LongGauge replicatedBytes = getNodeEngineImpl(instance1).getMetricsRegistry()
+                .newLongGauge("crdtReplication.replicatedBytes");
+        assertTrueEventually(() -> assertTrue(replicationCount.read() > 0));
+        // let the replication which delivered the last counter finish
+        sleepMillis(500);
+        long initialBytes = replicatedBytes.read();
+        long initialCount = replicationCount.read();
+        assertTrue(initialBytes > 0);
+
+        // a single changed counter does not replicate the others
+        PNCounter counter = instance1.getPNCounter("counter0");
+        counter.addAndGet(COUNTER_COUNT);
+        assertTrueEventually(() -> assertEquals(COUNTER_COUNT, valueOnInstance2("counter0")));
+        assertTrueEventually(() -> assertTrue(replicationCount.read() > initialCount));
+        assertTrue(replicatedBytes.read() - initialBytes < initialBytes / 10);
+    }
+
+    @Test
+    public void testReplication_whenBothReplicasUpdated() {
+        for (int i = 0; i < COUNTER_COUNT; i++) {
+            instance1.getPNCounter("counter" + i).addAndGet(i);
+            instance2.getPNCounter("counter" + i).addAndGet(i);
+        }
+        assertTrueEventually(() -> {
+            for (int i = 0; i < COUNTER_COUNT; i++) {
+                assertEquals(2 * i, valueOnInstance1("counter" + i));
+                assertEquals(2 * i, valueOnInstance2("counter" + i));
+            }
+        });
+
+        for (int i = 0; i < COUNTER_COUNT; i++) {
+            instance2.getPNCounter("counter" + i).subtractAndGet(i);
+        }
+        assertTrueEventually(() -> {
+            for (int i = 0; i < COUNTER_COUNT; i++) {
+                assertEquals(i, valueOnInstance1("counter" + i));
+                assertEquals(i, valueOnInstance2("counter" + i));
+            }
+        });
+    }
+
+    private void assertReplicatedEventually() {
+        assertTrueEventually(() -> {
+            for (int i = 0; i < COUNTER_COUNT; i++) {
+                assertEquals(i, valueOnInstance2("counter" + i));
+            }
+        });
+    }
+
+    private long valueOnInstance1(String name) {
+        return value(instance1, name);
+    }
+
+    private long valueOnInstance2(String name) {
+        return value(instance2, name);
+    }
+
+    private static long value(HazelcastInstance instance, String name) {
+        PNCounterService service = getNodeEngineImpl(instance).getService(PNCounterService.SERVICE_NAME);
+        return service.getCounter(name).get(null).getValue();
+    }
+}
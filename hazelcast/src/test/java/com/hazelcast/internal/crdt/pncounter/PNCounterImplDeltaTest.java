@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.crdt.pncounter;
+
+import com.hazelcast.cluster.impl.VectorClock;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PNCounterImplDeltaTest {
+
+    private final UUID replicaId1 = UUID.randomUUID();
+    private final UUID replicaId2 = UUID.randomUUID();
+    private final UUID replicaId3 = UUID.randomUUID();
+
+    private final PNCounterImpl counter1 = new PNCounterImpl(replicaId1, "counter");
+    private final PNCounterImpl counter2 = new PNCounterImpl(replicaId2, "counter");
+    private final PNCounterImpl counter3 = new PNCounterImpl(replicaId3, "counter");
+
+    @Test
+    public void delta_whenNothingObserved_thenCompleteState() {
+        counter1.addAndGet(5, null);
+        counter2.addAndGet(-3, null);
+        counter1.merge(counter2);
+
+        PNCounterImpl delta = counter1.delta(new VectorClock());
+        counter3.merge(delta);
+
+        assertEquals(2, value(counter3));
+    }
+
+    @Test
+    public void delta_whenNothingChanged_thenNull() {
+        counter1.addAndGet(5, null);
+
+        assertNull(counter1.delta(counter1.getCurrentVectorClock()));
+    }
+
+    @Test
+    public void delta_containsOnlyChangedReplicas() {
+        counter1.addAndGet(5, null);
+        counter2.addAndGet(7, null);
+        counter1.merge(counter2);
+        VectorClock observed = counter1.getCurrentVectorClock();
+        counter3.merge(counter1);
+
+        counter1.subtractAndGet(2, null);
+        PNCounterImpl delta = counter1.delta(observed);
+
+        assertNotNull(delta);
+        VectorClock deltaClock = delta.getCurrentVectorClock();
+        assertNotNull(deltaClock.getTimestampForReplica(replicaId1));
+        assertNull(deltaClock.getTimestampForReplica(replicaId2));
+        assertEquals(-2, value(delta) - 5);
+    }
+
+    @Test
+    public void mergeDelta_whenStateObserved_thenSameAsMergingCompleteState() {
+        counter1.addAndGet(5, null);
+        counter2.addAndGet(7, null);
+        counter1.merge(counter2);
+        VectorClock observed = counter1.getCurrentVectorClock();
+        counter3.merge(counter1);
+
+        counter1.subtractAndGet(2, null);
+        counter2.addAndGet(4, null);
+        counter1.merge(counter2);
+        counter3.merge(counter1.delta(observed));
+
+        assertEquals(value(counter1), value(counter3));
+        assertEquals(14, value(counter3));
+        assertFalse(counter1.getCurrentVectorClock().isAfter(counter3.getCurrentVectorClock()));
+    }
+
+    @Test
+    public void mergeDelta_doesNotMarkMissingStateAsObserved() {
+        counter1.addAndGet(5, null);
+        counter2.addAndGet(7, null);
+        counter1.merge(counter2);
+        VectorClock observed = counter1.getCurrentVectorClock();
+
+        counter1.addAndGet(1, null);
+        counter3.merge(counter1.delta(observed));
+
+        // the state of the second replica was not replicated to the third one
+        assertEquals(6, value(counter3));
+        assertNull(counter3.getCurrentVectorClock().getTimestampForReplica(replicaId2));
+    }
+
+    private static long value(PNCounterImpl counter) {
+        return counter.get(null).getValue();
+    }
+}
@@ -53,5 +53,7 @@ public class MemberHazelcastInstanceInfoPluginTest extends AbstractDiagnosticsPl
         assertContains("HazelcastInstance[");
         assertContains("isRunning=true");
         assertContains("Members[");
+        assertContains("JoinTimings[");
+        assertContains("joinMillis=");
     }
 }
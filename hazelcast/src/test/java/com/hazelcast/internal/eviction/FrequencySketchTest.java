@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.eviction.FrequencySketch.MAX_FREQUENCY;
+import static com.hazelcast.internal.eviction.FrequencySketch.MIN_CAPACITY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class FrequencySketchTest {
+
+    @Test
+    public void frequency_whenNotIncremented() {
+        FrequencySketch sketch = new FrequencySketch(100);
+
+        assertEquals(0, sketch.frequency(42));
+    }
+
+    @Test
+    public void frequency_countsIncrements() {
+        FrequencySketch sketch = new FrequencySketch(100);
+        for (int i = 0; i < 5; i++) {
+            sketch.increment(42);
+        }
+
+        assertEquals(5, sketch.frequency(42));
+    }
+
+    @Test
+    public void frequency_saturatesAtMaximum() {
+        FrequencySketch sketch = new FrequencySketch(100);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment(42);
+        }
+
+        assertEquals(MAX_FREQUENCY, sketch.frequency(42));
+    }
+
+    @Test
+    public void frequency_distinguishesHotKeys() {
+        int keyCount = 1000;
+        FrequencySketch sketch = new FrequencySketch(keyCount);
+        for (int key = 0; key < keyCount; key++) {
+            sketch.increment(key);
+        }
+        for (int key = 0; key < 10; key++) {
+            for (int i = 0; i < 10; i++) {
+                sketch.increment(key);
+            }
+        }
+
+        for (int key = 0; key < 10; key++) {
+            assertTrue(sketch.frequency(key) > 5);
+        }
+        int overestimated = 0;
+        for (int key = 10; key < keyCount; key++) {
+            if (sketch.frequency(key) > 1) {
+                overestimated++;
+            }
+        }
+        assertTrue("overestimated: " + overestimated, overestimated < keyCount / 10);
+    }
+
+    @Test
+    public void increment_halvesFrequenciesWhenSampleSizeReached() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        for (int i = 0; i < 8; i++) {
+            sketch.increment(42);
+        }
+        // the sample size is ten times the capacity, without the
+        // reset the frequency of the key could only have grown
+        for (int key = 1000; key < 1000 + 10 * 1024; key++) {
+            sketch.increment(key);
+        }
+
+        int frequency = sketch.frequency(42);
+        assertTrue("frequency: " + frequency, frequency < 8);
+    }
+
+    @Test
+    public void ensureCapacity_growsOnly() {
+        FrequencySketch sketch = new FrequencySketch(0);
+        assertEquals(MIN_CAPACITY, sketch.capacity());
+
+        sketch.ensureCapacity(1000);
+        assertEquals(1024, sketch.capacity());
+
+        sketch.increment(42);
+        sketch.ensureCapacity(10);
+        assertEquals(1024, sketch.capacity());
+        assertEquals(1, sketch.frequency(42));
+    }
+}
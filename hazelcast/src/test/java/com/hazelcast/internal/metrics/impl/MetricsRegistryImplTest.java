@@ -16,8 +16,11 @@
 
 package com.hazelcast.internal.metrics.impl;
 
+import com.hazelcast.internal.metrics.LongGauge;
 import com.hazelcast.internal.metrics.LongProbeFunction;
+import com.hazelcast.internal.metrics.MetricDescriptor;
 import com.hazelcast.internal.metrics.ProbeLevel;
+import com.hazelcast.internal.metrics.collectors.MetricsCollector;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
@@ -28,12 +31,17 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static com.hazelcast.internal.metrics.ProbeUnit.COUNT;
+import static java.util.Collections.newSetFromMap;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastSerialClassRunner.class)
 @Category(QuickTest.class)
@@ -95,8 +103,71 @@ public class MetricsRegistryImplTest extends HazelcastTestSupport {
         }
     }
 
+    // ================ collect ======================
+
+    @Test
+    public void collect_updatesCollectionMetrics() {
+        metricsRegistry.registerStaticMetrics(metricsRegistry, "metrics");
+        LongGauge collectionCount = metricsRegistry.newLongGauge("metrics.collectionCount");
+        LongGauge lastCollectionDuration = metricsRegistry.newLongGauge("metrics.lastCollectionDuration");
+
+        metricsRegistry.collect(new CapturingCollector());
+        metricsRegistry.collect(new CapturingCollector());
+
+        assertEquals(2, collectionCount.read());
+        assertTrue(lastCollectionDuration.read() > 0);
+    }
+
+    @Test
+    public void collect_reusesDescriptorsBetweenCycles() {
+        Set<MetricDescriptor> firstCycle = newSetFromMap(new IdentityHashMap<>());
+        Set<MetricDescriptor> secondCycle = newSetFromMap(new IdentityHashMap<>());
+        AtomicReference<Set<MetricDescriptor>> currentCycle = new AtomicReference<>(firstCycle);
+        metricsRegistry.registerDynamicMetricsProvider((descriptor, context) -> {
+            currentCycle.get().add(descriptor);
+            for (int i = 0; i < 100; i++) {
+                MetricDescriptor copy = descriptor.copy().withPrefix("test").withDiscriminator("id", "" + i);
+                currentCycle.get().add(copy);
+                context.collect(copy, "metric", INFO, COUNT, i);
+            }
+        });
+
+        metricsRegistry.collect(new DescriptorIdentityCollector(firstCycle));
+        currentCycle.set(secondCycle);
+        metricsRegistry.collect(new DescriptorIdentityCollector(secondCycle));
+
+        assertTrue(secondCycle.size() > 100);
+        assertTrue(firstCycle.containsAll(secondCycle));
+    }
+
     @Test
     public void shutdown() {
         metricsRegistry.shutdown();
     }
+
+    private static final class DescriptorIdentityCollector implements MetricsCollector {
+        private final Set<MetricDescriptor> descriptors;
+
+        private DescriptorIdentityCollector(Set<MetricDescriptor> descriptors) {
+            this.descriptors = descriptors;
+        }
+
+        @Override
+        public void collectLong(MetricDescriptor descriptor, long value) {
+            descriptors.add(descriptor);
+        }
+
+        @Override
+        public void collectDouble(MetricDescriptor descriptor, double value) {
+            descriptors.add(descriptor);
+        }
+
+        @Override
+        public void collectException(MetricDescriptor descriptor, Exception e) {
+        }
+
+        @Override
+        public void collectNoValue(MetricDescriptor descriptor) {
+        }
+    }
 }
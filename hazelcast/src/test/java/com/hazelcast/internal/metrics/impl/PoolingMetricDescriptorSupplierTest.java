@@ -25,8 +25,14 @@ import org.junit.experimental.categories.Category;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static java.util.Collections.newSetFromMap;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -54,6 +60,23 @@ public class PoolingMetricDescriptorSupplierTest {
         assertSame(first, second);
     }
 
+    @Test
+    public void testReclaimReturnsNotRecycledDescriptors() {
+        PoolingMetricDescriptorSupplier supplier = new PoolingMetricDescriptorSupplier();
+        Set<MetricDescriptorImpl> taken = newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < 2 * PoolingMetricDescriptorSupplier.INITIAL_CAPACITY; i++) {
+            taken.add(supplier.get().withMetric("metric"));
+        }
+
+        supplier.reclaim();
+
+        for (int i = 0; i < 2 * PoolingMetricDescriptorSupplier.INITIAL_CAPACITY; i++) {
+            MetricDescriptorImpl descriptor = supplier.get();
+            assertTrue(taken.remove(descriptor));
+            assertNull(descriptor.metric());
+        }
+    }
+
     @Test
     public void testSuppliesNullAfterReleaseAll() {
         PoolingMetricDescriptorSupplier supplier = new PoolingMetricDescriptorSupplier();
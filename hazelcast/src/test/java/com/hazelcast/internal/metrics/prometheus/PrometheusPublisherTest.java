@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.metrics.prometheus;
+
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.metrics.MetricTarget.JMX;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.metrics.ProbeUnit.COUNT;
+import static com.hazelcast.internal.metrics.impl.DefaultMetricDescriptorSupplier.DEFAULT_DESCRIPTOR_SUPPLIER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PrometheusPublisherTest {
+
+    private final PrometheusPublisher publisher = new PrometheusPublisher();
+
+    @Test
+    public void when_noRoundCompleted_then_emptySnapshot() {
+        assertEquals("", snapshot());
+    }
+
+    @Test
+    public void when_metricsPublished_then_groupedByFamily() {
+        publisher.publishLong(descriptor("map", "putCount").withDiscriminator("name", "a").withUnit(COUNT), 1);
+        publisher.publishLong(descriptor("memory", "usedHeap").withUnit(BYTES), 42);
+        publisher.publishLong(descriptor("map", "putCount").withDiscriminator("name", "b").withUnit(COUNT), 2);
+        publisher.publishDouble(descriptor(null, "load"), 0.5d);
+        publisher.whenComplete();
+
+        assertEquals("# TYPE hazelcast_map_putCount untyped\n"
+                + "hazelcast_map_putCount{name=\"a\",unit=\"count\"} 1\n"
+                + "hazelcast_map_putCount{name=\"b\",unit=\"count\"} 2\n"
+                + "# TYPE hazelcast_memory_usedHeap untyped\n"
+                + "hazelcast_memory_usedHeap{unit=\"bytes\"} 42\n"
+                + "# TYPE hazelcast_load untyped\n"
+                + "hazelcast_load 0.5\n", snapshot());
+    }
+
+    @Test
+    public void when_tags_then_mappedToLabels() {
+        MetricDescriptor descriptor = descriptor("operation.thread", "completed-count")
+                .withDiscriminator("thread", "t-1")
+                .withTag("path", "C:\\dir \"x\"\nend")
+                .withTag("1st", "v");
+        publisher.publishLong(descriptor, 3);
+        publisher.whenComplete();
+
+        assertEquals("# TYPE hazelcast_operation_thread_completed_count untyped\n"
+                + "hazelcast_operation_thread_completed_count"
+                + "{thread=\"t-1\",path=\"C:\\\\dir \\\"x\\\"\\nend\",_st=\"v\"} 3\n", snapshot());
+    }
+
+    @Test
+    public void when_specialDoubles_then_renderedInPrometheusFormat() {
+        publisher.publishDouble(descriptor("p", "nan"), Double.NaN);
+        publisher.publishDouble(descriptor("p", "inf"), Double.POSITIVE_INFINITY);
+        publisher.publishDouble(descriptor("p", "negInf"), Double.NEGATIVE_INFINITY);
+        publisher.whenComplete();
+
+        assertEquals("# TYPE hazelcast_p_nan untyped\nhazelcast_p_nan NaN\n"
+                + "# TYPE hazelcast_p_inf untyped\nhazelcast_p_inf +Inf\n"
+                + "# TYPE hazelcast_p_negInf untyped\nhazelcast_p_negInf -Inf\n", snapshot());
+    }
+
+    @Test
+    public void when_metricExcludedFromJmx_then_notPublished() {
+        publisher.publishLong(descriptor("p", "m").withExcludedTarget(JMX), 1);
+        publisher.whenComplete();
+
+        assertEquals("", snapshot());
+    }
+
+    @Test
+    public void when_metricDisappears_then_removedInNextRound() {
+        publisher.publishLong(descriptor("p", "a"), 1);
+        publisher.publishLong(descriptor("p", "b"), 2);
+        publisher.whenComplete();
+
+        publisher.publishLong(descriptor("p", "b"), 3);
+        publisher.whenComplete();
+
+        assertEquals("# TYPE hazelcast_p_b untyped\nhazelcast_p_b 3\n", snapshot());
+    }
+
+    private String snapshot() {
+        return new String(publisher.getSnapshot(), UTF_8);
+    }
+
+    private static MetricDescriptor descriptor(String prefix, String metric) {
+        return DEFAULT_DESCRIPTOR_SUPPLIER.get().withPrefix(prefix).withMetric(metric);
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.nearcache.impl.store;
 
+import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.internal.serialization.Data;
@@ -34,8 +35,10 @@ import static com.hazelcast.internal.nearcache.NearCache.UpdateSemantic.READ_UPD
 import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
 import static com.hazelcast.internal.nearcache.NearCacheRecord.READ_PERMITTED;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastSerialClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -100,6 +103,51 @@ public class AbstractNearCacheRecordStoreTest {
         assertEquals(1, store.getNearCacheStats().getOwnedEntryCount());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAdmit_withTinyLFU() {
+        int size = 100;
+        NearCacheConfig config = new NearCacheConfig()
+                .setInMemoryFormat(InMemoryFormat.OBJECT)
+                .setSerializeKeys(false);
+        config.getEvictionConfig()
+                .setEvictionPolicy(EvictionPolicy.TINY_LFU)
+                .setSize(size);
+        AbstractNearCacheRecordStore tinyLfuStore
+                = new NearCacheObjectRecordStore("name", config, serializationService, getClass().getClassLoader());
+        tinyLfuStore.initialize();
+        try {
+            for (int key = 0; key < size; key++) {
+                assertTrue(tinyLfuStore.admit(key));
+                tinyLfuStore.put(key, null, key, null);
+                for (int i = 0; i < 3; i++) {
+                    tinyLfuStore.get(key);
+                }
+            }
+
+            // a key accessed less frequently than the cached ones is rejected
+            int newKey = size;
+            assertNull(tinyLfuStore.get(newKey));
+            assertFalse(tinyLfuStore.admit(newKey));
+
+            // but admitted once it is accessed more frequently
+            for (int i = 0; i < 5; i++) {
+                tinyLfuStore.get(newKey);
+            }
+            assertTrue(tinyLfuStore.admit(newKey));
+
+            // the keys already cached are always admitted
+            assertTrue(tinyLfuStore.admit(0));
+        } finally {
+            tinyLfuStore.destroy();
+        }
+    }
+
+    @Test
+    public void testAdmit_withoutTinyLFU() {
+        assertTrue(store.admit(KEY));
+    }
+
     @SuppressWarnings("unchecked")
     private void assertRecordState(long recordState) {
         assertEquals(recordState, store.getRecord(KEY).getReservationId());
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.services.ServiceNamespace;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.partition.Partition;
+import com.hazelcast.spi.impl.SpiDataSerializerHook;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.test.Accessors.getPartitionService;
+import static com.hazelcast.test.PacketFiltersUtil.dropOperationsFrom;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PartitionAntiEntropyDigestsTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 100;
+
+    @Test
+    public void testDigests_batchedPerMember() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance hz1 = factory.newHazelcastInstance(getConfig(true));
+        HazelcastInstance hz2 = factory.newHazelcastInstance(getConfig(true));
+        warmUpPartitions(hz1, hz2);
+
+        // the changed digests contain the versions of both maps
+        IMap<Integer, Integer> map = hz1.getMap(randomMapName());
+        IMap<Integer, Integer> otherMap = hz1.getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+            otherMap.put(i, i);
+        }
+        // a partition of each member doesn't change after the first round
+        Set<Integer> unchangedPartitionIds = new HashSet<>();
+        unchangedPartitionIds.add(getFirstOwnedPartitionId(hz1));
+        unchangedPartitionIds.add(getFirstOwnedPartitionId(hz2));
+
+        for (HazelcastInstance hz : new HazelcastInstance[]{hz1, hz2}) {
+            PartitionAntiEntropyDigests digests = getAntiEntropyDigests(hz);
+            assertTrueEventually(() -> {
+                // the changed versions of the replicas checked before are batched
+                for (int i = 0; i < ENTRY_COUNT; i++) {
+                    if (!unchangedPartitionIds.contains(hz1.getPartitionService().getPartition(i).getPartitionId())) {
+                        map.put(i, i);
+                        otherMap.put(i, i);
+                    }
+                }
+                assertTrue(digests.getOperationCount() > 0);
+                assertTrue(digests.getDigestCount() > digests.getOperationCount());
+                assertTrue(digests.getVersionCount() >= digests.getDigestCount());
+                // the replicas didn't change since the last check
+                assertTrue(digests.getSkippedDigestCount() > 0);
+            });
+        }
+    }
+
+    @Test
+    public void testDigests_whenBatchingDisabled() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance hz1 = factory.newHazelcastInstance(getConfig(false));
+        HazelcastInstance hz2 = factory.newHazelcastInstance(getConfig(false));
+        warmUpPartitions(hz1, hz2);
+
+        PartitionAntiEntropyDigests digests = getAntiEntropyDigests(hz1);
+        assertTrueAllTheTime(() -> {
+            assertEquals(0, digests.getOperationCount());
+            assertEquals(0, digests.getSkippedDigestCount());
+        }, 3);
+    }
+
+    @Test
+    public void testLostBackupsSynced() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance hz1 = factory.newHazelcastInstance(getConfig(true));
+        HazelcastInstance hz2 = factory.newHazelcastInstance(getConfig(true));
+        warmUpPartitions(hz1, hz2);
+
+        dropOperationsFrom(hz1, SpiDataSerializerHook.F_ID, singletonList(SpiDataSerializerHook.BACKUP));
+        String mapName = randomMapName();
+        IMap<String, String> map = hz1.getMap(mapName);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            String key = generateKeyOwnedBy(hz1);
+            map.put(key, key);
+        }
+
+        PartitionAntiEntropyDigests digests = getAntiEntropyDigests(hz1);
+        assertTrueEventually(() -> {
+            assertTrue(digests.getMismatchCount() > 0);
+            assertEquals(ENTRY_COUNT, hz2.getMap(mapName).getLocalMapStats().getBackupEntryCount());
+        });
+    }
+
+    @Test
+    public void testBackupAheadOfPrimarySynced() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance hz1 = factory.newHazelcastInstance(getConfig(true));
+        HazelcastInstance hz2 = factory.newHazelcastInstance(getConfig(true));
+        warmUpPartitions(hz1, hz2);
+
+        String mapName = randomMapName();
+        String key = generateKeyOwnedBy(hz1);
+        hz1.getMap(mapName).put(key, key);
+        int partitionId = hz1.getPartitionService().getPartition(key).getPartitionId();
+        ServiceNamespace namespace = MapService.getObjectNamespace(mapName);
+        PartitionReplicaManager primaryReplicaManager = getReplicaManager(hz1);
+        PartitionReplicaManager backupReplicaManager = getReplicaManager(hz2);
+        assertTrueEventually(() -> assertArrayEquals(
+                primaryReplicaManager.getPartitionReplicaVersions(partitionId, namespace),
+                backupReplicaManager.getPartitionReplicaVersions(partitionId, namespace)));
+
+        long[] versions = backupReplicaManager.getPartitionReplicaVersions(partitionId, namespace).clone();
+        versions[0]++;
+        backupReplicaManager.setPartitionReplicaVersions(partitionId, namespace, versions, 1);
+
+        PartitionAntiEntropyDigests digests = getAntiEntropyDigests(hz1);
+        assertTrueEventually(() -> {
+            assertTrue(digests.getMismatchCount() > 0);
+            assertArrayEquals(primaryReplicaManager.getPartitionReplicaVersions(partitionId, namespace),
+                    backupReplicaManager.getPartitionReplicaVersions(partitionId, namespace));
+        });
+    }
+
+    private static int getFirstOwnedPartitionId(HazelcastInstance hz) {
+        for (Partition partition : hz.getPartitionService().getPartitions()) {
+            if (hz.getCluster().getLocalMember().equals(partition.getOwner())) {
+                return partition.getPartitionId();
+            }
+        }
+        throw new AssertionError("No partition owned by " + hz);
+    }
+
+    private static PartitionReplicaManager getReplicaManager(HazelcastInstance hz) {
+        return ((InternalPartitionServiceImpl) getPartitionService(hz)).getReplicaManager();
+    }
+
+    private static PartitionAntiEntropyDigests getAntiEntropyDigests(HazelcastInstance hz) {
+        InternalPartitionServiceImpl partitionService = (InternalPartitionServiceImpl) getPartitionService(hz);
+        return partitionService.getReplicaManager().getAntiEntropyDigests();
+    }
+
+    private Config getConfig(boolean batchingEnabled) {
+        Config config = smallInstanceConfig()
+                .setProperty(ClusterProperty.PARTITION_BACKUP_SYNC_INTERVAL.getName(), "1")
+                .setProperty(ClusterProperty.PARTITION_BACKUP_SYNC_BATCHING_ENABLED.getName(),
+                        String.valueOf(batchingEnabled));
+        config.getMapConfig("default").setBackupCount(0).setAsyncBackupCount(1);
+        return config;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map;
+
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+@RunWith(Parameterized.class)
+@Parameterized.UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public abstract class AbstractMapSpliteratorTest extends HazelcastTestSupport {
+
+    private static final int PARTITION_COUNT = 11;
+    private static final int FETCH_SIZE = 10;
+
+    protected TestHazelcastFactory factory;
+    protected HazelcastInstance instance;
+
+    @Parameter
+    public int maxConcurrency;
+
+    @Parameters(name = "maxConcurrency:{0}")
+    public static Iterable<Object[]> parameters() {
+        return Arrays.asList(new Object[]{1}, new Object[]{4}, new Object[]{PARTITION_COUNT * 2});
+    }
+
+    @Before
+    public abstract void setup();
+
+    @After
+    public void teardown() {
+        factory.terminateAll();
+    }
+
+    protected abstract <K, V> Spliterator<Map.Entry<K, V>> getSpliterator(IMap<K, V> map, int fetchSize,
+                                                                         int maxConcurrency);
+
+    protected Config getConfig() {
+        Config config = smallInstanceConfig();
+        config.setProperty(ClusterProperty.PARTITION_COUNT.getName(), String.valueOf(PARTITION_COUNT));
+        return config;
+    }
+
+    @Test
+    public void test_emptyMap() {
+        IMap<Integer, String> map = instance.getMap(randomMapName());
+
+        Spliterator<Map.Entry<Integer, String>> spliterator = getSpliterator(map, FETCH_SIZE, maxConcurrency);
+
+        assertFalse(spliterator.tryAdvance(entry -> { }));
+    }
+
+    @Test
+    public void test_sequentialIteration() {
+        IMap<Integer, String> map = instance.getMap(randomMapName());
+        Map<Integer, String> expected = fill(map, 1000);
+
+        Map<Integer, String> actual = new HashMap<>();
+        getSpliterator(map, FETCH_SIZE, maxConcurrency)
+                .forEachRemaining(entry -> assertNull(actual.put(entry.getKey(), entry.getValue())));
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void test_parallelStream() {
+        IMap<Integer, String> map = instance.getMap(randomMapName());
+        Map<Integer, String> expected = fill(map, 1000);
+
+        Map<Integer, String> actual = StreamSupport.stream(getSpliterator(map, FETCH_SIZE, maxConcurrency), true)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void test_splitUntilSinglePartitions() {
+        IMap<Integer, String> map = instance.getMap(randomMapName());
+        Map<Integer, String> expected = fill(map, 1000);
+
+        List<Spliterator<Map.Entry<Integer, String>>> splits = new ArrayList<>();
+        Deque<Spliterator<Map.Entry<Integer, String>>> toSplit = new ArrayDeque<>();
+        toSplit.add(getSpliterator(map, FETCH_SIZE, maxConcurrency));
+        while (!toSplit.isEmpty()) {
+            Spliterator<Map.Entry<Integer, String>> spliterator = toSplit.poll();
+            Spliterator<Map.Entry<Integer, String>> split = spliterator.trySplit();
+            if (split == null) {
+                splits.add(spliterator);
+            } else {
+                toSplit.add(spliterator);
+                toSplit.add(split);
+            }
+        }
+        assertEquals(PARTITION_COUNT, splits.size());
+
+        Map<Integer, String> actual = new HashMap<>();
+        for (Spliterator<Map.Entry<Integer, String>> split : splits) {
+            split.forEachRemaining(entry -> assertNull(actual.put(entry.getKey(), entry.getValue())));
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void test_splitAfterIterationStarted() {
+        IMap<Integer, String> map = instance.getMap(randomMapName());
+        Map<Integer, String> expected = fill(map, 1000);
+
+        Map<Integer, String> actual = new HashMap<>();
+        Spliterator<Map.Entry<Integer, String>> spliterator = getSpliterator(map, FETCH_SIZE, maxConcurrency);
+        for (int i = 0; i < 15; i++) {
+            spliterator.tryAdvance(entry -> assertNull(actual.put(entry.getKey(), entry.getValue())));
+        }
+        Spliterator<Map.Entry<Integer, String>> split = spliterator.trySplit();
+
+        spliterator.forEachRemaining(entry -> assertNull(actual.put(entry.getKey(), entry.getValue())));
+        if (split != null) {
+            split.forEachRemaining(entry -> assertNull(actual.put(entry.getKey(), entry.getValue())));
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_nonPositiveFetchSize() {
+        getSpliterator(instance.getMap(randomMapName()), 0, maxConcurrency);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_nonPositiveMaxConcurrency() {
+        getSpliterator(instance.getMap(randomMapName()), FETCH_SIZE, 0);
+    }
+
+    private static Map<Integer, String> fill(IMap<Integer, String> map, int count) {
+        Map<Integer, String> expected = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            expected.put(i, "value-" + i);
+        }
+        map.putAll(expected);
+        return expected;
+    }
+
+}
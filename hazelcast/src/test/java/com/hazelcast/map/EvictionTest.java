@@ -667,6 +667,42 @@ public class EvictionTest extends HazelcastTestSupport {
         }
     }
 
+    @Test
+    public void testEvictionTinyLFU() {
+        int size = 10000;
+        String mapName = randomMapName("testEvictionTinyLFU");
+
+        MapConfig mapConfig = newMapConfig(mapName);
+        mapConfig.getEvictionConfig()
+                .setEvictionPolicy(EvictionPolicy.TINY_LFU)
+                .setMaxSizePolicy(MaxSizePolicy.PER_NODE)
+                .setSize(size);
+
+        Config config = getConfig()
+                .setProperty(ClusterProperty.PARTITION_COUNT.getName(), "1")
+                .addMapConfig(mapConfig);
+
+        HazelcastInstance node = createHazelcastInstance(config);
+        IMap<Object, Object> map = node.getMap(mapName);
+        for (int i = 0; i < size; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 100; j++) {
+                assertNotNull(map.get(j));
+            }
+        }
+        // one-hit wonders evict each other instead of the frequently accessed entries
+        for (int i = size; i < 2 * size; i++) {
+            map.put(i, i);
+        }
+
+        assertTrue(map.size() <= size);
+        for (int j = 0; j < 100; j++) {
+            assertNotNull(map.get(j));
+        }
+    }
+
     @Test
     public void testMapRecordEviction() {
         String mapName = randomMapName();
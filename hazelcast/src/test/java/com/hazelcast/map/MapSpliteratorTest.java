@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map;
+
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Map;
+import java.util.Spliterator;
+
+@RunWith(Parameterized.class)
+@Parameterized.UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapSpliteratorTest extends AbstractMapSpliteratorTest {
+
+    @Override
+    public void setup() {
+        factory = new TestHazelcastFactory();
+        instance = factory.newHazelcastInstance(getConfig());
+        factory.newHazelcastInstance(getConfig());
+    }
+
+    @Override
+    protected <K, V> Spliterator<Map.Entry<K, V>> getSpliterator(IMap<K, V> map, int fetchSize, int maxConcurrency) {
+        return ((MapProxyImpl<K, V>) map).spliterator(fetchSize, maxConcurrency);
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.AsyncMapLoader;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.hazelcast.config.MapStoreConfig.InitialLoadMode.EAGER;
+import static com.hazelcast.config.MapStoreConfig.InitialLoadMode.LAZY;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_LOAD_CHUNK_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_LOAD_PARALLELISM;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class AsyncMapLoaderTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 100;
+    private static final int CHUNK_SIZE = 10;
+    private static final int PARALLELISM = 3;
+
+    private ScheduledExecutorService scheduler;
+    private TestAsyncMapLoader loader;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newScheduledThreadPool(2);
+        loader = new TestAsyncMapLoader(scheduler);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void initialLoad_loadsAllEntries() {
+        HazelcastInstance instance = createHazelcastInstance(newConfig(EAGER));
+        IMap<Integer, Integer> map = instance.getMap("async");
+
+        assertEquals(ENTRY_COUNT, map.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(2 * i, (int) map.get(i));
+        }
+        MapLoadStats stats = getLoadStats(instance);
+        assertEquals(ENTRY_COUNT, stats.getLoadedEntryCount());
+        assertEquals(0, stats.getPendingKeyCount());
+        assertEquals(0, stats.getInFlightBatchCount());
+        assertEquals(0, stats.getFailedBatchCount());
+        assertTrue(stats.getLoadedBatchCount() >= ENTRY_COUNT / CHUNK_SIZE);
+    }
+
+    @Test
+    public void loadAll_loadsBatchesOfPartitionInParallel() {
+        HazelcastInstance instance = createHazelcastInstance(newConfig(LAZY));
+        IMap<Integer, Integer> map = loadedAndEvictedMap(instance);
+        MapLoadStats stats = getLoadStats(instance);
+        long initiallyLoadedBatchCount = stats.getLoadedBatchCount();
+
+        map.loadAll(keys(), true);
+
+        assertEquals(ENTRY_COUNT, map.size());
+        assertEquals(PARALLELISM, loader.maxInFlightCount.get());
+        assertEquals(ENTRY_COUNT / CHUNK_SIZE, stats.getLoadedBatchCount() - initiallyLoadedBatchCount);
+        assertEquals(2 * ENTRY_COUNT, stats.getLoadedEntryCount());
+        assertEquals(0, stats.getPendingKeyCount());
+    }
+
+    @Test
+    public void loadAll_withoutReplacing_loadsMissingKeysOnly() {
+        HazelcastInstance instance = createHazelcastInstance(newConfig(LAZY));
+        IMap<Integer, Integer> map = loadedAndEvictedMap(instance);
+        map.put(1, -1);
+
+        map.loadAll(keys(), false);
+
+        assertEquals(ENTRY_COUNT, map.size());
+        assertEquals(-1, (int) map.get(1));
+        assertEquals(ENTRY_COUNT - 1, loader.requestedKeyCount.get());
+    }
+
+    @Test
+    public void loadAll_whenLoaderFails_thenSkipsRemainingBatches() {
+        HazelcastInstance instance = createHazelcastInstance(newConfig(LAZY));
+        IMap<Integer, Integer> map = loadedAndEvictedMap(instance);
+        loader.failing = true;
+
+        map.loadAll(keys(), true);
+
+        MapLoadStats stats = getLoadStats(instance);
+        assertTrueEventually(() -> {
+            assertTrue(stats.getFailedBatchCount() > 0);
+            assertEquals(0, stats.getPendingKeyCount());
+            assertEquals(0, stats.getInFlightBatchCount());
+        });
+        assertTrue(loader.requestedKeyCount.get() < ENTRY_COUNT);
+    }
+
+    /**
+     * Returns the map after its initial load, evicted and with the counters
+     * of the loader reset.
+     */
+    private IMap<Integer, Integer> loadedAndEvictedMap(HazelcastInstance instance) {
+        IMap<Integer, Integer> map = instance.getMap("async");
+        assertEquals(ENTRY_COUNT, map.size());
+        map.evictAll();
+        loader.maxInFlightCount.set(0);
+        loader.requestedKeyCount.set(0);
+        return map;
+    }
+
+    private Config newConfig(MapStoreConfig.InitialLoadMode initialLoadMode) {
+        Config config = smallInstanceConfig()
+                .setProperty(PARTITION_COUNT.getName(), "1")
+                .setProperty(MAP_LOAD_CHUNK_SIZE.getName(), String.valueOf(CHUNK_SIZE))
+                .setProperty(MAP_LOAD_PARALLELISM.getName(), String.valueOf(PARALLELISM));
+        config.getMapConfig("async").getMapStoreConfig()
+                .setEnabled(true)
+                .setInitialLoadMode(initialLoadMode)
+                .setImplementation(loader);
+        return config;
+    }
+
+    private static Set<Integer> keys() {
+        return IntStream.range(0, ENTRY_COUNT).boxed().collect(Collectors.toSet());
+    }
+
+    private static MapLoadStats getLoadStats(HazelcastInstance instance) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        return mapService.getMapServiceContext().getMapContainer("async").getMapStoreContext().getLoadStats();
+    }
+
+    private static class TestAsyncMapLoader implements AsyncMapLoader<Integer, Integer> {
+
+        final AtomicInteger inFlightCount = new AtomicInteger();
+        final AtomicInteger maxInFlightCount = new AtomicInteger();
+        final AtomicInteger requestedKeyCount = new AtomicInteger();
+        final ScheduledExecutorService scheduler;
+        volatile boolean failing;
+
+        TestAsyncMapLoader(ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public Integer load(Integer key) {
+            return key < ENTRY_COUNT ? 2 * key : null;
+        }
+
+        @Override
+        public Iterable<Integer> loadAllKeys() {
+            return keys();
+        }
+
+        @Override
+        public CompletionStage<Map<Integer, Integer>> loadAllAsync(Collection<Integer> keys) {
+            requestedKeyCount.addAndGet(keys.size());
+            int inFlight = inFlightCount.incrementAndGet();
+            maxInFlightCount.accumulateAndGet(inFlight, Math::max);
+            List<Integer> requestedKeys = keys.stream().collect(Collectors.toList());
+            CompletableFuture<Map<Integer, Integer>> future = new CompletableFuture<>();
+            scheduler.schedule(() -> {
+                inFlightCount.decrementAndGet();
+                if (failing) {
+                    future.completeExceptionally(new IllegalStateException("loader failure"));
+                    return;
+                }
+                Map<Integer, Integer> entries = new HashMap<>();
+                for (Integer key : requestedKeys) {
+                    entries.put(key, load(key));
+                }
+                future.complete(entries);
+            }, 50, MILLISECONDS);
+            return future;
+        }
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.MapLoader;
+import com.hazelcast.map.MapStore;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapStoreWrapper;
+import com.hazelcast.partition.PartitionService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static java.util.Collections.newSetFromMap;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapLoadCoalescerTest extends HazelcastTestSupport {
+
+    private static final int THREAD_COUNT = 8;
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private final TestMapLoader loader = new TestMapLoader();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        if (loader.blockingLatch != null) {
+            loader.blockingLatch.countDown();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void load_whenConcurrentLoadsOfSameKey_thenLoadsOnce() throws Exception {
+        MapLoadCoalescer coalescer = newCoalescer(1);
+        loader.blockingLatch = new CountDownLatch(1);
+
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            futures.add(spawn(() -> coalescer.load(1)));
+        }
+        assertTrueEventually(() -> assertEquals(THREAD_COUNT - 1, coalescer.getCoalescedLoadCount()));
+        loader.blockingLatch.countDown();
+
+        for (Future<Object> future : futures) {
+            assertEquals(2, future.get());
+        }
+        assertEquals(1, loader.loadCount.get());
+        assertEquals(0, loader.loadAllCount.get());
+        assertEquals(THREAD_COUNT, coalescer.getLoadCount());
+        assertEquals(1, coalescer.getBatchCount());
+    }
+
+    @Test
+    public void loadAsync_whenLoadsRequestedWhileBatchInFlight_thenLoadsThemInOneBatch() throws Exception {
+        MapLoadCoalescer coalescer = newCoalescer(1);
+        loader.blockingLatch = new CountDownLatch(1);
+
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        futures.add(coalescer.loadAsync(0));
+        assertTrueEventually(() -> assertEquals(1, loader.loadCount.get()));
+        for (int i = 1; i < THREAD_COUNT; i++) {
+            futures.add(coalescer.loadAsync(i));
+        }
+        loader.blockingLatch.countDown();
+
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            assertEquals(2 * i, futures.get(i).get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS));
+        }
+        assertEquals(1, loader.loadCount.get());
+        assertEquals(1, loader.loadAllCount.get());
+        assertEquals(2, coalescer.getBatchCount());
+        assertEquals(THREAD_COUNT, coalescer.getBatchedKeyCount());
+    }
+
+    @Test
+    public void loadAsync_whenNoOtherLoadPending_thenDoesNotWaitForWindow() throws Exception {
+        MapLoadCoalescer coalescer = newCoalescer(MINUTES.toMillis(10));
+
+        assertEquals(6, coalescer.loadAsync(3).get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS));
+        assertEquals(8, coalescer.loadAsync(4).get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS));
+        assertEquals(2, loader.loadCount.get());
+    }
+
+    @Test
+    public void loadAsync_whenLoadOfSameKeyInFlight_thenReturnsInFlightLoad() throws Exception {
+        MapLoadCoalescer coalescer = newCoalescer(1);
+        loader.blockingLatch = new CountDownLatch(1);
+
+        CompletableFuture<Object> first = coalescer.loadAsync(5);
+        CompletableFuture<Object> second = coalescer.loadAsync(5);
+        loader.blockingLatch.countDown();
+
+        assertSame(first, second);
+        assertEquals(10, second.get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS));
+        assertEquals(1, loader.loadCount.get());
+        assertEquals(1, coalescer.getCoalescedLoadCount());
+    }
+
+    @Test
+    public void load_whenKeyMissing_thenReturnsNull() {
+        MapLoadCoalescer coalescer = newCoalescer(1);
+
+        assertNull(coalescer.load(-1));
+    }
+
+    @Test
+    public void load_whenLoaderFails_thenFailsAllCoalescedLoads() throws Exception {
+        MapLoadCoalescer coalescer = newCoalescer(1);
+        loader.blockingLatch = new CountDownLatch(1);
+        loader.failing = true;
+
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            futures.add(spawn(() -> coalescer.load(1)));
+        }
+        assertTrueEventually(() -> assertEquals(THREAD_COUNT - 1, coalescer.getCoalescedLoadCount()));
+        loader.blockingLatch.countDown();
+
+        for (Future<Object> future : futures) {
+            try {
+                future.get();
+                fail("the failure of the loader should have been propagated");
+            } catch (Exception expected) {
+                assertInstanceOf(IllegalStateException.class, expected.getCause());
+            }
+        }
+        // the failed load is not cached
+        loader.failing = false;
+        assertEquals(2, coalescer.load(1));
+    }
+
+    @Test
+    public void loadAsync_whenLoaderFails_thenFailsLoad() {
+        MapLoadCoalescer coalescer = newCoalescer(1);
+        loader.failing = true;
+
+        CompletableFuture<Object> future = coalescer.loadAsync(1);
+
+        try {
+            future.get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS);
+            fail("the failure of the loader should have been propagated");
+        } catch (Exception expected) {
+            assertInstanceOf(IllegalStateException.class, expected.getCause());
+        }
+    }
+
+    @Test
+    public void get_whenLoadCoalescingEnabled_thenLoadsThroughCoalescer() {
+        HazelcastInstance instance = createHazelcastInstance(newConfig());
+        IMap<Integer, Integer> map = instance.getMap("coalescing");
+
+        assertEquals(14, (int) map.get(7));
+        assertNull(map.get(-1));
+
+        MapLoadCoalescer coalescer = getLoadCoalescer(instance);
+        assertEquals(2, coalescer.getLoadCount());
+        assertEquals(2, loader.loadCount.get());
+    }
+
+    @Test
+    public void get_whenConcurrentMissesOfSameKey_thenDoesNotBlockPartitionThread() throws Exception {
+        HazelcastInstance instance = createHazelcastInstance(newConfig());
+        IMap<Integer, Integer> map = instance.getMap("coalescing");
+        loader.blockingLatch = new CountDownLatch(1);
+
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            futures.add(spawn(() -> map.get(1)));
+        }
+        MapLoadCoalescer coalescer = getLoadCoalescer(instance);
+        assertTrueEventually(() -> assertEquals(THREAD_COUNT - 1, coalescer.getCoalescedLoadCount()));
+
+        // the partition thread is free while the loader is blocked
+        int otherKey = otherKeyOfSamePartition(instance, 1);
+        map.set(otherKey, 0);
+        assertEquals(0, (int) map.get(otherKey));
+        loader.blockingLatch.countDown();
+
+        for (Future<Integer> future : futures) {
+            assertEquals(2, (int) future.get());
+        }
+        assertEquals(1, loader.loadCount.get());
+    }
+
+    @Test
+    public void get_whenKeyDeletedDuringLoad_thenDoesNotPutLoadedValue() throws Exception {
+        TestMapStore store = new TestMapStore();
+        HazelcastInstance instance = createHazelcastInstance(newConfig(store));
+        IMap<Integer, Integer> map = instance.getMap("coalescing");
+        store.blockingLatch = new CountDownLatch(1);
+
+        Future<Integer> future = spawn(() -> map.get(1));
+        assertTrueEventually(() -> assertEquals(1, store.loadCount.get()));
+        map.delete(1);
+        store.blockingLatch.countDown();
+
+        // the get overlapping the delete may return the loaded value,
+        // but the deleted entry must not be resurrected in memory
+        assertEquals(2, (int) future.get());
+        store.blockingLatch = null;
+        assertNull(map.get(1));
+        assertEquals(0, map.size());
+    }
+
+    private MapLoadCoalescer newCoalescer(long windowMillis) {
+        return new MapLoadCoalescer(new MapStoreWrapper("map", loader), executor, windowMillis, MAX_BATCH_SIZE);
+    }
+
+    private Config newConfig() {
+        return newConfig(loader);
+    }
+
+    private static Config newConfig(Object implementation) {
+        Config config = smallInstanceConfig();
+        config.getMapConfig("coalescing").getMapStoreConfig()
+                .setEnabled(true)
+                .setImplementation(implementation)
+                .setLoadCoalescingWindowMillis(1);
+        return config;
+    }
+
+    private static MapLoadCoalescer getLoadCoalescer(HazelcastInstance instance) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        return mapService.getMapServiceContext().getMapContainer("coalescing")
+                .getMapStoreContext().getLoadCoalescer();
+    }
+
+    private static int otherKeyOfSamePartition(HazelcastInstance instance, int key) {
+        PartitionService partitionService = instance.getPartitionService();
+        int partitionId = partitionService.getPartition(key).getPartitionId();
+        for (int otherKey = key + 1; ; otherKey++) {
+            if (partitionService.getPartition(otherKey).getPartitionId() == partitionId) {
+                return otherKey;
+            }
+        }
+    }
+
+    private static class TestMapLoader implements MapLoader<Integer, Integer> {
+
+        final AtomicInteger loadCount = new AtomicInteger();
+        final AtomicInteger loadAllCount = new AtomicInteger();
+        volatile CountDownLatch blockingLatch;
+        volatile boolean failing;
+
+        @Override
+        public Integer load(Integer key) {
+            loadCount.incrementAndGet();
+            awaitLatch();
+            return valueOf(key);
+        }
+
+        @Override
+        public Map<Integer, Integer> loadAll(Collection<Integer> keys) {
+            loadAllCount.incrementAndGet();
+            awaitLatch();
+            Map<Integer, Integer> entries = new HashMap<>();
+            for (Integer key : keys) {
+                Integer value = valueOf(key);
+                if (value != null) {
+                    entries.put(key, value);
+                }
+            }
+            return entries;
+        }
+
+        @Override
+        public Iterable<Integer> loadAllKeys() {
+            return null;
+        }
+
+        Integer valueOf(Integer key) {
+            if (failing) {
+                throw new IllegalStateException("loader failure");
+            }
+            return key < 0 ? null : 2 * key;
+        }
+
+        private void awaitLatch() {
+            CountDownLatch latch = blockingLatch;
+            if (latch != null) {
+                assertOpenEventually(latch);
+            }
+        }
+    }
+
+    private static class TestMapStore extends TestMapLoader implements MapStore<Integer, Integer> {
+
+        final Set<Integer> deletedKeys = newSetFromMap(new ConcurrentHashMap<>());
+
+        @Override
+        public Integer load(Integer key) {
+            // reads the value before blocking, so that a delete overlaps the load
+            Integer value = valueOf(key);
+            super.load(key);
+            return value;
+        }
+
+        @Override
+        Integer valueOf(Integer key) {
+            return deletedKeys.contains(key) ? null : super.valueOf(key);
+        }
+
+        @Override
+        public void store(Integer key, Integer value) {
+            deletedKeys.remove(key);
+        }
+
+        @Override
+        public void storeAll(Map<Integer, Integer> map) {
+            deletedKeys.removeAll(map.keySet());
+        }
+
+        @Override
+        public void delete(Integer key) {
+            deletedKeys.add(key);
+        }
+
+        @Override
+        public void deleteAll(Collection<Integer> keys) {
+            deletedKeys.addAll(keys);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.util.UuidUtil;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MerkleTreeHashes;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.UUID;
+
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getOperationService;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MerkleTreeHashesOperationTest extends HazelcastTestSupport {
+
+    private static final String MAP_NAME = "map";
+    private static final int DEPTH = 4;
+
+    private HazelcastInstance instance;
+    private IMap<String, String> map;
+    private int partitionId;
+
+    @Before
+    public void setUp() {
+        Config config = smallInstanceConfig();
+        config.getMapConfig(MAP_NAME).getMerkleTreeConfig().setEnabled(true).setDepth(DEPTH);
+        instance = createHazelcastInstance(config);
+        map = instance.getMap(MAP_NAME);
+        map.put(generateKeyForPartition(instance, partitionId), "value");
+    }
+
+    @Test
+    public void testTreeReused_withinComparison() {
+        UUID comparisonId = UuidUtil.newUnsecureUUID();
+        int rootHash = getRootHash(comparisonId);
+
+        map.put(generateKeyForPartition(instance, partitionId), "otherValue");
+
+        assertEquals(rootHash, getRootHash(comparisonId));
+    }
+
+    @Test
+    public void testTreeRebuilt_forNewComparison() {
+        int rootHash = getRootHash(UuidUtil.newUnsecureUUID());
+
+        map.put(generateKeyForPartition(instance, partitionId), "otherValue");
+
+        assertNotEquals(rootHash, getRootHash(UuidUtil.newUnsecureUUID()));
+    }
+
+    @Test
+    public void testTreeRebuilt_withoutComparison() {
+        int rootHash = getRootHash(null);
+
+        map.put(generateKeyForPartition(instance, partitionId), "otherValue");
+
+        assertNotEquals(rootHash, getRootHash(null));
+    }
+
+    @Test
+    public void testTreeDropped_whenLeavesRequested() {
+        UUID comparisonId = UuidUtil.newUnsecureUUID();
+        getRootHash(comparisonId);
+        assertNotNull(getPartitionContainer().getMerkleTreeSnapshot());
+
+        getNodeHashes(new int[]{0, 1, 2, 7, 14}, comparisonId);
+
+        assertNull(getPartitionContainer().getMerkleTreeSnapshot());
+    }
+
+    @Test
+    public void testTreeDropped_whenComparisonEnded() {
+        UUID comparisonId = UuidUtil.newUnsecureUUID();
+        getRootHash(comparisonId);
+
+        getNodeHashes(new int[0], UuidUtil.newUnsecureUUID());
+        assertNotNull(getPartitionContainer().getMerkleTreeSnapshot());
+
+        getNodeHashes(new int[0], comparisonId);
+        assertNull(getPartitionContainer().getMerkleTreeSnapshot());
+    }
+
+    @Test
+    public void testTreeDropped_whenMapDestroyed() {
+        getRootHash(UuidUtil.newUnsecureUUID());
+
+        map.destroy();
+
+        assertTrueEventually(() -> assertNull(getPartitionContainer().getMerkleTreeSnapshot()));
+    }
+
+    private int getRootHash(UUID comparisonId) {
+        return getNodeHashes(new int[]{0}, comparisonId)[0];
+    }
+
+    private int[] getNodeHashes(int[] nodeOrders, UUID comparisonId) {
+        MerkleTreeHashesOperation operation = new MerkleTreeHashesOperation(MAP_NAME, DEPTH, nodeOrders, comparisonId);
+        MerkleTreeHashes hashes = getOperationService(instance)
+                .<MerkleTreeHashes>invokeOnPartition(MapService.SERVICE_NAME, operation, partitionId)
+                .join();
+        return hashes.getNodeHashes();
+    }
+
+    private PartitionContainer getPartitionContainer() {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        return mapService.getMapServiceContext().getPartitionContainer(partitionId);
+    }
+}
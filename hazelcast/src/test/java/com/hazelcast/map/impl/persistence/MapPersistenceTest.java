@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_PERSISTENCE_COMPACTION_MIN_ENTRY_COUNT;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapPersistenceTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 500;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File[] baseDirs;
+    private TestHazelcastInstanceFactory factory;
+
+    @Before
+    public void setUp() throws Exception {
+        baseDirs = new File[]{folder.newFolder(), folder.newFolder()};
+        factory = createHazelcastInstanceFactory(6);
+    }
+
+    @Test
+    public void restoresEntries_afterClusterRestart() {
+        HazelcastInstance[] instances = startCluster(false);
+        IMap<Integer, Integer> map = instances[0].getMap("persistent");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            map.put(i, -i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 5) {
+            map.remove(i);
+        }
+        instances[0].getMap("transient").put(1, 1);
+
+        instances[0].getCluster().shutdown();
+        instances = startCluster(false);
+
+        map = instances[0].getMap("persistent");
+        assertEquals(ENTRY_COUNT - ENTRY_COUNT / 5, map.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Integer expected = i % 5 == 0 ? null : i % 2 == 0 ? -i : i;
+            assertEquals(expected, map.get(i));
+        }
+        assertEquals(0, instances[0].getMap("transient").size());
+
+        PersistenceStats stats = getStats(instances[0]);
+        assertTrue(stats.getRestoredEntryCount() > 0);
+        assertTrue(stats.getRestoredBytes() > 0);
+        assertTrue(stats.getRestoredPartitionCount() > 0);
+        assertTrue(stats.getRestoreTimeMillis() > 0);
+        assertFalse(new File(baseDirs[0], "restore").exists());
+    }
+
+    @Test
+    public void restoresEntries_withFsync() {
+        HazelcastInstance[] instances = startCluster(true);
+        IMap<Integer, Integer> map = instances[0].getMap("persistent");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+        assertTrue(getStats(instances[0]).getFsyncCount() > 0);
+
+        instances[0].getCluster().shutdown();
+        instances = startCluster(true);
+
+        map = instances[1].getMap("persistent");
+        assertEquals(ENTRY_COUNT, map.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) map.get(i));
+        }
+    }
+
+    @Test
+    public void restoresLatestEntries_afterCompaction() {
+        HazelcastInstance[] instances = startCluster(false);
+        IMap<Integer, Integer> map = instances[0].getMap("persistent");
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < ENTRY_COUNT; i++) {
+                map.put(i, round * i);
+            }
+        }
+        assertTrue(getStats(instances[0]).getCompactionCount() > 0);
+
+        instances[0].getCluster().shutdown();
+        instances = startCluster(false);
+
+        map = instances[0].getMap("persistent");
+        assertEquals(ENTRY_COUNT, map.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(9 * i, (int) map.get(i));
+        }
+    }
+
+    @Test
+    public void discardsEntries_whenMemberRestartsIntoRunningCluster() {
+        HazelcastInstance[] instances = startCluster(false);
+        IMap<Integer, Integer> map = instances[0].getMap("persistent");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        instances[1].getLifecycleService().terminate();
+        map.clear();
+        HazelcastInstance restarted = factory.newHazelcastInstance(newConfig(baseDirs[1], false));
+
+        assertClusterSizeEventually(2, instances[0], restarted);
+        assertEquals(0, restarted.getMap("persistent").size());
+        assertNull(restarted.getMap("persistent").get(1));
+        assertEquals(0, getStats(restarted).getRestoredEntryCount());
+    }
+
+    @Test
+    public void restoresNewestCopy_whenLogsDisagree() {
+        HazelcastInstance[] instances = startCluster(false);
+        IMap<Integer, Integer> map = instances[0].getMap("persistent");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        // the logs of the terminated member miss the later updates
+        instances[1].getLifecycleService().terminate();
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            map.put(i, -i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 5) {
+            map.remove(i);
+        }
+        instances[0].getLifecycleService().shutdown();
+
+        // the stale copies are restored first
+        instances = startCluster(false, baseDirs[1], baseDirs[0]);
+
+        map = instances[0].getMap("persistent");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Integer expected = i % 5 == 0 ? null : i % 2 == 0 ? -i : i;
+            assertEquals(expected, map.get(i));
+        }
+        assertEquals(ENTRY_COUNT - ENTRY_COUNT / 5, map.size());
+    }
+
+    private HazelcastInstance[] startCluster(boolean fsync) {
+        return startCluster(fsync, baseDirs);
+    }
+
+    private HazelcastInstance[] startCluster(boolean fsync, File... baseDirs) {
+        HazelcastInstance[] instances = new HazelcastInstance[baseDirs.length];
+        for (int i = 0; i < baseDirs.length; i++) {
+            instances[i] = factory.newHazelcastInstance(newConfig(baseDirs[i], fsync));
+        }
+        assertClusterSize(baseDirs.length, instances);
+        waitAllForSafeState(instances);
+        return instances;
+    }
+
+    private Config newConfig(File baseDir, boolean fsync) {
+        Config config = smallInstanceConfig()
+                .setProperty(MAP_PERSISTENCE_COMPACTION_MIN_ENTRY_COUNT.getName(), "10");
+        config.getHotRestartPersistenceConfig()
+                .setEnabled(true)
+                .setBaseDir(baseDir)
+                .setParallelism(2);
+        MapConfig mapConfig = new MapConfig("persistent");
+        mapConfig.getHotRestartConfig()
+                .setEnabled(true)
+                .setFsync(fsync);
+        return config.addMapConfig(mapConfig);
+    }
+
+    private static PersistenceStats getStats(HazelcastInstance instance) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        return mapService.getMapServiceContext().getPersistenceManager().getStats();
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.CacheDeserializedValues;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the aggregations of indexed attributes are answered by the
+ * indexes without deserializing the values and give the same results as a
+ * full scan.
+ */
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class IndexOnlyAggregationTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 100;
+
+    private static final AtomicInteger DESERIALIZATION_COUNT = new AtomicInteger();
+
+    private IMap<Integer, Item> indexed;
+    private IMap<Integer, Item> notIndexed;
+
+    @Before
+    public void setup() {
+        Config config = getConfig();
+        MapConfig mapConfig = config.getMapConfig("indexed")
+                .setInMemoryFormat(InMemoryFormat.BINARY)
+                .setCacheDeserializedValues(CacheDeserializedValues.NEVER);
+        mapConfig.addIndexConfig(new IndexConfig(IndexType.SORTED, "value"));
+        mapConfig.addIndexConfig(new IndexConfig(IndexType.SORTED, "nullable"));
+        mapConfig.addIndexConfig(new IndexConfig(IndexType.HASH, "hashed"));
+        mapConfig.addIndexConfig(new IndexConfig(IndexType.SORTED, "type"));
+        HazelcastInstance instance = createHazelcastInstance(config);
+
+        indexed = instance.getMap("indexed");
+        notIndexed = instance.getMap("notIndexed");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Item item = new Item(i % 10, i % 3 == 0 ? null : i, i % 7, i % 2 == 0 ? Type.EVEN : Type.ODD);
+            indexed.put(i, item);
+            notIndexed.put(i, item);
+        }
+        DESERIALIZATION_COUNT.set(0);
+    }
+
+    @Test
+    public void whenAllEntries() {
+        assertIndexOnly(Aggregators.count("value"), Predicates.alwaysTrue(), (long) ENTRY_COUNT);
+        assertIndexOnly(Aggregators.integerMin("value"), Predicates.alwaysTrue(), 0);
+        assertIndexOnly(Aggregators.integerMax("value"), Predicates.alwaysTrue(), 9);
+        assertIndexOnly(Aggregators.integerSum("value"), Predicates.alwaysTrue(), 450L);
+        assertIndexOnly(Aggregators.longSum("value"), Predicates.alwaysTrue(), 450L);
+        assertIndexOnly(Aggregators.fixedPointSum("value"), Predicates.alwaysTrue(), 450L);
+        assertIndexOnly(Aggregators.floatingPointSum("value"), Predicates.alwaysTrue(), 450.0);
+        assertIndexOnly(Aggregators.distinct("value"), Predicates.alwaysTrue(),
+                new HashSet<>(asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)));
+    }
+
+    @Test
+    public void whenRangePredicateOnAggregatedAttribute() {
+        assertIndexOnly(Aggregators.count("value"), Predicates.equal("value", 3), 10L);
+        assertIndexOnly(Aggregators.integerSum("value"), Predicates.greaterThan("value", 6), 240L);
+        assertIndexOnly(Aggregators.integerMax("value"), Predicates.lessThan("value", 6), 5);
+        assertIndexOnly(Aggregators.integerMin("value"), Predicates.between("value", 2, 4), 2);
+        assertIndexOnly(Aggregators.distinct("value"), Predicates.between("value", 2, 4), new HashSet<>(asList(2, 3, 4)));
+        assertIndexOnly(Aggregators.integerMin("value"), Predicates.sql("value > 2 and value < 5"), 3);
+        assertIndexOnly(Aggregators.count("value"), Predicates.greaterThan("value", 100), 0L);
+    }
+
+    @Test
+    public void whenNullValues() {
+        Set<Integer> distinct = notIndexed.aggregate(Aggregators.distinct("nullable"));
+        assertTrue(distinct.contains(null));
+
+        assertIndexOnly(Aggregators.distinct("nullable"), Predicates.alwaysTrue(), distinct);
+        assertIndexOnly(Aggregators.count("nullable"), Predicates.alwaysTrue(), (long) ENTRY_COUNT);
+        assertIndexOnly(Aggregators.integerMin("nullable"), Predicates.alwaysTrue(), 1);
+        assertIndexOnly(Aggregators.count("nullable"), Predicates.lessThan("nullable", 10), 6L);
+    }
+
+    @Test
+    public void whenUnorderedIndex() {
+        assertIndexOnly(Aggregators.count("hashed"), Predicates.equal("hashed", 3), 14L);
+        assertIndexOnly(Aggregators.count("hashed"), Predicates.alwaysTrue(), (long) ENTRY_COUNT);
+
+        // unordered indexes don't keep the original values
+        assertFullScan(Aggregators.integerMax("hashed"), Predicates.alwaysTrue(), 6);
+        assertFullScan(Aggregators.distinct("hashed"), Predicates.alwaysTrue(),
+                new HashSet<>(asList(0, 1, 2, 3, 4, 5, 6)));
+    }
+
+    @Test
+    public void whenEnumAttribute() {
+        assertIndexOnly(Aggregators.count("type"), Predicates.equal("type", Type.EVEN), 50L);
+
+        // indexes store enums by name
+        assertFullScan(Aggregators.comparableMax("type"), Predicates.alwaysTrue(), Type.ODD);
+    }
+
+    @Test
+    public void whenPredicateOnOtherAttribute() {
+        assertFullScan(Aggregators.integerSum("value"), Predicates.equal("hashed", 3), 59L);
+        assertFullScan(Aggregators.integerSum("value"), Predicates.notEqual("value", 3), 420L);
+    }
+
+    private <R> void assertIndexOnly(Aggregator<Map.Entry<Integer, Item>, R> aggregator, Predicate<Integer, Item> predicate,
+                                     R expected) {
+        assertEquals(expected, notIndexed.aggregate(aggregator, predicate));
+        DESERIALIZATION_COUNT.set(0);
+
+        assertEquals(expected, indexed.aggregate(aggregator, predicate));
+        assertEquals(0, DESERIALIZATION_COUNT.get());
+    }
+
+    private <R> void assertFullScan(Aggregator<Map.Entry<Integer, Item>, R> aggregator, Predicate<Integer, Item> predicate,
+                                    R expected) {
+        assertEquals(expected, notIndexed.aggregate(aggregator, predicate));
+        DESERIALIZATION_COUNT.set(0);
+
+        assertEquals(expected, indexed.aggregate(aggregator, predicate));
+        assertTrue(DESERIALIZATION_COUNT.get() > 0);
+    }
+
+    public enum Type {
+        EVEN,
+        ODD
+    }
+
+    public static class Item implements DataSerializable {
+        private int value;
+        private Integer nullable;
+        private int hashed;
+        private Type type;
+
+        public Item() {
+        }
+
+        Item(int value, Integer nullable, int hashed, Type type) {
+            this.value = value;
+            this.nullable = nullable;
+            this.hashed = hashed;
+            this.type = type;
+        }
+
+        public int getValue() {
+            return value;
+        }
+
+        public Integer getNullable() {
+            return nullable;
+        }
+
+        public int getHashed() {
+            return hashed;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeInt(value);
+            out.writeObject(nullable);
+            out.writeInt(hashed);
+            out.writeString(type.name());
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            DESERIALIZATION_COUNT.incrementAndGet();
+            value = in.readInt();
+            nullable = in.readObject();
+            hashed = in.readInt();
+            type = Type.valueOf(in.readString());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.querycache;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.QueryCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.impl.CapturingCollector;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.QueryCache;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_QUERY_CACHE_APPLIED_BATCH_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_QUERY_CACHE_APPLIED_EVENT_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_QUERY_CACHE_COALESCED_EVENT_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_QUERY_CACHE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_TAG_QUERY_CACHE;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class QueryCacheBatchApplyTest extends HazelcastTestSupport {
+
+    private static final int BATCH_SIZE = 64;
+    private static final int UPDATE_COUNT = 2 * BATCH_SIZE;
+
+    @SuppressWarnings("unchecked")
+    private static final Predicate<Integer, Integer> TRUE_PREDICATE = Predicates.alwaysTrue();
+
+    @Test
+    public void updatesOfSameKeyInBatch_areCoalesced_whenNoListener() {
+        String mapName = randomString();
+        String cacheName = randomString();
+        HazelcastInstance node = createHazelcastInstance(getConfig(mapName, cacheName));
+        IMap<Integer, Integer> map = node.getMap(mapName);
+        QueryCache<Integer, Integer> cache = map.getQueryCache(cacheName, TRUE_PREDICATE, true);
+
+        for (int i = 0; i < UPDATE_COUNT; i++) {
+            map.put(0, i);
+        }
+
+        assertTrueEventually(() -> {
+            assertEquals(UPDATE_COUNT - 1, (int) cache.get(0));
+            assertEquals(2, readMetric(node, cacheName, MAP_METRIC_QUERY_CACHE_APPLIED_BATCH_COUNT));
+        });
+        long applied = readMetric(node, cacheName, MAP_METRIC_QUERY_CACHE_APPLIED_EVENT_COUNT);
+        long coalesced = readMetric(node, cacheName, MAP_METRIC_QUERY_CACHE_COALESCED_EVENT_COUNT);
+        assertEquals(2, applied);
+        assertEquals(UPDATE_COUNT - 2, coalesced);
+    }
+
+    @Test
+    public void updatesOfSameKeyInBatch_areNotCoalesced_whenListenerRegistered() {
+        String mapName = randomString();
+        String cacheName = randomString();
+        HazelcastInstance node = createHazelcastInstance(getConfig(mapName, cacheName));
+        IMap<Integer, Integer> map = node.getMap(mapName);
+        QueryCache<Integer, Integer> cache = map.getQueryCache(cacheName, TRUE_PREDICATE, true);
+        AtomicInteger updateEventCount = new AtomicInteger();
+        cache.addEntryListener((EntryUpdatedListener<Integer, Integer>) event -> updateEventCount.incrementAndGet(), true);
+
+        for (int i = 0; i < UPDATE_COUNT; i++) {
+            map.put(0, i);
+        }
+
+        assertTrueEventually(() -> assertEquals(UPDATE_COUNT - 1, updateEventCount.get()));
+        assertEquals(UPDATE_COUNT - 1, (int) cache.get(0));
+        assertEquals(UPDATE_COUNT, readMetric(node, cacheName, MAP_METRIC_QUERY_CACHE_APPLIED_EVENT_COUNT));
+        assertEquals(0, readMetric(node, cacheName, MAP_METRIC_QUERY_CACHE_COALESCED_EVENT_COUNT));
+    }
+
+    @Test
+    public void removalAfterUpdatesInBatch_removesEntry() {
+        String mapName = randomString();
+        String cacheName = randomString();
+        HazelcastInstance node = createHazelcastInstance(getConfig(mapName, cacheName));
+        IMap<Integer, Integer> map = node.getMap(mapName);
+        QueryCache<Integer, Integer> cache = map.getQueryCache(cacheName, TRUE_PREDICATE, true);
+
+        for (int i = 0; i < BATCH_SIZE - 1; i++) {
+            map.put(i % 2, i);
+        }
+        map.remove(0);
+
+        assertTrueEventually(() -> {
+            assertEquals(1, readMetric(node, cacheName, MAP_METRIC_QUERY_CACHE_APPLIED_BATCH_COUNT));
+            assertEquals(1, cache.size());
+            assertEquals(BATCH_SIZE - 3, (int) cache.get(1));
+        });
+        assertTrue(readMetric(node, cacheName, MAP_METRIC_QUERY_CACHE_COALESCED_EVENT_COUNT) > 0);
+    }
+
+    private static long readMetric(HazelcastInstance node, String cacheName, String metric) {
+        CapturingCollector collector = new CapturingCollector();
+        getNodeEngineImpl(node).getMetricsRegistry().collect(collector);
+        for (Map.Entry<MetricDescriptor, CapturingCollector.Capture> entry : collector.captures().entrySet()) {
+            MetricDescriptor descriptor = entry.getKey();
+            if (MAP_PREFIX_QUERY_CACHE.equals(descriptor.prefix())
+                    && cacheName.equals(descriptor.tagValue(MAP_TAG_QUERY_CACHE))
+                    && metric.equals(descriptor.metric())) {
+                return entry.getValue().singleCapturedValue().longValue();
+            }
+        }
+        throw new AssertionError("Metric " + metric + " of query cache " + cacheName + " not found");
+    }
+
+    private static Config getConfig(String mapName, String cacheName) {
+        QueryCacheConfig cacheConfig = new QueryCacheConfig(cacheName)
+                .setBatchSize(BATCH_SIZE)
+                .setBufferSize(UPDATE_COUNT)
+                .setDelaySeconds(600);
+
+        Config config = new Config()
+                .setProperty(PARTITION_COUNT.getName(), "1");
+        config.getMapConfig(mapName)
+                .addQueryCacheConfig(cacheConfig);
+        return config;
+    }
+}
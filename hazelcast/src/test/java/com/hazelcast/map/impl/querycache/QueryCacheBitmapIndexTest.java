@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.querycache;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.config.QueryCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.QueryCache;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class QueryCacheBitmapIndexTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    @SuppressWarnings("unchecked")
+    private static final Predicate<Integer, Value> TRUE_PREDICATE = Predicates.alwaysTrue();
+
+    private IMap<Integer, Value> map;
+    private QueryCache<Integer, Value> cache;
+
+    @Before
+    public void setUp() {
+        String mapName = randomMapName();
+        String cacheName = randomName();
+        QueryCacheConfig cacheConfig = new QueryCacheConfig(cacheName)
+                .setInMemoryFormat(InMemoryFormat.BINARY)
+                .addIndexConfig(new IndexConfig(IndexType.BITMAP, "a"))
+                .addIndexConfig(new IndexConfig(IndexType.BITMAP, "b"));
+        Config config = new Config();
+        config.getMapConfig(mapName).addQueryCacheConfig(cacheConfig);
+        HazelcastInstance node = createHazelcastInstance(config);
+
+        map = node.getMap(mapName);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, new Value(i % 10, i % 7));
+        }
+        cache = map.getQueryCache(cacheName, TRUE_PREDICATE, true);
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, cache.size()));
+    }
+
+    @Test
+    public void values_areEvaluatedByBitmapIndex_withoutDeserialization() {
+        Value.DESERIALIZATION_COUNT.set(0);
+
+        assertEquals(100, cache.values(Predicates.equal("a", 3)).size());
+        assertEquals(200, cache.values(Predicates.or(Predicates.equal("a", 1), Predicates.equal("a", 2))).size());
+        assertEquals(900, cache.values(Predicates.notEqual("a", 0)).size());
+        assertEquals(expectedKeys(3, 5).size(),
+                cache.values(Predicates.and(Predicates.equal("a", 3), Predicates.equal("b", 5))).size());
+
+        assertEquals(0, Value.DESERIALIZATION_COUNT.get());
+    }
+
+    @Test
+    public void keySet_matchesScanResult() {
+        Predicate<Integer, Value> predicate = Predicates.and(Predicates.equal("a", 4), Predicates.equal("b", 2));
+
+        assertEquals(expectedKeys(4, 2), cache.keySet(predicate));
+        assertEquals(expectedKeys(4, 2).size(), cache.entrySet(predicate).size());
+    }
+
+    @Test
+    public void bitmapIndexes_followMapUpdates() {
+        for (int i = 0; i < ENTRY_COUNT; i += 10) {
+            map.remove(i);
+        }
+        map.put(ENTRY_COUNT, new Value(0, 0));
+
+        assertTrueEventually(() -> {
+            Set<Integer> keys = cache.keySet(Predicates.equal("a", 0));
+            assertEquals(1, keys.size());
+            assertEquals(ENTRY_COUNT, (int) keys.iterator().next());
+        });
+    }
+
+    private static Set<Integer> expectedKeys(int a, int b) {
+        Set<Integer> keys = new HashSet<>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            if (i % 10 == a && i % 7 == b) {
+                keys.add(i);
+            }
+        }
+        return keys;
+    }
+
+    public static class Value implements DataSerializable {
+
+        static final AtomicInteger DESERIALIZATION_COUNT = new AtomicInteger();
+
+        private int a;
+        private int b;
+
+        public Value() {
+        }
+
+        Value(int a, int b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeInt(a);
+            out.writeInt(b);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            DESERIALIZATION_COUNT.incrementAndGet();
+            a = in.readInt();
+            b = in.readInt();
+        }
+    }
+}
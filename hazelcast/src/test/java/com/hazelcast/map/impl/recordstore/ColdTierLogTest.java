@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hazelcast.map.impl.record.RecordReaderWriter.DATA_RECORD_WITH_STATS_READER_WRITER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ColdTierLogTest extends HazelcastTestSupport {
+
+    private static final int KEY_COUNT = 100;
+    private static final int SEGMENT_SIZE = 256;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private InternalSerializationService serializationService;
+    private TieredStorageStats stats;
+    private ColdTierLog log;
+
+    @Before
+    public void setUp() throws Exception {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        stats = new TieredStorageStats();
+        log = new ColdTierLog(folder.newFolder(), SEGMENT_SIZE, serializationService, stats);
+    }
+
+    @After
+    public void tearDown() {
+        log.destroy();
+    }
+
+    @Test
+    public void testEntriesRead_whileRemovedAndCompacted() throws Exception {
+        Data[] keys = new Data[KEY_COUNT];
+        Record[] records = new Record[KEY_COUNT];
+        ConcurrentMap<Data, ColdRecord> coldRecords = new ConcurrentHashMap<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = serializationService.toData(i);
+            records[i] = newRecord(keys[i]);
+            coldRecords.put(keys[i], log.append(keys[i], records[i]));
+        }
+
+        // the test thread acts as the partition thread, the reader as a query thread
+        AtomicBoolean stop = new AtomicBoolean();
+        Future<?> reader = spawn(() -> {
+            while (!stop.get()) {
+                for (Map.Entry<Data, ColdRecord> entry : coldRecords.entrySet()) {
+                    Record record = log.readRecord(entry.getValue());
+                    while (record == null) {
+                        // the segment was unmapped after the entry had been moved
+                        record = log.readRecord(coldRecords.get(entry.getKey()));
+                    }
+                    assertEquals(entry.getKey(), record.getValue());
+                }
+            }
+        });
+        try {
+            Random random = new Random();
+            for (int i = 0; i < 10_000 && !reader.isDone(); i++) {
+                int key = random.nextInt(KEY_COUNT);
+                log.remove(coldRecords.get(keys[key]));
+                coldRecords.put(keys[key], log.append(keys[key], records[key]));
+                if (i % 100 == 0) {
+                    log.compact(50, coldRecords::get, coldRecords::put);
+                }
+            }
+        } finally {
+            stop.set(true);
+        }
+        reader.get();
+
+        assertTrue(stats.getCompactionCount() > 0);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertEquals(keys[i], log.readRecord(coldRecords.get(keys[i])).getValue());
+        }
+    }
+
+    @Test
+    public void testDeletedSegmentUnmapped_whenLastReaderReleases() {
+        List<ColdRecord> firstSegmentRecords = fillFirstSegment();
+        ColdRecord removedRecord = firstSegmentRecords.get(0);
+        ColdTierLog.Segment segment = removedRecord.getSegment();
+
+        assertTrue(segment.acquire());
+        for (ColdRecord record : firstSegmentRecords) {
+            log.remove(record);
+        }
+        assertEquals(1, log.getSegmentCount());
+        assertTrue(stats.getColdFilePendingUnmapBytes() > 0);
+        // the reader holding the segment can still read from it
+        assertEquals(serializationService.toData(0), log.readRecord(removedRecord).getValue());
+
+        log.release(segment);
+        assertEquals(0, stats.getColdFilePendingUnmapBytes());
+        assertFalse(segment.acquire());
+        assertNull(log.readRecord(removedRecord));
+    }
+
+    @Test
+    public void testDeletedSegmentUnmapped_whenNoReader() {
+        List<ColdRecord> firstSegmentRecords = fillFirstSegment();
+        ColdRecord removedRecord = firstSegmentRecords.get(0);
+        ColdTierLog.Segment segment = removedRecord.getSegment();
+
+        for (ColdRecord record : firstSegmentRecords) {
+            log.remove(record);
+        }
+
+        assertEquals(1, log.getSegmentCount());
+        assertEquals(0, stats.getColdFilePendingUnmapBytes());
+        assertFalse(segment.acquire());
+        assertNull(log.readRecord(removedRecord));
+    }
+
+    /**
+     * Appends entries until a second segment is created.
+     *
+     * @return the cold records of the entries in the first segment
+     */
+    private List<ColdRecord> fillFirstSegment() {
+        List<ColdRecord> firstSegmentRecords = new ArrayList<>();
+        ColdRecord coldRecord = append(0);
+        ColdTierLog.Segment segment = coldRecord.getSegment();
+        for (int i = 1; coldRecord.getSegment() == segment; i++) {
+            firstSegmentRecords.add(coldRecord);
+            coldRecord = append(i);
+        }
+        return firstSegmentRecords;
+    }
+
+    private ColdRecord append(int key) {
+        Data dataKey = serializationService.toData(key);
+        return log.append(dataKey, newRecord(dataKey));
+    }
+
+    private static Record newRecord(Data value) {
+        Record record = mock(Record.class);
+        when(record.getValue()).thenReturn(value);
+        when(record.getMatchingRecordReaderWriter()).thenReturn(DATA_RECORD_WITH_STATS_READER_WRITER);
+        return record;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_TIERED_STORAGE_BASE_DIR;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_TIERED_STORAGE_COLD_AFTER_SECONDS;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_TIERED_STORAGE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_TIERED_STORAGE_SEGMENT_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_TIERED_STORAGE_TASK_PERIOD_SECONDS;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class TieredStorageTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 200;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File baseDir;
+    private Config config;
+    private TestHazelcastInstanceFactory factory;
+    private HazelcastInstance instance;
+    private IMap<Integer, Integer> map;
+
+    @Before
+    public void setUp() throws Exception {
+        baseDir = folder.newFolder();
+        config = smallInstanceConfig()
+                .setProperty(PARTITION_COUNT.getName(), "1")
+                .setProperty(MAP_TIERED_STORAGE_ENABLED.getName(), "true")
+                .setProperty(MAP_TIERED_STORAGE_BASE_DIR.getName(), baseDir.getAbsolutePath())
+                .setProperty(MAP_TIERED_STORAGE_COLD_AFTER_SECONDS.getName(), "0")
+                .setProperty(MAP_TIERED_STORAGE_TASK_PERIOD_SECONDS.getName(), "1")
+                .setProperty(MAP_TIERED_STORAGE_SEGMENT_SIZE.getName(), "512");
+        factory = createHazelcastInstanceFactory(2);
+        instance = factory.newHazelcastInstance(config);
+        map = instance.getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.set(i, i);
+        }
+    }
+
+    @Test
+    public void testIdleEntries_movedToColdTier_andPromotedOnAccess() {
+        TieredStorageStats stats = getStats();
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, stats.getColdEntryCount()));
+        assertTrue(stats.getColdFileBytes() > 0);
+
+        assertEquals(ENTRY_COUNT, map.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) map.get(i));
+        }
+        assertTrue(stats.getColdHitCount() > 0);
+        assertTrue(stats.getHotHitPercentage() < 100);
+    }
+
+    @Test
+    public void testColdEntries_iteratedAndQueried() {
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, getStats().getColdEntryCount()));
+
+        Set<Integer> values = new HashSet<>();
+        for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+            assertEquals(entry.getKey(), entry.getValue());
+            values.add(entry.getValue());
+        }
+        assertEquals(ENTRY_COUNT, values.size());
+        assertEquals(ENTRY_COUNT / 2, map.values(Predicates.sql("this >= " + ENTRY_COUNT / 2)).size());
+
+        map.executeOnEntries(entry -> entry.setValue(entry.getValue() + 1));
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i + 1, (int) map.get(i));
+        }
+    }
+
+    @Test
+    public void testColdEntries_updatedAndRemoved() {
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, getStats().getColdEntryCount()));
+
+        assertEquals(0, (int) map.put(0, -1));
+        assertEquals(1, (int) map.remove(1));
+        map.delete(2);
+        map.set(3, -3);
+
+        assertEquals(ENTRY_COUNT - 2, map.size());
+        assertEquals(-1, (int) map.get(0));
+        assertNull(map.get(1));
+        assertFalse(map.containsKey(2));
+        assertEquals(-3, (int) map.get(3));
+        assertEquals(4, (int) map.get(4));
+    }
+
+    @Test
+    public void testColdTier_compacted() {
+        TieredStorageStats stats = getStats();
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, stats.getColdEntryCount()));
+        long fileBytes = stats.getColdFileBytes();
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            if (i % 10 != 0) {
+                map.delete(i);
+            }
+        }
+
+        assertTrueEventually(() -> {
+            assertTrue(stats.getCompactionCount() > 0);
+            assertEquals(ENTRY_COUNT / 10, stats.getColdEntryCount());
+        });
+        assertTrue(stats.getColdFileBytes() < fileBytes);
+        assertTrue(stats.getCompactedBytes() > 0);
+        for (int i = 0; i < ENTRY_COUNT; i += 10) {
+            assertEquals(i, (int) map.get(i));
+        }
+    }
+
+    @Test
+    public void testColdEntries_queriedDuringCompaction() throws Exception {
+        TieredStorageStats stats = getStats();
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, stats.getColdEntryCount()));
+        long compactionCount = stats.getCompactionCount();
+
+        // updating two thirds of the entries promotes them, so the partition
+        // thread keeps demoting entries and compacting the segments left
+        // with the other third while the query threads read the cold entries
+        AtomicBoolean stop = new AtomicBoolean();
+        Future<?> writer = spawn(() -> {
+            Random random = new Random();
+            while (!stop.get()) {
+                int key = random.nextInt(ENTRY_COUNT);
+                if (key % 3 != 0) {
+                    map.set(key, key);
+                }
+            }
+        });
+
+        long deadline = System.currentTimeMillis() + SECONDS.toMillis(5);
+        try {
+            while (System.currentTimeMillis() < deadline) {
+                assertEquals(ENTRY_COUNT, map.values(Predicates.sql("this >= 0")).size());
+                for (Map.Entry<Integer, Integer> entry : map.entrySet(Predicates.alwaysTrue())) {
+                    assertEquals(entry.getKey(), entry.getValue());
+                }
+            }
+        } finally {
+            stop.set(true);
+        }
+        writer.get();
+
+        assertTrue(stats.getCompactionCount() > compactionCount);
+        // the queries have completed, so no deleted segment is still mapped
+        assertEquals(0, stats.getColdFilePendingUnmapBytes());
+    }
+
+    @Test
+    public void testColdTierFiles_deletedOnShutdown() {
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, getStats().getColdEntryCount()));
+        File[] memberDirs = baseDir.listFiles();
+        assertEquals(1, memberDirs.length);
+
+        instance.shutdown();
+
+        assertFalse(memberDirs[0].exists());
+    }
+
+    @Test
+    public void testColdEntries_replicated() {
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, getStats().getColdEntryCount()));
+
+        HazelcastInstance other = factory.newHazelcastInstance(config);
+        waitAllForSafeState(instance, other);
+        instance.shutdown();
+
+        IMap<Integer, Integer> otherMap = other.getMap(map.getName());
+        assertEquals(ENTRY_COUNT, otherMap.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) otherMap.get(i));
+        }
+    }
+
+    private TieredStorageStats getStats() {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        return mapService.getMapServiceContext().getTieredStorageManager().getStats(map.getName());
+    }
+}
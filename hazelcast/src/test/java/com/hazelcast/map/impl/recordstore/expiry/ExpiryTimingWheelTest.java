@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore.expiry;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ExpiryTimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_000_000_000L;
+
+    private final ExpiryTimingWheel<Long> wheel = new ExpiryTimingWheel<>(TICK, START);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenTickNotPositive() {
+        new ExpiryTimingWheel<Long>(0, START);
+    }
+
+    @Test
+    public void poll_whenEmpty() {
+        assertNull(wheel.poll(START + 10 * TICK));
+    }
+
+    @Test
+    public void poll_returnsKeyOnlyAfterItsExpirationTime() {
+        long expirationTime = START + 2500;
+        wheel.schedule(expirationTime, expirationTime);
+
+        assertNull(wheel.poll(START + 2000));
+        assertNull(wheel.poll(expirationTime - 1));
+        assertEquals(expirationTime, (long) wheel.poll(START + 3000));
+        assertNull(wheel.poll(START + 3000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void poll_returnsAlreadyExpiredKeyImmediately() {
+        wheel.schedule(1L, START - TICK);
+
+        assertEquals(1L, (long) wheel.poll(START));
+    }
+
+    @Test
+    public void poll_cascadesKeysOfAllLevels() {
+        long[] offsets = {
+                5 * TICK,
+                100 * TICK,
+                5000 * TICK,
+                300_000 * TICK,
+                // beyond the highest level
+                20_000_000 * TICK,
+        };
+        for (long offset : offsets) {
+            wheel.schedule(START + offset, START + offset);
+        }
+
+        for (long offset : offsets) {
+            long expirationTime = START + offset;
+            assertNull(wheel.poll(expirationTime - TICK));
+            assertEquals(expirationTime, (long) wheel.poll(expirationTime));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void poll_returnsEveryKeyOnceAndNotBeforeItsExpirationTime() {
+        Random random = new Random(42);
+        int keyCount = 10_000;
+        long maxOffset = 100_000 * TICK;
+        for (int i = 0; i < keyCount; i++) {
+            long expirationTime = START + random.nextInt((int) maxOffset);
+            wheel.schedule(expirationTime, expirationTime);
+        }
+        List<Long> polled = new ArrayList<>();
+        for (long now = START; now <= START + maxOffset; now += 7 * TICK) {
+            Long expirationTime;
+            while ((expirationTime = wheel.poll(now)) != null) {
+                assertTrue(expirationTime <= now);
+                polled.add(expirationTime);
+            }
+        }
+        while (true) {
+            Long expirationTime = wheel.poll(START + maxOffset + TICK);
+            if (expirationTime == null) {
+                break;
+            }
+            polled.add(expirationTime);
+        }
+
+        assertEquals(keyCount, polled.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void clear() {
+        wheel.schedule(1L, START + TICK);
+        wheel.schedule(2L, START + 100 * TICK);
+
+        wheel.clear();
+
+        assertEquals(0, wheel.size());
+        assertNull(wheel.poll(START + 1000 * TICK));
+    }
+}
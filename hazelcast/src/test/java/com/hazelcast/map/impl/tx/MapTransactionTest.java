@@ -38,6 +38,7 @@ import com.hazelcast.query.Predicates;
 import com.hazelcast.query.SampleTestObjects;
 import com.hazelcast.query.SampleTestObjects.Employee;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.SpiDataSerializerHook;
 import com.hazelcast.spi.properties.ClusterProperty;
 import com.hazelcast.test.AssertTask;
 import com.hazelcast.test.ExpectedRuntimeException;
@@ -70,6 +71,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.instance.impl.TestUtil.terminateInstance;
 import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.PacketFiltersUtil.delayOperationsFrom;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
@@ -285,6 +289,36 @@ public class MapTransactionTest extends HazelcastTestSupport {
         }
     }
 
+    @Test
+    public void testCommittedEntriesSurvive_whenPrimaryTerminatedRightAfterCommit() {
+        Config config = getConfig()
+                .setProperty(ClusterProperty.OPERATION_BACKUP_TIMEOUT_MILLIS.getName(), String.valueOf(MINUTES.toMillis(1)));
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance primary = factory.newHazelcastInstance(config);
+        HazelcastInstance backup = factory.newHazelcastInstance(config);
+        warmUpPartitions(primary, backup);
+        String[] keys = new String[10];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = generateKeyOwnedBy(primary);
+        }
+        // the record operations are sent in a single batch, their backups arrive late
+        delayOperationsFrom(primary, SpiDataSerializerHook.F_ID, singletonList(SpiDataSerializerHook.BACKUP));
+
+        TransactionContext context = backup.newTransactionContext(options);
+        context.beginTransaction();
+        TransactionalMap<String, String> txMap = context.getMap("default");
+        for (String key : keys) {
+            txMap.put(key, "value-" + key);
+        }
+        context.commitTransaction();
+        terminateInstance(primary);
+
+        IMap<String, String> map = backup.getMap("default");
+        for (String key : keys) {
+            assertEquals("value-" + key, map.get(key));
+        }
+    }
+
     @Test
     @Category(NightlyTest.class)
     public void testTxnOwnerDies() throws TransactionException, InterruptedException {
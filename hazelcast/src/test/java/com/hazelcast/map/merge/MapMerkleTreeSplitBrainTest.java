@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.merge;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MergePolicyConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.merge.PassThroughMergePolicy;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.SplitBrainTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the merge of a map with enabled Merkle trees, which merges only
+ * the entries of the Merkle tree leaves which differ between the merging
+ * and the merged clusters.
+ */
+@RunWith(Parameterized.class)
+@Parameterized.UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapMerkleTreeSplitBrainTest extends SplitBrainTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+    private static final int[] BRAINS = new int[]{2, 1};
+    private static final String MAP_NAME = "test";
+
+    @Parameterized.Parameter
+    public InMemoryFormat inMemoryFormat;
+
+    @Parameterized.Parameters(name = "format:{0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][]{
+                {InMemoryFormat.BINARY},
+                {InMemoryFormat.OBJECT},
+        });
+    }
+
+    private MergeLifecycleListener mergeLifecycleListener;
+
+    @Override
+    protected int[] brains() {
+        return BRAINS;
+    }
+
+    @Override
+    protected Config config() {
+        MapConfig mapConfig = new MapConfig(MAP_NAME)
+                .setInMemoryFormat(inMemoryFormat)
+                .setMergePolicyConfig(new MergePolicyConfig(PassThroughMergePolicy.class.getName(), 10));
+        mapConfig.getMerkleTreeConfig().setEnabled(true).setDepth(5);
+        return super.config().addMapConfig(mapConfig);
+    }
+
+    @Override
+    protected void onBeforeSplitBrainCreated(HazelcastInstance[] instances) {
+        waitAllForSafeState(instances);
+
+        IMap<Integer, String> map = instances[0].getMap(MAP_NAME);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, "value-" + i);
+        }
+    }
+
+    @Override
+    protected void onAfterSplitBrainCreated(HazelcastInstance[] firstBrain, HazelcastInstance[] secondBrain) {
+        mergeLifecycleListener = new MergeLifecycleListener(secondBrain.length);
+        for (HazelcastInstance instance : secondBrain) {
+            instance.getLifecycleService().addLifecycleListener(mergeLifecycleListener);
+        }
+
+        IMap<Integer, String> mergingMap = secondBrain[0].getMap(MAP_NAME);
+        for (int i = 0; i < 10; i++) {
+            mergingMap.put(i, "merged-" + i);
+            mergingMap.put(ENTRY_COUNT + i, "merged-" + (ENTRY_COUNT + i));
+        }
+    }
+
+    @Override
+    protected void onAfterSplitBrainHealed(HazelcastInstance[] instances) {
+        mergeLifecycleListener.await();
+
+        IMap<Integer, String> map = instances[0].getMap(MAP_NAME);
+        assertEquals(ENTRY_COUNT + 10, map.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("merged-" + i, map.get(i));
+            assertEquals("merged-" + (ENTRY_COUNT + i), map.get(ENTRY_COUNT + i));
+        }
+        for (int i = 10; i < ENTRY_COUNT; i++) {
+            assertEquals("value-" + i, map.get(i));
+        }
+    }
+}
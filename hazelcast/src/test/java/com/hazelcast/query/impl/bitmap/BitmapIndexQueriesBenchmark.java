@@ -42,6 +42,7 @@ import java.util.Random;
 import static com.hazelcast.config.BitmapIndexOptions.UniqueKeyTransformation.RAW;
 import static com.hazelcast.query.Predicates.and;
 import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.in;
 import static com.hazelcast.query.Predicates.not;
 import static com.hazelcast.query.Predicates.or;
 
@@ -132,6 +133,40 @@ public class BitmapIndexQueriesBenchmark {
         personsHash.entrySet(not(equal("habits[any]", random.nextInt(DOMAIN))));
     }
 
+    @Benchmark
+    public void bitmapQueriesIn() {
+        personsBitmap.entrySet(in("habits[any]", random.nextInt(DOMAIN), random.nextInt(DOMAIN), random.nextInt(DOMAIN)));
+    }
+
+    @Benchmark
+    public void hashQueriesIn() {
+        personsHash.entrySet(in("habits[any]", random.nextInt(DOMAIN), random.nextInt(DOMAIN), random.nextInt(DOMAIN)));
+    }
+
+    @Benchmark
+    public void bitmapQueriesAndNot() {
+        personsBitmap.entrySet(
+                and(equal("habits[any]", random.nextInt(DOMAIN)), not(equal("habits[any]", random.nextInt(DOMAIN)))));
+    }
+
+    @Benchmark
+    public void hashQueriesAndNot() {
+        personsHash.entrySet(
+                and(equal("habits[any]", random.nextInt(DOMAIN)), not(equal("habits[any]", random.nextInt(DOMAIN)))));
+    }
+
+    @Benchmark
+    public void bitmapQueriesOrAnd() {
+        personsBitmap.entrySet(or(and(equal("habits[any]", random.nextInt(DOMAIN)), equal("habits[any]", random.nextInt(DOMAIN))),
+                and(equal("habits[any]", random.nextInt(DOMAIN)), equal("habits[any]", random.nextInt(DOMAIN)))));
+    }
+
+    @Benchmark
+    public void hashQueriesOrAnd() {
+        personsHash.entrySet(or(and(equal("habits[any]", random.nextInt(DOMAIN)), equal("habits[any]", random.nextInt(DOMAIN))),
+                and(equal("habits[any]", random.nextInt(DOMAIN)), equal("habits[any]", random.nextInt(DOMAIN)))));
+    }
+
     public static void main(String[] args) throws RunnerException {
         // @formatter:off
         Options opt = new OptionsBuilder()
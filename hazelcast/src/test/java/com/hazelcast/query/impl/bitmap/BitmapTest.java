@@ -52,7 +52,7 @@ public class BitmapTest {
     private static final Predicate[] actualQueries;
 
     static {
-        actualQueries = new Predicate[10];
+        actualQueries = new Predicate[12];
         actualQueries[0] = notEqual("a", "0");
         actualQueries[1] = equal("a", 1L);
         actualQueries[2] = equal("a", 2);
@@ -69,12 +69,18 @@ public class BitmapTest {
         // single-predicate and/or
         actualQueries[8] = or(equal("a", 1.0D));
         actualQueries[9] = and(equal("a", 1.0F));
+
+        // difference of the bit sets
+        actualQueries[10] = and(in("a", 1, 2), not(and(equal("a", 3), equal("a", 4))), notEqual("a", 5));
+
+        // complement of the union
+        actualQueries[11] = and(not(equal("a", 1)), notEqual("a", 2));
     }
 
     private final ExpectedQuery[] expectedQueries;
 
     {
-        expectedQueries = new ExpectedQuery[10];
+        expectedQueries = new ExpectedQuery[12];
         expectedQueries[0] = new ExpectedQuery(value -> !bit(0, value));
         expectedQueries[1] = new ExpectedQuery(value -> bit(1, value));
         expectedQueries[2] = new ExpectedQuery(value -> bit(2, value));
@@ -87,6 +93,9 @@ public class BitmapTest {
                 value -> !(!bit(0, value) && (bit(1, value) || bit(2, value)) && !(bit(3, value) || bit(4, value))));
         expectedQueries[8] = new ExpectedQuery(value -> bit(1, value));
         expectedQueries[9] = new ExpectedQuery(value -> bit(1, value));
+        expectedQueries[10] = new ExpectedQuery(
+                value -> (bit(1, value) || bit(2, value)) && !(bit(3, value) && bit(4, value)) && !bit(5, value));
+        expectedQueries[11] = new ExpectedQuery(value -> !bit(1, value) && !bit(2, value));
     }
 
     private final Bitmap<String> bitmap = new Bitmap<>();
@@ -24,6 +24,7 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import java.util.NavigableSet;
+import java.util.Random;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -395,6 +396,79 @@ public class SparseBitSetTest {
         }
     }
 
+    @Test
+    public void testSetOperations() {
+        double[] densities = {0.0, 0.001, 0.01, 0.1, 0.5, 0.95, 1.0};
+        Random random = new Random(42);
+        for (double leftDensity : densities) {
+            for (double rightDensity : densities) {
+                NavigableSet<Long> leftExpected = new TreeSet<>();
+                SparseBitSet left = new SparseBitSet();
+                populate(leftExpected, left, random, 0, 200000, leftDensity);
+                populate(leftExpected, left, random, 1L << 32, (1L << 32) + 1000, leftDensity);
+
+                NavigableSet<Long> rightExpected = new TreeSet<>();
+                SparseBitSet right = new SparseBitSet();
+                populate(rightExpected, right, random, 50000, 300000, rightDensity);
+                populate(rightExpected, right, random, 2L << 32, (2L << 32) + 1000, rightDensity);
+
+                verifySetOperations(leftExpected, left, rightExpected, right);
+                verifySetOperations(rightExpected, right, leftExpected, left);
+            }
+        }
+    }
+
+    @Test
+    public void testSetOperationsWithStorage16Downgrade() {
+        NavigableSet<Long> leftExpected = new TreeSet<>();
+        SparseBitSet left = new SparseBitSet();
+        NavigableSet<Long> rightExpected = new TreeSet<>();
+        SparseBitSet right = new SparseBitSet();
+        for (long i = 0; i < 1 << Short.SIZE; ++i) {
+            if (i % 2 == 0) {
+                leftExpected.add(i);
+                left.add(i);
+            }
+            if (i % 8 < 5) {
+                rightExpected.add(i);
+                right.add(i);
+            }
+        }
+
+        // both operands are bit set storages, but the intersection has less
+        // members than a bit set storage may have
+        verifySetOperations(leftExpected, left, rightExpected, right);
+    }
+
+    private static void populate(NavigableSet<Long> expected, SparseBitSet actual, Random random, long from, long to,
+                                 double density) {
+        for (long i = from; i < to; ++i) {
+            if (random.nextDouble() < density) {
+                expected.add(i);
+                actual.add(i);
+            }
+        }
+    }
+
+    private void verifySetOperations(NavigableSet<Long> leftExpected, SparseBitSet left, NavigableSet<Long> rightExpected,
+                                     SparseBitSet right) {
+        NavigableSet<Long> and = new TreeSet<>(leftExpected);
+        and.retainAll(rightExpected);
+        verify(SparseBitSet.and(left, right).iterator(), and);
+
+        NavigableSet<Long> or = new TreeSet<>(leftExpected);
+        or.addAll(rightExpected);
+        verify(SparseBitSet.or(left, right).iterator(), or);
+
+        NavigableSet<Long> andNot = new TreeSet<>(leftExpected);
+        andNot.removeAll(rightExpected);
+        verify(SparseBitSet.andNot(left, right).iterator(), andNot);
+
+        // the operands must stay intact
+        verify(left.iterator(), leftExpected);
+        verify(right.iterator(), rightExpected);
+    }
+
     private void verify() {
         AscendingLongIterator iterator = actual.iterator();
         verify(iterator, expected);
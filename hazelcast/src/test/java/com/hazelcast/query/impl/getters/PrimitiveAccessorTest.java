@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PrimitiveAccessorTest {
+
+    private final Sample sample = new Sample();
+
+    @Test
+    public void forField_whenLong() throws Exception {
+        PrimitiveAccessor accessor = PrimitiveAccessor.forField(Sample.class.getField("longValue"));
+
+        assertEquals(long.class, accessor.getType());
+        assertTrue(accessor.isLongReadable());
+        assertFalse(accessor.isDoubleReadable());
+        assertEquals(Long.MAX_VALUE, accessor.getLong(sample));
+    }
+
+    @Test
+    public void forField_whenInt() throws Exception {
+        PrimitiveAccessor accessor = PrimitiveAccessor.forField(Sample.class.getField("intValue"));
+
+        assertTrue(accessor.isLongReadable());
+        assertTrue(accessor.isDoubleReadable());
+        assertEquals(-5, accessor.getLong(sample));
+        assertEquals(-5, accessor.getDouble(sample), 0);
+    }
+
+    @Test
+    public void forField_whenDouble() throws Exception {
+        PrimitiveAccessor accessor = PrimitiveAccessor.forField(Sample.class.getField("doubleValue"));
+
+        assertFalse(accessor.isLongReadable());
+        assertTrue(accessor.isDoubleReadable());
+        assertEquals(2.5, accessor.getDouble(sample), 0);
+    }
+
+    @Test
+    public void forField_whenNotPrimitive() throws Exception {
+        assertNull(PrimitiveAccessor.forField(Sample.class.getField("boxedValue")));
+        assertNull(PrimitiveAccessor.forField(Sample.class.getField("charValue")));
+    }
+
+    @Test
+    public void forMethod_whenShort() throws Exception {
+        PrimitiveAccessor accessor = PrimitiveAccessor.forMethod(Sample.class.getMethod("getShortValue"));
+
+        assertEquals(short.class, accessor.getType());
+        assertEquals(7, accessor.getLong(sample));
+        assertEquals(7, accessor.getDouble(sample), 0);
+    }
+
+    @Test
+    public void forMethod_whenFloat() throws Exception {
+        PrimitiveAccessor accessor = PrimitiveAccessor.forMethod(Sample.class.getMethod("getFloatValue"));
+
+        assertFalse(accessor.isLongReadable());
+        assertEquals(0.5, accessor.getDouble(sample), 0);
+    }
+
+    @Test
+    public void forMethod_whenNotPrimitive() throws Exception {
+        assertNull(PrimitiveAccessor.forMethod(Sample.class.getMethod("toString")));
+    }
+
+    public static class Sample {
+        public long longValue = Long.MAX_VALUE;
+        public int intValue = -5;
+        public double doubleValue = 2.5;
+        public Long boxedValue = 1L;
+        public char charValue = 'a';
+
+        public short getShortValue() {
+            return 7;
+        }
+
+        public float getFloatValue() {
+            return 0.5f;
+        }
+    }
+}
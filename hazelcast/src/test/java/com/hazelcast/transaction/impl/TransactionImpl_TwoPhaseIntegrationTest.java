@@ -171,6 +171,27 @@ public class TransactionImpl_TwoPhaseIntegrationTest extends HazelcastTestSuppor
         record.assertPrepareCalled().assertCommitNotCalled().assertRollbackNotCalled();
     }
 
+    @Test
+    public void testPrepareFailed_whenMultipleItems() {
+        TransactionOptions options = new TransactionOptions().setTransactionType(TWO_PHASE).setDurability(1);
+        TransactionImpl tx = new TransactionImpl(localTxService, localNodeEngine, options, txOwner);
+        tx.begin();
+        MockTransactionLogRecord record1 = new MockTransactionLogRecord();
+        tx.add(record1);
+        MockTransactionLogRecord record2 = new MockTransactionLogRecord().failPrepare();
+        tx.add(record2);
+
+        try {
+            tx.prepare();
+            fail();
+        } catch (TransactionException expected) {
+        }
+
+        assertPreparing(tx);
+        record1.assertPrepareCalled().assertCommitNotCalled().assertRollbackNotCalled();
+        record2.assertPrepareCalled().assertCommitNotCalled().assertRollbackNotCalled();
+    }
+
     // =================== commit ===========================================
 
     @Test
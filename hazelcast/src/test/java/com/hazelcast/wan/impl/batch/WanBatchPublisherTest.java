@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.wan.impl.batch;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.WanBatchPublisherConfig;
+import com.hazelcast.config.WanQueueFullBehavior;
+import com.hazelcast.config.WanReplicationConfig;
+import com.hazelcast.config.WanReplicationRef;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.monitor.LocalWanPublisherStats;
+import com.hazelcast.internal.monitor.LocalWanStats;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.merge.PassThroughMergePolicy;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.wan.WanQueueFullException;
+import com.hazelcast.wan.WanPublisherState;
+import com.hazelcast.wan.impl.WanReplicationService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+
+import static com.hazelcast.test.Accessors.getAddress;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class WanBatchPublisherTest extends HazelcastTestSupport {
+
+    private static final String WAN_REPLICATION_NAME = "wanReplication";
+    private static final String TARGET_CLUSTER_NAME = "target";
+    private static final String MAP_NAME = "map";
+
+    private TestHazelcastInstanceFactory factory;
+    private HazelcastInstance target;
+
+    @Before
+    public void setUp() {
+        factory = createHazelcastInstanceFactory(3);
+        target = factory.newHazelcastInstance(smallInstanceConfig().setClusterName(TARGET_CLUSTER_NAME));
+    }
+
+    @After
+    public void tearDown() {
+        factory.terminateAll();
+    }
+
+    @Test
+    public void testPutsAndRemovesAreReplicated() {
+        HazelcastInstance[] sources = factory.newInstances(sourceConfig(WanPublisherState.REPLICATING), 2);
+        IMap<Integer, Integer> sourceMap = sources[0].getMap(MAP_NAME);
+        IMap<Integer, Integer> targetMap = target.getMap(MAP_NAME);
+
+        for (int i = 0; i < 1000; i++) {
+            sourceMap.put(i, i);
+        }
+        assertTrueEventually(() -> assertEquals(1000, targetMap.size()));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) targetMap.get(i));
+        }
+
+        for (int i = 0; i < 500; i++) {
+            sourceMap.remove(i);
+        }
+        assertTrueEventually(() -> assertEquals(500, targetMap.size()));
+        assertNull(targetMap.get(0));
+        assertEquals(999, (int) targetMap.get(999));
+
+        assertTrueEventually(() -> assertEquals(1500, totalPublishedEventCount(sources)));
+        assertEquals(0, getStats(sources[0]).getOutboundQueueSize());
+    }
+
+    @Test
+    public void testPausedPublisherQueuesEvents() {
+        HazelcastInstance source = factory.newHazelcastInstance(sourceConfig(WanPublisherState.PAUSED));
+        IMap<Integer, Integer> sourceMap = source.getMap(MAP_NAME);
+        IMap<Integer, Integer> targetMap = target.getMap(MAP_NAME);
+
+        for (int i = 0; i < 100; i++) {
+            sourceMap.put(i, i);
+        }
+        // the WAN events are published after the put responses are sent
+        assertTrueEventually(() -> assertEquals(100, getStats(source).getOutboundQueueSize()));
+        assertTrueAllTheTime(() -> assertEquals(0, targetMap.size()), 1);
+
+        getWanReplicationService(source).resume(WAN_REPLICATION_NAME, TARGET_CLUSTER_NAME);
+        assertTrueEventually(() -> assertEquals(100, targetMap.size()));
+        assertTrueEventually(() -> assertEquals(0, getStats(source).getOutboundQueueSize()));
+    }
+
+    @Test
+    public void testStoppedPublisherDropsEvents() {
+        HazelcastInstance source = factory.newHazelcastInstance(sourceConfig(WanPublisherState.STOPPED));
+        IMap<Integer, Integer> sourceMap = source.getMap(MAP_NAME);
+
+        for (int i = 0; i < 100; i++) {
+            sourceMap.put(i, i);
+        }
+        // runs on the partition thread of the last put, after its WAN event is published
+        sourceMap.containsKey(99);
+        assertEquals(0, getStats(source).getOutboundQueueSize());
+
+        getWanReplicationService(source).resume(WAN_REPLICATION_NAME, TARGET_CLUSTER_NAME);
+        sourceMap.put(100, 100);
+        IMap<Integer, Integer> targetMap = target.getMap(MAP_NAME);
+        assertTrueEventually(() -> assertEquals(Integer.valueOf(100), targetMap.get(100)));
+        assertEquals(1, targetMap.size());
+    }
+
+    @Test(expected = WanQueueFullException.class)
+    public void testFullQueueThrows() {
+        Config config = sourceConfig(WanPublisherState.PAUSED);
+        config.getWanReplicationConfig(WAN_REPLICATION_NAME).getBatchPublisherConfigs().get(0)
+              .setQueueCapacity(10)
+              .setQueueFullBehavior(WanQueueFullBehavior.THROW_EXCEPTION);
+        HazelcastInstance source = factory.newHazelcastInstance(config);
+        IMap<Integer, Integer> sourceMap = source.getMap(MAP_NAME);
+
+        for (int i = 0; i < 10; i++) {
+            sourceMap.put(i, i);
+        }
+        // the WAN events are published after the put responses are sent
+        assertTrueEventually(() -> assertEquals(10, getStats(source).getOutboundQueueSize()));
+
+        sourceMap.put(10, 10);
+    }
+
+    @Test
+    public void testRemoveWanEvents() {
+        HazelcastInstance source = factory.newHazelcastInstance(sourceConfig(WanPublisherState.PAUSED));
+        IMap<Integer, Integer> sourceMap = source.getMap(MAP_NAME);
+        for (int i = 0; i < 100; i++) {
+            sourceMap.put(i, i);
+        }
+        assertTrueEventually(() -> assertEquals(100, getStats(source).getOutboundQueueSize()));
+
+        getWanReplicationService(source).removeWanEvents(WAN_REPLICATION_NAME, TARGET_CLUSTER_NAME);
+
+        assertEquals(0, getStats(source).getOutboundQueueSize());
+    }
+
+    private Config sourceConfig(WanPublisherState initialState) {
+        Address targetAddress = getAddress(target);
+        WanBatchPublisherConfig publisherConfig = new WanBatchPublisherConfig()
+                .setClusterName(TARGET_CLUSTER_NAME)
+                .setTargetEndpoints(targetAddress.getHost() + ":" + targetAddress.getPort())
+                .setBatchSize(100)
+                .setBatchMaxDelayMillis(100)
+                .setInitialPublisherState(initialState);
+        WanReplicationConfig wanReplicationConfig = new WanReplicationConfig()
+                .setName(WAN_REPLICATION_NAME)
+                .addBatchReplicationPublisherConfig(publisherConfig);
+        WanReplicationRef wanReplicationRef = new WanReplicationRef()
+                .setName(WAN_REPLICATION_NAME)
+                .setMergePolicyClassName(PassThroughMergePolicy.class.getName());
+        return smallInstanceConfig()
+                .setClusterName("source")
+                .addWanReplicationConfig(wanReplicationConfig)
+                .addMapConfig(new MapConfig(MAP_NAME).setWanReplicationRef(wanReplicationRef));
+    }
+
+    private static long totalPublishedEventCount(HazelcastInstance[] instances) {
+        long count = 0;
+        for (HazelcastInstance instance : instances) {
+            count += getStats(instance).getTotalPublishedEventCount();
+        }
+        return count;
+    }
+
+    private static LocalWanPublisherStats getStats(HazelcastInstance instance) {
+        Map<String, LocalWanStats> stats = getWanReplicationService(instance).getStats();
+        return stats.get(WAN_REPLICATION_NAME).getLocalWanPublisherStats().get(TARGET_CLUSTER_NAME);
+    }
+
+    private static WanReplicationService getWanReplicationService(HazelcastInstance instance) {
+        return getNodeEngineImpl(instance).getWanReplicationService();
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2008-2021, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.wan.impl.batch;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.WanBatchPublisherConfig;
+import com.hazelcast.config.WanReplicationConfig;
+import com.hazelcast.config.WanReplicationRef;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.merge.PassThroughMergePolicy;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.wan.WanPublisherState;
+import com.hazelcast.wan.impl.WanReplicationService;
+import com.hazelcast.wan.impl.WanSyncStats;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+
+import static com.hazelcast.test.Accessors.getAddress;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getPartitionService;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class WanMerkleTreeSyncTest extends HazelcastTestSupport {
+
+    private static final String WAN_REPLICATION_NAME = "wanReplication";
+    private static final String TARGET_CLUSTER_NAME = "target";
+    private static final String MAP_NAME = "map";
+    private static final String NO_MERKLE_TREE_MAP_NAME = "noMerkleTreeMap";
+    private static final int ENTRY_COUNT = 1000;
+
+    private TestHazelcastInstanceFactory factory;
+    private HazelcastInstance target;
+    private HazelcastInstance source;
+
+    @Before
+    public void setUp() {
+        factory = createHazelcastInstanceFactory(3);
+        target = factory.newHazelcastInstance(smallInstanceConfig().setClusterName(TARGET_CLUSTER_NAME));
+        source = factory.newHazelcastInstance(sourceConfig());
+    }
+
+    @After
+    public void tearDown() {
+        factory.terminateAll();
+    }
+
+    @Test
+    public void testOnlyDifferentEntriesAreSynced() {
+        IMap<Integer, String> sourceMap = source.getMap(MAP_NAME);
+        IMap<Integer, String> targetMap = target.getMap(MAP_NAME);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            sourceMap.put(i, "value-" + i);
+            targetMap.put(i, "value-" + i);
+        }
+        for (int i = 0; i < 10; i++) {
+            targetMap.put(i, "stale-" + i);
+            targetMap.remove(ENTRY_COUNT - 1 - i);
+        }
+
+        getWanReplicationService(source).syncMap(WAN_REPLICATION_NAME, TARGET_CLUSTER_NAME, MAP_NAME);
+
+        MerkleTreeSyncStats syncStats = awaitSyncCompletion();
+        assertEquals(ENTRY_COUNT, targetMap.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals("value-" + i, targetMap.get(i));
+        }
+        assertTrue(syncStats.getRecordsSynced() >= 20);
+        assertTrue(syncStats.getRecordsSynced() < ENTRY_COUNT);
+        assertTrue(syncStats.getBytesTransferred() > 0);
+        assertTrue(syncStats.getBytesTransferred() < syncStats.getFullSyncBytes());
+    }
+
+    @Test
+    public void testIdenticalMapsSyncNoEntries() {
+        IMap<Integer, String> sourceMap = source.getMap(MAP_NAME);
+        IMap<Integer, String> targetMap = target.getMap(MAP_NAME);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            sourceMap.put(i, "value-" + i);
+            targetMap.put(i, "value-" + i);
+        }
+
+        getWanReplicationService(source).syncMap(WAN_REPLICATION_NAME, TARGET_CLUSTER_NAME, MAP_NAME);
+
+        MerkleTreeSyncStats syncStats = awaitSyncCompletion();
+        assertEquals(0, syncStats.getRecordsSynced());
+        assertEquals(0, syncStats.getNodesSynced());
+        assertEquals(source.getPartitionService().getPartitions().size(), syncStats.getPartitionsSynced());
+    }
+
+    @Test
+    public void testEachMemberSyncsOwnedPartitions() {
+        HazelcastInstance otherSource = factory.newHazelcastInstance(sourceConfig());
+        waitAllForSafeState(source, otherSource);
+        IMap<Integer, String> sourceMap = source.getMap(MAP_NAME);
+        IMap<Integer, String> targetMap = target.getMap(MAP_NAME);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            sourceMap.put(i, "value-" + i);
+        }
+
+        getWanReplicationService(source).syncMap(WAN_REPLICATION_NAME, TARGET_CLUSTER_NAME, MAP_NAME);
+
+        MerkleTreeSyncStats syncStats = awaitSyncCompletion(source);
+        MerkleTreeSyncStats otherSyncStats = awaitSyncCompletion(otherSource);
+        assertEquals(syncStats.getUuid(), otherSyncStats.getUuid());
+        assertEquals(getPartitionService(source).getMemberPartitions(getAddress(source)).size(),
+                syncStats.getPartitionsSynced());
+        assertEquals(getPartitionService(otherSource).getMemberPartitions(getAddress(otherSource)).size(),
+                otherSyncStats.getPartitionsSynced());
+        assertEquals(ENTRY_COUNT, syncStats.getRecordsSynced() + otherSyncStats.getRecordsSynced());
+        assertEquals(ENTRY_COUNT, targetMap.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSyncFails_whenMerkleTreesDisabled() {
+        getWanReplicationService(source).syncMap(WAN_REPLICATION_NAME, TARGET_CLUSTER_NAME, NO_MERKLE_TREE_MAP_NAME);
+    }
+
+    @Test
+    public void testSyncAllMapsSkipsMapsWithoutMerkleTrees() {
+        source.getMap(NO_MERKLE_TREE_MAP_NAME).put(1, "value");
+        source.getMap(MAP_NAME).put(1, "value");
+
+        getWanReplicationService(source).syncAllMaps(WAN_REPLICATION_NAME, TARGET_CLUSTER_NAME);
+
+        awaitSyncCompletion(source);
+        assertNull(getLastSyncStats(source).get(NO_MERKLE_TREE_MAP_NAME));
+    }
+
+    private MerkleTreeSyncStats awaitSyncCompletion() {
+        return awaitSyncCompletion(source);
+    }
+
+    private static MerkleTreeSyncStats awaitSyncCompletion(HazelcastInstance instance) {
+        assertTrueEventually(() -> {
+            WanSyncStats syncStats = getLastSyncStats(instance).get(MAP_NAME);
+            assertNotNull(syncStats);
+            assertTrue(((MerkleTreeSyncStats) syncStats).isCompleted());
+        });
+        return (MerkleTreeSyncStats) getLastSyncStats(instance).get(MAP_NAME);
+    }
+
+    private static Map<String, WanSyncStats> getLastSyncStats(HazelcastInstance instance) {
+        return getWanReplicationService(instance).getStats().get(WAN_REPLICATION_NAME)
+                .getLocalWanPublisherStats().get(TARGET_CLUSTER_NAME)
+                .getLastSyncStats();
+    }
+
+    private Config sourceConfig() {
+        Address targetAddress = getAddress(target);
+        WanBatchPublisherConfig publisherConfig = new WanBatchPublisherConfig()
+                .setClusterName(TARGET_CLUSTER_NAME)
+                .setTargetEndpoints(targetAddress.getHost() + ":" + targetAddress.getPort())
+                .setBatchSize(100)
+                .setInitialPublisherState(WanPublisherState.PAUSED);
+        WanReplicationConfig wanReplicationConfig = new WanReplicationConfig()
+                .setName(WAN_REPLICATION_NAME)
+                .addBatchReplicationPublisherConfig(publisherConfig);
+        WanReplicationRef wanReplicationRef = new WanReplicationRef()
+                .setName(WAN_REPLICATION_NAME)
+                .setMergePolicyClassName(PassThroughMergePolicy.class.getName());
+        MapConfig mapConfig = new MapConfig(MAP_NAME).setWanReplicationRef(wanReplicationRef);
+        mapConfig.getMerkleTreeConfig().setEnabled(true).setDepth(6);
+        MapConfig noMerkleTreeMapConfig = new MapConfig(NO_MERKLE_TREE_MAP_NAME).setWanReplicationRef(wanReplicationRef);
+        return smallInstanceConfig()
+                .setClusterName("source")
+                .addWanReplicationConfig(wanReplicationConfig)
+                .addMapConfig(mapConfig)
+                .addMapConfig(noMerkleTreeMapConfig);
+    }
+
+    private static WanReplicationService getWanReplicationService(HazelcastInstance instance) {
+        return getNodeEngineImpl(instance).getWanReplicationService();
+    }
+}
@@ -30,9 +30,13 @@ import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -431,6 +435,75 @@ public class MerkleTreeUtilTest {
         assertTrue(deltaOrders.containsAll(asList(5, 6)));
     }
 
+    @Test
+    public void testCompareTreesLevelByLevel_identicalTrees() {
+        MerkleTree localTree = new ArrayMerkleTree(4);
+        MerkleTree remoteTree = new ArrayMerkleTree(4);
+        for (int i = 0; i < 10; i++) {
+            localTree.updateAdd(i, i);
+            remoteTree.updateAdd(i, i);
+        }
+        AtomicInteger remoteRounds = new AtomicInteger();
+
+        int[] deltaOrders = MerkleTreeUtil.compareTreesLevelByLevel(4,
+                nodeOrders -> MerkleTreeUtil.getNodeHashes(localTree, nodeOrders),
+                nodeOrders -> {
+                    remoteRounds.incrementAndGet();
+                    return MerkleTreeUtil.getNodeHashes(remoteTree, nodeOrders);
+                });
+
+        assertEquals(0, deltaOrders.length);
+        assertEquals(1, remoteRounds.get());
+    }
+
+    @Test
+    public void testCompareTreesLevelByLevel_differentTrees() {
+        MerkleTree localTree = new ArrayMerkleTree(4);
+        MerkleTree remoteTree = new ArrayMerkleTree(4);
+        localTree.updateAdd(0x80000000, 1); // leaf 7
+        localTree.updateAdd(0xA0000000, 2); // leaf 8
+        localTree.updateAdd(0x60000000, 8); // leaf 14
+        remoteTree.updateAdd(0x80000000, 1); // leaf 7
+        remoteTree.updateAdd(0xA0000000, 3); // leaf 8
+        remoteTree.updateAdd(0x40000000, 17); // leaf 13
+        List<int[]> requestedOrders = new ArrayList<>();
+
+        int[] deltaOrders = MerkleTreeUtil.compareTreesLevelByLevel(4,
+                nodeOrders -> MerkleTreeUtil.getNodeHashes(localTree, nodeOrders),
+                nodeOrders -> {
+                    requestedOrders.add(nodeOrders);
+                    return MerkleTreeUtil.getNodeHashes(remoteTree, nodeOrders);
+                });
+
+        assertArrayEquals(new int[]{8, 13, 14}, deltaOrders);
+        assertEquals(4, requestedOrders.size());
+        assertArrayEquals(new int[]{0}, requestedOrders.get(0));
+        assertArrayEquals(new int[]{1, 2}, requestedOrders.get(1));
+        assertArrayEquals(new int[]{3, 4, 5, 6}, requestedOrders.get(2));
+        // only the children of the different nodes 3 and 6 are compared
+        assertArrayEquals(new int[]{7, 8, 13, 14}, requestedOrders.get(3));
+    }
+
+    @Test
+    public void testCompareTreesLevelByLevel_findsSameLeavesAsCompareTrees() {
+        MerkleTree localTree = new ArrayMerkleTree(6);
+        MerkleTree remoteTree = new ArrayMerkleTree(6);
+        for (int i = 0; i < 1000; i++) {
+            localTree.updateAdd(i * 7919, i);
+            remoteTree.updateAdd(i * 7919, i % 50 == 0 ? -i : i);
+        }
+
+        int[] deltaOrders = MerkleTreeUtil.compareTreesLevelByLevel(6,
+                nodeOrders -> MerkleTreeUtil.getNodeHashes(localTree, nodeOrders),
+                nodeOrders -> MerkleTreeUtil.getNodeHashes(remoteTree, nodeOrders));
+
+        Collection<Integer> expectedOrders = MerkleTreeUtil.compareTrees(localTree, remoteTree);
+        assertEquals(expectedOrders.size(), deltaOrders.length);
+        for (int deltaOrder : deltaOrders) {
+            assertTrue(expectedOrders.contains(deltaOrder));
+        }
+    }
+
     @Test
     public void testSerialization() throws IOException {
         MerkleTree merkleTree = new ArrayMerkleTree(4);